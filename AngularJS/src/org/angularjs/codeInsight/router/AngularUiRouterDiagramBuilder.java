@@ -9,7 +9,10 @@ import com.intellij.lang.javascript.psi.impl.JSOffsetBasedImplicitElement;
 import com.intellij.lang.javascript.psi.stubs.JSImplicitElement;
 import com.intellij.lang.javascript.psi.stubs.impl.JSImplicitElementImpl;
 import com.intellij.lang.javascript.psi.util.JSStubBasedPsiTreeUtil;
+import com.intellij.concurrency.JobLauncher;
 import com.intellij.openapi.fileTypes.LanguageFileType;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Comparing;
 import com.intellij.openapi.util.text.StringUtil;
@@ -18,6 +21,7 @@ import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
 import com.intellij.psi.impl.include.FileIncludeManager;
 import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StubIndex;
 import com.intellij.psi.tree.TokenSet;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.CommonProcessors;
@@ -29,6 +33,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class AngularUiRouterDiagramBuilder {
   private final List<UiRouterState> myStates;
@@ -44,7 +49,8 @@ public class AngularUiRouterDiagramBuilder {
   public AngularUiRouterDiagramBuilder(final @NotNull Project project) {
     myProject = project;
     myStates = new ArrayList<>();
-    myTemplatesMap = new HashMap<>();
+    // filled lazily by the graph builders when the templates are shown
+    myTemplatesMap = new ConcurrentHashMap<>();
     myRootTemplates = new HashMap<>();
     mySmartPointerManager = SmartPointerManager.getInstance(myProject);
     myModuleRecursiveDependencies = new HashMap<>();
@@ -57,17 +63,64 @@ public class AngularUiRouterDiagramBuilder {
     groupStates();
   }
 
+  /**
+   * States are collected per file in parallel and cached between the builds, only the files changed since the last build are processed.
+   */
   private void addStatesFromIndex() {
-    final Collection<String> stateIds = AngularIndexUtil.getAllKeys(AngularUiRouterStatesIndex.KEY, myProject);
-    for (String id : stateIds) {
+    final Map<VirtualFile, List<String>> files2Ids = new LinkedHashMap<>();
+    final GlobalSearchScope scope = GlobalSearchScope.allScope(myProject);
+    for (String id : AngularIndexUtil.getAllKeys(AngularUiRouterStatesIndex.KEY, myProject)) {
       if (id.startsWith(".")) continue;
+      final Iterator<VirtualFile> files =
+        StubIndex.getInstance().getContainingFilesIterator(AngularUiRouterStatesIndex.KEY, id, myProject, scope);
+      while (files.hasNext()) {
+        files2Ids.computeIfAbsent(files.next(), k -> new ArrayList<>()).add(id);
+      }
+    }
+
+    final AngularUiRouterStatesCache cache = AngularUiRouterStatesCache.getInstance(myProject);
+    final PsiManager psiManager = PsiManager.getInstance(myProject);
+    final Map<VirtualFile, AngularUiRouterStatesCache.FileStates> fileStates = new ConcurrentHashMap<>();
+    final boolean completed = JobLauncher.getInstance().invokeConcurrentlyUnderProgress(
+      new ArrayList<>(files2Ids.entrySet()), ProgressManager.getGlobalProgressIndicator(), entry -> {
+        final PsiFile psiFile = psiManager.findFile(entry.getKey());
+        if (psiFile == null) return true;
+        AngularUiRouterStatesCache.FileStates states = cache.get(entry.getKey(), psiFile.getModificationStamp(), entry.getValue());
+        if (states == null) {
+          states = collectFileStates(psiFile, entry.getValue());
+          cache.put(entry.getKey(), states);
+        }
+        fileStates.put(entry.getKey(), states);
+        return true;
+      });
+    if (!completed) throw new ProcessCanceledException();
+    cache.retain(files2Ids.keySet());
+
+    for (VirtualFile file : files2Ids.keySet()) {
+      final AngularUiRouterStatesCache.FileStates states = fileStates.get(file);
+      if (states == null) continue;
+      if (states.embedded()) {
+        final PsiFile psiFile = psiManager.findFile(file);
+        if (psiFile != null) createRootTemplatesForEmbedded(psiFile);
+      }
+      for (UiRouterState state : states.states()) {
+        myStates.add(state.copy());
+      }
+    }
+  }
+
+  private @NotNull AngularUiRouterStatesCache.FileStates collectFileStates(@NotNull PsiFile file, @NotNull List<String> ids) {
+    final List<UiRouterState> states = new ArrayList<>();
+    boolean embedded = false;
+    final GlobalSearchScope scope = GlobalSearchScope.fileScope(file);
+    for (String id : ids) {
       final CommonProcessors.CollectProcessor<JSImplicitElement> processor = new CommonProcessors.CollectProcessor<>();
-      AngularIndexUtil.multiResolve(myProject, AngularUiRouterStatesIndex.KEY, id, processor);
+      AngularIndexUtil.multiResolve(myProject, scope, AngularUiRouterStatesIndex.KEY, id, processor);
       for (JSImplicitElement element : processor.getResults()) {
         final UiRouterState state = new UiRouterState(id, element.getContainingFile().getVirtualFile());
         if (!element.getContainingFile().getLanguage().isKindOf(JavascriptLanguage.INSTANCE)
             && PsiTreeUtil.getParentOfType(element, JSEmbeddedContent.class) != null) {
-          createRootTemplatesForEmbedded(element.getContainingFile());
+          embedded = true;
         }
 
         final JSCallExpression call = findWrappingCallExpression(element);
@@ -94,9 +147,10 @@ public class AngularUiRouterDiagramBuilder {
             }
           }
         }
-        myStates.add(state);
+        states.add(state);
       }
     }
+    return new AngularUiRouterStatesCache.FileStates(file.getModificationStamp(), List.copyOf(ids), states, embedded);
   }
 
   private void addGenericStates() {
@@ -125,10 +179,10 @@ public class AngularUiRouterDiagramBuilder {
     final Set<UiRouterState> statesUsedInRoots = new HashSet<>();
     for (Map.Entry<VirtualFile, RootTemplate> entry : myRootTemplates.entrySet()) {
       final Set<VirtualFile> modulesFiles = entry.getValue().getModulesFiles();
+      final PsiElement element = entry.getValue().getPointer().getElement();
+      final VirtualFile rootFile = element != null ? element.getContainingFile().getVirtualFile() : null;
       for (UiRouterState state : myStates) {
-        final PsiElement element = entry.getValue().getPointer().getElement();
-        if (modulesFiles.contains(state.getFile()) ||
-            element != null && element.getContainingFile().getVirtualFile().equals(state.getFile())) {
+        if (modulesFiles.contains(state.getFile()) || rootFile != null && rootFile.equals(state.getFile())) {
           putState2map(entry.getKey(), state, myRootTemplates2States);
           statesUsedInRoots.add(state);
         }
@@ -343,11 +397,10 @@ public class AngularUiRouterDiagramBuilder {
       state.setParentName(parentKey);
     }
     final String templateUrl = getPropertyValueIfExists(object, "templateUrl");
-    VirtualFile templateFile = null;
     if (templateUrl != null) {
       state.setTemplateUrl(templateUrl);
       final JSProperty urlProperty = object.findProperty("templateUrl");
-      state.setTemplateFile(parseTemplate(templateUrl, urlProperty));
+      if (urlProperty != null) state.setTemplateUrlPointer(mySmartPointerManager.createSmartPsiElementPointer(urlProperty));
     }
     final JSProperty template = object.findProperty("template");
     if (templateUrl == null && object.findProperty("templateUrl") != null ||
@@ -393,20 +446,14 @@ public class AngularUiRouterDiagramBuilder {
     return null;
   }
 
-  private @Nullable VirtualFile parseTemplate(final @NotNull String url, @Nullable JSProperty urlProperty) {
-    PsiFile templateFile = null;
-    Template template = null;
+  static @Nullable VirtualFile resolveTemplateFile(@Nullable JSProperty urlProperty) {
     if (urlProperty != null && urlProperty.getValue() != null) {
       int offset = urlProperty.getValue().getTextRange().getEndOffset() - 1;
       final PsiReference reference = urlProperty.getContainingFile().findReferenceAt(offset);
       if (reference != null) {
         final PsiElement templateFileElement = reference.resolve();
         if (templateFileElement != null && templateFileElement.isValid()) {
-          templateFile = templateFileElement.getContainingFile();
-          if (myTemplatesMap.containsKey(templateFile.getVirtualFile())) return templateFile.getVirtualFile();
-          template = readTemplateFromFile(urlProperty.getProject(), url, templateFile);
-          myTemplatesMap.put(templateFile.getVirtualFile(), template);
-          return templateFile.getVirtualFile();
+          return templateFileElement.getContainingFile().getVirtualFile();
         }
       }
     }
@@ -448,15 +495,15 @@ public class AngularUiRouterDiagramBuilder {
     final JSExpression value = property.getValue();
     final JSObjectLiteralExpression expression = ObjectUtils.tryCast(value, JSObjectLiteralExpression.class);
     String templateUrl = null;
-    VirtualFile templateFile = null;
+    SmartPsiElementPointer<JSProperty> templateUrlPointer = null;
     if (expression != null) {
       templateUrl = getPropertyValueIfExists(expression, "templateUrl");
-      if (templateUrl != null) {
-        final JSProperty urlProperty = expression.findProperty("templateUrl");
-        templateFile = parseTemplate(templateUrl, urlProperty);
+      final JSProperty urlProperty = templateUrl != null ? expression.findProperty("templateUrl") : null;
+      if (urlProperty != null) {
+        templateUrlPointer = mySmartPointerManager.createSmartPsiElementPointer(urlProperty);
       }
     }
-    final UiView view = new UiView(name, templateUrl, templateFile,
+    final UiView view = new UiView(name, templateUrl, templateUrlPointer,
                                    property.getNameIdentifier() == null
                                    ? null
                                    : mySmartPointerManager.createSmartPsiElementPointer(property.getNameIdentifier()));
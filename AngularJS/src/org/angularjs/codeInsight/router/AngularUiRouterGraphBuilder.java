@@ -52,6 +52,7 @@ public final class AngularUiRouterGraphBuilder {
     private final @NotNull Map<VirtualFile, Template> myTemplatesMap;
     private final @Nullable RootTemplate myRootTemplate;
     private final VirtualFile myKey;
+    private Project myProject;
 
     private AngularUiRouterNode myRootNode;
     private final Map<String, AngularUiRouterNode> stateNodes = new HashMap<>();
@@ -79,6 +80,7 @@ public final class AngularUiRouterGraphBuilder {
     }
 
     public void build(final @NotNull DiagramProvider<DiagramObject> provider, final @NotNull Project project) {
+      myProject = project;
       final DiagramObject rootDiagramObject;
       if (myRootTemplate != null) {
         myRootNode = getOrCreateTemplateNode(provider, myKey, normalizeTemplateUrl(myRootTemplate.getRelativeUrl()),
@@ -357,13 +359,27 @@ public final class AngularUiRouterGraphBuilder {
       }
     }
 
+    // templates are read only for the diagrams shown
+    private @Nullable Template getOrReadTemplate(@NotNull VirtualFile templateFile, @NotNull String url) {
+      Template template = myTemplatesMap.get(templateFile);
+      if (template == null) {
+        final PsiFile psiFile = templateFile.isValid() ? PsiManager.getInstance(myProject).findFile(templateFile) : null;
+        if (psiFile == null) return null;
+        template = AngularUiRouterDiagramBuilder.readTemplateFromFile(myProject, url, psiFile);
+        myTemplatesMap.put(templateFile, template);
+      }
+      return template;
+    }
+
     private @NotNull AngularUiRouterNode getOrCreateTemplateNode(DiagramProvider<DiagramObject> provider,
                                                                  @Nullable VirtualFile templateFile,
                                                                  @NotNull String templateUrl, @Nullable Template template) {
       final @NlsSafe String fullUrl = templateUrl;
       final int idx = fullUrl.lastIndexOf('/');
       templateUrl = idx >= 0 ? templateUrl.substring(idx + 1) : templateUrl;
-      template = template == null && templateFile != null ? myTemplatesMap.get(templateFile) : template;
+      if (template == null && templateFile != null) {
+        template = getOrReadTemplate(templateFile, fullUrl);
+      }
       if (template == null || template.getPointer() == null || templateFile == null) {
         final AngularUiRouterNode templateNode = templateNodes.get(fullUrl);
         if (templateNode != null) return templateNode;
@@ -0,0 +1,49 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.angularjs.codeInsight.router;
+
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ui-router states collected from each file, kept between diagram builds.
+ * <p>
+ * An entry is valid while the file is not modified and has the same state ids in the index,
+ * so a new diagram collects states only from the files changed since the previous one.
+ * The cached states must not be modified, {@link UiRouterState#copy()} is used to get a state for a diagram.
+ */
+@Service(Service.Level.PROJECT)
+final class AngularUiRouterStatesCache {
+  private final Map<VirtualFile, FileStates> myFileStates = new ConcurrentHashMap<>();
+
+  record FileStates(long modificationStamp, @NotNull List<String> ids, @NotNull List<UiRouterState> states, boolean embedded) {
+  }
+
+  static @NotNull AngularUiRouterStatesCache getInstance(@NotNull Project project) {
+    return project.getService(AngularUiRouterStatesCache.class);
+  }
+
+  @Nullable
+  FileStates get(@NotNull VirtualFile file, long modificationStamp, @NotNull List<String> ids) {
+    final FileStates states = myFileStates.get(file);
+    return states != null && states.modificationStamp() == modificationStamp && states.ids().equals(ids) ? states : null;
+  }
+
+  void put(@NotNull VirtualFile file, @NotNull FileStates states) {
+    myFileStates.put(file, states);
+  }
+
+  /**
+   * Drops the files which do not define states anymore.
+   */
+  void retain(@NotNull Set<VirtualFile> files) {
+    myFileStates.keySet().retainAll(files);
+  }
+}
@@ -1,8 +1,10 @@
 package org.angularjs.codeInsight.router;
 
+import com.intellij.lang.javascript.psi.JSProperty;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.SmartPsiElementPointer;
+import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -21,6 +23,8 @@ public class UiRouterState {
   private final @NotNull VirtualFile myFile;
   private @Nullable List<SmartPsiElementPointer<PsiElement>> myDuplicateDefinitions;
   private VirtualFile myTemplateFile;
+  private @Nullable SmartPsiElementPointer<JSProperty> myTemplateUrlPointer;
+  private boolean myTemplateFileResolved;
   private @Nullable SmartPsiElementPointer<PsiElement> myTemplatePointer;
   private boolean myGeneric;
 
@@ -29,6 +33,24 @@ public class UiRouterState {
     myFile = file;
   }
 
+  /**
+   * @return a copy without duplicate definitions and with the template file not resolved yet, to be used in a new diagram
+   */
+  public @NotNull UiRouterState copy() {
+    final UiRouterState copy = new UiRouterState(myName, myFile);
+    copy.myUrl = myUrl;
+    copy.myTemplateUrl = myTemplateUrl;
+    copy.myHasTemplateDefined = myHasTemplateDefined;
+    copy.myParentName = myParentName;
+    copy.myViews = myViews == null ? null : ContainerUtil.map(myViews, UiView::copy);
+    copy.myPointer = myPointer;
+    copy.myIsAbstract = myIsAbstract;
+    copy.myTemplateUrlPointer = myTemplateUrlPointer;
+    copy.myTemplatePointer = myTemplatePointer;
+    copy.myGeneric = myGeneric;
+    return copy;
+  }
+
   public @NotNull String getName() {
     return myName;
   }
@@ -126,9 +148,21 @@ public class UiRouterState {
 
   public void setTemplateFile(VirtualFile templateFile) {
     myTemplateFile = templateFile;
+    myTemplateFileResolved = true;
+  }
+
+  /**
+   * The template file is resolved on the first request, so templates are resolved only for the states shown in a diagram.
+   */
+  public void setTemplateUrlPointer(@Nullable SmartPsiElementPointer<JSProperty> templateUrlPointer) {
+    myTemplateUrlPointer = templateUrlPointer;
   }
 
   public VirtualFile getTemplateFile() {
+    if (!myTemplateFileResolved) {
+      myTemplateFile = myTemplateUrlPointer == null ? null : AngularUiRouterDiagramBuilder.resolveTemplateFile(myTemplateUrlPointer.getElement());
+      myTemplateFileResolved = true;
+    }
     return myTemplateFile;
   }
 
@@ -1,5 +1,6 @@
 package org.angularjs.codeInsight.router;
 
+import com.intellij.lang.javascript.psi.JSProperty;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.SmartPsiElementPointer;
@@ -9,18 +10,29 @@ import org.jetbrains.annotations.Nullable;
 public class UiView {
   private final @NotNull String myName;
   private final @Nullable String myTemplateUrl;
-  private final @Nullable VirtualFile myTemplateFile;
+  private final @Nullable SmartPsiElementPointer<JSProperty> myTemplateUrlPointer;
+  private @Nullable VirtualFile myTemplateFile;
+  private boolean myTemplateFileResolved;
   private final @Nullable SmartPsiElementPointer<PsiElement> myPointer;
   private @Nullable SmartPsiElementPointer<PsiElement> myTemplatePointer;
 
-  public UiView(@NotNull String name, @Nullable String template, final @Nullable VirtualFile templateFile,
+  /**
+   * @param templateUrlPointer the {@code templateUrl} property, the template file is resolved from it on the first request
+   */
+  public UiView(@NotNull String name, @Nullable String template, final @Nullable SmartPsiElementPointer<JSProperty> templateUrlPointer,
                 @Nullable SmartPsiElementPointer<PsiElement> pointer) {
     myName = name;
     myTemplateUrl = template;
-    myTemplateFile = templateFile;
+    myTemplateUrlPointer = templateUrlPointer;
     myPointer = pointer;
   }
 
+  public @NotNull UiView copy() {
+    final UiView copy = new UiView(myName, myTemplateUrl, myTemplateUrlPointer, myPointer);
+    copy.myTemplatePointer = myTemplatePointer;
+    return copy;
+  }
+
   public @NotNull String getName() {
     return myName;
   }
@@ -34,6 +46,10 @@ public class UiView {
   }
 
   public @Nullable VirtualFile getTemplateFile() {
+    if (!myTemplateFileResolved) {
+      myTemplateFile = myTemplateUrlPointer == null ? null : AngularUiRouterDiagramBuilder.resolveTemplateFile(myTemplateUrlPointer.getElement());
+      myTemplateFileResolved = true;
+    }
     return myTemplateFile;
   }
 
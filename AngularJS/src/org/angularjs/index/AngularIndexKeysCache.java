@@ -0,0 +1,225 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.angularjs.index;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ModuleRootEvent;
+import com.intellij.openapi.roots.ModuleRootListener;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.impl.PsiTreeAnyChangeAbstractAdapter;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.stubs.StubIndexKey;
+import com.intellij.util.containers.SmartHashSet;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.messages.MessageBusConnection;
+import one.util.streamex.StreamEx;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keys of AngularJS indexes which have values in the project.
+ * <p>
+ * An index may keep keys of changed files or of files out of the project, so each key is checked to have a containing file
+ * in the project. The key sets are maintained incrementally: after a change only the keys of the changed files, the keys new
+ * to the index and the keys found stale before are checked again. Whether a file is in the project is checked once per file.
+ */
+@Service(Service.Level.PROJECT)
+final class AngularIndexKeysCache implements Disposable {
+  private static final int MAX_CHANGED_FILES = 1000;
+
+  private final Project myProject;
+  private final Map<ID<String, ?>, IndexKeys> myIndexKeys = new ConcurrentHashMap<>();
+  private final Map<VirtualFile, Boolean> myFilesInScope = new ConcurrentHashMap<>();
+
+  static @NotNull AngularIndexKeysCache getInstance(@NotNull Project project) {
+    return project.getService(AngularIndexKeysCache.class);
+  }
+
+  AngularIndexKeysCache(@NotNull Project project) {
+    myProject = project;
+    MessageBusConnection connection = project.getMessageBus().connect(this);
+    connection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+      @Override
+      public void after(@NotNull List<? extends @NotNull VFileEvent> events) {
+        for (VFileEvent event : events) {
+          fileChanged(event.getFile());
+        }
+      }
+    });
+    connection.subscribe(ModuleRootListener.TOPIC, new ModuleRootListener() {
+      @Override
+      public void rootsChanged(@NotNull ModuleRootEvent event) {
+        reset();
+      }
+    });
+    connection.subscribe(DumbService.DUMB_MODE, new DumbService.DumbModeListener() {
+      @Override
+      public void exitDumbMode() {
+        // files indexed in dumb mode are not reported by other events
+        reset();
+      }
+    });
+    PsiManager.getInstance(project).addPsiTreeChangeListener(new PsiTreeAnyChangeAbstractAdapter() {
+      @Override
+      protected void onChange(@Nullable PsiFile file) {
+        fileChanged(file != null ? file.getViewProvider().getVirtualFile() : null);
+      }
+    }, this);
+  }
+
+  @NotNull
+  List<String> getKeys(@NotNull ID<String, ?> index) {
+    return myIndexKeys.computeIfAbsent(index, IndexKeys::new).getKeys();
+  }
+
+  private void fileChanged(@Nullable VirtualFile file) {
+    if (file == null || file.isDirectory()) {
+      // the files affected are unknown
+      reset();
+      return;
+    }
+    myFilesInScope.remove(file);
+    for (IndexKeys keys : myIndexKeys.values()) {
+      keys.fileChanged(file);
+    }
+  }
+
+  private void reset() {
+    myFilesInScope.clear();
+    for (IndexKeys keys : myIndexKeys.values()) {
+      keys.reset();
+    }
+  }
+
+  private boolean isInScope(@NotNull VirtualFile file) {
+    return myFilesInScope.computeIfAbsent(file, it -> GlobalSearchScope.allScope(myProject).contains(it));
+  }
+
+  @Override
+  public void dispose() {
+  }
+
+  private final class IndexKeys {
+    private final ID<String, ?> myIndex;
+    /** Files in the project of the keys with values, as of the last check of the key */
+    private final Map<String, Set<VirtualFile>> myKeyFiles = new HashMap<>();
+    private final Map<VirtualFile, Set<String>> myFileKeys = new HashMap<>();
+    /** Keys of the index without values in the project */
+    private final Set<String> myStaleKeys = new HashSet<>();
+    private final Set<VirtualFile> myChangedFiles = new HashSet<>();
+    private boolean myResetNeeded = true;
+    private @Nullable List<String> mySortedKeys;
+
+    private IndexKeys(@NotNull ID<String, ?> index) {
+      myIndex = index;
+    }
+
+    synchronized void fileChanged(@NotNull VirtualFile file) {
+      if (myResetNeeded) return;
+      if (myChangedFiles.size() >= MAX_CHANGED_FILES) {
+        myResetNeeded = true;
+        myChangedFiles.clear();
+        return;
+      }
+      myChangedFiles.add(file);
+    }
+
+    synchronized void reset() {
+      myResetNeeded = true;
+      myChangedFiles.clear();
+    }
+
+    synchronized @NotNull List<String> getKeys() {
+      if (!myResetNeeded && myChangedFiles.isEmpty() && mySortedKeys != null) {
+        return mySortedKeys;
+      }
+
+      Collection<String> allKeys = getAllIndexKeys();
+      Set<String> keysToCheck = new HashSet<>();
+      if (myResetNeeded) {
+        myKeyFiles.clear();
+        myFileKeys.clear();
+        myStaleKeys.clear();
+        keysToCheck.addAll(allKeys);
+      }
+      else {
+        for (String key : allKeys) {
+          if (!myKeyFiles.containsKey(key) && !myStaleKeys.contains(key)) {
+            keysToCheck.add(key);
+          }
+        }
+        for (VirtualFile file : myChangedFiles) {
+          keysToCheck.addAll(myFileKeys.getOrDefault(file, Collections.emptySet()));
+        }
+        // a changed file may have got a key which had no values, the keys of a file are not known before the check
+        keysToCheck.addAll(myStaleKeys);
+      }
+
+      // the state is consistent after each key, so a canceled update is continued by the next call
+      for (String key : keysToCheck) {
+        ProgressManager.checkCanceled();
+        Set<VirtualFile> files = getFilesInScope(key);
+        Set<VirtualFile> oldFiles = files.isEmpty() ? myKeyFiles.remove(key) : myKeyFiles.put(key, files);
+        if (oldFiles != null) {
+          for (VirtualFile file : oldFiles) {
+            Set<String> fileKeys = myFileKeys.get(file);
+            if (fileKeys != null && fileKeys.remove(key) && fileKeys.isEmpty()) {
+              myFileKeys.remove(file);
+            }
+          }
+        }
+        for (VirtualFile file : files) {
+          myFileKeys.computeIfAbsent(file, it -> new SmartHashSet<>()).add(key);
+        }
+        if (files.isEmpty()) {
+          myStaleKeys.add(key);
+        }
+        else {
+          myStaleKeys.remove(key);
+        }
+      }
+      myStaleKeys.retainAll(allKeys instanceof Set ? allKeys : new HashSet<>(allKeys));
+      myChangedFiles.clear();
+      myResetNeeded = false;
+      mySortedKeys = StreamEx.ofKeys(myKeyFiles).sorted().toImmutableList();
+      return mySortedKeys;
+    }
+
+    @SuppressWarnings("unchecked")
+    private @NotNull Collection<String> getAllIndexKeys() {
+      return myIndex instanceof StubIndexKey
+             ? StubIndex.getInstance().getAllKeys((StubIndexKey<String, ?>)myIndex, myProject)
+             : FileBasedIndex.getInstance().getAllKeys(myIndex, myProject);
+    }
+
+    @SuppressWarnings("unchecked")
+    private @NotNull Set<VirtualFile> getFilesInScope(@NotNull String key) {
+      GlobalSearchScope everything = GlobalSearchScope.everythingScope(myProject);
+      Iterator<VirtualFile> files = myIndex instanceof StubIndexKey
+                                    ? StubIndex.getInstance()
+                                      .getContainingFilesIterator((StubIndexKey<String, ?>)myIndex, key, myProject, everything)
+                                    : FileBasedIndex.getInstance().getContainingFilesIterator((ID<String, Object>)myIndex, key, everything);
+      Set<VirtualFile> result = new SmartHashSet<>();
+      while (files.hasNext()) {
+        VirtualFile file = files.next();
+        if (file.isValid() && isInScope(file)) {
+          result.add(file);
+        }
+      }
+      return result;
+    }
+  }
+}
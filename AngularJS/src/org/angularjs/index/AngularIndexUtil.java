@@ -23,16 +23,10 @@ import com.intellij.psi.*;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.stubs.StubIndex;
 import com.intellij.psi.stubs.StubIndexKey;
-import com.intellij.psi.util.CachedValueProvider.Result;
-import com.intellij.psi.util.CachedValuesManager;
-import com.intellij.psi.util.ParameterizedCachedValue;
-import com.intellij.psi.util.ParameterizedCachedValueProvider;
-import com.intellij.util.ConcurrencyUtil;
 import com.intellij.util.Processor;
 import com.intellij.util.containers.ContainerUtil;
 import com.intellij.util.indexing.FileBasedIndex;
 import com.intellij.util.indexing.ID;
-import one.util.streamex.StreamEx;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -40,8 +34,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 import static org.angularjs.index.AngularJSDirectivesSupport.findAttributeDirectives;
 
@@ -51,9 +43,6 @@ import static org.angularjs.index.AngularJSDirectivesSupport.findAttributeDirect
 public final class AngularIndexUtil {
   public static final int BASE_VERSION = 65; // Don't forget to update AngularJSIndexingHandler registration
 
-  private static final ConcurrentMap<String, Key<ParameterizedCachedValue<Collection<String>, Pair<Project, ID<String, ?>>>>> ourCacheKeys =
-    new ConcurrentHashMap<>();
-  private static final AngularKeysProvider PROVIDER = new AngularKeysProvider();
   private static final Key<Pair<Integer, Long>> VERSION_CACHE = new Key<>("angularjs.version");
 
   public static @Nullable JSImplicitElement resolve(@NotNull Project project,
@@ -138,12 +127,11 @@ public final class AngularIndexUtil {
     return list.toArray(ResolveResult.EMPTY_ARRAY);
   }
 
+  /**
+   * @return sorted keys of the index which have values in the project
+   */
   public static @NotNull Collection<String> getAllKeys(final @NotNull ID<String, ?> index, final @NotNull Project project) {
-    final String indexId = index.getName();
-    final Key<ParameterizedCachedValue<Collection<String>, Pair<Project, ID<String, ?>>>> key =
-      ConcurrencyUtil.cacheOrGet(ourCacheKeys, indexId, Key.create("angularjs.index." + indexId));
-    final Pair<Project, ID<String, ?>> pair = Pair.create(project, index);
-    return CachedValuesManager.getManager(project).getParameterizedCachedValue(project, key, PROVIDER, false, pair);
+    return AngularIndexKeysCache.getInstance(project).getKeys(index);
   }
 
   public static boolean hasAngularJS(final @NotNull Project project) {
@@ -224,29 +212,4 @@ public final class AngularIndexUtil {
     }
     return restrictions;
   }
-
-  private static class AngularKeysProvider implements ParameterizedCachedValueProvider<Collection<String>, Pair<Project, ID<String, ?>>> {
-    @SuppressWarnings("unchecked")
-    @Override
-    public Result<Collection<String>> compute(final Pair<Project, ID<String, ?>> projectAndIndex) {
-      final Project project = projectAndIndex.first;
-      final ID<String, ?> id = projectAndIndex.second;
-      final GlobalSearchScope scope = GlobalSearchScope.allScope(project);
-      final FileBasedIndex fileIndex = FileBasedIndex.getInstance();
-      final StubIndex stubIndex = StubIndex.getInstance();
-      Collection<String> allKeys = id instanceof StubIndexKey
-                                   ? stubIndex.getAllKeys((StubIndexKey<String, ?>)id, project)
-                                   : fileIndex.getAllKeys(id, project);
-
-      List<String> filteredKeys = StreamEx.of(allKeys)
-        .filter(key ->
-                  id instanceof StubIndexKey
-                  ? !stubIndex
-                    .processElements((StubIndexKey<String, PsiElement>)id, key, project, scope, PsiElement.class, element -> false)
-                  : !fileIndex.processValues(id, key, null, (file, value) -> false, scope))
-        .sorted()
-        .toList();
-      return Result.create(filteredKeys, PsiManager.getInstance(project).getModificationTracker());
-    }
-  }
 }
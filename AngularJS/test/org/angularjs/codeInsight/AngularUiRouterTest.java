@@ -4,16 +4,21 @@ import com.intellij.lang.javascript.psi.JSLiteralExpression;
 import com.intellij.lang.javascript.psi.JSProperty;
 import com.intellij.lang.javascript.psi.JSPsiNamedElementBase;
 import com.intellij.lang.javascript.psi.impl.JSOffsetBasedImplicitElement;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.*;
 import com.intellij.psi.xml.XmlAttribute;
 import com.intellij.psi.xml.XmlAttributeValue;
 import com.intellij.testFramework.fixtures.BasePlatformTestCase;
 import org.angularjs.AngularTestUtil;
+import org.angularjs.codeInsight.router.AngularUiRouterDiagramBuilder;
+import org.angularjs.codeInsight.router.UiRouterState;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Assert;
 
 import java.util.List;
+import java.util.Map;
 
 public class AngularUiRouterTest extends BasePlatformTestCase {
   @Override
@@ -174,6 +179,30 @@ public class AngularUiRouterTest extends BasePlatformTestCase {
     checkNavigation(files[0], ".words", "two.words", "appStateWithNameInObject.js");
   }
 
+  public void testDiagramStatesUpdatedOnChange() {
+    final PsiFile[] files = myFixture.configureByFiles("appStates.js", "angular.js");
+    Map<String, UiRouterState> states = buildDiagramStates(files[0]);
+    assertSameElements(states.keySet(), "one", "two", "two.words");
+
+    final Document document = myFixture.getEditor().getDocument();
+    final int offset = document.getText().indexOf("'two'");
+    WriteCommandAction.runWriteCommandAction(getProject(), () -> document.replaceString(offset, offset + "'two'".length(), "'three'"));
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+
+    final Map<String, UiRouterState> updated = buildDiagramStates(files[0]);
+    assertSameElements(updated.keySet(), "one", "three", "two.words");
+    // states are copied for each diagram, duplicate definitions of one diagram do not leak into another
+    assertNotSame(states.get("one"), updated.get("one"));
+  }
+
+  private Map<String, UiRouterState> buildDiagramStates(PsiFile file) {
+    final AngularUiRouterDiagramBuilder builder = new AngularUiRouterDiagramBuilder(getProject());
+    builder.build();
+    final Map<String, UiRouterState> states = builder.getDefiningFiles2States().get(file.getVirtualFile());
+    assertNotNull(states);
+    return states;
+  }
+
   private void checkNavigation(PsiFile file, String state, String referencedTextExpected, String appStatesFileName) {
     referencedTextExpected = referencedTextExpected == null ? state : referencedTextExpected;
     final PsiElement inObj = getElement(file, "ui-sref=\"" + state + "\"");
@@ -1,10 +1,18 @@
 package org.angularjs.codeInsight;
 
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.psi.PsiDocumentManager;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiReference;
 import com.intellij.testFramework.fixtures.BasePlatformTestCase;
 import org.angularjs.AngularTestUtil;
+import org.angularjs.index.AngularFilterIndex;
+import org.angularjs.index.AngularIndexUtil;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -43,4 +51,23 @@ public class FiltersTest extends BasePlatformTestCase {
     assertEquals("\"filta\"", resolve.getParent().getText());
   }
 
+  public void testFilterKeysUpdatedOnChange() {
+    PsiFile file = myFixture.configureByFiles("custom.js", "angular.js")[0];
+    assertContainsElements(AngularIndexUtil.getAllKeys(AngularFilterIndex.KEY, getProject()), "filta", "json");
+
+    Document document = FileDocumentManager.getInstance().getDocument(file.getVirtualFile());
+    assertNotNull(document);
+    WriteCommandAction.runWriteCommandAction(getProject(), () -> {
+      document.setText(document.getText().replace("filta", "filtb"));
+      PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+    });
+    Collection<String> keys = AngularIndexUtil.getAllKeys(AngularFilterIndex.KEY, getProject());
+    assertContainsElements(keys, "filtb", "json");
+    assertDoesntContain(keys, "filta");
+
+    WriteCommandAction.runWriteCommandAction(getProject(), () -> file.delete());
+    keys = AngularIndexUtil.getAllKeys(AngularFilterIndex.KEY, getProject());
+    assertContainsElements(keys, "json");
+    assertDoesntContain(keys, "filtb");
+  }
 }
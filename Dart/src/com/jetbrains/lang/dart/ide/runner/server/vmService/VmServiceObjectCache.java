@@ -0,0 +1,164 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.jetbrains.lang.dart.ide.runner.server.vmService;
+
+import com.intellij.openapi.diagnostic.Logger;
+import org.dartlang.vm.service.VmService;
+import org.dartlang.vm.service.consumer.GetObjectConsumer;
+import org.dartlang.vm.service.consumer.InvokeConsumer;
+import org.dartlang.vm.service.element.Obj;
+import org.dartlang.vm.service.element.RPCError;
+import org.dartlang.vm.service.element.Sentinel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of {@code getObject} requests made while an isolate is paused.
+ * <p>
+ * The Variables view asks for the same objects many times during a pause: the class of {@code this} for each frame,
+ * objects of the nodes which are expanded again after the tree is rebuilt, navigation to fields and types.
+ * Objects don't change while the isolate is paused, so each of them is requested once, and requests for an object
+ * which is already being fetched wait for the same response. The objects of an isolate are dropped when it resumes
+ * and after an expression typed by the user is evaluated, as it may change the objects. Methods called to present
+ * values, such as {@code toString}, are not expected to change them and keep the objects cached.
+ * <p>
+ * Sentinels and errors are not cached. The number of requests and their latency are logged in debug mode for each pause.
+ */
+final class VmServiceObjectCache {
+  private static final Logger LOG = Logger.getInstance(VmServiceObjectCache.class);
+
+  private final @NotNull VmService myVmService;
+  private final Map<String, IsolateObjects> myIsolates = new HashMap<>();
+
+  VmServiceObjectCache(@NotNull VmService vmService) {
+    myVmService = vmService;
+  }
+
+  private static final class IsolateObjects {
+    private final Map<String, Obj> myObjects = new HashMap<>();
+    private final Map<String, List<GetObjectConsumer>> myPendingConsumers = new HashMap<>();
+    private int myRequestCount;
+    private int myCachedCount;
+    private long myTotalLatency;
+    private long myMaxLatency;
+  }
+
+  /**
+   * Same as {@link VmService#getObject(String, String, Integer, Integer, GetObjectConsumer)},
+   * but the object is requested from the VM only once while the isolate is paused.
+   */
+  void getObject(@NotNull String isolateId,
+                 @NotNull String objectId,
+                 @Nullable Integer offset,
+                 @Nullable Integer count,
+                 @NotNull GetObjectConsumer consumer) {
+    final String key = offset == null && count == null ? objectId : objectId + "[" + offset + ":" + count + "]";
+    final IsolateObjects isolateObjects;
+    final Obj cached;
+    synchronized (myIsolates) {
+      isolateObjects = myIsolates.computeIfAbsent(isolateId, id -> new IsolateObjects());
+      cached = isolateObjects.myObjects.get(key);
+      final List<GetObjectConsumer> pending = isolateObjects.myPendingConsumers.get(key);
+      if (cached != null || pending != null) {
+        isolateObjects.myCachedCount++;
+        if (pending != null) {
+          pending.add(consumer);
+          return;
+        }
+      }
+      else {
+        final List<GetObjectConsumer> consumers = new ArrayList<>();
+        consumers.add(consumer);
+        isolateObjects.myPendingConsumers.put(key, consumers);
+        isolateObjects.myRequestCount++;
+      }
+    }
+
+    if (cached != null) {
+      consumer.received(cached);
+      return;
+    }
+
+    final long start = System.nanoTime();
+    myVmService.getObject(isolateId, objectId, offset, count, new GetObjectConsumer() {
+      @Override
+      public void received(Obj response) {
+        for (GetObjectConsumer consumer : done(response)) {
+          consumer.received(response);
+        }
+      }
+
+      @Override
+      public void received(Sentinel response) {
+        for (GetObjectConsumer consumer : done(null)) {
+          consumer.received(response);
+        }
+      }
+
+      @Override
+      public void onError(RPCError error) {
+        for (GetObjectConsumer consumer : done(null)) {
+          consumer.onError(error);
+        }
+      }
+
+      private @NotNull List<GetObjectConsumer> done(@Nullable Obj response) {
+        final long latency = System.nanoTime() - start;
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("getObject(" + isolateId + ", " + key + "): " + latency / 1_000_000 + " ms");
+        }
+
+        synchronized (myIsolates) {
+          final List<GetObjectConsumer> consumers = isolateObjects.myPendingConsumers.remove(key);
+          // the isolate might have resumed while the object was being fetched, then the response is not cached
+          if (myIsolates.get(isolateId) == isolateObjects) {
+            isolateObjects.myTotalLatency += latency;
+            isolateObjects.myMaxLatency = Math.max(isolateObjects.myMaxLatency, latency);
+            if (response != null) {
+              isolateObjects.myObjects.put(key, response);
+            }
+          }
+          return consumers != null ? consumers : List.of(consumer);
+        }
+      }
+    });
+  }
+
+  /**
+   * Calls a method without arguments to present the target, e.g. {@code toString}. The cached objects are kept.
+   */
+  void invoke(@NotNull String isolateId, @NotNull String targetId, @NotNull String selector, @NotNull InvokeConsumer consumer) {
+    myVmService.invoke(isolateId, targetId, selector, Collections.emptyList(), true, consumer);
+  }
+
+  /**
+   * Drops the objects of the isolate, must be called before the isolate resumes or its objects may change.
+   */
+  void invalidate(@NotNull String isolateId) {
+    final IsolateObjects isolateObjects;
+    synchronized (myIsolates) {
+      isolateObjects = myIsolates.remove(isolateId);
+    }
+
+    if (isolateObjects != null && LOG.isDebugEnabled()) {
+      LOG.debug("Objects of isolate " + isolateId + ": " + isolateObjects.myRequestCount + " requested, " +
+                isolateObjects.myCachedCount + " reused, " +
+                "total latency " + isolateObjects.myTotalLatency / 1_000_000 + " ms, " +
+                "max latency " + isolateObjects.myMaxLatency / 1_000_000 + " ms");
+    }
+  }
+
+  @TestOnly
+  int getCachedObjectCount(@NotNull String isolateId) {
+    synchronized (myIsolates) {
+      final IsolateObjects isolateObjects = myIsolates.get(isolateId);
+      return isolateObjects == null ? 0 : isolateObjects.myObjects.size();
+    }
+  }
+}
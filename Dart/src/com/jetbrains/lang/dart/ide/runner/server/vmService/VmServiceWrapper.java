@@ -49,6 +49,7 @@ public class VmServiceWrapper implements Disposable {
   private final IsolatesInfo myIsolatesInfo;
   private final DartVmServiceBreakpointHandler myBreakpointHandler;
   private final Alarm myRequestsScheduler;
+  private final VmServiceObjectCache myObjectCache;
 
   private long myVmServiceReceiverThreadId;
 
@@ -65,6 +66,7 @@ public class VmServiceWrapper implements Disposable {
     myIsolatesInfo = isolatesInfo;
     myBreakpointHandler = breakpointHandler;
     myRequestsScheduler = new Alarm(Alarm.ThreadToUse.POOLED_THREAD, this);
+    myObjectCache = new VmServiceObjectCache(vmService);
   }
 
   @Override
@@ -533,6 +535,7 @@ public class VmServiceWrapper implements Disposable {
   public void resumeIsolate(@NotNull String isolateId, @Nullable StepOption stepOption) {
     addRequest(() -> {
       myLatestStep = stepOption;
+      myObjectCache.invalidate(isolateId);
       myVmService.resume(isolateId, stepOption, null, new VmServiceConsumers.EmptyResumeConsumer() {
       });
     });
@@ -577,6 +580,7 @@ public class VmServiceWrapper implements Disposable {
   public void dropFrame(@NotNull String isolateId, int frameIndex) {
     addRequest(() -> {
       myLatestStep = StepOption.Rewind;
+      myObjectCache.invalidate(isolateId);
       myVmService.resume(isolateId, StepOption.Rewind, frameIndex, new VmServiceConsumers.EmptyResumeConsumer() {
         @Override
         public void onError(RPCError error) {
@@ -603,6 +607,13 @@ public class VmServiceWrapper implements Disposable {
     }));
   }
 
+  /**
+   * Must be called when the isolate resumes or exits, including when it is resumed by another client of the VM.
+   */
+  public void isolateResumed(@NotNull String isolateId) {
+    myObjectCache.invalidate(isolateId);
+  }
+
   public void computeStackFrames(@NotNull String isolateId,
                                  int firstFrameIndex,
                                  @NotNull XExecutionStack.XStackFrameContainer container,
@@ -688,8 +699,11 @@ public class VmServiceWrapper implements Disposable {
     return resultRef.get();
   }
 
+  /**
+   * Objects are requested from the VM once while the isolate is paused, see {@link VmServiceObjectCache}.
+   */
   public void getObject(@NotNull String isolateId, @NotNull String objectId, @NotNull GetObjectConsumer consumer) {
-    addRequest(() -> myVmService.getObject(isolateId, objectId, consumer));
+    addRequest(() -> myObjectCache.getObject(isolateId, objectId, null, null, consumer));
   }
 
   public void getCollectionObject(@NotNull String isolateId,
@@ -697,9 +711,13 @@ public class VmServiceWrapper implements Disposable {
                                   int offset,
                                   int count,
                                   @NotNull GetObjectConsumer consumer) {
-    addRequest(() -> myVmService.getObject(isolateId, objectId, offset, count, consumer));
+    addRequest(() -> myObjectCache.getObject(isolateId, objectId, offset, count, consumer));
   }
 
+  /**
+   * The expression may run code which changes objects of the isolate, so the cached objects are dropped when it completes,
+   * see {@link VmServiceObjectCache}. The same applies to expressions evaluated with {@link #evaluateInTargetContext}.
+   */
   public void evaluateInFrame(@NotNull String isolateId,
                               @NotNull Frame vmFrame,
                               @NotNull String expression,
@@ -707,22 +725,26 @@ public class VmServiceWrapper implements Disposable {
     addRequest(() -> myVmService.evaluateInFrame(isolateId, vmFrame.getIndex(), expression, new EvaluateInFrameConsumer() {
       @Override
       public void received(InstanceRef instanceRef) {
+        myObjectCache.invalidate(isolateId);
         callback.evaluated(new DartVmServiceValue(myDebugProcess, isolateId, "result", instanceRef, null, null, false));
       }
 
       @Override
       public void received(Sentinel sentinel) {
+        myObjectCache.invalidate(isolateId);
         @NlsSafe String message = sentinel.getValueAsString();
         callback.errorOccurred(message);
       }
 
       @Override
       public void received(ErrorRef errorRef) {
+        myObjectCache.invalidate(isolateId);
         callback.errorOccurred(DartVmServiceEvaluator.getPresentableError(errorRef.getMessage()));
       }
 
       @Override
       public void onError(RPCError error) {
+        myObjectCache.invalidate(isolateId);
         @NlsSafe String message = error.getMessage();
         callback.errorOccurred(message);
       }
@@ -744,22 +766,26 @@ public class VmServiceWrapper implements Disposable {
     evaluateInTargetContext(isolateId, targetId, expression, new EvaluateConsumer() {
       @Override
       public void received(InstanceRef instanceRef) {
+        myObjectCache.invalidate(isolateId);
         callback.evaluated(new DartVmServiceValue(myDebugProcess, isolateId, "result", instanceRef, null, null, false));
       }
 
       @Override
       public void received(Sentinel sentinel) {
+        myObjectCache.invalidate(isolateId);
         @NlsSafe String message = sentinel.getValueAsString();
         callback.errorOccurred(message);
       }
 
       @Override
       public void received(ErrorRef errorRef) {
+        myObjectCache.invalidate(isolateId);
         callback.errorOccurred(DartVmServiceEvaluator.getPresentableError(errorRef.getMessage()));
       }
 
       @Override
       public void onError(RPCError error) {
+        myObjectCache.invalidate(isolateId);
         @NlsSafe String message = error.getMessage();
         callback.errorOccurred(message);
       }
@@ -774,13 +800,16 @@ public class VmServiceWrapper implements Disposable {
     callMethodOnTarget(isolateId, targetId, "toList", callback);
   }
 
+  /**
+   * {@code toString} and {@code toList} are called to present values, they keep the cached objects.
+   */
   private void callMethodOnTarget(@NotNull String isolateId,
                                   @NotNull String targetId,
                                   @NotNull String methodName,
                                   @NotNull InvokeConsumer callback) {
     // For 3.11 and after we use "invoke"; before that, we use "eval";
     if (supportsInvoke()) {
-      addRequest(() -> myVmService.invoke(isolateId, targetId, methodName, Collections.emptyList(), true, callback));
+      addRequest(() -> myObjectCache.invoke(isolateId, targetId, methodName, callback));
     }
     else {
       myDebugProcess.getVmServiceWrapper()
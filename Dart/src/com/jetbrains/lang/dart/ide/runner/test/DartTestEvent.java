@@ -0,0 +1,183 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.jetbrains.lang.dart.ide.runner.test;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * An event of the JSON reporter of package:test, see https://github.com/dart-lang/test/blob/master/pkgs/test/doc/json_reporter.md
+ * <p>
+ * Events are decoded with a streaming reader, without building a tree of JSON elements,
+ * and only the fields used by {@link DartTestEventsConverter} are kept, other fields are skipped.
+ */
+final class DartTestEvent {
+  static final int NO_VALUE = -1;
+
+  @Nullable String type;
+  long time = NO_VALUE;
+  int testId = NO_VALUE;
+  @Nullable String result;
+  @Nullable String error;
+  @Nullable String stackTrace;
+  @Nullable String message;
+  @Nullable ItemData test;
+  @Nullable ItemData group;
+  @Nullable ItemData suite;
+
+  /**
+   * A test, group or suite as described in an event.
+   */
+  static final class ItemData {
+    boolean hasId;
+    int id = NO_VALUE;
+    @Nullable String name;
+    int suiteId = NO_VALUE;
+    /** The parent group of a group, or the innermost group of a test */
+    int parentId = NO_VALUE;
+    int testCount = NO_VALUE;
+    int line = NO_VALUE;
+    int column = NO_VALUE;
+    @Nullable String url;
+    @Nullable String path;
+    boolean skip;
+    @Nullable String skipReason;
+  }
+
+  private DartTestEvent() {
+  }
+
+  /**
+   * @return the event or {@code null} if the text is not a JSON object
+   * @throws JsonSyntaxException if the text looks like a JSON object but is malformed
+   */
+  @Nullable
+  static DartTestEvent decode(@NotNull String text) throws JsonSyntaxException {
+    int start = 0;
+    while (start < text.length() && Character.isWhitespace(text.charAt(start))) start++;
+    if (start == text.length() || text.charAt(start) != '{') return null;
+
+    try {
+      JsonReader reader = new JsonReader(new StringReader(text));
+      // package:test writes strict JSON, lenient parsing is kept for compatibility with the events accepted before
+      reader.setLenient(true);
+      DartTestEvent event = new DartTestEvent();
+      reader.beginObject();
+      while (reader.hasNext()) {
+        switch (reader.nextName()) {
+          case "type" -> event.type = nextString(reader);
+          case "time" -> event.time = nextLong(reader);
+          case "testID" -> event.testId = nextInt(reader);
+          case "result" -> event.result = nextString(reader);
+          case "error" -> event.error = nextString(reader);
+          case "stackTrace" -> event.stackTrace = nextString(reader);
+          case "message" -> event.message = nextString(reader);
+          case "test" -> event.test = nextItem(reader);
+          case "group" -> event.group = nextItem(reader);
+          case "suite" -> event.suite = nextItem(reader);
+          default -> reader.skipValue();
+        }
+      }
+      reader.endObject();
+      if (reader.peek() != JsonToken.END_DOCUMENT) {
+        throw new JsonSyntaxException("Did not consume the entire document");
+      }
+      return event;
+    }
+    catch (IOException | IllegalStateException | NumberFormatException e) {
+      throw new JsonSyntaxException(e);
+    }
+  }
+
+  @Nullable
+  private static ItemData nextItem(@NotNull JsonReader reader) throws IOException {
+    if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+      reader.skipValue();
+      return null;
+    }
+
+    ItemData item = new ItemData();
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.nextName()) {
+        case "id" -> {
+          item.hasId = true;
+          item.id = nextInt(reader);
+        }
+        case "name" -> item.name = nextString(reader);
+        case "suiteID" -> item.suiteId = nextInt(reader);
+        case "parentID" -> item.parentId = nextInt(reader);
+        case "groupIDs" -> item.parentId = nextLastInt(reader);
+        case "testCount" -> item.testCount = nextInt(reader);
+        case "line" -> item.line = nextInt(reader);
+        case "column" -> item.column = nextInt(reader);
+        case "url" -> item.url = nextString(reader);
+        case "path" -> item.path = nextString(reader);
+        case "metadata" -> nextMetadata(reader, item);
+        default -> reader.skipValue();
+      }
+    }
+    reader.endObject();
+    return item;
+  }
+
+  private static void nextMetadata(@NotNull JsonReader reader, @NotNull ItemData item) throws IOException {
+    if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+      reader.skipValue();
+      return;
+    }
+
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.nextName()) {
+        case "skip" -> item.skip = reader.peek() == JsonToken.BOOLEAN ? reader.nextBoolean() : "true".equals(nextString(reader));
+        case "skipReason" -> item.skipReason = nextString(reader);
+        default -> reader.skipValue();
+      }
+    }
+    reader.endObject();
+  }
+
+  private static int nextLastInt(@NotNull JsonReader reader) throws IOException {
+    if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+      reader.skipValue();
+      return NO_VALUE;
+    }
+
+    int result = NO_VALUE;
+    reader.beginArray();
+    while (reader.hasNext()) {
+      result = nextInt(reader);
+    }
+    reader.endArray();
+    return result;
+  }
+
+  @Nullable
+  private static String nextString(@NotNull JsonReader reader) throws IOException {
+    JsonToken token = reader.peek();
+    if (token == JsonToken.STRING || token == JsonToken.NUMBER) return reader.nextString();
+    if (token == JsonToken.BOOLEAN) return String.valueOf(reader.nextBoolean());
+    reader.skipValue();
+    return null;
+  }
+
+  private static int nextInt(@NotNull JsonReader reader) throws IOException {
+    JsonToken token = reader.peek();
+    if (token == JsonToken.NUMBER || token == JsonToken.STRING) return reader.nextInt();
+    reader.skipValue();
+    return NO_VALUE;
+  }
+
+  private static long nextLong(@NotNull JsonReader reader) throws IOException {
+    JsonToken token = reader.peek();
+    if (token == JsonToken.NUMBER || token == JsonToken.STRING) return reader.nextLong();
+    reader.skipValue();
+    return NO_VALUE;
+  }
+}
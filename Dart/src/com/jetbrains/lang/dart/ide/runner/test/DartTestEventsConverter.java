@@ -1,7 +1,8 @@
 // Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
 package com.jetbrains.lang.dart.ide.runner.test;
 
-import com.google.gson.*;
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
 import com.intellij.execution.testframework.TestConsoleProperties;
 import com.intellij.execution.testframework.sm.ServiceMessageBuilder;
 import com.intellij.execution.testframework.sm.runner.OutputToGeneralTestEventsConverter;
@@ -13,17 +14,15 @@ import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.util.PathUtil;
 import com.jetbrains.lang.dart.ide.runner.util.DartTestLocationProvider;
 import com.jetbrains.lang.dart.util.DartUrlResolver;
-import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import jetbrains.buildServer.messages.serviceMessages.ServiceMessageVisitor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Type;
 import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -43,35 +42,9 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
   private static final String TYPE_GROUP = "group";
   private static final String TYPE_PRINT = "print";
   private static final String TYPE_DONE = "done";
-  private static final String TYPE_ALL_SUITES = "allSuites";
   private static final String TYPE_TEST_START = "testStart";
   private static final String TYPE_TEST_DONE = "testDone";
 
-  private static final String DEF_GROUP = "group";
-  private static final String DEF_SUITE = "suite";
-  private static final String DEF_TEST = "test";
-  private static final String DEF_METADATA = "metadata";
-
-  private static final String JSON_TYPE = "type";
-  private static final String JSON_NAME = "name";
-  private static final String JSON_ID = "id";
-  private static final String JSON_TEST_ID = "testID";
-  private static final String JSON_SUITE_ID = "suiteID";
-  private static final String JSON_PARENT_ID = "parentID";
-  private static final String JSON_GROUP_IDS = "groupIDs";
-  private static final String JSON_RESULT = "result";
-  private static final String JSON_MILLIS = "time";
-  private static final String JSON_COUNT = "count";
-  private static final String JSON_TEST_COUNT = "testCount";
-  private static final String JSON_MESSAGE = "message";
-  private static final String JSON_ERROR_MESSAGE = "error";
-  private static final String JSON_STACK_TRACE = "stackTrace";
-  private static final String JSON_PATH = "path";
-  private static final String JSON_PLATFORM = "platform";
-  private static final String JSON_LINE = "line";
-  private static final String JSON_COLUMN = "column";
-  private static final String JSON_URL = "url";
-
   private static final String RESULT_SUCCESS = "success";
   private static final String RESULT_FAILURE = "failure";
   private static final String RESULT_ERROR = "error";
@@ -87,43 +60,56 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
   private static final Gson GSON = new Gson();
 
   @NotNull private final DartUrlResolver myUrlResolver;
+  @NotNull private final DartTestOutputStore myOutputStore;
 
   private String myLocation;
   private Key myCurrentOutputType;
   private ServiceMessageVisitor myCurrentVisitor;
-  private final Int2LongOpenHashMap myTestIdToTimestamp;
-  private final Map<Integer, Test> myTestData;
-  private final Map<Integer, Group> myGroupData;
-  private final Map<Integer, Suite> mySuiteData;
+  // package:test numbers suites, groups and tests with one counter, so the ids are dense
+  private final Int2ObjectMap<Test> myTestData;
+  private final Int2ObjectMap<Group> myGroupData;
+  private final Int2ObjectMap<Suite> mySuiteData;
 
   public DartTestEventsConverter(@NotNull final String testFrameworkName,
                                  @NotNull final TestConsoleProperties consoleProperties,
                                  @NotNull final DartUrlResolver urlResolver) {
+    this(testFrameworkName, consoleProperties, urlResolver, new DartTestOutputStore());
+  }
+
+  DartTestEventsConverter(@NotNull final String testFrameworkName,
+                          @NotNull final TestConsoleProperties consoleProperties,
+                          @NotNull final DartUrlResolver urlResolver,
+                          @NotNull final DartTestOutputStore outputStore) {
     super(testFrameworkName, consoleProperties);
     myUrlResolver = urlResolver;
-    myTestIdToTimestamp = new Int2LongOpenHashMap();
-    myTestData = new HashMap<>();
-    myGroupData = new HashMap<>();
-    mySuiteData = new HashMap<>();
+    myOutputStore = outputStore;
+    myTestData = new Int2ObjectOpenHashMap<>();
+    myGroupData = new Int2ObjectOpenHashMap<>();
+    mySuiteData = new Int2ObjectOpenHashMap<>();
   }
 
   @Override
   protected boolean processServiceMessages(final String text, final Key outputType, final ServiceMessageVisitor visitor)
     throws ParseException {
-    LOG.debug("<<< " + text.trim());
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("<<< " + text.trim());
+    }
     myCurrentOutputType = outputType;
     myCurrentVisitor = visitor;
     // service message parser expects line like "##teamcity[ .... ]" without whitespaces in the end.
     return processEventText(text);
   }
 
-  private boolean processEventText(final String text) throws JsonSyntaxException, ParseException {
-    JsonParser jp = new JsonParser();
-    JsonElement elem;
+  private boolean processEventText(final String text) throws ParseException {
+    DartTestEvent event;
     try {
-      elem = jp.parse(text);
+      event = DartTestEvent.decode(text);
     }
     catch (JsonSyntaxException ex) {
+      event = null;
+    }
+
+    if (event == null) {
       if (text.contains("\"json\" is not an allowed value for option \"reporter\"")) {
         final ServiceMessageBuilder testStarted = ServiceMessageBuilder.testStarted("Failed to start");
         final ServiceMessageBuilder testFailed = ServiceMessageBuilder.testFailed("Failed to start");
@@ -134,55 +120,51 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
 
       return doProcessServiceMessages(text);
     }
-    if (elem == null || !elem.isJsonObject()) return false;
-    return process(elem.getAsJsonObject());
+    return process(event);
   }
 
   private boolean doProcessServiceMessages(@NotNull final String text) throws ParseException {
-    LOG.debug(">>> " + text);
+    if (LOG.isDebugEnabled()) {
+      LOG.debug(">>> " + text);
+    }
     return super.processServiceMessages(text, myCurrentOutputType, myCurrentVisitor);
   }
 
-  private boolean process(JsonObject obj) throws JsonSyntaxException, ParseException {
-    String type = obj.get(JSON_TYPE).getAsString();
+  private boolean process(@NotNull DartTestEvent event) throws ParseException {
+    String type = event.type;
     if (TYPE_TEST_START.equals(type)) {
-      return handleTestStart(obj);
+      return handleTestStart(event);
     }
     else if (TYPE_TEST_DONE.equals(type)) {
-      return handleTestDone(obj);
+      return handleTestDone(event);
     }
     else if (TYPE_ERROR.equals(type)) {
-      return handleError(obj);
+      return handleError(event);
     }
     else if (TYPE_PRINT.equals(type)) {
-      return handlePrint(obj);
+      return handlePrint(event);
     }
     else if (TYPE_GROUP.equals(type)) {
-      return handleGroup(obj);
+      return handleGroup(event);
     }
     else if (TYPE_SUITE.equals(type)) {
-      return handleSuite(obj);
-    }
-    else if (TYPE_ALL_SUITES.equals(type)) {
-      return handleAllSuites(obj);
+      return handleSuite(event);
     }
     else if (TYPE_START.equals(type)) {
-      return handleStart(obj);
+      return handleStart();
     }
     else if (TYPE_DONE.equals(type)) {
-      return handleDone(obj);
+      return handleDone();
     }
     else {
       return true;
     }
   }
 
-  private boolean handleTestStart(JsonObject obj) throws ParseException {
-    final JsonObject testObj = obj.getAsJsonObject(DEF_TEST);
-
-    // Not reached if testObj == null.
-    final Test test = getTest(obj);
-    myTestIdToTimestamp.put(test.getId(), getTimestamp(obj));
+  private boolean handleTestStart(@NotNull DartTestEvent event) throws ParseException {
+    final Test test = getTest(event);
+    final DartTestEvent.ItemData testData = event.test;
+    test.myStartTime = getTimestamp(event);
 
     if (shouldTestBeHiddenIfPassed(test)) {
       // Virtual test that represents loading or compiling a test suite. See lib/src/runner/loader.dart -> Loader.loadFile() in pkg/test source code
@@ -205,13 +187,12 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
     final ServiceMessageBuilder testStarted = ServiceMessageBuilder.testStarted(test.getBaseName());
     test.myTestStartReported = true;
 
-    addLocationHint(testStarted, test);
+    addLocationHint(testStarted, test, testData);
     boolean result = finishMessage(testStarted, test.getId(), test.getValidParentId());
 
-    final Metadata metadata = Metadata.from(testObj.getAsJsonObject(DEF_METADATA));
-    if (metadata.skip) {
+    if (testData != null && testData.skip) {
       final ServiceMessageBuilder message = ServiceMessageBuilder.testIgnored(test.getBaseName());
-      if (metadata.skipReason != null) message.addAttribute("message", metadata.skipReason);
+      if (testData.skipReason != null) message.addAttribute("message", testData.skipReason);
       result &= finishMessage(message, test.getId(), test.getValidParentId());
     }
 
@@ -230,14 +211,14 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
            group != null && group.getDoneTestsCount() > 0 && test.getBaseName().equals(TEAR_DOWN_ALL_VIRTUAL_TEST_NAME);
   }
 
-  private boolean handleTestDone(JsonObject obj) throws ParseException {
-    final Test test = getTest(obj);
+  private boolean handleTestDone(@NotNull DartTestEvent event) throws ParseException {
+    final Test test = getTest(event);
 
     if (!test.myTestStartReported) return true;
 
-    String result = getResult(obj);
+    String result = getResult(event);
     if (!result.equals(RESULT_SUCCESS) && !result.equals(RESULT_FAILURE) && !result.equals(RESULT_ERROR)) {
-      throw new ParseException("Unknown result: " + obj, 0);
+      throw new ParseException("Unknown result: " + result, 0);
     }
 
     test.testDone();
@@ -245,7 +226,7 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
     //if (test.getMetadata().skip) return true; // skipped tests are reported as ignored in handleTestStart(). testFinished signal must follow
 
     ServiceMessageBuilder testFinished = ServiceMessageBuilder.testFinished(test.getBaseName());
-    long duration = getTimestamp(obj) - myTestIdToTimestamp.get(test.getId());
+    long duration = getTimestamp(event) - test.myStartTime;
     testFinished.addAttribute("duration", Long.toString(duration));
 
     return finishMessage(testFinished, test.getId(), test.getValidParentId()) && checkGroupDone(test.getParent());
@@ -258,8 +239,8 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
     return true;
   }
 
-  private boolean handleGroup(JsonObject obj) throws ParseException {
-    Group group = getGroup(obj.getAsJsonObject(DEF_GROUP));
+  private boolean handleGroup(@NotNull DartTestEvent event) throws ParseException {
+    Group group = getGroup(event);
 
     // From spec: The implicit group at the root of each test suite has null name and parentID attributes.
     if (group.getParent() == null && group.getTestCount() > 0) {
@@ -273,21 +254,21 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
     if (group.isArtificial()) return true; // Ignore artificial groups.
     ServiceMessageBuilder groupMsg = ServiceMessageBuilder.testSuiteStarted(group.getBaseName());
     // Possible attributes: "nodeType" "nodeArgs" "running"
-    addLocationHint(groupMsg, group);
+    addLocationHint(groupMsg, group, event.group);
     return finishMessage(groupMsg, group.getId(), group.getValidParentId());
   }
 
-  private boolean handleSuite(JsonObject obj) throws ParseException {
-    Suite suite = getSuite(obj.getAsJsonObject(DEF_SUITE));
+  private boolean handleSuite(@NotNull DartTestEvent event) throws ParseException {
+    Suite suite = getSuite(event);
     if (!suite.hasPath()) {
       mySuiteData.remove(suite.getId());
     }
     return true;
   }
 
-  private boolean handleError(JsonObject obj) throws ParseException {
-    final Test test = getTest(obj);
-    final String message = getErrorMessage(obj);
+  private boolean handleError(@NotNull DartTestEvent event) throws ParseException {
+    final Test test = getTest(event);
+    final String message = getErrorMessage(event);
     boolean result = true;
 
     if (!test.myTestStartReported) {
@@ -298,7 +279,7 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
 
     if (test.myTestErrorReported) {
       final ServiceMessageBuilder testErrorMessage = ServiceMessageBuilder.testStdErr(test.getBaseName());
-      testErrorMessage.addAttribute("out", appendLineBreakIfNeeded(message));
+      testErrorMessage.addAttribute("out", storeOutput(test, message));
       result &= finishMessage(testErrorMessage, test.getId(), test.getValidParentId());
     }
     else {
@@ -328,10 +309,10 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
       result &= finishMessage(testError, test.getId(), test.getValidParentId());
     }
 
-    final String stackTrace = getStackTrace(obj);
+    final String stackTrace = getStackTrace(event);
     if (!StringUtil.isEmptyOrSpaces(stackTrace)) {
       final ServiceMessageBuilder stackTraceMessage = ServiceMessageBuilder.testStdErr(test.getBaseName());
-      stackTraceMessage.addAttribute("out", appendLineBreakIfNeeded(stackTrace));
+      stackTraceMessage.addAttribute("out", storeOutput(test, stackTrace));
       result &= finishMessage(stackTraceMessage, test.getId(), test.getValidParentId());
     }
 
@@ -343,16 +324,13 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
     return message.endsWith("\n") ? message : message + "\n";
   }
 
-  private static boolean handleAllSuites(JsonObject obj) {
-    JsonElement elem = obj.get(JSON_COUNT);
-    if (elem != null) {
-      elem.isJsonPrimitive();
-    }
-    return true;
+  @NotNull
+  private String storeOutput(@NotNull Test test, @NotNull String output) {
+    return appendLineBreakIfNeeded(myOutputStore.store(test.getId(), output));
   }
 
-  private boolean handlePrint(JsonObject obj) throws ParseException {
-    final Test test = getTest(obj);
+  private boolean handlePrint(@NotNull DartTestEvent event) throws ParseException {
+    final Test test = getTest(event);
     boolean result = true;
 
     if (!test.myTestStartReported) {
@@ -366,13 +344,12 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
     }
 
     ServiceMessageBuilder message = ServiceMessageBuilder.testStdOut(test.getBaseName());
-    message.addAttribute("out", appendLineBreakIfNeeded(getMessage(obj)));
+    message.addAttribute("out", storeOutput(test, getMessage(event)));
 
     return result & finishMessage(message, test.getId(), test.getValidParentId());
   }
 
-  private boolean handleStart(JsonObject obj) throws ParseException {
-    myTestIdToTimestamp.clear();
+  private boolean handleStart() throws ParseException {
     myTestData.clear();
     myGroupData.clear();
     mySuiteData.clear();
@@ -380,7 +357,7 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
     return doProcessServiceMessages(ServiceMessageBuilder.testsStarted().toString());
   }
 
-  private boolean handleDone(JsonObject obj) {
+  private boolean handleDone() {
     // The test runner has reached the end of the tests.
     processAllTestsDone();
     return true;
@@ -402,7 +379,6 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
         }
       }
     }
-    myTestIdToTimestamp.clear();
     myTestData.clear();
     myGroupData.clear();
     mySuiteData.clear();
@@ -421,12 +397,13 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
     return doProcessServiceMessages(msg.toString());
   }
 
-  private void addLocationHint(ServiceMessageBuilder messageBuilder, Item item) {
+  private void addLocationHint(ServiceMessageBuilder messageBuilder, Item item, @Nullable DartTestEvent.ItemData itemData) {
     String location = "unknown";
     String loc;
 
-    final boolean badUrl = item.getUrl() == null || item.getUrl().endsWith(".dart.js");
-    final VirtualFile file = badUrl ? null : myUrlResolver.findFileByDartUrl(item.getUrl());
+    final String url = itemData == null ? null : itemData.url;
+    final boolean badUrl = url == null || url.endsWith(".dart.js");
+    final VirtualFile file = badUrl ? null : myUrlResolver.findFileByDartUrl(url);
     if (file != null) {
       loc = FILE_URL_PREFIX + file.getPath();
     }
@@ -442,7 +419,7 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
         loc += ",-1,-1";
       }
       else {
-        loc += "," + item.getLine() + "," + item.getColumn();
+        loc += "," + toZeroBased(itemData.line) + "," + toZeroBased(itemData.column);
       }
       String nameList = GSON.toJson(item.nameList(), DartTestLocationProvider.STRING_LIST_TYPE);
       location = loc + "," + nameList;
@@ -451,149 +428,94 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
     messageBuilder.addAttribute("locationHint", location);
   }
 
-  private static long getTimestamp(JsonObject obj) throws ParseException {
-    return getLong(obj, JSON_MILLIS);
-  }
-
-  private static long getLong(JsonObject obj, String name) throws ParseException {
-    JsonElement val = obj == null ? null : obj.get(name);
-    if (val == null || !val.isJsonPrimitive()) throw new ParseException("Value is not type long: " + val, 0);
-    return val.getAsLong();
+  private static int toZeroBased(int lineOrColumn) {
+    return lineOrColumn < 0 ? -1 : lineOrColumn - 1;
   }
 
-  private static boolean getBoolean(JsonObject obj, String name) throws ParseException {
-    JsonElement val = obj == null ? null : obj.get(name);
-    if (val == null || !val.isJsonPrimitive()) throw new ParseException("Value is not type boolean: " + val, 0);
-    return val.getAsBoolean();
+  private static long getTimestamp(@NotNull DartTestEvent event) throws ParseException {
+    if (event.time < 0) throw new ParseException("Value is not type long: " + event.time, 0);
+    return event.time;
   }
 
   @NotNull
-  private Test getTest(JsonObject obj) throws ParseException {
-    return getItem(obj, myTestData);
-  }
+  private Test getTest(@NotNull DartTestEvent event) throws ParseException {
+    if (event.testId != DartTestEvent.NO_VALUE) {
+      final Test test = myTestData.get(event.testId);
+      if (test == null) throw new ParseException("Unknown testID: " + event.testId, 0);
+      return test;
+    }
 
-  @NotNull
-  private Group getGroup(JsonObject obj) throws ParseException {
-    return getItem(obj, myGroupData);
+    final DartTestEvent.ItemData testData = getItemData(event.test);
+    final Test test = Test.from(testData, myGroupData, mySuiteData);
+    myTestData.put(test.getId(), test);
+    return test;
   }
 
   @NotNull
-  private Suite getSuite(JsonObject obj) throws ParseException {
-    return getItem(obj, mySuiteData);
+  private Group getGroup(@NotNull DartTestEvent event) throws ParseException {
+    final Group group = Group.from(getItemData(event.group), myGroupData, mySuiteData);
+    myGroupData.put(group.getId(), group);
+    return group;
   }
 
   @NotNull
-  private <T extends Item> T getItem(JsonObject obj, Map<Integer, T> items) throws ParseException {
-    if (obj == null) throw new ParseException("Unexpected null json object", 0);
-    T item;
-    JsonElement id = obj.get(JSON_ID);
-    if (id != null) {
-      if (items == myTestData) {
-        @SuppressWarnings("unchecked") T type = (T)Test.from(obj, myGroupData, mySuiteData);
-        item = type;
-      }
-      else if (items == myGroupData) {
-        @SuppressWarnings("unchecked") T group = (T)Group.from(obj, myGroupData, mySuiteData);
-        item = group;
-      }
-      else {
-        @SuppressWarnings("unchecked") T suite = (T)Suite.from(obj);
-        item = suite;
-      }
-      items.put(id.getAsInt(), item);
-    }
-    else {
-      JsonElement testId = obj.get(JSON_TEST_ID);
-      if (testId != null) {
-        int baseId = testId.getAsInt();
-        item = items.get(baseId);
-      }
-      else {
-        JsonElement testObj = obj.get(DEF_TEST);
-        if (testObj != null) {
-          return getItem(testObj.getAsJsonObject(), items);
-        }
-        else {
-          throw new ParseException("No testId in json object", 0);
-        }
-      }
-    }
-    return item;
+  private Suite getSuite(@NotNull DartTestEvent event) throws ParseException {
+    final Suite suite = Suite.from(getItemData(event.suite));
+    mySuiteData.put(suite.getId(), suite);
+    return suite;
   }
 
   @NotNull
-  private static String getErrorMessage(JsonObject obj) {
-    return nonNullJsonValue(obj, JSON_ERROR_MESSAGE, "<no error message>");
+  private static DartTestEvent.ItemData getItemData(@Nullable DartTestEvent.ItemData itemData) throws ParseException {
+    if (itemData == null) throw new ParseException("Unexpected null json object", 0);
+    if (!itemData.hasId) throw new ParseException("No id in json object", 0);
+    return itemData;
   }
 
   @NotNull
-  private static String getMessage(JsonObject obj) {
-    return nonNullJsonValue(obj, JSON_MESSAGE, "<no message>");
+  private static String getErrorMessage(@NotNull DartTestEvent event) {
+    return StringUtil.notNullize(event.error, "<no error message>");
   }
 
   @NotNull
-  private static String getStackTrace(JsonObject obj) {
-    return nonNullJsonValue(obj, JSON_STACK_TRACE, "<no stack trace>");
+  private static String getMessage(@NotNull DartTestEvent event) {
+    return StringUtil.notNullize(event.message, "<no message>");
   }
 
   @NotNull
-  private static String getResult(JsonObject obj) {
-    return nonNullJsonValue(obj, JSON_RESULT, "<no result>");
+  private static String getStackTrace(@NotNull DartTestEvent event) {
+    return StringUtil.notNullize(event.stackTrace, "<no stack trace>");
   }
 
   @NotNull
-  private static String nonNullJsonValue(JsonObject obj, @NotNull String id, @NotNull String def) {
-    JsonElement val = obj == null ? null : obj.get(id);
-    if (val == null || !val.isJsonPrimitive()) return def;
-    return val.getAsString();
+  private static String getResult(@NotNull DartTestEvent event) {
+    return StringUtil.notNullize(event.result, "<no result>");
   }
 
+  /**
+   * Only the data needed after the event which describes an item is kept, as a run may have hundreds of thousands of tests.
+   * Locations and metadata are used when the event is handled.
+   */
   private static class Item {
     protected static final String NO_NAME = "<no name>";
     private final int myId;
     private final String myName;
     private final Group myParent;
     private final Suite mySuite;
-    private final Metadata myMetadata;
-    private final int myLine;
-    private final int myColumn;
-    private final String myUrl;
 
-    static int extractInt(JsonObject obj, String memberName) {
-      JsonElement elem = obj.get(memberName);
-      if (elem == null || !elem.isJsonPrimitive()) return -1;
-      return elem.getAsInt();
+    static Suite lookupSuite(DartTestEvent.ItemData itemData, Int2ObjectMap<Suite> suites) {
+      return itemData.suiteId == DartTestEvent.NO_VALUE ? null : suites.get(itemData.suiteId);
     }
 
-    static String extractString(JsonObject obj, String memberName, String defaultResult) {
-      JsonElement elem = obj.get(memberName);
-      if (elem == null || elem.isJsonNull()) return defaultResult;
-      return elem.getAsString();
+    static Group lookupParent(DartTestEvent.ItemData itemData, Int2ObjectMap<Group> groups) {
+      return itemData.parentId == DartTestEvent.NO_VALUE ? null : groups.get(itemData.parentId);
     }
 
-    static Metadata extractMetadata(JsonObject obj) {
-      return Metadata.from(obj.get(DEF_METADATA));
-    }
-
-    static Suite lookupSuite(JsonObject obj, Map<Integer, Suite> suites) {
-      JsonElement suiteObj = obj.get(JSON_SUITE_ID);
-      Suite suite = null;
-      if (suiteObj != null && suiteObj.isJsonPrimitive()) {
-        int parentId = suiteObj.getAsInt();
-        suite = suites.get(parentId);
-      }
-      return suite;
-    }
-
-    Item(int id, String name, Group parent, Suite suite, Metadata metadata, int line, int column, String url) {
+    Item(int id, String name, Group parent, Suite suite) {
       myId = id;
       myName = name;
       myParent = parent;
       mySuite = suite;
-      myMetadata = metadata;
-      myLine = line;
-      myColumn = column;
-      myUrl = url;
     }
 
     int getId() {
@@ -648,10 +570,6 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
       return myParent;
     }
 
-    Metadata getMetadata() {
-      return myMetadata;
-    }
-
     boolean isArtificial() {
       return NO_NAME.equals(myName) && myParent == null && !hasSuite();
     }
@@ -687,18 +605,6 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
       names.add(StringUtil.escapeStringCharacters(getBaseName()));
     }
 
-    public int getLine() {
-      return myLine;
-    }
-
-    public int getColumn() {
-      return myColumn;
-    }
-
-    public String getUrl() {
-      return myUrl;
-    }
-
     public String toString() {
       return getClass().getSimpleName() + "(" + myId + "," + myName + ")";
     }
@@ -707,22 +613,15 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
   private static class Test extends Item {
     private boolean myTestStartReported = false;
     private boolean myTestErrorReported = false;
+    private long myStartTime;
 
-    static Test from(JsonObject obj, Map<Integer, Group> groups, Map<Integer, Suite> suites) {
-      int[] groupIds = GSON.fromJson(obj.get(JSON_GROUP_IDS), (Type)int[].class);
-      Group parent = null;
-      if (groupIds != null && groupIds.length > 0) {
-        parent = groups.get(groupIds[groupIds.length - 1]);
-      }
-      Suite suite = lookupSuite(obj, suites);
-      final int line = extractInt(obj, JSON_LINE);
-      final int column = extractInt(obj, JSON_COLUMN);
-      return new Test(extractInt(obj, JSON_ID), extractString(obj, JSON_NAME, NO_NAME), parent, suite, extractMetadata(obj),
-                      line < 0 ? -1 : line - 1, column < 0 ? -1 : column - 1, extractString(obj, JSON_URL, null));
+    static Test from(DartTestEvent.ItemData itemData, Int2ObjectMap<Group> groups, Int2ObjectMap<Suite> suites) {
+      return new Test(itemData.id, StringUtil.notNullize(itemData.name, NO_NAME), lookupParent(itemData, groups),
+                      lookupSuite(itemData, suites));
     }
 
-    Test(int id, String name, Group parent, Suite suite, Metadata metadata, int line, int column, String url) {
-      super(id, name, parent, suite, metadata, line, column, url);
+    Test(int id, String name, Group parent, Suite suite) {
+      super(id, name, parent, suite);
     }
 
     public void testDone() {
@@ -736,23 +635,13 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
     private final int myTestCount;
     private int myDoneTestsCount = 0;
 
-    static Group from(JsonObject obj, Map<Integer, Group> groups, Map<Integer, Suite> suites) {
-      JsonElement parentObj = obj.get(JSON_PARENT_ID);
-      Group parent = null;
-      if (parentObj != null && parentObj.isJsonPrimitive()) {
-        int parentId = parentObj.getAsInt();
-        parent = groups.get(parentId);
-      }
-      Suite suite = lookupSuite(obj, suites);
-      final int line = extractInt(obj, JSON_LINE);
-      final int column = extractInt(obj, JSON_COLUMN);
-      return new Group(extractInt(obj, JSON_ID), extractString(obj, JSON_NAME, NO_NAME), parent, suite, extractMetadata(obj),
-                       extractInt(obj, JSON_TEST_COUNT), line < 0 ? -1 : line - 1, column < 0 ? -1 : column - 1,
-                       extractString(obj, JSON_URL, null));
+    static Group from(DartTestEvent.ItemData itemData, Int2ObjectMap<Group> groups, Int2ObjectMap<Suite> suites) {
+      return new Group(itemData.id, StringUtil.notNullize(itemData.name, NO_NAME), lookupParent(itemData, groups),
+                       lookupSuite(itemData, suites), itemData.testCount);
     }
 
-    Group(int id, String name, Group parent, Suite suite, Metadata metadata, int count, int line, int column, String url) {
-      super(id, name, parent, suite, metadata, line, column, url);
+    Group(int id, String name, Group parent, Suite suite, int count) {
+      super(id, name, parent, suite);
       myTestCount = count;
     }
 
@@ -774,40 +663,22 @@ public final class DartTestEventsConverter extends OutputToGeneralTestEventsConv
   }
 
   private static class Suite extends Item {
-    static Metadata NoMetadata = new Metadata();
     static String NONE = "<none>";
 
-    static Suite from(JsonObject obj) {
-      return new Suite(extractInt(obj, JSON_ID), extractString(obj, JSON_PATH, NONE), extractString(obj, JSON_PLATFORM, NONE));
+    static Suite from(DartTestEvent.ItemData itemData) {
+      return new Suite(itemData.id, itemData.path == null ? NONE : itemData.path);
     }
 
-    private final String myPlatform;
-
-    Suite(int id, String path, String platform) {
-      super(id, path, null, null, NoMetadata, -1, -1, "file://" + path);
-      myPlatform = platform;
+    Suite(int id, String path) {
+      super(id, path, null, null);
     }
 
     String getPath() {
       return getName();
     }
 
-    String getPlatform() {
-      return myPlatform;
-    }
-
     boolean hasPath() {
       return !Strings.areSameInstance(getPath(), NONE);
     }
   }
-
-  private static class Metadata {
-    @SuppressWarnings("unused") private boolean skip; // assigned by GSON via reflection
-    @SuppressWarnings("unused") private String skipReason; // assigned by GSON via reflection
-
-    static Metadata from(JsonElement elem) {
-      if (elem == null) return new Metadata();
-      return GSON.fromJson(elem, (Type)Metadata.class);
-    }
-  }
 }
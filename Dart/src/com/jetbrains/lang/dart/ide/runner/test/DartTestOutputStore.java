@@ -0,0 +1,61 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.jetbrains.lang.dart.ide.runner.test;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.registry.Registry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Keeps large test output on disk instead of in the test tree, which holds the output of all tests until the run is closed.
+ * <p>
+ * Enabled by the {@code dart.test.output.spill.to.disk} registry key. Output longer than {@link #SPILL_THRESHOLD} is written
+ * to a file of the run and is replaced in the console with its beginning and a link to the file.
+ * The files are deleted on exit.
+ */
+final class DartTestOutputStore {
+  private static final Logger LOG = Logger.getInstance(DartTestOutputStore.class);
+
+  static final int SPILL_THRESHOLD = 16 * 1024;
+  private static final int HEAD_LENGTH = 1024;
+
+  private final boolean myEnabled;
+  private @Nullable File myDirectory;
+  private int myFileCount;
+
+  DartTestOutputStore() {
+    this(Registry.is("dart.test.output.spill.to.disk", false));
+  }
+
+  DartTestOutputStore(boolean enabled) {
+    myEnabled = enabled;
+  }
+
+  /**
+   * @return the output to show in the console
+   */
+  @NotNull
+  String store(int testId, @NotNull String output) {
+    if (!myEnabled || output.length() <= SPILL_THRESHOLD) return output;
+
+    try {
+      if (myDirectory == null) {
+        myDirectory = FileUtil.createTempDirectory("dart-test-output", null, true);
+      }
+      File file = new File(myDirectory, testId + "-" + ++myFileCount + ".txt");
+      Files.writeString(file.toPath(), output, StandardCharsets.UTF_8);
+      return output.substring(0, HEAD_LENGTH) +
+             "\n... " + (output.length() - HEAD_LENGTH) + " more characters in " + file.toURI() + "\n";
+    }
+    catch (IOException e) {
+      LOG.warn("Cannot store test output", e);
+      return output;
+    }
+  }
+}
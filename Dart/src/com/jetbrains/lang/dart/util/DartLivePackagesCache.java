@@ -0,0 +1,173 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.jetbrains.lang.dart.util;
+
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.ArrayUtil;
+import com.intellij.util.PairConsumer;
+import com.intellij.util.containers.CollectionFactory;
+import com.jetbrains.lang.dart.analyzer.DartAnalysisServerService;
+import com.jetbrains.lang.dart.sdk.DartSdk;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.jetbrains.lang.dart.util.DartUrlResolver.PACKAGE_PREFIX;
+
+/**
+ * Live packages of each pubspec.yaml file, shared by all {@link DartUrlResolverImpl} instances of the project.
+ * <p>
+ * Packages are taken from .dart_tool/package_config.json (or .packages for old SDKs) or, if there's none,
+ * from the path dependencies of pubspec.yaml files. They are computed once and are recomputed only when these files change,
+ * files are created or deleted, or project roots change; typing in Dart files doesn't affect them.
+ */
+@Service(Service.Level.PROJECT)
+public final class DartLivePackagesCache {
+  private final @NotNull Project myProject;
+  private final ConcurrentMap<VirtualFile, CachedValue<LivePackages>> myPubspecToLivePackages = CollectionFactory.createConcurrentWeakMap();
+
+  public static DartLivePackagesCache getInstance(@NotNull Project project) {
+    return project.getService(DartLivePackagesCache.class);
+  }
+
+  public DartLivePackagesCache(@NotNull Project project) {
+    myProject = project;
+  }
+
+  public @NotNull LivePackages getLivePackages(@NotNull VirtualFile pubspecYamlFile) {
+    return myPubspecToLivePackages.computeIfAbsent(pubspecYamlFile, file -> CachedValuesManager.getManager(myProject)
+      .createCachedValue(() -> computeLivePackages(file), false)).getValue();
+  }
+
+  private @NotNull CachedValueProvider.Result<LivePackages> computeLivePackages(@NotNull VirtualFile pubspecYamlFile) {
+    final List<Object> dependencies = new ArrayList<>();
+    dependencies.add(ProjectRootManager.getInstance(myProject));
+    // package_config.json and package folders may appear
+    dependencies.add(VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS);
+
+    final LivePackages livePackages = new LivePackages();
+    final VirtualFile baseDir = pubspecYamlFile.getParent();
+    if (!pubspecYamlFile.isValid() || baseDir == null) {
+      return new CachedValueProvider.Result<>(livePackages, ArrayUtil.toObjectArray(dependencies));
+    }
+
+    final DartSdk sdk = DartSdk.getDartSdk(myProject);
+    final VirtualFile packagesFile;
+    final Map<String, String> packagesMap;
+    if (sdk == null || DartAnalysisServerService.isDartSdkVersionSufficientForPackageConfigJson(sdk)) {
+      packagesFile = DotPackagesFileUtil.getPackageConfigJsonFile(pubspecYamlFile);
+      packagesMap = packagesFile != null ? DotPackagesFileUtil.getPackagesMapFromPackageConfigJsonFile(myProject, packagesFile) : null;
+    }
+    else {
+      packagesFile = baseDir.findChild(DotPackagesFileUtil.DOT_PACKAGES);
+      packagesMap = packagesFile != null ? DotPackagesFileUtil.getPackagesMap(myProject, packagesFile) : null;
+    }
+
+    if (packagesFile != null) {
+      dependencies.add(packagesFile);
+    }
+
+    if (packagesMap != null) {
+      for (Map.Entry<String, String> entry : packagesMap.entrySet()) {
+        final VirtualFile packageDir = pubspecYamlFile.getFileSystem().findFileByPath(entry.getValue());
+        if (packageDir != null) {
+          livePackages.add(entry.getKey(), packageDir);
+        }
+      }
+    }
+    else {
+      final List<VirtualFile> pubspecYamlFiles = new ArrayList<>();
+      pubspecYamlFiles.add(pubspecYamlFile);
+
+      final String name = PubspecYamlUtil.getDartProjectName(pubspecYamlFile);
+      final VirtualFile libFolder = baseDir.findChild(PubspecYamlUtil.LIB_DIR_NAME);
+      if (name != null && libFolder != null && libFolder.isDirectory()) {
+        livePackages.add(name, libFolder);
+      }
+
+      PubspecYamlUtil.processInProjectPathPackagesRecursively(myProject, pubspecYamlFile, (packageName, packageDir) -> {
+        livePackages.add(packageName, packageDir);
+        final VirtualFile otherPubspecYamlFile = packageDir.getParent().findChild(PubspecYamlUtil.PUBSPEC_YAML);
+        if (otherPubspecYamlFile != null) {
+          pubspecYamlFiles.add(otherPubspecYamlFile);
+        }
+      });
+
+      dependencies.add(createPubspecYamlFilesTracker(pubspecYamlFiles));
+    }
+
+    return new CachedValueProvider.Result<>(livePackages, ArrayUtil.toObjectArray(dependencies));
+  }
+
+  /**
+   * Tracks pubspec.yaml files the same way as {@link PubspecYamlUtil} does, including unsaved changes.
+   */
+  private static @NotNull ModificationTracker createPubspecYamlFilesTracker(@NotNull List<VirtualFile> pubspecYamlFiles) {
+    return () -> {
+      long result = 0;
+      for (VirtualFile file : pubspecYamlFiles) {
+        final Document cachedDocument = FileDocumentManager.getInstance().getCachedDocument(file);
+        result += cachedDocument != null ? cachedDocument.getModificationStamp() : file.getModificationCount();
+      }
+      return result;
+    };
+  }
+
+  /**
+   * Package folders by package name, and package names by package folder to find the package of a file
+   * with a walk up its parent folders instead of checking every package.
+   */
+  public static final class LivePackages {
+    private final Map<String, VirtualFile> myPackageNameToDirMap = new HashMap<>();
+    private final Map<VirtualFile, String> myDirToPackageNameMap = new HashMap<>();
+
+    private LivePackages() {
+    }
+
+    private void add(@NotNull String packageName, @NotNull VirtualFile packageDir) {
+      myPackageNameToDirMap.put(packageName, packageDir);
+      myDirToPackageNameMap.putIfAbsent(packageDir, packageName);
+    }
+
+    public @Nullable VirtualFile getPackageDir(@NotNull String packageName) {
+      return myPackageNameToDirMap.get(packageName);
+    }
+
+    public @NotNull Collection<String> getPackageNames() {
+      return Collections.unmodifiableSet(myPackageNameToDirMap.keySet());
+    }
+
+    public void processPackages(@NotNull PairConsumer<String, VirtualFile> packageNameAndDirConsumer) {
+      for (Map.Entry<String, VirtualFile> entry : myPackageNameToDirMap.entrySet()) {
+        packageNameAndDirConsumer.consume(entry.getKey(), entry.getValue());
+      }
+    }
+
+    /**
+     * @return {@code package:} URL of the file if it is in the folder of one of the packages, the innermost folder wins
+     */
+    public @Nullable String getUrlIfFileFromPackage(@NotNull VirtualFile file) {
+      if (myDirToPackageNameMap.isEmpty()) return null;
+
+      for (VirtualFile dir = file; dir != null; dir = dir.getParent()) {
+        final String packageName = myDirToPackageNameMap.get(dir);
+        if (packageName != null) {
+          return PACKAGE_PREFIX + packageName + "/" + VfsUtilCore.getRelativePath(file, dir, '/');
+        }
+      }
+      return null;
+    }
+  }
+}
@@ -19,7 +19,6 @@ import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.openapi.vfs.ex.temp.TempFileSystem;
 import com.intellij.util.PairConsumer;
-import com.jetbrains.lang.dart.analyzer.DartAnalysisServerService;
 import com.jetbrains.lang.dart.ide.index.DartLibraryIndex;
 import com.jetbrains.lang.dart.sdk.DartPackagesLibraryProperties;
 import com.jetbrains.lang.dart.sdk.DartPackagesLibraryType;
@@ -36,8 +35,8 @@ public final class DartUrlResolverImpl extends DartUrlResolver {
   @NotNull private final Project myProject;
   @Nullable private final DartSdk myDartSdk;
   @Nullable private final VirtualFile myPubspecYamlFile;
-  // myLivePackageNameToDirMap also contains packages map from .packages file if applicable
-  @NotNull private final Map<String, VirtualFile> myLivePackageNameToDirMap = new HashMap<>();
+  // myLivePackages also contains packages map from .packages file if applicable, null if pubspec.yaml file is null
+  @Nullable private final DartLivePackagesCache.LivePackages myLivePackages;
   // myPackagesMapFromLib is not empty only if pubspec.yaml file is null
   @NotNull private final Map<String, List<String>> myPackagesMapFromLib = new HashMap<>();
 
@@ -46,7 +45,7 @@ public final class DartUrlResolverImpl extends DartUrlResolver {
     myDartSdk = DartSdk.getDartSdk(project);
     myPubspecYamlFile = PubspecYamlUtil.findPubspecYamlFile(myProject, contextFile);
 
-    initLivePackageNameToDirMap();
+    myLivePackages = myPubspecYamlFile == null ? null : DartLivePackagesCache.getInstance(project).getLivePackages(myPubspecYamlFile);
 
     if (myPubspecYamlFile == null) {
       initPackagesMapFromLib(contextFile);
@@ -61,21 +60,21 @@ public final class DartUrlResolverImpl extends DartUrlResolver {
 
   @Override
   public void processLivePackages(final @NotNull PairConsumer<String, VirtualFile> packageNameAndDirConsumer) {
-    for (Map.Entry<String, VirtualFile> entry : myLivePackageNameToDirMap.entrySet()) {
-      packageNameAndDirConsumer.consume(entry.getKey(), entry.getValue());
+    if (myLivePackages != null) {
+      myLivePackages.processPackages(packageNameAndDirConsumer);
     }
   }
 
   @Override
   public Collection<String> getLivePackageNames() {
-    return myLivePackageNameToDirMap.keySet();
+    return myLivePackages != null ? myLivePackages.getPackageNames() : Collections.emptySet();
   }
 
   @Override
   @Nullable
   public VirtualFile getPackageDirIfNotInOldStylePackagesFolder(@NotNull final String packageName,
                                                                 @Nullable final String pathRelToPackageDir) {
-    final VirtualFile dir = myLivePackageNameToDirMap.get(packageName);
+    final VirtualFile dir = getLivePackageDir(packageName);
     if (dir != null) return dir;
 
     final List<String> dirPaths = myPackagesMapFromLib.get(packageName);
@@ -116,7 +115,7 @@ public final class DartUrlResolverImpl extends DartUrlResolver {
       final String packageName = slashIndex > 0 ? packageRelPath.substring(0, slashIndex) : packageRelPath;
       final String pathRelToPackageDir = slashIndex > 0 ? packageRelPath.substring(slashIndex + 1) : "";
 
-      final VirtualFile packageDir = StringUtil.isEmpty(packageName) ? null : myLivePackageNameToDirMap.get(packageName);
+      final VirtualFile packageDir = StringUtil.isEmpty(packageName) ? null : getLivePackageDir(packageName);
       if (packageDir != null) {
         return packageDir.findFileByRelativePath(pathRelToPackageDir);
       }
@@ -152,7 +151,7 @@ public final class DartUrlResolverImpl extends DartUrlResolver {
     if (myDartSdk != null) result = getUrlIfFileFromSdkLib(myProject, file, myDartSdk);
     if (result != null) return result;
 
-    result = getUrlIfFileFromLivePackage(file, myLivePackageNameToDirMap);
+    if (myLivePackages != null) result = myLivePackages.getUrlIfFileFromPackage(file);
     if (result != null) return result;
 
     result = getUrlIfFileFromDartPackagesLib(file, myPackagesMapFromLib);
@@ -183,20 +182,6 @@ public final class DartUrlResolverImpl extends DartUrlResolver {
              : null;
   }
 
-  @Nullable
-  private static String getUrlIfFileFromLivePackage(final @NotNull VirtualFile file,
-                                                    final @NotNull Map<String, VirtualFile> livePackageNameToDirMap) {
-    for (Map.Entry<String, VirtualFile> entry : livePackageNameToDirMap.entrySet()) {
-      final String packageName = entry.getKey();
-      final VirtualFile packageDir = entry.getValue();
-      final String relPath = VfsUtilCore.getRelativePath(file, packageDir, '/');
-      if (relPath != null) {
-        return PACKAGE_PREFIX + packageName + "/" + relPath;
-      }
-    }
-    return null;
-  }
-
   @Nullable
   private static String getUrlIfFileFromDartPackagesLib(final @NotNull VirtualFile file,
                                                         final @NotNull Map<String, List<String>> pubListPackageDirsMap) {
@@ -211,41 +196,9 @@ public final class DartUrlResolverImpl extends DartUrlResolver {
     return null;
   }
 
-  private void initLivePackageNameToDirMap() {
-    final VirtualFile baseDir = myPubspecYamlFile == null ? null : myPubspecYamlFile.getParent();
-    if (myPubspecYamlFile == null || baseDir == null) return;
-
-    Map<String, String> packagesMap;
-    if (myDartSdk == null || DartAnalysisServerService.isDartSdkVersionSufficientForPackageConfigJson(myDartSdk)) {
-      VirtualFile packagesFile = DotPackagesFileUtil.getPackageConfigJsonFile(myPubspecYamlFile);
-      packagesMap = packagesFile != null ? DotPackagesFileUtil.getPackagesMapFromPackageConfigJsonFile(myProject, packagesFile) : null;
-    }
-    else {
-      VirtualFile packagesFile = baseDir.findChild(DotPackagesFileUtil.DOT_PACKAGES);
-      packagesMap = packagesFile != null ? DotPackagesFileUtil.getPackagesMap(myProject, packagesFile) : null;
-    }
-
-    if (packagesMap != null) {
-      for (Map.Entry<String, String> entry : packagesMap.entrySet()) {
-        final String packageName = entry.getKey();
-        final String packagePath = entry.getValue();
-        final VirtualFile packageDir = myPubspecYamlFile.getFileSystem().findFileByPath(packagePath);
-        if (packageDir != null) {
-          myLivePackageNameToDirMap.put(packageName, packageDir);
-        }
-      }
-    }
-    else {
-      final String name = PubspecYamlUtil.getDartProjectName(myPubspecYamlFile);
-      final VirtualFile libFolder = baseDir.findChild(PubspecYamlUtil.LIB_DIR_NAME);
-
-      if (name != null && libFolder != null && libFolder.isDirectory()) {
-        myLivePackageNameToDirMap.put(name, libFolder);
-      }
-
-      PubspecYamlUtil
-        .processInProjectPathPackagesRecursively(myProject, myPubspecYamlFile, myLivePackageNameToDirMap::put);
-    }
+  @Nullable
+  private VirtualFile getLivePackageDir(@NotNull String packageName) {
+    return myLivePackages != null ? myLivePackages.getPackageDir(packageName) : null;
   }
 
   private void initPackagesMapFromLib(final @NotNull VirtualFile contextFile) {
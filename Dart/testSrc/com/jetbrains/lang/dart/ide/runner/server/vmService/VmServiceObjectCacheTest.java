@@ -0,0 +1,215 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.jetbrains.lang.dart.ide.runner.server.vmService;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import junit.framework.TestCase;
+import org.dartlang.vm.service.VmService;
+import org.dartlang.vm.service.consumer.GetObjectConsumer;
+import org.dartlang.vm.service.consumer.InvokeConsumer;
+import org.dartlang.vm.service.element.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class VmServiceObjectCacheTest extends TestCase {
+  private static final String ISOLATE_ID = "isolates/1";
+
+  private static final Map<String, String> RECORDED_RESPONSES = Map.of(
+    "classes/1",
+    "{\"type\":\"Class\",\"id\":\"classes/1\",\"name\":\"Foo\",\"fields\":[]}",
+    "objects/1",
+    "{\"type\":\"Instance\",\"kind\":\"PlainInstance\",\"id\":\"objects/1\",\"fields\":[]}",
+    "objects/2[0:2]",
+    "{\"type\":\"Instance\",\"kind\":\"List\",\"id\":\"objects/2\",\"length\":3,\"offset\":0,\"count\":2,\"elements\":[]}",
+    "objects/2[2:1]",
+    "{\"type\":\"Instance\",\"kind\":\"List\",\"id\":\"objects/2\",\"length\":3,\"offset\":2,\"count\":1,\"elements\":[]}",
+    "objects/3",
+    "{\"type\":\"Sentinel\",\"kind\":\"Expired\",\"valueAsString\":\"<expired>\"}"
+  );
+
+  /**
+   * Answers {@code getObject} requests with {@link #RECORDED_RESPONSES} when {@link #respond()} is called.
+   */
+  private static class RecordedVmService extends VmService {
+    private final List<String> myRequests = new ArrayList<>();
+    private final List<Runnable> myResponses = new ArrayList<>();
+
+    @Override
+    public void getObject(String isolateId, String objectId, Integer offset, Integer count, GetObjectConsumer consumer) {
+      final String key = offset == null && count == null ? objectId : objectId + "[" + offset + ":" + count + "]";
+      myRequests.add(key);
+      final String response = RECORDED_RESPONSES.get(key);
+      myResponses.add(() -> {
+        if (response == null) {
+          final JsonObject error = new JsonObject();
+          error.addProperty("code", -32602);
+          error.addProperty("message", "Invalid params");
+          consumer.onError(new RPCError(error));
+          return;
+        }
+        final JsonObject json = JsonParser.parseString(response).getAsJsonObject();
+        final String type = json.get("type").getAsString();
+        switch (type) {
+          case "Class" -> consumer.received(new ClassObj(json));
+          case "Instance" -> consumer.received(new Instance(json));
+          case "Sentinel" -> consumer.received(new Sentinel(json));
+          default -> fail(type);
+        }
+      });
+    }
+
+    @Override
+    public void invoke(String isolateId,
+                       String targetId,
+                       String selector,
+                       List<String> argumentIds,
+                       Boolean disableBreakpoints,
+                       InvokeConsumer consumer) {
+      myRequests.add(targetId + "." + selector + "()");
+      myResponses.add(() -> consumer.received(new InstanceRef(JsonParser.parseString(
+        "{\"type\":\"@Instance\",\"kind\":\"String\",\"id\":\"objects/5\",\"valueAsString\":\"Foo\"}").getAsJsonObject())));
+    }
+
+    void respond() {
+      final List<Runnable> responses = new ArrayList<>(myResponses);
+      myResponses.clear();
+      responses.forEach(Runnable::run);
+    }
+  }
+
+  private static class RecordingConsumer implements GetObjectConsumer {
+    private final List<String> myResults = new ArrayList<>();
+
+    @Override
+    public void received(Obj response) {
+      myResults.add(response.getId());
+    }
+
+    @Override
+    public void received(Sentinel response) {
+      myResults.add(response.getValueAsString());
+    }
+
+    @Override
+    public void onError(RPCError error) {
+      myResults.add(error.getMessage());
+    }
+  }
+
+  private RecordedVmService myVmService;
+  private VmServiceObjectCache myCache;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    myVmService = new RecordedVmService();
+    myCache = new VmServiceObjectCache(myVmService);
+  }
+
+  private @NotNull RecordingConsumer getObject(@NotNull String objectId) {
+    final RecordingConsumer consumer = new RecordingConsumer();
+    myCache.getObject(ISOLATE_ID, objectId, null, null, consumer);
+    return consumer;
+  }
+
+  public void testObjectRequestedOncePerPause() {
+    final RecordingConsumer first = getObject("classes/1");
+    final RecordingConsumer second = getObject("classes/1");
+    assertEquals(List.of("classes/1"), myVmService.myRequests);
+    assertEquals(List.of(), first.myResults);
+
+    myVmService.respond();
+    assertEquals(List.of("classes/1"), first.myResults);
+    assertEquals(List.of("classes/1"), second.myResults);
+
+    final RecordingConsumer third = getObject("classes/1");
+    assertEquals(List.of("classes/1"), third.myResults);
+    assertEquals(List.of("classes/1"), myVmService.myRequests);
+    assertEquals(1, myCache.getCachedObjectCount(ISOLATE_ID));
+  }
+
+  public void testObjectRequestedAgainAfterResume() {
+    getObject("objects/1");
+    myVmService.respond();
+    myCache.invalidate(ISOLATE_ID);
+    assertEquals(0, myCache.getCachedObjectCount(ISOLATE_ID));
+
+    final RecordingConsumer consumer = getObject("objects/1");
+    myVmService.respond();
+    assertEquals(List.of("objects/1"), consumer.myResults);
+    assertEquals(List.of("objects/1", "objects/1"), myVmService.myRequests);
+  }
+
+  public void testResponseAfterResumeNotCached() {
+    final RecordingConsumer consumer = getObject("objects/1");
+    myCache.invalidate(ISOLATE_ID);
+    myVmService.respond();
+    assertEquals(List.of("objects/1"), consumer.myResults);
+    assertEquals(0, myCache.getCachedObjectCount(ISOLATE_ID));
+  }
+
+  public void testToStringKeepsObjects() {
+    getObject("objects/1");
+    myVmService.respond();
+
+    final List<String> presentations = new ArrayList<>();
+    myCache.invoke(ISOLATE_ID, "objects/1", "toString", new InvokeConsumer() {
+      @Override
+      public void received(InstanceRef response) {
+        presentations.add(response.getValueAsString());
+      }
+
+      @Override
+      public void received(ErrorRef response) {
+        fail(response.getMessage());
+      }
+
+      @Override
+      public void received(Sentinel response) {
+        fail(response.getValueAsString());
+      }
+
+      @Override
+      public void onError(RPCError error) {
+        fail(error.getMessage());
+      }
+    });
+    myVmService.respond();
+    assertEquals(List.of("Foo"), presentations);
+
+    final RecordingConsumer consumer = getObject("objects/1");
+    assertEquals(List.of("objects/1"), consumer.myResults);
+    assertEquals(List.of("objects/1", "objects/1.toString()"), myVmService.myRequests);
+    assertEquals(1, myCache.getCachedObjectCount(ISOLATE_ID));
+  }
+
+  public void testCollectionPages() {
+    final RecordingConsumer firstPage = new RecordingConsumer();
+    final RecordingConsumer secondPage = new RecordingConsumer();
+    myCache.getObject(ISOLATE_ID, "objects/2", 0, 2, firstPage);
+    myCache.getObject(ISOLATE_ID, "objects/2", 2, 1, secondPage);
+    myCache.getObject(ISOLATE_ID, "objects/2", 0, 2, new RecordingConsumer());
+    myVmService.respond();
+
+    assertEquals(List.of("objects/2[0:2]", "objects/2[2:1]"), myVmService.myRequests);
+    assertEquals(List.of("objects/2"), firstPage.myResults);
+    assertEquals(List.of("objects/2"), secondPage.myResults);
+    assertEquals(2, myCache.getCachedObjectCount(ISOLATE_ID));
+  }
+
+  public void testSentinelsAndErrorsNotCached() {
+    final RecordingConsumer expired = getObject("objects/3");
+    final RecordingConsumer missing = getObject("objects/4");
+    myVmService.respond();
+    assertEquals(List.of("<expired>"), expired.myResults);
+    assertEquals(List.of("Invalid params"), missing.myResults);
+    assertEquals(0, myCache.getCachedObjectCount(ISOLATE_ID));
+
+    getObject("objects/3");
+    getObject("objects/4");
+    assertEquals(List.of("objects/3", "objects/4", "objects/3", "objects/4"), myVmService.myRequests);
+  }
+}
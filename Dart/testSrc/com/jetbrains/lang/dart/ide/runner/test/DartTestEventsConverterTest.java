@@ -21,6 +21,10 @@ import org.jetbrains.annotations.Nullable;
 
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.TreeModel;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -339,6 +343,42 @@ public class DartTestEventsConverterTest extends BaseSMTRunnerTestCase {
     runTest(events, signals, new int[]{});
   }
 
+  public void testDecodeEvent() {
+    DartTestEvent event = DartTestEvent.decode(
+      "{'test':{'id':5,'name':'a b','suiteID':0,'groupIDs':[2,3,4],'metadata':{'skip':true,'skipReason':null}," +
+      "'line':12,'column':3,'url':'file:///a_test.dart','root_line':null,'tags':['x',{'y':[1]}]},'type':'testStart','time':196}");
+    assertNotNull(event);
+    assertEquals("testStart", event.type);
+    assertEquals(196, event.time);
+    assertEquals(DartTestEvent.NO_VALUE, event.testId);
+    DartTestEvent.ItemData test = event.test;
+    assertNotNull(test);
+    assertEquals(5, test.id);
+    assertEquals("a b", test.name);
+    assertEquals(4, test.parentId);
+    assertEquals(12, test.line);
+    assertEquals("file:///a_test.dart", test.url);
+    assertTrue(test.skip);
+    assertNull(test.skipReason);
+
+    assertNull(DartTestEvent.decode("Observatory listening on http://127.0.0.1:51706"));
+    assertNull(DartTestEvent.decode("\n"));
+    assertThrows(JsonSyntaxException.class, () -> DartTestEvent.decode("{'testID':9,'error':'Expected: <false>"));
+    assertThrows(JsonSyntaxException.class, () -> DartTestEvent.decode("{'testID':9} trailing"));
+  }
+
+  public void testOutputStore() throws IOException {
+    String output = "line\n".repeat(DartTestOutputStore.SPILL_THRESHOLD);
+    assertSame(output, new DartTestOutputStore(false).store(1, output));
+    assertSame("short", new DartTestOutputStore(true).store(1, "short"));
+
+    String stored = new DartTestOutputStore(true).store(1, output);
+    assertTrue(stored.length() < DartTestOutputStore.SPILL_THRESHOLD);
+    assertTrue(output.startsWith(stored.substring(0, stored.indexOf("\n..."))));
+    String url = stored.substring(stored.lastIndexOf(" ") + 1).trim();
+    assertEquals(output, Files.readString(Path.of(URI.create(url))));
+  }
+
   private void runTest(String[] jsonEvents, String[] signals, int[] parents) {
     DartTestEventsConverter parser = myEventsConverter;
     Key key = new Key("stdout");
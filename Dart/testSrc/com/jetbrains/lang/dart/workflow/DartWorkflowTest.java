@@ -9,6 +9,7 @@ import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.jetbrains.lang.dart.DartCodeInsightFixtureTestCase;
 import com.jetbrains.lang.dart.DartStartupActivityKt;
+import com.jetbrains.lang.dart.util.DartLivePackagesCache;
 import com.jetbrains.lang.dart.util.DartTestUtils;
 import com.jetbrains.lang.dart.util.DartUrlResolver;
 
@@ -178,4 +179,23 @@ public class DartWorkflowTest extends DartCodeInsightFixtureTestCase {
     assertEquals(rootPath + "/pub/global/cache/SomePackage/lib/somepack.dart", file.getPath());
     assertEquals("package:SomePackage/somepack.dart", resolver.getDartUrlForFile(file));
   }
+
+  public void testLivePackagesCache() {
+    final VirtualFile pubspec = myFixture.addFileToProject("pubspec.yaml", "name: RootProject").getVirtualFile();
+    final VirtualFile rootLib = myFixture.addFileToProject("lib/src/rootlib.dart", "").getVirtualFile();
+    final VirtualFile otherLib = myFixture.addFileToProject("other/lib/otherlib.dart", "").getVirtualFile();
+    final VirtualFile dotPackages = myFixture.addFileToProject(".packages", "RootProject:lib/").getVirtualFile();
+
+    final DartLivePackagesCache.LivePackages livePackages = DartLivePackagesCache.getInstance(getProject()).getLivePackages(pubspec);
+    assertSame(livePackages, DartLivePackagesCache.getInstance(getProject()).getLivePackages(pubspec));
+    assertEquals("package:RootProject/src/rootlib.dart", DartUrlResolver.getInstance(getProject(), rootLib).getDartUrlForFile(rootLib));
+    assertEquals("package:RootProject/src/rootlib.dart", livePackages.getUrlIfFileFromPackage(rootLib));
+    assertNull(livePackages.getUrlIfFileFromPackage(otherLib));
+
+    myFixture.saveText(dotPackages, "RootProject:lib/\nOther:other/lib/");
+    final DartUrlResolver resolver = DartUrlResolver.getInstance(getProject(), rootLib);
+    assertSameElements(resolver.getLivePackageNames(), "RootProject", "Other");
+    assertEquals(otherLib, resolver.findFileByDartUrl("package:Other/otherlib.dart"));
+    assertEquals("package:Other/otherlib.dart", resolver.getDartUrlForFile(otherLib));
+  }
 }
@@ -16,7 +16,13 @@ import com.jetbrains.plugins.meteor.spacebars.lang.parsing.SpacebarsParsing;
 import org.jetbrains.annotations.NotNull;
 
 public final class SpacebarsParseDefinition extends HbParseDefinition {
-  private static final IFileElementType FILE = new IStubFileElementType<>("spacebars", SpacebarsLanguageDialect.INSTANCE);
+  private static final IFileElementType FILE = new IStubFileElementType<>("spacebars", SpacebarsLanguageDialect.INSTANCE) {
+    @Override
+    public int getStubVersion() {
+      // stubs of Handlebars partial and helper names
+      return 1;
+    }
+  };
 
   @Override
   public @NotNull PsiParser createParser(Project project) {
@@ -1,14 +1,17 @@
 // Copyright 2000-2019 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
 package org.jetbrains.plugins.cucumber.java;
 
+import com.intellij.lang.Language;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleUtilCore;
 import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.ModificationTracker;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiClassOwner;
 import com.intellij.psi.PsiDirectory;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiModificationTracker;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.plugins.cucumber.CucumberUtil;
 import org.jetbrains.plugins.cucumber.psi.GherkinFile;
@@ -16,6 +19,7 @@ import org.jetbrains.plugins.cucumber.steps.AbstractCucumberExtension;
 import org.jetbrains.plugins.cucumber.steps.AbstractStepDefinition;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 public abstract class AbstractCucumberJavaExtension extends AbstractCucumberExtension {
   @Override
@@ -62,4 +66,15 @@ public abstract class AbstractCucumberJavaExtension extends AbstractCucumberExte
     }
     return result;
   }
+
+  /**
+   * @return a tracker of PSI changes in the given step definition languages and of project root changes
+   */
+  @NotNull
+  protected static ModificationTracker createStepDefinitionsModificationTracker(@NotNull Module module,
+                                                                                @NotNull Predicate<? super Language> stepLanguages) {
+    ModificationTracker psiTracker = PsiModificationTracker.getInstance(module.getProject()).forLanguages(stepLanguages::test);
+    ModificationTracker rootsTracker = ProjectRootManager.getInstance(module.getProject());
+    return () -> psiTracker.getModificationCount() + rootsTracker.getModificationCount();
+  }
 }
@@ -1,7 +1,9 @@
 package org.jetbrains.plugins.cucumber.java;
 
 import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.lang.java.JavaLanguage;
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.util.ModificationTracker;
 import com.intellij.psi.JavaPsiFacade;
 import com.intellij.psi.PsiClass;
 import com.intellij.psi.PsiFile;
@@ -29,6 +31,7 @@ public class CucumberJavaExtension extends AbstractCucumberJavaExtension {
   private static final String[] CUCUMBER_JAVA_STEP_DEFINITION_ANNOTATION_CLASSES =
     new String[]{CUCUMBER_JAVA_5_STEP_DEFINITION_ANNOTATION_CLASS_NAME, CUCUMBER_RUNTIME_JAVA_STEP_DEF_ANNOTATION,
       ZUCHINI_RUNTIME_JAVA_STEP_DEF_ANNOTATION};
+  private static final String KOTLIN_LANGUAGE_ID = "kotlin";
 
   @NotNull
   @Override
@@ -42,6 +45,13 @@ public class CucumberJavaExtension extends AbstractCucumberJavaExtension {
     return new JavaStepDefinitionCreator();
   }
 
+  @Override
+  public ModificationTracker getStepDefinitionsModificationTracker(@NotNull Module module) {
+    // step definitions are searched in the module scope regardless of the feature file, they may be declared in Kotlin as well
+    return createStepDefinitionsModificationTracker(module, language -> language.isKindOf(JavaLanguage.INSTANCE) ||
+                                                                       KOTLIN_LANGUAGE_ID.equals(language.getID()));
+  }
+
   @Override
   public List<AbstractStepDefinition> loadStepsFor(@Nullable PsiFile featureFile, @NotNull Module module) {
     final GlobalSearchScope dependenciesScope = module.getModuleWithDependenciesAndLibrariesScope(true);
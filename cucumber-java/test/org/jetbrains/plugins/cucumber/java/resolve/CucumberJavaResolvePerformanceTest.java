@@ -0,0 +1,51 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license.
+package org.jetbrains.plugins.cucumber.java.resolve;
+
+import com.intellij.psi.PsiPolyVariantReference;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.PlatformTestUtil;
+import org.jetbrains.plugins.cucumber.java.CucumberJavaCodeInsightTestCase;
+import org.jetbrains.plugins.cucumber.psi.GherkinStep;
+
+import java.util.Collection;
+
+public class CucumberJavaResolvePerformanceTest extends CucumberJavaCodeInsightTestCase {
+  private static final int STEP_DEFINITION_COUNT = 5000;
+  private static final int STEP_COUNT = 200;
+
+  public void testResolveWithManyStepDefinitions() {
+    StringBuilder stepDefinitions = new StringBuilder("""
+      package steps;
+
+      import cucumber.api.java.en.Given;
+
+      public class ManySteps {
+      """);
+    for (int i = 0; i < STEP_DEFINITION_COUNT; i++) {
+      stepDefinitions.append("  @Given(\"^the account ").append(i).append(" has (\\\\d+) items in \\\"([^\\\"]*)\\\"$\")\n")
+        .append("  public void step").append(i).append("(int count, String name) {}\n");
+    }
+    stepDefinitions.append("}\n");
+    myFixture.addFileToProject("steps/ManySteps.java", stepDefinitions.toString());
+
+    StringBuilder feature = new StringBuilder("Feature: many steps\n  Scenario: accounts\n");
+    for (int i = 0; i < STEP_COUNT; i++) {
+      feature.append("    Given the account ").append(i * (STEP_DEFINITION_COUNT / STEP_COUNT)).append(" has 3 items in \"basket\"\n");
+    }
+    myFixture.configureByText("test.feature", feature.toString());
+
+    Collection<GherkinStep> steps = PsiTreeUtil.findChildrenOfType(myFixture.getFile(), GherkinStep.class);
+    assertEquals(STEP_COUNT, steps.size());
+
+    PlatformTestUtil.newPerformanceTest(getTestName(false), () -> {
+      for (GherkinStep step : steps) {
+        for (PsiReference reference : step.getReferences()) {
+          if (reference instanceof PsiPolyVariantReference) {
+            assertEquals(1, ((PsiPolyVariantReference)reference).multiResolve(false).length);
+          }
+        }
+      }
+    }).setup(() -> myFixture.getPsiManager().dropPsiCaches()).start();
+  }
+}
@@ -2,6 +2,7 @@ package org.jetbrains.plugins.cucumber;
 
 import com.intellij.openapi.extensions.ExtensionPointName;
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.util.ModificationTracker;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import org.jetbrains.annotations.NotNull;
@@ -9,6 +10,7 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.cucumber.psi.GherkinFile;
 import org.jetbrains.plugins.cucumber.psi.impl.GherkinStepImpl;
 import org.jetbrains.plugins.cucumber.steps.AbstractStepDefinition;
+import org.jetbrains.plugins.cucumber.steps.CucumberStepDefinitionRegistry;
 
 import java.util.Collection;
 import java.util.List;
@@ -52,6 +54,18 @@ public interface CucumberJvmExtensionPoint {
   List<AbstractStepDefinition> loadStepsFor(@Nullable PsiFile featureFile, @NotNull Module module);
 
   Collection<? extends PsiFile> getStepDefinitionContainers(@NotNull GherkinFile file);
+
+  /**
+   * Allows caching the result of {@link #loadStepsFor} per module, see {@link CucumberStepDefinitionRegistry}.
+   * Only extensions whose step definitions don't depend on the feature file may support it.
+   *
+   * @return a tracker that changes whenever step definitions of the module may change,
+   * or null if step definitions must be loaded on every request
+   */
+  @Nullable
+  default ModificationTracker getStepDefinitionsModificationTracker(@NotNull Module module) {
+    return null;
+  }
   
   default boolean isGherkin6Supported(@NotNull Module module) {
     return false;
@@ -0,0 +1,93 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license.
+package org.jetbrains.plugins.cucumber.steps;
+
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.containers.ContainerUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.plugins.cucumber.CucumberJvmExtensionPoint;
+import org.jetbrains.plugins.cucumber.CucumberUtil;
+
+import java.util.*;
+
+/**
+ * Per-module cache of the step definitions provided by extensions that support caching,
+ * see {@link CucumberJvmExtensionPoint#getStepDefinitionsModificationTracker(Module)}.
+ * Steps are matched against a literal prefilter first, so only a few step definition patterns are tried per step.
+ */
+public final class CucumberStepDefinitionRegistry {
+  private final List<AbstractStepDefinition> myStepDefinitions;
+  private final StepDefinitionLiteralMatcher myMatcher;
+  private final Map<String, List<AbstractStepDefinition>> myDefinitionsByRegex = new HashMap<>();
+
+  private CucumberStepDefinitionRegistry(@NotNull List<AbstractStepDefinition> stepDefinitions) {
+    myStepDefinitions = stepDefinitions;
+    myMatcher = new StepDefinitionLiteralMatcher(ContainerUtil.map(stepDefinitions, AbstractStepDefinition::getPattern));
+    for (AbstractStepDefinition stepDefinition : stepDefinitions) {
+      String regex = stepDefinition.getCucumberRegex();
+      if (regex != null) {
+        myDefinitionsByRegex.computeIfAbsent(regex, k -> new ArrayList<>()).add(stepDefinition);
+      }
+    }
+  }
+
+  @NotNull
+  public static CucumberStepDefinitionRegistry getInstance(@NotNull Module module) {
+    return CachedValuesManager.getManager(module.getProject()).getCachedValue(module, () -> {
+      List<AbstractStepDefinition> stepDefinitions = new ArrayList<>();
+      List<ModificationTracker> dependencies = new ArrayList<>();
+      for (CucumberJvmExtensionPoint extension : CucumberJvmExtensionPoint.EP_NAME.getExtensionList()) {
+        ModificationTracker tracker = extension.getStepDefinitionsModificationTracker(module);
+        if (tracker != null) {
+          dependencies.add(tracker);
+          for (AbstractStepDefinition stepDefinition : CucumberUtil.loadFrameworkSteps(extension, null, module)) {
+            if (stepDefinition != null) {
+              stepDefinitions.add(stepDefinition);
+            }
+          }
+        }
+      }
+      if (dependencies.isEmpty()) {
+        dependencies.add(ModificationTracker.NEVER_CHANGED);
+      }
+      return CachedValueProvider.Result.create(new CucumberStepDefinitionRegistry(stepDefinitions), dependencies);
+    });
+  }
+
+  /**
+   * @return true if step definitions of the extension are provided by the registry rather than loaded on each request
+   */
+  public static boolean isCached(@NotNull CucumberJvmExtensionPoint extension, @NotNull Module module) {
+    return extension.getStepDefinitionsModificationTracker(module) != null;
+  }
+
+  @NotNull
+  public List<AbstractStepDefinition> getStepDefinitions() {
+    return Collections.unmodifiableList(myStepDefinitions);
+  }
+
+  /**
+   * Returns the step definitions that may match any of the given step names, in registration order.
+   * The result is a superset of the matching definitions, callers still need {@link AbstractStepDefinition#matches}.
+   */
+  @NotNull
+  public List<AbstractStepDefinition> getCandidates(@NotNull Collection<String> stepNames) {
+    BitSet candidates = new BitSet(myMatcher.getPatternCount());
+    for (String stepName : stepNames) {
+      candidates.or(myMatcher.getCandidates(stepName));
+    }
+
+    List<AbstractStepDefinition> result = new ArrayList<>(candidates.cardinality());
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      result.add(myStepDefinitions.get(i));
+    }
+    return result;
+  }
+
+  @NotNull
+  public List<AbstractStepDefinition> findByCucumberRegex(@NotNull String regex) {
+    return myDefinitionsByRegex.getOrDefault(regex, Collections.emptyList());
+  }
+}
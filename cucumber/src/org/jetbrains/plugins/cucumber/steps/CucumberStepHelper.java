@@ -74,9 +74,9 @@ public final class CucumberStepHelper {
 
     Map<Class<? extends AbstractStepDefinition>, AbstractStepDefinition> definitionsByClass =
       new HashMap<>();
-    List<AbstractStepDefinition> allSteps = loadStepsFor(featureFile, module);
+    List<AbstractStepDefinition> candidateSteps = loadCandidateStepsFor(featureFile, module, Collections.singleton(substitutedName));
 
-    for (AbstractStepDefinition stepDefinition : allSteps) {
+    for (AbstractStepDefinition stepDefinition : candidateSteps) {
       if (stepDefinition != null && stepDefinition.matches(substitutedName) && stepDefinition.supportsStep(step)) {
         final Pattern currentLongestPattern = getPatternByDefinition(definitionsByClass.get(stepDefinition.getClass()));
         final Pattern newPattern = getPatternByDefinition(stepDefinition);
@@ -103,14 +103,16 @@ public final class CucumberStepHelper {
     return definition.getPattern();
   }
 
-  // ToDo: use binary search here
   public static List<AbstractStepDefinition> findStepDefinitionsByPattern(@NotNull final String pattern, @NotNull final Module module) {
-    final List<AbstractStepDefinition> allSteps = loadStepsFor(null, module);
-    final List<AbstractStepDefinition> result = new ArrayList<>();
-    for (AbstractStepDefinition stepDefinition : allSteps) {
-      final String elementText = stepDefinition.getCucumberRegex();
-      if (elementText != null && elementText.equals(pattern)) {
-        result.add(stepDefinition);
+    final List<AbstractStepDefinition> result = new ArrayList<>(CucumberStepDefinitionRegistry.getInstance(module).findByCucumberRegex(pattern));
+    for (CucumberJvmExtensionPoint extension : getCucumberExtensions()) {
+      if (CucumberStepDefinitionRegistry.isCached(extension, module)) continue;
+
+      for (AbstractStepDefinition stepDefinition : CucumberUtil.loadFrameworkSteps(extension, null, module)) {
+        final String elementText = stepDefinition.getCucumberRegex();
+        if (elementText != null && elementText.equals(pattern)) {
+          result.add(stepDefinition);
+        }
       }
     }
     return result;
@@ -124,10 +126,33 @@ public final class CucumberStepHelper {
 
 
   private static List<AbstractStepDefinition> loadStepsFor(@Nullable final PsiFile featureFile, @NotNull final Module module) {
+    ArrayList<AbstractStepDefinition> result = new ArrayList<>(CucumberStepDefinitionRegistry.getInstance(module).getStepDefinitions());
+    result.addAll(loadUncachedStepsFor(featureFile, module));
+    return result;
+  }
+
+  /**
+   * Returns step definitions that may match any of the step names: candidates from {@link CucumberStepDefinitionRegistry}
+   * and all step definitions of extensions that don't support caching.
+   */
+  public static List<AbstractStepDefinition> loadCandidateStepsFor(@Nullable final PsiFile featureFile,
+                                                                   @NotNull final Module module,
+                                                                   @NotNull final Collection<String> stepNames) {
+    ArrayList<AbstractStepDefinition> result = new ArrayList<>(CucumberStepDefinitionRegistry.getInstance(module).getCandidates(stepNames));
+    result.addAll(loadUncachedStepsFor(featureFile, module));
+    return result;
+  }
+
+  /**
+   * Loads step definitions of extensions that don't support caching, see {@link CucumberStepDefinitionRegistry}.
+   */
+  public static List<AbstractStepDefinition> loadUncachedStepsFor(@Nullable final PsiFile featureFile, @NotNull final Module module) {
     ArrayList<AbstractStepDefinition> result = new ArrayList<>();
 
     for (CucumberJvmExtensionPoint extension : getCucumberExtensions()) {
-      result.addAll(CucumberUtil.loadFrameworkSteps(extension, featureFile, module));
+      if (!CucumberStepDefinitionRegistry.isCached(extension, module)) {
+        result.addAll(CucumberUtil.loadFrameworkSteps(extension, featureFile, module));
+      }
     }
     return result;
   }
@@ -0,0 +1,319 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license.
+package org.jetbrains.plugins.cucumber.steps;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Prefilter for step definition patterns.
+ * <p>
+ * For every pattern it extracts a literal that any match must contain and puts all such literals into an Aho-Corasick automaton.
+ * A step can then only match patterns whose literal occurs in the step text, or patterns without a usable literal.
+ * The result is a superset of the matching patterns, the patterns themselves still have to be checked.
+ */
+final class StepDefinitionLiteralMatcher {
+  private static final Pattern INLINE_FLAGS = Pattern.compile("\\(\\?[a-zA-Z-]+\\)");
+  private static final int UNSUPPORTED_FLAGS = Pattern.UNICODE_CASE | Pattern.COMMENTS | Pattern.LITERAL | Pattern.CANON_EQ;
+
+  private final Node myRoot = new Node();
+  private final Node myIgnoreCaseRoot = new Node();
+  private final List<int[]> myPatternsByLiteral = new ArrayList<>();
+  private final BitSet myUnfiltered = new BitSet();
+  private final int myPatternCount;
+
+  /**
+   * @param patterns patterns to prefilter, {@code null} elements are never reported as candidates
+   */
+  StepDefinitionLiteralMatcher(@NotNull List<@Nullable Pattern> patterns) {
+    myPatternCount = patterns.size();
+    Map<String, List<Integer>> caseSensitive = new LinkedHashMap<>();
+    Map<String, List<Integer>> ignoreCase = new LinkedHashMap<>();
+    for (int i = 0; i < patterns.size(); i++) {
+      Pattern pattern = patterns.get(i);
+      if (pattern == null) continue;
+
+      String literal = requiredLiteral(pattern);
+      if (literal == null) {
+        myUnfiltered.set(i);
+      }
+      else if ((pattern.flags() & Pattern.CASE_INSENSITIVE) != 0) {
+        ignoreCase.computeIfAbsent(toLowerCaseAscii(literal), k -> new ArrayList<>()).add(i);
+      }
+      else {
+        caseSensitive.computeIfAbsent(literal, k -> new ArrayList<>()).add(i);
+      }
+    }
+
+    addLiterals(myRoot, caseSensitive);
+    addLiterals(myIgnoreCaseRoot, ignoreCase);
+    buildFailureLinks(myRoot);
+    buildFailureLinks(myIgnoreCaseRoot);
+  }
+
+  /**
+   * @return indices of the patterns that may match {@code text}
+   */
+  @NotNull BitSet getCandidates(@NotNull String text) {
+    BitSet result = (BitSet)myUnfiltered.clone();
+    collect(myRoot, text, result);
+    if (myIgnoreCaseRoot.next != null) {
+      collect(myIgnoreCaseRoot, toLowerCaseAscii(text), result);
+    }
+    return result;
+  }
+
+  int getPatternCount() {
+    return myPatternCount;
+  }
+
+  private void addLiterals(@NotNull Node root, @NotNull Map<String, List<Integer>> literals) {
+    for (Map.Entry<String, List<Integer>> entry : literals.entrySet()) {
+      Node node = root;
+      for (char c : entry.getKey().toCharArray()) {
+        if (node.next == null) node.next = new HashMap<>();
+        node = node.next.computeIfAbsent(c, k -> new Node());
+      }
+      node.literal = myPatternsByLiteral.size();
+      myPatternsByLiteral.add(entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+    }
+  }
+
+  private static void buildFailureLinks(@NotNull Node root) {
+    Deque<Node> queue = new ArrayDeque<>();
+    root.failure = root;
+    if (root.next == null) return;
+
+    for (Node child : root.next.values()) {
+      child.failure = root;
+      queue.add(child);
+    }
+    while (!queue.isEmpty()) {
+      Node node = queue.poll();
+      if (node.next == null) continue;
+
+      for (Map.Entry<Character, Node> entry : node.next.entrySet()) {
+        char c = entry.getKey();
+        Node child = entry.getValue();
+        Node failure = node.failure;
+        while (failure != root && (failure.next == null || !failure.next.containsKey(c))) {
+          failure = failure.failure;
+        }
+        Node target = failure.next != null ? failure.next.get(c) : null;
+        child.failure = target != null && target != child ? target : root;
+        child.output = child.failure.literal >= 0 ? child.failure : child.failure.output;
+        queue.add(child);
+      }
+    }
+  }
+
+  private void collect(@NotNull Node root, @NotNull String text, @NotNull BitSet result) {
+    if (root.next == null) return;
+
+    Node node = root;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      while (node != root && (node.next == null || !node.next.containsKey(c))) {
+        node = node.failure;
+      }
+      Node next = node.next != null ? node.next.get(c) : null;
+      node = next != null ? next : root;
+
+      for (Node match = node.literal >= 0 ? node : node.output; match != null; match = match.output) {
+        for (int pattern : myPatternsByLiteral.get(match.literal)) {
+          result.set(pattern);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the longest run of literal characters that every match of the pattern contains,
+   * or {@code null} if the pattern is too complex to tell.
+   */
+  @VisibleForTesting
+  static @Nullable String requiredLiteral(@NotNull Pattern pattern) {
+    if ((pattern.flags() & UNSUPPORTED_FLAGS) != 0) return null;
+
+    String regex = pattern.pattern();
+    if (INLINE_FLAGS.matcher(regex).find()) return null;
+
+    String longest = "";
+    StringBuilder run = new StringBuilder();
+    int i = 0;
+    int length = regex.length();
+    while (i < length) {
+      char c = regex.charAt(i);
+      if (c == '|' || c == ')') {
+        // top-level alternation: no single literal is required
+        return null;
+      }
+      if (c == '(' || c == '[') {
+        i = c == '(' ? skipGroup(regex, i) : skipCharacterClass(regex, i);
+        if (i < 0) return null;
+        longest = longer(longest, run);
+        i = skipQuantifier(regex, i);
+        continue;
+      }
+      if (c == '.' || c == '^' || c == '$') {
+        longest = longer(longest, run);
+        i = skipQuantifier(regex, i + 1);
+        continue;
+      }
+
+      char literal;
+      int next;
+      if (c == '\\') {
+        if (i + 1 >= length) return null;
+        char escaped = regex.charAt(i + 1);
+        if (Character.isLetterOrDigit(escaped)) {
+          if (escaped == 'Q') return null;
+          longest = longer(longest, run);
+          i = skipQuantifier(regex, skipEscape(regex, i + 1));
+          continue;
+        }
+        literal = escaped;
+        next = i + 2;
+      }
+      else {
+        literal = c;
+        next = i + 1;
+      }
+
+      char quantifier = next < length ? regex.charAt(next) : 0;
+      if (quantifier == '?' || quantifier == '*' || quantifier == '{') {
+        // the character is optional or repeated an unknown number of times
+        longest = longer(longest, run);
+        i = skipQuantifier(regex, next);
+      }
+      else if (quantifier == '+') {
+        run.append(literal);
+        longest = longer(longest, run);
+        i = skipQuantifier(regex, next);
+      }
+      else {
+        run.append(literal);
+        i = next;
+      }
+    }
+    longest = longer(longest, run);
+    return longest.isEmpty() ? null : longest;
+  }
+
+  private static String longer(String longest, StringBuilder run) {
+    String result = run.length() > longest.length() ? run.toString() : longest;
+    run.setLength(0);
+    return result;
+  }
+
+  // returns the index after the escape sequence, `start` points to the character after the backslash
+  private static int skipEscape(String regex, int start) {
+    char c = regex.charAt(start);
+    int i = start + 1;
+    if ((c == 'p' || c == 'P' || c == 'x' || c == 'N') && i < regex.length() && regex.charAt(i) == '{') {
+      int end = regex.indexOf('}', i);
+      return end < 0 ? regex.length() : end + 1;
+    }
+    int digits = switch (c) {
+      case 'p', 'P', 'c' -> 1;
+      case 'x' -> 2;
+      case 'u' -> 4;
+      case 'k' -> {
+        int end = regex.indexOf('>', i);
+        yield end < 0 ? regex.length() - i : end + 1 - i;
+      }
+      default -> 0;
+    };
+    i = Math.min(regex.length(), i + digits);
+    if (Character.isDigit(c)) {
+      // back references and octal escapes may span several digits
+      while (i < regex.length() && Character.isDigit(regex.charAt(i))) i++;
+    }
+    return i;
+  }
+
+  private static int skipQuantifier(String regex, int i) {
+    if (i >= regex.length()) return i;
+
+    char c = regex.charAt(i);
+    if (c == '?' || c == '*' || c == '+') {
+      i++;
+    }
+    else if (c == '{') {
+      int end = regex.indexOf('}', i);
+      i = end < 0 ? regex.length() : end + 1;
+    }
+    else {
+      return i;
+    }
+    // lazy and possessive modifiers
+    if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) i++;
+    return i;
+  }
+
+  private static int skipGroup(String regex, int start) {
+    int depth = 0;
+    for (int i = start; i < regex.length(); i++) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        i++;
+      }
+      else if (c == '[') {
+        i = skipCharacterClass(regex, i);
+        if (i < 0) return -1;
+        i--;
+      }
+      else if (c == '(') {
+        depth++;
+      }
+      else if (c == ')' && --depth == 0) {
+        return i + 1;
+      }
+    }
+    return -1;
+  }
+
+  private static int skipCharacterClass(String regex, int start) {
+    int depth = 0;
+    for (int i = start; i < regex.length(); i++) {
+      char c = regex.charAt(i);
+      if (c == '\\') {
+        i++;
+      }
+      else if (c == '[') {
+        depth++;
+        // a closing bracket right after the opening one (or after negation) is a literal
+        if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') i++;
+        if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') i++;
+      }
+      else if (c == ']' && --depth == 0) {
+        return i + 1;
+      }
+    }
+    return -1;
+  }
+
+  // Pattern.CASE_INSENSITIVE without UNICODE_CASE only folds US-ASCII characters
+  private static String toLowerCaseAscii(String text) {
+    char[] chars = null;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c >= 'A' && c <= 'Z') {
+        if (chars == null) chars = text.toCharArray();
+        chars[i] = (char)(c + ('a' - 'A'));
+      }
+    }
+    return chars == null ? text : new String(chars);
+  }
+
+  private static final class Node {
+    private @Nullable Map<Character, Node> next;
+    private Node failure;
+    // the nearest node on the failure chain that ends a literal
+    private @Nullable Node output;
+    private int literal = -1;
+  }
+}
@@ -14,9 +14,9 @@ import com.intellij.util.IncorrectOperationException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.plugins.cucumber.CucumberJvmExtensionPoint;
-import org.jetbrains.plugins.cucumber.CucumberUtil;
 import org.jetbrains.plugins.cucumber.psi.impl.GherkinStepImpl;
 import org.jetbrains.plugins.cucumber.steps.AbstractStepDefinition;
+import org.jetbrains.plugins.cucumber.steps.CucumberStepDefinitionRegistry;
 import org.jetbrains.plugins.cucumber.steps.CucumberStepHelper;
 
 import java.util.ArrayList;
@@ -107,14 +107,13 @@ public class CucumberStepReference implements PsiPolyVariantReference {
     }
 
     PsiFile featureFile = myStep.getContainingFile();
-    List<AbstractStepDefinition> stepDefinitions = CachedValuesManager.getCachedValue(featureFile, () -> {
-      List<AbstractStepDefinition> allStepDefinition = new ArrayList<>();
-      for (CucumberJvmExtensionPoint e : frameworks) {
-        allStepDefinition.addAll(CucumberUtil.loadFrameworkSteps(e, featureFile, module));
-      }
-      return CachedValueProvider.Result.create(allStepDefinition, PsiModificationTracker.MODIFICATION_COUNT);
-    });
-    
+    List<AbstractStepDefinition> stepDefinitions =
+      new ArrayList<>(CucumberStepDefinitionRegistry.getInstance(module).getCandidates(stepVariants));
+    stepDefinitions.addAll(CachedValuesManager.getCachedValue(featureFile, () -> {
+      List<AbstractStepDefinition> uncachedStepDefinitions = CucumberStepHelper.loadUncachedStepsFor(featureFile, module);
+      return CachedValueProvider.Result.create(uncachedStepDefinitions, PsiModificationTracker.MODIFICATION_COUNT);
+    }));
+
     List<PsiElement> resolvedElements = new ArrayList<>();
     for (final AbstractStepDefinition stepDefinition : stepDefinitions) {
       if (stepDefinition.supportsStep(myStep)) {
@@ -0,0 +1,82 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license.
+package org.jetbrains.plugins.cucumber.steps;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.jetbrains.plugins.cucumber.steps.StepDefinitionLiteralMatcher.requiredLiteral;
+import static org.junit.Assert.*;
+
+public class StepDefinitionLiteralMatcherTest {
+  @Test
+  public void testRequiredLiteral() {
+    assertEquals(" open sheets for ", requiredLiteral(Pattern.compile("^there (\\d+) open sheets for (.*)$")));
+    assertEquals(" cucumber", requiredLiteral(Pattern.compile("^I have (-?\\d+) cucumbers?$")));
+    assertEquals("colo", requiredLiteral(Pattern.compile("colou?r")));
+    assertEquals("step with quotes \"", requiredLiteral(Pattern.compile("^step with quotes \"([^\"]*)\"$")));
+    assertEquals("a.b", requiredLiteral(Pattern.compile("a\\.b\\d")));
+    assertEquals("aaab", requiredLiteral(Pattern.compile("x*aaab+c?")));
+  }
+
+  @Test
+  public void testNoRequiredLiteral() {
+    assertNull(requiredLiteral(Pattern.compile("^foo|bar$")));
+    assertNull(requiredLiteral(Pattern.compile("(.*)")));
+    assertNull(requiredLiteral(Pattern.compile("(?i)foo")));
+    assertNull(requiredLiteral(Pattern.compile("\\Qfoo\\E")));
+    assertNull(requiredLiteral(Pattern.compile("foo", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE)));
+  }
+
+  @Test
+  public void testCandidates() {
+    List<Pattern> patterns = Arrays.asList(
+      Pattern.compile("^I have (\\d+)$"),
+      Pattern.compile("^I eat (\\d+)$"),
+      Pattern.compile("^(.*)$"),
+      null,
+      Pattern.compile("^I HAVE A (.*)$", Pattern.CASE_INSENSITIVE),
+      Pattern.compile("^have$")
+    );
+    StepDefinitionLiteralMatcher matcher = new StepDefinitionLiteralMatcher(patterns);
+    assertEquals(6, matcher.getPatternCount());
+
+    assertEquals(bits(0, 2, 5), matcher.getCandidates("I have 5 cucumbers"));
+    assertEquals(bits(1, 2), matcher.getCandidates("I eat 5 cucumbers"));
+    assertEquals(bits(2, 4, 5), matcher.getCandidates("i have a cucumber"));
+    assertEquals(bits(2), matcher.getCandidates("something else"));
+  }
+
+  @Test
+  public void testCandidatesContainAllMatches() {
+    List<Pattern> patterns = Arrays.asList(
+      Pattern.compile("^the (?:first|second) (\\w+) is \"([^\"]*)\"$"),
+      Pattern.compile("^a user named (.+) logs? in$"),
+      Pattern.compile("^(\\d+)% of the items are ready$"),
+      Pattern.compile("^the price is \\$(\\d+)\\.(\\d{2})$"),
+      Pattern.compile("^a{2,3}b$")
+    );
+    StepDefinitionLiteralMatcher matcher = new StepDefinitionLiteralMatcher(patterns);
+    List<String> steps = List.of("the second button is \"OK\"", "a user named Bob logs in", "a user named Alice log in",
+                                 "50% of the items are ready", "the price is $12.50", "aab", "aaab", "the first item is \"\"");
+    for (String step : steps) {
+      BitSet candidates = matcher.getCandidates(step);
+      for (int i = 0; i < patterns.size(); i++) {
+        if (patterns.get(i).matcher(step).find()) {
+          assertTrue("Pattern " + patterns.get(i) + " must be a candidate for '" + step + "'", candidates.get(i));
+        }
+      }
+    }
+  }
+
+  private static BitSet bits(int... indices) {
+    BitSet result = new BitSet();
+    for (int index : indices) {
+      result.set(index);
+    }
+    return result;
+  }
+}
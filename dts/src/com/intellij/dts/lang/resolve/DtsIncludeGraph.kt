@@ -0,0 +1,149 @@
+package com.intellij.dts.lang.resolve
+
+import com.intellij.dts.lang.DtsFile
+import com.intellij.dts.zephyr.DtsZephyrProvider
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.service
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.openapi.vfs.VirtualFileManager
+import com.intellij.psi.PsiFile
+import com.intellij.psi.PsiManager
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Caches the include graph of dts files.
+ *
+ * For every file the top level includes are resolved once and kept ordered by
+ * their offset. The transitive closure of a file is precomputed as one ordered
+ * list of files together with the position in that list after each direct
+ * include. This way the closure of all includes before an offset is a prefix
+ * of the list and the search scope for every prefix is created only once.
+ *
+ * The cache of a file is invalidated when the file itself or any file in its
+ * closure changes, when files are created, moved or deleted and when the
+ * zephyr configuration changes.
+ */
+@Service(Service.Level.PROJECT)
+class DtsIncludeGraph(private val project: Project) {
+  companion object {
+    fun of(project: Project): DtsIncludeGraph = project.service()
+  }
+
+  /**
+   * A resolved include. The offset is null if the included file is accessible
+   * from anywhere in the file.
+   */
+  private class Include(val offset: Int?, val file: VirtualFile)
+
+  private class Closure(
+    private val project: Project,
+    private val includes: List<Include>,
+    private val files: List<VirtualFile>,
+    private val ends: IntArray,
+  ) {
+    private val scopes = ConcurrentHashMap<Int, GlobalSearchScope>()
+
+    /**
+     * Number of direct includes that are accessible before the offset. Relies
+     * on includes without an offset being sorted to the front.
+     */
+    private fun countBefore(maxOffset: Int?): Int {
+      if (maxOffset == null) return includes.size
+
+      var low = 0
+      var high = includes.size
+      while (low < high) {
+        val mid = (low + high) ushr 1
+        val offset = includes[mid].offset
+
+        if (offset == null || offset < maxOffset) {
+          low = mid + 1
+        }
+        else {
+          high = mid
+        }
+      }
+
+      return low
+    }
+
+    private fun filesCount(maxOffset: Int?): Int {
+      val count = countBefore(maxOffset)
+      return if (count == 0) 0 else ends[count - 1]
+    }
+
+    fun files(maxOffset: Int?): List<VirtualFile> = files.subList(0, filesCount(maxOffset))
+
+    fun scope(maxOffset: Int?): GlobalSearchScope {
+      val count = filesCount(maxOffset)
+      return scopes.computeIfAbsent(count) { GlobalSearchScope.filesScope(project, files.subList(0, count)) }
+    }
+  }
+
+  private fun directIncludes(file: DtsFile): List<Include> = CachedValuesManager.getCachedValue(file) {
+    val includes = file.dtsTopLevelIncludes.mapNotNull { include ->
+      val target = include.resolve(file)?.originalFile?.virtualFile ?: return@mapNotNull null
+      Include(include.offset, target)
+    }
+
+    CachedValueProvider.Result.create(
+      includes.sortedWith(compareBy(nullsFirst()) { it.offset }),
+      file,
+      VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS,
+      DtsZephyrProvider.of(project),
+    )
+  }
+
+  private fun closure(file: DtsFile): Closure = CachedValuesManager.getCachedValue(file) {
+    val includes = directIncludes(file)
+    val manager = PsiManager.getInstance(project)
+
+    val visited = mutableSetOf<VirtualFile>()
+    val files = mutableListOf<VirtualFile>()
+    val dependencies = mutableListOf<Any>(file, VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS, DtsZephyrProvider.of(project))
+
+    fun visit(include: Include) {
+      if (!visited.add(include.file)) return
+      files.add(include.file)
+
+      val includeFile = manager.findFile(include.file) as? DtsFile ?: return
+      dependencies.add(includeFile)
+
+      for (nested in directIncludes(includeFile)) {
+        visit(nested)
+      }
+    }
+
+    val ends = IntArray(includes.size)
+    for ((index, include) in includes.withIndex()) {
+      visit(include)
+      ends[index] = files.size
+    }
+
+    CachedValueProvider.Result.create(Closure(project, includes, files, ends), dependencies)
+  }
+
+  /**
+   * Returns all files included by the file, also includes files that are
+   * included transitively. Only considers includes before the maxOffset, if
+   * maxOffset is null all includes are considered. Can deal with recursive
+   * includes.
+   */
+  fun getIncludedFiles(file: PsiFile, maxOffset: Int?): List<VirtualFile> {
+    if (file !is DtsFile) return emptyList()
+    return closure(file).files(maxOffset)
+  }
+
+  /**
+   * Same as [getIncludedFiles] but returns a search scope. Scopes are cached,
+   * so repeated requests for the same file do not create new scopes.
+   */
+  fun getIncludeScope(file: PsiFile, maxOffset: Int?): GlobalSearchScope {
+    if (file !is DtsFile) return GlobalSearchScope.EMPTY_SCOPE
+    return closure(file).scope(maxOffset)
+  }
+}
@@ -8,13 +8,11 @@ import com.intellij.dts.DtsIcons
 import com.intellij.dts.lang.DtsFile
 import com.intellij.dts.lang.psi.DtsNode
 import com.intellij.dts.lang.psi.DtsTypes
-import com.intellij.dts.lang.psi.before
 import com.intellij.dts.lang.psi.getDtsPresentableText
 import com.intellij.dts.lang.stubs.DTS_NODE_LABEL_INDEX
 import com.intellij.openapi.editor.Editor
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.util.TextRange
-import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.psi.*
 import com.intellij.psi.search.GlobalSearchScope
 import com.intellij.psi.stubs.StubIndex
@@ -73,38 +71,17 @@ class DtsLabelReference(
     }
   }
 
-  /**
-   * Recursively collects all included files from the given PsiFile. Only
-   * considers includes before the maxOffset. Can also deal with recursive
-   * includes.
-   */
-  private fun collectFiles(collection: MutableSet<VirtualFile>, file: PsiFile, maxOffset: Int?) {
-    if (file !is DtsFile) return
-
-    for (include in file.dtsTopLevelIncludes.filter { it.before(maxOffset) }) {
-      val includeFile = include.resolve(file) ?: continue
-
-      if (collection.add(includeFile.originalFile.virtualFile)) {
-        collectFiles(collection, includeFile, null)
-      }
-    }
-  }
-
   /**
    * Creates two search scopes, on for the current file and one for all included
    * files. If value is false only includes before the label are included else
-   * all includes are used.
+   * all includes are used. The include scope is provided by [DtsIncludeGraph].
    * @return A Pair of GlobalSearchScopes - `localScope` and `includeScope`.
    */
   private fun createScopes(): Pair<GlobalSearchScope, GlobalSearchScope> {
     val project = element.project
 
     val localScope = GlobalSearchScope.fileScope(project, element.containingFile.originalFile.virtualFile)
-
-    val includeFiles = mutableSetOf<VirtualFile>()
-    collectFiles(includeFiles, element.containingFile, if (value) null else element.startOffset)
-
-    val includeScope = GlobalSearchScope.filesScope(project, includeFiles)
+    val includeScope = DtsIncludeGraph.of(project).getIncludeScope(element.containingFile, if (value) null else element.startOffset)
 
     return Pair(localScope, includeScope)
   }
@@ -7,6 +7,7 @@ import com.intellij.dts.zephyr.binding.*
 import com.intellij.openapi.components.Service
 import com.intellij.openapi.components.service
 import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.ModificationTracker
 import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.platform.ide.progress.withBackgroundProgress
 import com.intellij.platform.util.progress.SequentialProgressReporter
@@ -17,6 +18,7 @@ import kotlinx.coroutines.channels.Channel.Factory.CONFLATED
 import kotlinx.coroutines.channels.awaitClose
 import kotlinx.coroutines.flow.*
 import org.jetbrains.annotations.TestOnly
+import java.util.concurrent.atomic.AtomicLong
 
 private fun settings(project: Project): Flow<DtsSettings.State> = channelFlow {
   project.messageBus.connect(this@channelFlow).subscribe(DtsSettings.ChangeListener.TOPIC, DtsSettings.ChangeListener { settings ->
@@ -29,25 +31,33 @@ private fun settings(project: Project): Flow<DtsSettings.State> = channelFlow {
 }.buffer(CONFLATED)
 
 @Service(Service.Level.PROJECT)
-class DtsZephyrProvider(private val project: Project, scope: CoroutineScope) {
+class DtsZephyrProvider(private val project: Project, scope: CoroutineScope) : ModificationTracker {
   companion object {
     fun of(project: Project): DtsZephyrProvider = project.service()
   }
 
   private val state: MutableStateFlow<State?> = MutableStateFlow(null)
 
+  private val modificationCount = AtomicLong()
+
   init {
     scope.launch {
       settings(project).collectLatest { settings ->
         withBackgroundProgress(project, DtsBundle.message("background.load_zephyr.title")) {
           reportSequentialProgress { reporter ->
             state.value = update(reporter, settings)
+            modificationCount.incrementAndGet()
           }
         }
       }
     }
   }
 
+  /**
+   * Incremented whenever the zephyr root, board or bindings are reloaded.
+   */
+  override fun getModificationCount(): Long = modificationCount.get()
+
   val root: VirtualFile? get() = state.value?.root
 
   val board: DtsZephyrBoard? get() = state.value?.board
@@ -7,20 +7,26 @@ import com.intellij.openapi.vfs.VirtualFileVisitor
 import com.intellij.openapi.vfs.readText
 import com.intellij.util.concurrency.ThreadingAssertions
 import com.intellij.util.concurrency.annotations.RequiresBackgroundThread
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.withContext
 import org.yaml.snakeyaml.LoaderOptions
 import org.yaml.snakeyaml.Yaml
 import org.yaml.snakeyaml.constructor.SafeConstructor
 
 data class BindingFile(val path: String?, val data: Map<*, *>)
 
-private val yaml = Yaml(SafeConstructor(LoaderOptions()))
+// Yaml instances are not thread safe, every thread gets its own
+private val yaml = ThreadLocal.withInitial { Yaml(SafeConstructor(LoaderOptions())) }
 private val logger = Logger.getInstance("DtsZephyrBindingLoader")
 
+private const val PARSE_CHUNK_SIZE = 64
+
 private fun loadFileData(file: VirtualFile): Map<*, *>? {
   try {
-    return synchronized(yaml) {
-      yaml.load(file.readText())
-    }
+    return yaml.get().load(file.readText())
   }
   catch (e: Exception) {
     logger.debug("could not load yaml file", e)
@@ -29,25 +35,58 @@ private fun loadFileData(file: VirtualFile): Map<*, *>? {
   return null
 }
 
-@RequiresBackgroundThread
-fun loadExternalBindings(root: VirtualFile): Map<String, BindingFile> {
-  ThreadingAssertions.assertBackgroundThread()
-
-  val bindings = mutableMapOf<String, BindingFile>()
+/**
+ * Loads all yaml files found in the root directory. The files are parsed in
+ * parallel and files which did not change since the last run are taken from
+ * the [DtsZephyrBindingSnapshot] of the root instead. The snapshot is updated
+ * afterward.
+ */
+suspend fun loadExternalBindings(
+  root: VirtualFile,
+  snapshot: DtsZephyrBindingSnapshot = DtsZephyrBindingSnapshot.forRoot(root.path),
+): Map<String, BindingFile> {
+  val files = mutableListOf<VirtualFile>()
 
   val visitor = object : VirtualFileVisitor<Any>() {
     override fun visitFile(file: VirtualFile): Boolean {
-      if (file.isDirectory || file.extension != "yaml") return true
-
-      loadFileData(file)?.let {
-        bindings[file.nameWithoutExtension] = BindingFile(file.path, it)
-      }
-
+      if (!file.isDirectory && file.extension == "yaml") files.add(file)
       return true
     }
   }
   VfsUtilCore.visitChildrenRecursively(root, visitor)
 
+  val previous = withContext(Dispatchers.IO) { snapshot.read() }
+
+  val entries = coroutineScope {
+    files.chunked(PARSE_CHUNK_SIZE).map { chunk ->
+      async(Dispatchers.Default) {
+        chunk.map { file ->
+          val timeStamp = file.timeStamp
+          val length = file.length
+
+          previous[file.path]?.takeIf { it.timeStamp == timeStamp && it.length == length }
+          ?: loadFileData(file)?.let { BindingSnapshotEntry(timeStamp, length, it) }
+        }
+      }
+    }.awaitAll().flatten()
+  }
+
+  val bindings = mutableMapOf<String, BindingFile>()
+  val current = mutableMapOf<String, BindingSnapshotEntry>()
+
+  // files are visited in the same order as before, later files still override earlier files with the same name
+  for ((file, entry) in files.zip(entries)) {
+    if (entry == null) continue
+
+    bindings[file.nameWithoutExtension] = BindingFile(file.path, entry.data)
+    current[file.path] = entry
+  }
+
+  val unchanged = current.size == previous.size && current.all { (path, entry) -> previous[path] === entry }
+  if (!unchanged) {
+    withContext(Dispatchers.IO) { snapshot.write(current) }
+  }
+
   return bindings
 }
 
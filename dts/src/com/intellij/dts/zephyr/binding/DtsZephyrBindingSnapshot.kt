@@ -0,0 +1,190 @@
+package com.intellij.dts.zephyr.binding
+
+import com.intellij.openapi.application.PathManager
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.util.io.DataInputOutputUtil
+import com.intellij.util.io.IOUtil
+import java.io.*
+import java.math.BigInteger
+import java.nio.file.*
+import kotlin.io.path.exists
+import kotlin.io.path.inputStream
+import kotlin.io.path.outputStream
+
+private const val SNAPSHOT_VERSION = 1
+
+private const val TAG_NULL = 0
+private const val TAG_STRING = 1
+private const val TAG_BOOLEAN = 2
+private const val TAG_INT = 3
+private const val TAG_LONG = 4
+private const val TAG_DOUBLE = 5
+private const val TAG_BIG_INTEGER = 6
+private const val TAG_LIST = 7
+private const val TAG_MAP = 8
+
+private val logger = Logger.getInstance("DtsZephyrBindingSnapshot")
+
+private class UnsupportedValueException(value: Any) : Exception("unsupported yaml value: ${value.javaClass.name}")
+
+/**
+ * Parsed content of a binding file together with the time stamp and length
+ * of the file when it was parsed.
+ */
+data class BindingSnapshotEntry(val timeStamp: Long, val length: Long, val data: Map<*, *>)
+
+/**
+ * On-disk snapshot of parsed external binding files, keyed by the path of
+ * the yaml file. Used to skip parsing of unchanged files after a restart.
+ *
+ * Values produced by SnakeYAML which cannot be written (like dates or sets)
+ * are not supported, files containing such values are simply not stored.
+ */
+class DtsZephyrBindingSnapshot(private val file: Path) {
+  companion object {
+    fun forRoot(rootPath: String): DtsZephyrBindingSnapshot {
+      val name = Integer.toHexString(rootPath.hashCode())
+      return DtsZephyrBindingSnapshot(PathManager.getSystemDir().resolve("dts").resolve("zephyr-bindings-$name.dat"))
+    }
+  }
+
+  fun read(): Map<String, BindingSnapshotEntry> {
+    if (!file.exists()) return emptyMap()
+
+    try {
+      DataInputStream(BufferedInputStream(file.inputStream())).use { input ->
+        if (DataInputOutputUtil.readINT(input) != SNAPSHOT_VERSION) return emptyMap()
+
+        val size = DataInputOutputUtil.readINT(input)
+        val entries = HashMap<String, BindingSnapshotEntry>(size)
+
+        repeat(size) {
+          val path = IOUtil.readUTF(input)
+          val timeStamp = DataInputOutputUtil.readTIME(input)
+          val length = DataInputOutputUtil.readLONG(input)
+          val data = readValue(input) as? Map<*, *> ?: return emptyMap()
+
+          entries[path] = BindingSnapshotEntry(timeStamp, length, data)
+        }
+
+        return entries
+      }
+    }
+    catch (e: IOException) {
+      logger.debug("could not read zephyr binding snapshot", e)
+      return emptyMap()
+    }
+  }
+
+  fun write(entries: Map<String, BindingSnapshotEntry>) {
+    val serialized = mutableListOf<ByteArray>()
+    for ((path, entry) in entries) {
+      val bytes = ByteArrayOutputStream()
+      try {
+        DataOutputStream(bytes).use { output ->
+          IOUtil.writeUTF(output, path)
+          DataInputOutputUtil.writeTIME(output, entry.timeStamp)
+          DataInputOutputUtil.writeLONG(output, entry.length)
+          writeValue(output, entry.data)
+        }
+      }
+      catch (e: UnsupportedValueException) {
+        logger.debug("skipping binding $path", e)
+        continue
+      }
+
+      serialized.add(bytes.toByteArray())
+    }
+
+    try {
+      Files.createDirectories(file.parent)
+
+      val tempFile = Files.createTempFile(file.parent, file.fileName.toString(), ".tmp")
+      try {
+        DataOutputStream(BufferedOutputStream(tempFile.outputStream())).use { output ->
+          DataInputOutputUtil.writeINT(output, SNAPSHOT_VERSION)
+          DataInputOutputUtil.writeINT(output, serialized.size)
+          serialized.forEach(output::write)
+        }
+
+        try {
+          Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING)
+        }
+        catch (e: AtomicMoveNotSupportedException) {
+          Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING)
+        }
+      }
+      finally {
+        Files.deleteIfExists(tempFile)
+      }
+    }
+    catch (e: IOException) {
+      logger.debug("could not write zephyr binding snapshot", e)
+    }
+  }
+}
+
+private fun writeValue(output: DataOutput, value: Any?) {
+  when (value) {
+    null -> output.writeByte(TAG_NULL)
+    is String -> {
+      output.writeByte(TAG_STRING)
+      IOUtil.writeUTF(output, value)
+    }
+    is Boolean -> {
+      output.writeByte(TAG_BOOLEAN)
+      output.writeBoolean(value)
+    }
+    is Int -> {
+      output.writeByte(TAG_INT)
+      output.writeInt(value)
+    }
+    is Long -> {
+      output.writeByte(TAG_LONG)
+      output.writeLong(value)
+    }
+    is Double -> {
+      output.writeByte(TAG_DOUBLE)
+      output.writeDouble(value)
+    }
+    is BigInteger -> {
+      output.writeByte(TAG_BIG_INTEGER)
+      IOUtil.writeUTF(output, value.toString())
+    }
+    is List<*> -> {
+      output.writeByte(TAG_LIST)
+      DataInputOutputUtil.writeINT(output, value.size)
+      value.forEach { writeValue(output, it) }
+    }
+    is Map<*, *> -> {
+      output.writeByte(TAG_MAP)
+      DataInputOutputUtil.writeINT(output, value.size)
+      for ((key, entry) in value.entries) {
+        writeValue(output, key)
+        writeValue(output, entry)
+      }
+    }
+    else -> throw UnsupportedValueException(value)
+  }
+}
+
+private fun readValue(input: DataInput): Any? {
+  return when (val tag = input.readByte().toInt()) {
+    TAG_NULL -> null
+    TAG_STRING -> IOUtil.readUTF(input)
+    TAG_BOOLEAN -> input.readBoolean()
+    TAG_INT -> input.readInt()
+    TAG_LONG -> input.readLong()
+    TAG_DOUBLE -> input.readDouble()
+    TAG_BIG_INTEGER -> BigInteger(IOUtil.readUTF(input))
+    TAG_LIST -> {
+      val size = DataInputOutputUtil.readINT(input)
+      ArrayList<Any?>(size).apply { repeat(size) { add(readValue(input)) } }
+    }
+    TAG_MAP -> {
+      val size = DataInputOutputUtil.readINT(input)
+      LinkedHashMap<Any?, Any?>(size).apply { repeat(size) { put(readValue(input), readValue(input)) } }
+    }
+    else -> throw IOException("unknown tag: $tag")
+  }
+}
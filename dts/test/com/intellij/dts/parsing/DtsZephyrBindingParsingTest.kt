@@ -5,6 +5,8 @@ import com.intellij.dts.zephyr.binding.*
 import org.yaml.snakeyaml.LoaderOptions
 import org.yaml.snakeyaml.Yaml
 import org.yaml.snakeyaml.constructor.SafeConstructor
+import java.nio.file.Files
+import java.nio.file.Path
 
 class DtsZephyrBindingParsingTest : DtsTestBase() {
   private val yaml = Yaml(SafeConstructor(LoaderOptions()))
@@ -15,6 +17,19 @@ class DtsZephyrBindingParsingTest : DtsTestBase() {
 
   fun `test enum values`() = doTest()
 
+  fun `test snapshot round trip`() {
+    val data = yaml.load<Map<*, *>>(Files.readString(Path.of(testDataPath, "DefaultValues.yaml")))
+    val snapshot = DtsZephyrBindingSnapshot(Files.createTempDirectory("dts").resolve("snapshot.dat"))
+
+    snapshot.write(mapOf("binding.yaml" to BindingSnapshotEntry(42, 1024, data)))
+    val entry = snapshot.read()["binding.yaml"]
+
+    assertNotNull(entry)
+    assertEquals(42, entry!!.timeStamp)
+    assertEquals(1024, entry.length)
+    assertEquals(data, entry.data)
+  }
+
   fun `test zephyr espressif,esp32-pinctrl`() = doZephyrTest("espressif,esp32-pinctrl")
 
   fun `test zephyr espressif,esp32-ledc`() = doZephyrTest("espressif,esp32-ledc")
@@ -75,6 +75,25 @@ class DtsLabelReferenceTest : DtsTestBase() {
     doTest(input)
   }
 
+  fun `test nested include changed`() {
+    val input = """
+            /include/ "test0.dtsi"
+            $reference
+        """
+
+    addFile("test0.dtsi", "/include/ \"test1.dtsi\"")
+    addFile("test1.dtsi", "")
+
+    configureByText(input)
+    assertNull(myFixture.getReferenceAtCaretPosition()!!.resolve())
+
+    addFile("test1.dtsi", "/include/ \"test2.dtsi\"")
+    addFile("test2.dtsi", "/ { $target };")
+
+    val reference = myFixture.getReferenceAtCaretPositionWithAssertion()
+    assertEquals(target.trimEnd(';'), reference.resolve()?.text)
+  }
+
   fun `test target below ref node`() {
     val input = """
             $reference
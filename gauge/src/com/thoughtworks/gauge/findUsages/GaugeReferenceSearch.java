@@ -57,7 +57,6 @@ public final class GaugeReferenceSearch extends QueryExecutorBase<PsiReference,
   private void processElements(final ReferencesSearch.SearchParameters searchParameters, final Processor<? super PsiReference> processor) {
     ApplicationManager.getApplication().runReadAction(() -> {
       StepCollector collector = helper.getStepCollector(searchParameters.getElementToSearch());
-      collector.collect();
       List<PsiElement> elements = ReferenceSearchHelper.getPsiElements(collector, searchParameters.getElementToSearch());
       for (PsiElement element : elements) {
         processor.process(element.getReference());
@@ -59,7 +59,6 @@ public final class ImplUsageProvider implements ImplicitUsageProvider {
     boolean isGaugeElement = GaugeUtil.isGaugeElement(element);
     if (!isGaugeElement) return false;
     StepCollector collector = new StepCollector(element.getProject());
-    collector.collect();
     return !ReferenceSearchHelper.getPsiElements(collector, element).isEmpty();
   }
 
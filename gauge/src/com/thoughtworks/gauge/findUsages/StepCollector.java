@@ -17,19 +17,25 @@
 package com.thoughtworks.gauge.findUsages;
 
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiManager;
+import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.util.indexing.FileBasedIndex;
-import com.thoughtworks.gauge.annotator.FileManager;
 import com.thoughtworks.gauge.language.psi.impl.ConceptStepImpl;
 import com.thoughtworks.gauge.language.psi.impl.SpecStepImpl;
-import com.thoughtworks.gauge.stub.GaugeFileStubIndex;
+import com.thoughtworks.gauge.stub.GaugeStepUsageIndex;
+import com.thoughtworks.gauge.stub.GaugeStepUsageIndex.StepKind;
+import com.thoughtworks.gauge.stub.GaugeStepUsageIndex.StepOccurrence;
 
-import java.util.*;
-import java.util.stream.Stream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 
+/**
+ * Looks up spec and concept steps by step text through {@link GaugeStepUsageIndex}.
+ * Only files containing a step with a matching key are loaded; results are memoized per collector.
+ */
 public final class StepCollector {
   private final Project project;
   private final HashMap<String, List<PsiElement>> stepTextToElement;
@@ -39,34 +45,35 @@ public final class StepCollector {
     stepTextToElement = new HashMap<>();
   }
 
-  public void collect() {
-    List<VirtualFile> conceptFiles = FileManager.getConceptFiles(project);
-    List<VirtualFile> specFiles = FileManager.getAllSpecFiles(project);
-
-    Stream.concat(conceptFiles.stream(), specFiles.stream()).forEach(f -> {
-      Collection<Integer> values =
-        Objects.requireNonNullElse(FileBasedIndex.getInstance().getSingleEntryIndexData(GaugeFileStubIndex.NAME, f, project), Collections.emptyList());
-      if (values.size() > 0) {
-        getSteps(PsiManager.getInstance(project).findFile(f), values);
-      }
-    });
+  public List<PsiElement> get(String stepText) {
+    List<PsiElement> elements = stepTextToElement.computeIfAbsent(stepText, this::findSteps);
+    return new ArrayList<>(elements);
   }
 
-  public List<PsiElement> get(String stepText) {
-    return stepTextToElement.get(stepText) == null ? new ArrayList<>() : stepTextToElement.get(stepText);
+  private List<PsiElement> findSteps(String stepText) {
+    List<PsiElement> elements = new ArrayList<>();
+    PsiManager psiManager = PsiManager.getInstance(project);
+    FileBasedIndex.getInstance().processValues(GaugeStepUsageIndex.NAME, GaugeStepUsageIndex.getStepKey(stepText), null,
+                                               (file, occurrences) -> {
+                                                 PsiFile psiFile = psiManager.findFile(file);
+                                                 if (psiFile == null) return true;
+                                                 for (StepOccurrence occurrence : occurrences) {
+                                                   PsiElement stepElement = getStepElement(
+                                                     psiFile.findElementAt(occurrence.getOffset()), occurrence.getKind());
+                                                   if (stepElement != null && stepText.equals(getStepText(stepElement))) {
+                                                     elements.add(stepElement);
+                                                   }
+                                                 }
+                                                 return true;
+                                               }, GlobalSearchScope.projectScope(project));
+    return elements;
   }
 
-  private void getSteps(PsiFile psiFile, Collection<Integer> offsets) {
-    for (Integer offset : offsets) {
-      PsiElement stepElement = getStepElement(psiFile.findElementAt(offset));
-      if (stepElement == null) continue;
-      if (stepElement.getClass().equals(SpecStepImpl.class)) {
-        addElement(stepElement, cleanText(((SpecStepImpl)stepElement).getStepValue().getStepText()));
-      }
-      else {
-        addElement(stepElement, cleanText(((ConceptStepImpl)stepElement).getStepValue().getStepText()));
-      }
+  private static String getStepText(PsiElement stepElement) {
+    if (stepElement instanceof SpecStepImpl) {
+      return cleanText(((SpecStepImpl)stepElement).getStepValue().getStepText());
     }
+    return cleanText(((ConceptStepImpl)stepElement).getStepValue().getStepText());
   }
 
   private static String cleanText(String text) {
@@ -74,22 +81,11 @@ public final class StepCollector {
     return text.charAt(0) == '*' || text.charAt(0) == '#' ? text.substring(1).trim() : text.trim();
   }
 
-  private void addElement(PsiElement stepElement, String stepText) {
-    List<PsiElement> elementsList = stepTextToElement.get(stepText);
-    if (elementsList == null) {
-      List<PsiElement> elements = new ArrayList<>();
-      elements.add(stepElement);
-      stepTextToElement.put(stepText, elements);
-      return;
-    }
-    elementsList.add(stepElement);
-  }
-
-  private static PsiElement getStepElement(PsiElement selectedElement) {
+  private static PsiElement getStepElement(PsiElement selectedElement, StepKind kind) {
     if (selectedElement == null) return null;
-    if (selectedElement.getClass().equals(SpecStepImpl.class) || selectedElement.getClass().equals(ConceptStepImpl.class)) {
+    if (selectedElement.getClass().equals(kind.getStepClass())) {
       return selectedElement;
     }
-    return getStepElement(selectedElement.getParent());
+    return getStepElement(selectedElement.getParent(), kind);
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2020 ThoughtWorks, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.thoughtworks.gauge.stub;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.*;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import com.thoughtworks.gauge.language.ConceptFileType;
+import com.thoughtworks.gauge.language.SpecFileType;
+import com.thoughtworks.gauge.language.psi.impl.ConceptStepImpl;
+import com.thoughtworks.gauge.language.psi.impl.SpecStepImpl;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Maps the literal part of every spec and concept step to the offsets of its occurrences.
+ * <p>
+ * Step values are resolved through the Gauge API and cannot be computed while indexing, so the key is the step text
+ * with all arguments stripped. Callers are expected to check candidates against the exact step value.
+ */
+public final class GaugeStepUsageIndex extends FileBasedIndexExtension<String, List<GaugeStepUsageIndex.StepOccurrence>> {
+  @NonNls
+  public static final ID<String, List<StepOccurrence>> NAME = ID.create("GaugeStepUsageIndex");
+
+  private static final Pattern ARGUMENT = Pattern.compile("\"(?:[^\"\\\\]|\\\\.)*\"|<[^>]*>|\\{}");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  public enum StepKind {
+    SPEC(SpecStepImpl.class),
+    CONCEPT(ConceptStepImpl.class);
+
+    private final Class<? extends PsiElement> stepClass;
+
+    StepKind(Class<? extends PsiElement> stepClass) {
+      this.stepClass = stepClass;
+    }
+
+    public Class<? extends PsiElement> getStepClass() {
+      return stepClass;
+    }
+  }
+
+  public static final class StepOccurrence {
+    private final int offset;
+    private final StepKind kind;
+
+    public StepOccurrence(int offset, @NotNull StepKind kind) {
+      this.offset = offset;
+      this.kind = kind;
+    }
+
+    public int getOffset() {
+      return offset;
+    }
+
+    public @NotNull StepKind getKind() {
+      return kind;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      StepOccurrence that = (StepOccurrence)o;
+      return offset == that.offset && kind == that.kind;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(offset, kind);
+    }
+  }
+
+  /**
+   * Returns the index key for a step: its first line without the leading bullet, with arguments and placeholders removed.
+   * Accepts raw step text as well as resolved step values, so both sides of a lookup produce the same key.
+   */
+  public static @NotNull String getStepKey(@Nullable String stepText) {
+    if (stepText == null) return "";
+    String text = stepText.trim();
+    int newLineIndex = text.indexOf('\n');
+    if (newLineIndex != -1) text = text.substring(0, newLineIndex);
+    if (!text.isEmpty() && (text.charAt(0) == '*' || text.charAt(0) == '#')) text = text.substring(1);
+    text = ARGUMENT.matcher(text).replaceAll(" ");
+    return WHITESPACE.matcher(text).replaceAll(" ").trim();
+  }
+
+  @NotNull
+  @Override
+  public ID<String, List<StepOccurrence>> getName() {
+    return NAME;
+  }
+
+  @Override
+  public @NotNull DataIndexer<String, List<StepOccurrence>, FileContent> getIndexer() {
+    return fileContent -> {
+      PsiFile psiFile = fileContent.getPsiFile();
+      StepKind kind = fileContent.getFileType().equals(SpecFileType.INSTANCE) ? StepKind.SPEC : StepKind.CONCEPT;
+      Map<String, List<StepOccurrence>> result = new HashMap<>();
+      for (PsiElement step : PsiTreeUtil.collectElementsOfType(psiFile, kind.getStepClass())) {
+        result.computeIfAbsent(getStepKey(step.getText()), key -> new ArrayList<>())
+          .add(new StepOccurrence(step.getTextOffset(), kind));
+      }
+      return result;
+    };
+  }
+
+  @NotNull
+  @Override
+  public KeyDescriptor<String> getKeyDescriptor() {
+    return EnumeratorStringDescriptor.INSTANCE;
+  }
+
+  @NotNull
+  @Override
+  public DataExternalizer<List<StepOccurrence>> getValueExternalizer() {
+    return new DataExternalizer<>() {
+      @Override
+      public void save(@NotNull DataOutput out, List<StepOccurrence> value) throws IOException {
+        DataInputOutputUtil.writeINT(out, value.size());
+        for (StepOccurrence occurrence : value) {
+          DataInputOutputUtil.writeINT(out, occurrence.getOffset());
+          out.writeByte(occurrence.getKind().ordinal());
+        }
+      }
+
+      @Override
+      public List<StepOccurrence> read(@NotNull DataInput in) throws IOException {
+        int size = DataInputOutputUtil.readINT(in);
+        List<StepOccurrence> result = new ArrayList<>(size);
+        StepKind[] kinds = StepKind.values();
+        for (int i = 0; i < size; i++) {
+          int offset = DataInputOutputUtil.readINT(in);
+          result.add(new StepOccurrence(offset, kinds[in.readByte()]));
+        }
+        return result;
+      }
+    };
+  }
+
+  @NotNull
+  @Override
+  public FileBasedIndex.InputFilter getInputFilter() {
+    return new DefaultFileTypeSpecificInputFilter(SpecFileType.INSTANCE, ConceptFileType.INSTANCE) {
+      @Override
+      public boolean acceptInput(@NotNull VirtualFile virtualFile) {
+        return virtualFile.getExtension() != null;
+      }
+    };
+  }
+
+  @Override
+  public boolean dependsOnFileContent() {
+    return true;
+  }
+
+  @Override
+  public int getVersion() {
+    return 1;
+  }
+}
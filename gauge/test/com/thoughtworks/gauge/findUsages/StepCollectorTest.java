@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2020 ThoughtWorks, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.thoughtworks.gauge.findUsages;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.impl.source.PsiFileImpl;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.thoughtworks.gauge.language.psi.impl.SpecStepImpl;
+
+public class StepCollectorTest extends BasePlatformTestCase {
+  public void testFindsStepsThroughIndexWithoutLoadingOtherSpecs() {
+    PsiFile greeting = myFixture.addFileToProject("specs/greeting.spec", """
+      Greeting
+      ========
+
+      Say hello
+      ---------
+      * Say hello
+      * Say goodbye
+      """);
+    PsiFile other = myFixture.addFileToProject("specs/other.spec", """
+      Other
+      =====
+
+      Unrelated
+      ---------
+      * Do something else
+      """);
+
+    StepCollector collector = new StepCollector(getProject());
+    assertFalse(isContentsLoaded(greeting));
+    assertFalse(isContentsLoaded(other));
+
+    PsiElement step = assertOneElement(collector.get("Say hello"));
+    assertInstanceOf(step, SpecStepImpl.class);
+    assertEquals(greeting, step.getContainingFile());
+    assertEquals("* Say hello", step.getText().trim());
+    assertFalse("only files with a matching step are loaded", isContentsLoaded(other));
+
+    assertEmpty(collector.get("Say nothing"));
+    assertFalse(isContentsLoaded(other));
+  }
+
+  private static boolean isContentsLoaded(PsiFile file) {
+    return ((PsiFileImpl)file).isContentsLoaded();
+  }
+}
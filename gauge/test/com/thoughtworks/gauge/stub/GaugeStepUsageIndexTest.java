@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2020 ThoughtWorks, Inc.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.thoughtworks.gauge.stub;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class GaugeStepUsageIndexTest {
+  @Test
+  public void shouldStripBulletAndArguments() {
+    assertEquals("Say to", GaugeStepUsageIndex.getStepKey("* Say \"hello\" to <name>"));
+    assertEquals("Say to", GaugeStepUsageIndex.getStepKey("# Say \"hello \\\"there\\\"\" to <name>"));
+  }
+
+  @Test
+  public void shouldMatchResolvedStepValue() {
+    assertEquals(GaugeStepUsageIndex.getStepKey("* Say \"hello\" to <name>"), GaugeStepUsageIndex.getStepKey("Say {} to {}"));
+  }
+
+  @Test
+  public void shouldIgnoreInlineTable() {
+    assertEquals("Create users", GaugeStepUsageIndex.getStepKey("* Create users\n   |name|\n   |----|\n   |john|"));
+    assertEquals("Create users", GaugeStepUsageIndex.getStepKey("Create users {}"));
+  }
+
+  @Test
+  public void shouldHandleEmptyText() {
+    assertEquals("", GaugeStepUsageIndex.getStepKey(null));
+    assertEquals("", GaugeStepUsageIndex.getStepKey("  "));
+  }
+}
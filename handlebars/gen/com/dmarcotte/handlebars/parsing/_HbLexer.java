@@ -424,6 +424,31 @@ final class _HbLexer implements FlexLexer {
       yybegin(stack.pop());
     }
 
+    // lexical states are even numbers below 32, the stack is at most one state deep in this grammar
+    private static final int STATE_BITS = 5;
+    private static final int STATE_MASK = (1 << STATE_BITS) - 1;
+
+    /**
+     * Returns the lexical state together with the stack of states to return to,
+     * so lexing can be restarted with {@link #restoreState(int)} at any token.
+     */
+    public int getEncodedState() {
+      int result = 0;
+      for (int i = 0; i < stack.size(); i++) {
+        // stacked states are stored shifted by one to tell YYINITIAL from an empty slot
+        result = (result << STATE_BITS) | (stack.get(i) + 1);
+      }
+      return (result << STATE_BITS) | yystate();
+    }
+
+    public void restoreState(int encodedState) {
+      stack.clear();
+      for (int rest = encodedState >>> STATE_BITS; rest != 0; rest >>>= STATE_BITS) {
+        stack.add(0, (rest & STATE_MASK) - 1);
+      }
+      yybegin(encodedState & STATE_MASK);
+    }
+
 
   /**
    * Creates a new scanner
@@ -1,18 +1,30 @@
 package com.dmarcotte.handlebars.completion;
 
+import com.dmarcotte.handlebars.file.HbFileType;
 import com.dmarcotte.handlebars.parsing.HbTokenTypes;
 import com.dmarcotte.handlebars.psi.HbMustacheName;
+import com.dmarcotte.handlebars.psi.stubs.HbHelperIndex;
 import com.intellij.codeInsight.completion.*;
 import com.intellij.codeInsight.lookup.LookupElementBuilder;
 import com.intellij.lang.ASTNode;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.ProcessingContext;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+import java.util.regex.Pattern;
+
 import static com.intellij.patterns.PlatformPatterns.psiElement;
 
 public final class HbKeywordCompletionContributor extends CompletionContributor {
+  private static final List<String> BUILT_IN_HELPERS = List.of("if", "each", "unless", "with");
+  private static final Pattern HELPER_NAME = Pattern.compile("[\\w-]+");
+
   public HbKeywordCompletionContributor() {
     extend(CompletionType.BASIC, psiElement(HbTokenTypes.ID).withSuperParent(2, psiElement(HbTokenTypes.PATH)),
            new CompletionProvider<>() {
@@ -24,10 +36,20 @@ public final class HbKeywordCompletionContributor extends CompletionContributor
                PsiElement prevSibling = position != null ? position.getPrevSibling() : null;
                ASTNode prevSiblingNode = prevSibling != null ? prevSibling.getNode() : null;
                if (prevSiblingNode != null && prevSiblingNode.getElementType() == HbTokenTypes.OPEN_BLOCK) {
-                 result.addElement(LookupElementBuilder.create("if"));
-                 result.addElement(LookupElementBuilder.create("each"));
-                 result.addElement(LookupElementBuilder.create("unless"));
-                 result.addElement(LookupElementBuilder.create("with"));
+                 for (String helper : BUILT_IN_HELPERS) {
+                   result.addElement(LookupElementBuilder.create(helper));
+                 }
+                 // helpers used in other templates of the module
+                 Project project = position.getProject();
+                 Module module = ModuleUtilCore.findModuleForPsiElement(position);
+                 GlobalSearchScope scope = GlobalSearchScope.getScopeRestrictedByFileTypes(
+                   module != null ? module.getModuleContentScope() : GlobalSearchScope.projectScope(project), HbFileType.INSTANCE);
+                 HbHelperIndex.processNames(project, scope, name -> {
+                   if (!BUILT_IN_HELPERS.contains(name) && HELPER_NAME.matcher(name).matches()) {
+                     result.addElement(LookupElementBuilder.create(name));
+                   }
+                   return true;
+                 });
                }
              }
            });
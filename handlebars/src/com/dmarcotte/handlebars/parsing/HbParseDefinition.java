@@ -21,7 +21,13 @@ import org.jetbrains.annotations.NotNull;
 
 public class HbParseDefinition implements ParserDefinition {
 
-  public static final IFileElementType FILE_ELEMENT_TYPE = new IStubFileElementType<>("handlebars", HbLanguage.INSTANCE);
+  public static final IFileElementType FILE_ELEMENT_TYPE = new IStubFileElementType<>("handlebars", HbLanguage.INSTANCE) {
+    @Override
+    public int getStubVersion() {
+      // partial and helper names
+      return 1;
+    }
+  };
 
   @Override
   @NotNull
@@ -22,6 +22,8 @@ import static com.dmarcotte.handlebars.parsing.HbTokenTypes.*;
                                 // the code and the jison grammar rules, which can appear to duplicate code
 public class HbParsing {
   private final PsiBuilder builder;
+  // set while parsing the contents of a reparsed block: the block being parsed is the reparsed node itself
+  private boolean myParsingBlockContents;
 
   // the set of tokens which, if we encounter them while in a bad state, we'll try to
   // resume parsing from them
@@ -70,6 +72,34 @@ public class HbParsing {
     }
   }
 
+  /**
+   * Parses the contents of a {@link HbTokenTypes#BLOCK_WRAPPER} reparsed on its own, see {@link HbReparseableElementType}
+   */
+  public void parseBlockContents() {
+    myParsingBlockContents = true;
+    parseStatement(builder);
+    myParsingBlockContents = false;
+    parseRemainder();
+  }
+
+  /**
+   * Parses the contents of {@link HbTokenTypes#STATEMENTS} reparsed on their own, see {@link HbReparseableElementType}
+   */
+  public void parseStatementsContents() {
+    parseStatementList(builder);
+    parseRemainder();
+  }
+
+  private void parseRemainder() {
+    if (!builder.eof()) {
+      PsiBuilder.Marker remainderMarker = builder.mark();
+      while (!builder.eof()) {
+        builder.advanceLexer();
+      }
+      remainderMarker.error(HbBundle.message("hb.parsing.invalid"));
+    }
+  }
+
   /**
    * root
    * : program EOF
@@ -96,7 +126,11 @@ public class HbParsing {
    */
   private void parseStatements(PsiBuilder builder) {
     PsiBuilder.Marker statementsMarker = builder.mark();
+    parseStatementList(builder);
+    statementsMarker.done(STATEMENTS);
+  }
 
+  private void parseStatementList(PsiBuilder builder) {
     // parse zero or more statements (empty statements are acceptable)
     while (true) {
       PsiBuilder.Marker optionalStatementMarker = builder.mark();
@@ -108,8 +142,6 @@ public class HbParsing {
         break;
       }
     }
-
-    statementsMarker.done(STATEMENTS);
   }
 
   /**
@@ -142,12 +174,12 @@ public class HbParsing {
           return false;
         }
 
-        PsiBuilder.Marker blockMarker = builder.mark();
+        PsiBuilder.Marker blockMarker = markBlock(builder);
         if (parseOpenInverse(builder)) {
           parseProgram(builder);
           parseInverseAndProgram(builder);
           parseCloseBlock(builder);
-          blockMarker.done(BLOCK_WRAPPER);
+          doneBlock(blockMarker);
         }
         else {
           return false;
@@ -157,7 +189,7 @@ public class HbParsing {
       }
 
       if (tokenType == OPEN_BLOCK) {
-        PsiBuilder.Marker blockMarker = builder.mark();
+        PsiBuilder.Marker blockMarker = markBlock(builder);
 
         // this is a fairly lo-fi way to detect this, but it's how it's done in handlebars.js (https://github.com/wycats/handlebars.js/commit/408192ba9f262bb82be88091ab3ec3c16dc02c6d#diff-e85944a1a496f573d1227511819c9e23R128)
         // so we avoid unneeded complexity by directly porting it
@@ -171,7 +203,7 @@ public class HbParsing {
             inverseMarker.drop();
           }
           parseCloseBlock(builder);
-          blockMarker.done(BLOCK_WRAPPER);
+          doneBlock(blockMarker);
         }
         else {
           return false;
@@ -210,13 +242,13 @@ public class HbParsing {
      * : openRawBlock CONTENT endRawBlock
      */
     if (tokenType == OPEN_RAW_BLOCK) {
-      PsiBuilder.Marker blockMarker = builder.mark();
+      PsiBuilder.Marker blockMarker = markBlock(builder);
       if (parseOpenRawBlock(builder)) {
         if (builder.getTokenType() == CONTENT) {
           builder.advanceLexer(); // eat non-HB content
         }
         parseCloseRawBlock(builder);
-        blockMarker.done(BLOCK_WRAPPER);
+        doneBlock(blockMarker);
       }
       else {
         return false;
@@ -235,11 +267,11 @@ public class HbParsing {
      +  : openPartialBlock program closeBlock
      */
     if (tokenType == OPEN_PARTIAL_BLOCK) {
-      PsiBuilder.Marker blockMarker = builder.mark();
+      PsiBuilder.Marker blockMarker = markBlock(builder);
       if (parseOpenPartialBlock(builder)) {
         parseProgram(builder);
         parseCloseBlock(builder);
-        blockMarker.done(BLOCK_WRAPPER);
+        doneBlock(blockMarker);
       }
       else {
         return false;
@@ -274,6 +306,20 @@ public class HbParsing {
     return false;
   }
 
+  private PsiBuilder.Marker markBlock(PsiBuilder builder) {
+    if (myParsingBlockContents) {
+      myParsingBlockContents = false;
+      return null;
+    }
+    return builder.mark();
+  }
+
+  private static void doneBlock(PsiBuilder.Marker blockMarker) {
+    if (blockMarker != null) {
+      blockMarker.done(BLOCK_WRAPPER);
+    }
+  }
+
   /**
    * inverseChain
    * : openInverseChain program inverseChain?
@@ -1,10 +1,58 @@
 package com.dmarcotte.handlebars.parsing;
 
 import com.intellij.lexer.FlexAdapter;
+import com.intellij.lexer.RestartableLexer;
+import com.intellij.lexer.TokenIterator;
+import org.jetbrains.annotations.NotNull;
 
 
-public class HbRawLexer extends FlexAdapter {
+/**
+ * The state of the lexer includes the stack of lexical states of {@link _HbLexer},
+ * so the editor relexes a change from the nearest token before it instead of from the nearest text outside of mustaches.
+ */
+public class HbRawLexer extends FlexAdapter implements RestartableLexer {
+  private int myState;
+
   public HbRawLexer() {
     super(new _HbLexer(null));
   }
-}
\ No newline at end of file
+
+  @Override
+  public _HbLexer getFlex() {
+    return (_HbLexer)super.getFlex();
+  }
+
+  @Override
+  public void start(@NotNull CharSequence buffer, int startOffset, int endOffset, int initialState) {
+    super.start(buffer, startOffset, endOffset, initialState);
+    getFlex().restoreState(initialState);
+    myState = initialState;
+  }
+
+  @Override
+  public void start(@NotNull CharSequence buffer, int startOffset, int endOffset, int initialState, TokenIterator tokenIterator) {
+    start(buffer, startOffset, endOffset, initialState);
+  }
+
+  @Override
+  public int getState() {
+    return myState;
+  }
+
+  @Override
+  public void advance() {
+    super.advance();
+    // the current token is lexed, so the flex lexer is in the state before the next one
+    myState = getFlex().getEncodedState();
+  }
+
+  @Override
+  public int getStartState() {
+    return _HbLexer.YYINITIAL;
+  }
+
+  @Override
+  public boolean isRestartableState(int state) {
+    return true;
+  }
+}
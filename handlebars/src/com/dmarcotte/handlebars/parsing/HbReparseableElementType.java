@@ -0,0 +1,187 @@
+package com.dmarcotte.handlebars.parsing;
+
+import com.dmarcotte.handlebars.HbLanguage;
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.Language;
+import com.intellij.lang.PsiBuilder;
+import com.intellij.lang.PsiBuilderFactory;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.TokenType;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.IReparseableElementType;
+import com.intellij.psi.tree.TokenSet;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+
+import static com.dmarcotte.handlebars.parsing.HbTokenTypes.*;
+
+/**
+ * Composite element which is reparsed on its own when a change is inside of it,
+ * so typing in a large template relexes and reparses only the enclosing block or statements instead of the whole file.
+ * <p>
+ * The changed text is reparsed only if it lexes on its own to the same tokens as in the file and forms whole statements,
+ * otherwise the platform tries the enclosing element.
+ * Dialects (e.g. Spacebars) have their own parsing, so their files are always reparsed as a whole.
+ */
+abstract class HbReparseableElementType extends IReparseableElementType {
+  private static final TokenSet BLOCK_OPENERS = TokenSet.create(OPEN_BLOCK, OPEN_INVERSE, OPEN_PARTIAL_BLOCK, OPEN_RAW_BLOCK);
+
+  HbReparseableElementType(@NotNull @NonNls String debugName) {
+    super(debugName, HbLanguage.INSTANCE);
+  }
+
+  /**
+   * {@link HbTokenTypes#BLOCK_WRAPPER}
+   */
+  static final class BlockWrapper extends HbReparseableElementType {
+    BlockWrapper() {
+      super("BLOCK_WRAPPER");
+    }
+
+    @Override
+    protected void parseContents(@NotNull HbParsing parsing) {
+      parsing.parseBlockContents();
+    }
+
+    @Override
+    public boolean isReparseable(@NotNull ASTNode currentNode,
+                                 @NotNull CharSequence newText,
+                                 @NotNull Language fileLanguage,
+                                 @NotNull Project project) {
+      return fileLanguage == HbLanguage.INSTANCE && isWholeStatements(newText, true);
+    }
+
+    @Override
+    public boolean isValidReparse(@NotNull ASTNode oldNode, @NotNull ASTNode newNode) {
+      ASTNode lastChild = newNode.getLastChildNode();
+      return lastChild != null && lastChild.getElementType() == CLOSE_BLOCK_STACHE;
+    }
+  }
+
+  /**
+   * {@link HbTokenTypes#STATEMENTS}
+   */
+  static final class Statements extends HbReparseableElementType {
+    Statements() {
+      super("STATEMENTS");
+    }
+
+    @Override
+    protected void parseContents(@NotNull HbParsing parsing) {
+      parsing.parseStatementsContents();
+    }
+
+    @Override
+    public boolean isReparseable(@NotNull ASTNode currentNode,
+                                 @NotNull CharSequence newText,
+                                 @NotNull Language fileLanguage,
+                                 @NotNull Project project) {
+      return fileLanguage == HbLanguage.INSTANCE && isWholeStatements(newText, false);
+    }
+
+    @Override
+    public boolean isValidReparse(@NotNull ASTNode oldNode, @NotNull ASTNode newNode) {
+      ASTNode lastChild = newNode.getLastChildNode();
+      return lastChild == null || lastChild.getElementType() != TokenType.ERROR_ELEMENT;
+    }
+  }
+
+  protected abstract void parseContents(@NotNull HbParsing parsing);
+
+  @Override
+  public ASTNode parseContents(@NotNull ASTNode chameleon) {
+    PsiBuilder builder = PsiBuilderFactory.getInstance()
+      .createBuilder(chameleon.getPsi().getProject(), chameleon, new HbLexer(), getLanguage(), chameleon.getChars());
+    PsiBuilder.Marker rootMarker = builder.mark();
+    parseContents(new HbParsing(builder));
+    rootMarker.done(this);
+    return builder.getTreeBuilt().getFirstChildNode();
+  }
+
+  /**
+   * Checks that the text lexed on its own is whole statements, or a single whole block if {@code singleBlock},
+   * without an {@code {{else}}}, {@code {{^}}} or block end of the enclosing block.
+   * Such text is lexed and parsed the same way as in the file.
+   */
+  static boolean isWholeStatements(@NotNull CharSequence text, boolean singleBlock) {
+    int length = text.length();
+    // "}" would extend the close mustache before the text, "{" or "\" would change the mustache after it
+    if (length == 0 || text.charAt(0) == '}' || text.charAt(length - 1) == '{' || text.charAt(length - 1) == '\\') {
+      return false;
+    }
+
+    Lexer lexer = new HbLexer();
+    lexer.start(text);
+    IElementType firstType = lexer.getTokenType();
+    if (firstType == null || WHITESPACES.contains(firstType) || COMMENTS.contains(firstType)) {
+      return false;
+    }
+    if (singleBlock && !BLOCK_OPENERS.contains(firstType)) {
+      return false;
+    }
+
+    int depth = 0;
+    IElementType pendingOpen = null;
+    IElementType lastType = null;
+    // for a single block: the end of the block is lexed, and then the close mustache
+    boolean blockEnded = false;
+    boolean blockClosed = false;
+    for (IElementType type; (type = lexer.getTokenType()) != null; lexer.advance()) {
+      if (type == UNCLOSED_COMMENT) {
+        return false;
+      }
+      boolean first = lastType == null;
+      lastType = type;
+      if (type == WHITE_SPACE) {
+        continue;
+      }
+
+      if (pendingOpen == OPEN_INVERSE) {
+        if (type != CLOSE) {
+          depth++;
+        }
+        else if (depth == 0) {
+          // {{^}} of the enclosing block
+          return false;
+        }
+      }
+      else if (pendingOpen == OPEN && type == ELSE && depth == 0) {
+        return false;
+      }
+      pendingOpen = null;
+
+      if (blockClosed || singleBlock && !first && depth == 0 && !blockEnded) {
+        return false;
+      }
+      if (blockEnded && (type == CLOSE || type == CLOSE_RAW_BLOCK)) {
+        blockClosed = true;
+        continue;
+      }
+
+      if (type == OPEN_BLOCK || type == OPEN_PARTIAL_BLOCK || type == OPEN_RAW_BLOCK) {
+        if (blockEnded) {
+          return false;
+        }
+        depth++;
+      }
+      else if (type == OPEN_INVERSE || type == OPEN) {
+        pendingOpen = type;
+      }
+      else if (type == OPEN_ENDBLOCK || type == END_RAW_BLOCK) {
+        if (depth == 0) {
+          return false;
+        }
+        depth--;
+        blockEnded = singleBlock && depth == 0;
+      }
+    }
+
+    return pendingOpen == null
+           && depth == 0
+           && lexer.getState() == _HbLexer.YYINITIAL
+           && !WHITESPACES.contains(lastType)
+           && !COMMENTS.contains(lastType)
+           && (!singleBlock || blockClosed);
+  }
+}
@@ -1,6 +1,8 @@
 // Copyright 2000-2020 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
 package com.dmarcotte.handlebars.parsing;
 
+import com.dmarcotte.handlebars.psi.stubs.HbMustacheNameElementType;
+import com.dmarcotte.handlebars.psi.stubs.HbPartialNameElementType;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.tree.TokenSet;
 
@@ -12,20 +14,20 @@ public final class HbTokenTypes {
   private HbTokenTypes() {
   }
 
-  public static final IElementType BLOCK_WRAPPER = new HbCompositeElementType("BLOCK_WRAPPER");
+  public static final IElementType BLOCK_WRAPPER = new HbReparseableElementType.BlockWrapper();
     // used to delineate blocks in the PSI tree. The formatter requires this extra structure.
   public static final IElementType OPEN_BLOCK_STACHE = new HbCompositeElementType("OPEN_BLOCK_STACHE");
   public static final IElementType OPEN_PARTIAL_BLOCK_STACHE = new HbCompositeElementType("OPEN_PARTIAL_BLOCK_STACHE");
   public static final IElementType OPEN_INVERSE_BLOCK_STACHE = new HbCompositeElementType("OPEN_INVERSE_BLOCK_STACHE");
   public static final IElementType CLOSE_BLOCK_STACHE = new HbCompositeElementType("CLOSE_BLOCK_STACHE");
   public static final IElementType MUSTACHE = new HbCompositeElementType("MUSTACHE");
-  public static final IElementType MUSTACHE_NAME = new HbCompositeElementType("MUSTACHE_NAME");
+  public static final IElementType MUSTACHE_NAME = new HbMustacheNameElementType();
   public static final IElementType PATH = new HbCompositeElementType("PATH");
   public static final IElementType PARAM = new HbCompositeElementType("PARAM");
   public static final IElementType PARTIAL_STACHE = new HbCompositeElementType("PARTIAL_STACHE");
-  public static final IElementType PARTIAL_NAME = new HbCompositeElementType("PARTIAL_NAME");
+  public static final IElementType PARTIAL_NAME = new HbPartialNameElementType();
   public static final IElementType SIMPLE_INVERSE = new HbCompositeElementType("SIMPLE_INVERSE");
-  public static final IElementType STATEMENTS = new HbCompositeElementType("STATEMENTS");
+  public static final IElementType STATEMENTS = new HbReparseableElementType.Statements();
 
   public static final IElementType CONTENT = new HbElementType("CONTENT", "hb.parsing.element.expected.content");
   public static final IElementType OUTER_ELEMENT_TYPE = new HbElementType("HB_FRAGMENT", "hb.parsing.element.expected.outer_element_type");
@@ -1,8 +1,10 @@
 // Copyright 2000-2020 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
 package com.dmarcotte.handlebars.psi;
 
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
 
 public final class HbPsiUtil {
 
@@ -46,4 +48,19 @@ public final class HbPsiUtil {
     return element instanceof HbStatements
            && statementsParent != null;
   }
+
+  /**
+   * @param partialNameText text of a partial name, i.e. a path ({@code path/name}) or a string ({@code "path/name"})
+   * @return the name the partial is registered with
+   */
+  public static @NotNull String getPartialName(@NotNull String partialNameText) {
+    return StringUtil.unquoteString(partialNameText);
+  }
+
+  /**
+   * @return the name of the file of the partial without extension, i.e. the last segment of the partial name
+   */
+  public static @NotNull String getPartialFileName(@NotNull String partialName) {
+    return partialName.substring(partialName.lastIndexOf('/') + 1);
+  }
 }
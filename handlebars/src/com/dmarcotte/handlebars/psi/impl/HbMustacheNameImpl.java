@@ -1,16 +1,17 @@
 package com.dmarcotte.handlebars.psi.impl;
 
 import com.dmarcotte.handlebars.psi.HbMustacheName;
+import com.dmarcotte.handlebars.psi.stubs.HbNameStub;
 import com.intellij.lang.ASTNode;
+import com.intellij.psi.stubs.IStubElementType;
 import org.jetbrains.annotations.NotNull;
 
-public class HbMustacheNameImpl extends HbPsiElementImpl implements HbMustacheName {
+public class HbMustacheNameImpl extends HbStubBasedPsiElementImpl implements HbMustacheName {
   public HbMustacheNameImpl(@NotNull ASTNode astNode) {
     super(astNode);
   }
 
-  @Override
-  public String getName() {
-    return getText();
+  public HbMustacheNameImpl(@NotNull HbNameStub stub, @NotNull IStubElementType<?, ?> elementType) {
+    super(stub, elementType);
   }
 }
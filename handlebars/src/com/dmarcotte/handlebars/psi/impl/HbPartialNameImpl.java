@@ -1,16 +1,17 @@
 package com.dmarcotte.handlebars.psi.impl;
 
 import com.dmarcotte.handlebars.psi.HbPartialName;
+import com.dmarcotte.handlebars.psi.stubs.HbNameStub;
 import com.intellij.lang.ASTNode;
+import com.intellij.psi.stubs.IStubElementType;
 import org.jetbrains.annotations.NotNull;
 
-public class HbPartialNameImpl extends HbPsiElementImpl implements HbPartialName {
+public class HbPartialNameImpl extends HbStubBasedPsiElementImpl implements HbPartialName {
   public HbPartialNameImpl(@NotNull ASTNode astNode) {
     super(astNode);
   }
 
-  @Override
-  public String getName() {
-    return getText();
+  public HbPartialNameImpl(@NotNull HbNameStub stub, @NotNull IStubElementType<?, ?> elementType) {
+    super(stub, elementType);
   }
 }
@@ -0,0 +1,47 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.dmarcotte.handlebars.psi.impl;
+
+import com.dmarcotte.handlebars.psi.HbPsiElement;
+import com.dmarcotte.handlebars.psi.stubs.HbNameStub;
+import com.intellij.extapi.psi.StubBasedPsiElementBase;
+import com.intellij.lang.ASTNode;
+import com.intellij.navigation.ItemPresentation;
+import com.intellij.navigation.ItemPresentationProviders;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.impl.source.resolve.reference.ReferenceProvidersRegistry;
+import com.intellij.psi.stubs.IStubElementType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Base for the named elements indexed with stubs, behaves like {@link HbPsiElementImpl} otherwise.
+ */
+public class HbStubBasedPsiElementImpl extends StubBasedPsiElementBase<HbNameStub> implements HbPsiElement {
+  public HbStubBasedPsiElementImpl(@NotNull ASTNode astNode) {
+    super(astNode);
+  }
+
+  public HbStubBasedPsiElementImpl(@NotNull HbNameStub stub, @NotNull IStubElementType<?, ?> elementType) {
+    super(stub, elementType);
+  }
+
+  @Override
+  public String getName() {
+    HbNameStub stub = getGreenStub();
+    return stub != null ? stub.getName() : getText();
+  }
+
+  @Override
+  public ItemPresentation getPresentation() {
+    return ItemPresentationProviders.getItemPresentation(this);
+  }
+
+  @Override
+  public PsiReference @NotNull [] getReferences() {
+    return ReferenceProvidersRegistry.getReferencesFromProviders(this);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(" + getElementType() + ")";
+  }
+}
@@ -0,0 +1,41 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.dmarcotte.handlebars.psi.stubs;
+
+import com.dmarcotte.handlebars.psi.HbMustacheName;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StringStubIndexExtension;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.stubs.StubIndexKey;
+import com.intellij.util.Processor;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Block helper usages ({@code {{#helper}}}) by the helper name.
+ */
+public final class HbHelperIndex extends StringStubIndexExtension<HbMustacheName> {
+  public static final StubIndexKey<String, HbMustacheName> KEY = StubIndexKey.createIndexKey("handlebars.helper");
+
+  @Override
+  public @NotNull StubIndexKey<String, HbMustacheName> getKey() {
+    return KEY;
+  }
+
+  public static boolean processUsages(@NotNull String name,
+                                      @NotNull Project project,
+                                      @NotNull GlobalSearchScope scope,
+                                      @NotNull Processor<? super HbMustacheName> processor) {
+    return StubIndex.getInstance().processElements(KEY, name, project, scope, HbMustacheName.class, processor);
+  }
+
+  /**
+   * Keys are only filtered by the scope approximately, so every name is checked to be used in a file of the scope.
+   */
+  public static boolean processNames(@NotNull Project project,
+                                     @NotNull GlobalSearchScope scope,
+                                     @NotNull Processor<? super String> processor) {
+    StubIndex index = StubIndex.getInstance();
+    return index.processAllKeys(KEY, name -> !index.getContainingFilesIterator(KEY, name, project, scope).hasNext() ||
+                                             processor.process(name), scope);
+  }
+}
@@ -0,0 +1,30 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.dmarcotte.handlebars.psi.stubs;
+
+import com.dmarcotte.handlebars.psi.HbMustacheName;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StringStubIndexExtension;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.stubs.StubIndexKey;
+import com.intellij.util.Processor;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Inline partial declarations ({@code {{#*inline "name"}}}) by the partial name.
+ */
+public final class HbInlinePartialIndex extends StringStubIndexExtension<HbMustacheName> {
+  public static final StubIndexKey<String, HbMustacheName> KEY = StubIndexKey.createIndexKey("handlebars.inline.partial");
+
+  @Override
+  public @NotNull StubIndexKey<String, HbMustacheName> getKey() {
+    return KEY;
+  }
+
+  public static boolean processDeclarations(@NotNull String name,
+                                            @NotNull Project project,
+                                            @NotNull GlobalSearchScope scope,
+                                            @NotNull Processor<? super HbMustacheName> processor) {
+    return StubIndex.getInstance().processElements(KEY, name, project, scope, HbMustacheName.class, processor);
+  }
+}
@@ -0,0 +1,63 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.dmarcotte.handlebars.psi.stubs;
+
+import com.dmarcotte.handlebars.parsing.HbTokenTypes;
+import com.dmarcotte.handlebars.psi.HbMustacheName;
+import com.dmarcotte.handlebars.psi.HbParam;
+import com.dmarcotte.handlebars.psi.impl.HbMustacheNameImpl;
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.stubs.IndexSink;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.util.PsiTreeUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Mustache names have stubs only in block helpers ({@code {{#helper}}}),
+ * the name of an inline partial ({@code {{#*inline "name"}}}) is kept in the stub of its "inline" decorator.
+ */
+public final class HbMustacheNameElementType extends HbStubElementType<HbMustacheName> {
+  private static final String INLINE_DECORATOR = "inline";
+
+  public HbMustacheNameElementType() {
+    super("MUSTACHE_NAME");
+  }
+
+  @Override
+  public boolean shouldCreateStub(ASTNode node) {
+    ASTNode parent = node.getTreeParent();
+    if (parent == null || parent.getElementType() != HbTokenTypes.OPEN_BLOCK_STACHE) return false;
+    ASTNode open = parent.getFirstChildNode();
+    return open != null && open.getElementType() == HbTokenTypes.OPEN_BLOCK;
+  }
+
+  @Override
+  public @NotNull HbMustacheName createPsi(@NotNull HbNameStub stub) {
+    return new HbMustacheNameImpl(stub, this);
+  }
+
+  @Override
+  public @NotNull HbNameStub createStub(@NotNull HbMustacheName psi, StubElement<?> parentStub) {
+    return new HbNameStub(parentStub, this, psi.getName(), getInlinePartialName(psi));
+  }
+
+  @Override
+  public void indexStub(@NotNull HbNameStub stub, @NotNull IndexSink sink) {
+    String inlinePartialName = stub.getInlinePartialName();
+    if (inlinePartialName != null) {
+      sink.occurrence(HbInlinePartialIndex.KEY, inlinePartialName);
+    }
+    else {
+      sink.occurrence(HbHelperIndex.KEY, stub.getName());
+    }
+  }
+
+  private static @Nullable String getInlinePartialName(@NotNull HbMustacheName name) {
+    PsiElement open = name.getParent().getFirstChild();
+    if (!INLINE_DECORATOR.equals(name.getName()) || open == null || !StringUtil.endsWithChar(open.getText(), '*')) return null;
+    HbParam param = PsiTreeUtil.getNextSiblingOfType(name, HbParam.class);
+    return param != null ? StringUtil.unquoteString(param.getText()) : null;
+  }
+}
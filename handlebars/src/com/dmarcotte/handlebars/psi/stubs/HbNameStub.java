@@ -0,0 +1,37 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.dmarcotte.handlebars.psi.stubs;
+
+import com.dmarcotte.handlebars.psi.HbPsiElement;
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.stubs.StubBase;
+import com.intellij.psi.stubs.StubElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Stub of a partial name ({@code {{> name}}}) or of a block helper name ({@code {{#name}}}).
+ */
+public class HbNameStub extends StubBase<HbPsiElement> {
+  private final @NotNull String myName;
+  private final @Nullable String myInlinePartialName;
+
+  public HbNameStub(@Nullable StubElement<?> parent,
+                    @NotNull IStubElementType<?, ?> elementType,
+                    @NotNull String name,
+                    @Nullable String inlinePartialName) {
+    super(parent, elementType);
+    myName = name;
+    myInlinePartialName = inlinePartialName;
+  }
+
+  public @NotNull String getName() {
+    return myName;
+  }
+
+  /**
+   * @return the name of the partial declared by an inline partial block ({@code {{#*inline "name"}}})
+   */
+  public @Nullable String getInlinePartialName() {
+    return myInlinePartialName;
+  }
+}
@@ -0,0 +1,41 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.dmarcotte.handlebars.psi.stubs;
+
+import com.dmarcotte.handlebars.parsing.HbTokenTypes;
+import com.dmarcotte.handlebars.psi.HbPartialName;
+import com.dmarcotte.handlebars.psi.HbPsiUtil;
+import com.dmarcotte.handlebars.psi.impl.HbPartialNameImpl;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.stubs.IndexSink;
+import com.intellij.psi.stubs.StubElement;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Partial names have stubs unless they are computed by a subexpression ({@code {{> (partialName) }}}).
+ */
+public final class HbPartialNameElementType extends HbStubElementType<HbPartialName> {
+  public HbPartialNameElementType() {
+    super("PARTIAL_NAME");
+  }
+
+  @Override
+  public boolean shouldCreateStub(ASTNode node) {
+    ASTNode name = node.getFirstChildNode();
+    return name != null && name.getElementType() == HbTokenTypes.MUSTACHE_NAME;
+  }
+
+  @Override
+  public @NotNull HbPartialName createPsi(@NotNull HbNameStub stub) {
+    return new HbPartialNameImpl(stub, this);
+  }
+
+  @Override
+  public @NotNull HbNameStub createStub(@NotNull HbPartialName psi, StubElement<?> parentStub) {
+    return new HbNameStub(parentStub, this, psi.getName(), null);
+  }
+
+  @Override
+  public void indexStub(@NotNull HbNameStub stub, @NotNull IndexSink sink) {
+    sink.occurrence(HbPartialUsageIndex.KEY, HbPsiUtil.getPartialFileName(HbPsiUtil.getPartialName(stub.getName())));
+  }
+}
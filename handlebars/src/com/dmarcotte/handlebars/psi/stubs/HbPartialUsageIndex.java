@@ -0,0 +1,30 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.dmarcotte.handlebars.psi.stubs;
+
+import com.dmarcotte.handlebars.psi.HbPartialName;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StringStubIndexExtension;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.stubs.StubIndexKey;
+import com.intellij.util.Processor;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Partial usages ({@code {{> path/name}}} and {@code {{#> path/name}}}) by the file name of the partial, i.e. the last segment of the path.
+ */
+public final class HbPartialUsageIndex extends StringStubIndexExtension<HbPartialName> {
+  public static final StubIndexKey<String, HbPartialName> KEY = StubIndexKey.createIndexKey("handlebars.partial.usage");
+
+  @Override
+  public @NotNull StubIndexKey<String, HbPartialName> getKey() {
+    return KEY;
+  }
+
+  public static boolean processUsages(@NotNull String partialFileName,
+                                      @NotNull Project project,
+                                      @NotNull GlobalSearchScope scope,
+                                      @NotNull Processor<? super HbPartialName> processor) {
+    return StubIndex.getInstance().processElements(KEY, partialFileName, project, scope, HbPartialName.class, processor);
+  }
+}
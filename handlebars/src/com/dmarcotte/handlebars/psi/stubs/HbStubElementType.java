@@ -0,0 +1,35 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.dmarcotte.handlebars.psi.stubs;
+
+import com.dmarcotte.handlebars.HbLanguage;
+import com.dmarcotte.handlebars.psi.HbPsiElement;
+import com.intellij.psi.stubs.*;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+public abstract class HbStubElementType<T extends HbPsiElement> extends IStubElementType<HbNameStub, T> {
+  protected HbStubElementType(@NotNull @NonNls String debugName) {
+    super(debugName, HbLanguage.INSTANCE);
+  }
+
+  @Override
+  public @NotNull String getExternalId() {
+    return "handlebars." + this;
+  }
+
+  @Override
+  public void serialize(@NotNull HbNameStub stub, @NotNull StubOutputStream dataStream) throws IOException {
+    dataStream.writeName(stub.getName());
+    dataStream.writeName(stub.getInlinePartialName());
+  }
+
+  @Override
+  public @NotNull HbNameStub deserialize(@NotNull StubInputStream dataStream, @Nullable StubElement parentStub) throws IOException {
+    String name = dataStream.readNameString();
+    String inlinePartialName = dataStream.readNameString();
+    return new HbNameStub(parentStub, this, name == null ? "" : name, inlinePartialName);
+  }
+}
@@ -0,0 +1,104 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.dmarcotte.handlebars.resolve;
+
+import com.dmarcotte.handlebars.file.HbFileType;
+import com.dmarcotte.handlebars.psi.HbMustacheName;
+import com.dmarcotte.handlebars.psi.HbParam;
+import com.dmarcotte.handlebars.psi.HbPartialName;
+import com.dmarcotte.handlebars.psi.HbPsiUtil;
+import com.dmarcotte.handlebars.psi.stubs.HbInlinePartialIndex;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.util.io.FileUtilRt;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.intellij.psi.impl.source.resolve.ResolveCache;
+import com.intellij.psi.search.FilenameIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.IncorrectOperationException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reference from a partial name ({@code {{> path/name}}}) to the inline partials of the same template declared with that name
+ * or, if there are none, to the template files at that path.
+ * <p>
+ * Both are found with indexes: inline partials with {@link HbInlinePartialIndex} and the files by their names,
+ * so neither the other templates nor the file system are traversed.
+ */
+public class HbPartialReference extends PsiPolyVariantReferenceBase<HbPartialName> {
+  private static final ResolveCache.PolyVariantResolver<HbPartialReference> RESOLVER = (reference, incompleteCode) -> reference.doResolve();
+
+  public HbPartialReference(@NotNull HbPartialName element) {
+    super(element, getNameRange(element.getText()), true);
+  }
+
+  private static @NotNull TextRange getNameRange(@NotNull String text) {
+    boolean quoted = text.length() >= 2 && StringUtil.isQuotedString(text);
+    return quoted ? new TextRange(1, text.length() - 1) : new TextRange(0, text.length());
+  }
+
+  @Override
+  public ResolveResult @NotNull [] multiResolve(boolean incompleteCode) {
+    return ResolveCache.getInstance(getElement().getProject()).resolveWithCaching(this, RESOLVER, false, incompleteCode);
+  }
+
+  private ResolveResult @NotNull [] doResolve() {
+    String name = HbPsiUtil.getPartialName(getElement().getText());
+    if (name.isEmpty()) return ResolveResult.EMPTY_ARRAY;
+
+    Project project = getElement().getProject();
+    List<ResolveResult> results = new ArrayList<>();
+    VirtualFile file = getElement().getContainingFile().getOriginalFile().getVirtualFile();
+    if (file != null) {
+      // inline partials are visible only in the template declaring them and they take precedence over the registered ones
+      HbInlinePartialIndex.processDeclarations(name, project, GlobalSearchScope.fileScope(project, file), declaration -> {
+        results.add(new PsiElementResolveResult(getDeclarationTarget(declaration)));
+        return true;
+      });
+    }
+    if (!results.isEmpty()) return results.toArray(ResolveResult.EMPTY_ARRAY);
+
+    PsiManager psiManager = PsiManager.getInstance(project);
+    GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+    String fileName = HbPsiUtil.getPartialFileName(name);
+    for (String extension : StringUtil.split(HbFileType.DEFAULT_EXTENSION, ";")) {
+      for (VirtualFile candidate : FilenameIndex.getVirtualFilesByName(fileName + "." + extension, scope)) {
+        if (!isPartialFile(candidate, name)) continue;
+        PsiFile psiFile = psiManager.findFile(candidate);
+        if (psiFile != null) {
+          results.add(new PsiElementResolveResult(psiFile));
+        }
+      }
+    }
+    return results.toArray(ResolveResult.EMPTY_ARRAY);
+  }
+
+  private static @NotNull PsiElement getDeclarationTarget(@NotNull HbMustacheName declaration) {
+    HbParam name = PsiTreeUtil.getNextSiblingOfType(declaration, HbParam.class);
+    return name != null ? name : declaration;
+  }
+
+  private static boolean isPartialFile(@NotNull VirtualFile file, @NotNull String partialName) {
+    if (partialName.indexOf('/') < 0) return true;
+    VirtualFile parent = file.getParent();
+    return parent != null && (parent.getPath() + "/" + file.getNameWithoutExtension()).endsWith("/" + partialName);
+  }
+
+  @Override
+  public PsiElement handleElementRename(@NotNull String newElementName) throws IncorrectOperationException {
+    String text = getElement().getText();
+    TextRange range = getRangeInElement();
+    String name = range.substring(text);
+    String newName = name.substring(0, name.lastIndexOf('/') + 1) + FileUtilRt.getNameWithoutExtension(newElementName);
+    PsiFile dummyFile = PsiFileFactory.getInstance(getElement().getProject())
+      .createFileFromText("dummy.hbs", HbFileType.INSTANCE, "{{> " + range.replace(text, newName) + "}}");
+    HbPartialName newElement = PsiTreeUtil.findChildOfType(dummyFile, HbPartialName.class);
+    if (newElement == null) throw new IncorrectOperationException("Invalid partial name: " + newName);
+    return getElement().replace(newElement);
+  }
+}
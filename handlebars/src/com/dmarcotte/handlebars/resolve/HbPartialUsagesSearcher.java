@@ -0,0 +1,37 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.dmarcotte.handlebars.resolve;
+
+import com.dmarcotte.handlebars.file.HbFileType;
+import com.dmarcotte.handlebars.psi.HbPsiFile;
+import com.dmarcotte.handlebars.psi.stubs.HbPartialUsageIndex;
+import com.intellij.openapi.application.QueryExecutorBase;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiReference;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.searches.ReferencesSearch;
+import com.intellij.util.Processor;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Finds the usages of a partial template with {@link HbPartialUsageIndex}, only the templates using a partial with its file name are loaded.
+ */
+public final class HbPartialUsagesSearcher extends QueryExecutorBase<PsiReference, ReferencesSearch.SearchParameters> {
+  public HbPartialUsagesSearcher() {
+    super(true);
+  }
+
+  @Override
+  public void processQuery(@NotNull ReferencesSearch.SearchParameters queryParameters, @NotNull Processor<? super PsiReference> consumer) {
+    if (!(queryParameters.getElementToSearch() instanceof HbPsiFile file) || file.getFileType() != HbFileType.INSTANCE) return;
+    if (!(queryParameters.getEffectiveSearchScope() instanceof GlobalSearchScope scope)) return;
+    VirtualFile virtualFile = file.getVirtualFile();
+    if (virtualFile == null) return;
+
+    HbPartialUsageIndex.processUsages(virtualFile.getNameWithoutExtension(), file.getProject(), scope, partialName -> {
+      for (PsiReference reference : partialName.getReferences()) {
+        if (reference instanceof HbPartialReference && reference.isReferenceTo(file) && !consumer.process(reference)) return false;
+      }
+      return true;
+    });
+  }
+}
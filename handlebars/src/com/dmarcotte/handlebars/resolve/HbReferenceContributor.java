@@ -0,0 +1,26 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.dmarcotte.handlebars.resolve;
+
+import com.dmarcotte.handlebars.file.HbFileType;
+import com.dmarcotte.handlebars.psi.HbMustacheName;
+import com.dmarcotte.handlebars.psi.HbPartialName;
+import com.intellij.patterns.PlatformPatterns;
+import com.intellij.psi.*;
+import com.intellij.util.ProcessingContext;
+import org.jetbrains.annotations.NotNull;
+
+public final class HbReferenceContributor extends PsiReferenceContributor {
+  @Override
+  public void registerReferenceProviders(@NotNull PsiReferenceRegistrar registrar) {
+    registrar.registerReferenceProvider(PlatformPatterns.psiElement(HbPartialName.class), new PsiReferenceProvider() {
+      @Override
+      public PsiReference @NotNull [] getReferencesByElement(@NotNull PsiElement element, @NotNull ProcessingContext context) {
+        // dialects (e.g. Spacebars) resolve partials on their own, dynamic partials ({{> (name) }}) cannot be resolved
+        if (element.getContainingFile().getFileType() != HbFileType.INSTANCE || !(element.getFirstChild() instanceof HbMustacheName)) {
+          return PsiReference.EMPTY_ARRAY;
+        }
+        return new PsiReference[]{new HbPartialReference((HbPartialName)element)};
+      }
+    });
+  }
+}
@@ -0,0 +1,48 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.dmarcotte.handlebars.parsing;
+
+import com.dmarcotte.handlebars.file.HbFileType;
+import com.dmarcotte.handlebars.util.HbTestUtils;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.impl.DebugUtil;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HbReparsePerformanceTest extends BasePlatformTestCase {
+  public void testTypingLatencyInLargeTemplate() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 2500; i++) {
+      text.append("{{#each items").append(i).append("}}\n");
+      text.append("  <li class=\"{{class}}\">{{name}}</li>\n");
+      text.append("  {{> item-partial value=this}}\n");
+      text.append("{{/each}}\n");
+      if (i == 1250) {
+        text.append("{{#if flag}}<caret>{{/if}}\n");
+      }
+    }
+    AtomicInteger fileParses = HbTestUtils.countFileParses(getTestRootDisposable());
+    myFixture.configureByText(HbFileType.INSTANCE, text.toString());
+    assertTrue(myFixture.getEditor().getDocument().getLineCount() > 10000);
+    // keeps the tree loaded, so that every commit reparses it
+    ASTNode fileNode = myFixture.getFile().getNode();
+    fileParses.set(0);
+
+    PlatformTestUtil.newPerformanceTest(getTestName(false), () -> {
+      for (int i = 0; i < 50; i++) {
+        myFixture.type('a');
+        PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+      }
+    }).start();
+    assertEquals("only the edited block must be reparsed", 0, fileParses.get());
+    assertSame(fileNode, myFixture.getFile().getNode());
+
+    PsiFile file = myFixture.getFile();
+    PsiFile expected = PsiFileFactory.getInstance(getProject()).createFileFromText(file.getName(), HbFileType.INSTANCE, file.getText());
+    assertEquals(DebugUtil.psiToString(expected, true), DebugUtil.psiToString(file, true));
+  }
+}
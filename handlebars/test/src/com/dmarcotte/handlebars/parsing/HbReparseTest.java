@@ -0,0 +1,121 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.dmarcotte.handlebars.parsing;
+
+import com.dmarcotte.handlebars.file.HbFileType;
+import com.dmarcotte.handlebars.util.HbTestUtils;
+import com.intellij.lang.ASTNode;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+import com.intellij.psi.impl.DebugUtil;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HbReparseTest extends BasePlatformTestCase {
+  public void testWholeBlock() {
+    assertTrue(HbReparseableElementType.isWholeStatements("{{#if a}}<b>{{c}}</b>{{else}}d{{/if}}", true));
+    assertTrue(HbReparseableElementType.isWholeStatements("{{^if a}}b{{/if}}", true));
+    assertTrue(HbReparseableElementType.isWholeStatements("{{#> layout}}{{#each a}}b{{/each}}{{/layout}}", true));
+
+    assertFalse(HbReparseableElementType.isWholeStatements("{{#if a}}b{{/if}}c", true));
+    assertFalse(HbReparseableElementType.isWholeStatements("{{#if a}}b{{/if}}{{#if a}}b{{/if}}", true));
+    assertFalse(HbReparseableElementType.isWholeStatements("{{#if a}}{{#if b}}{{/if}}", true));
+    assertFalse(HbReparseableElementType.isWholeStatements("{{#if a}}b{{/if", true));
+    assertFalse(HbReparseableElementType.isWholeStatements("{{#if a}}{{!-- b{{/if}}", true));
+    assertFalse(HbReparseableElementType.isWholeStatements("a{{#if a}}b{{/if}}", true));
+  }
+
+  public void testWholeStatements() {
+    assertTrue(HbReparseableElementType.isWholeStatements("a{{b}}{{#if c}}d{{else}}e{{/if}}f", false));
+    assertTrue(HbReparseableElementType.isWholeStatements("{{> partial}}\\{{escaped}} {{a}}", false));
+
+    assertFalse(HbReparseableElementType.isWholeStatements("a{{else}}b", false));
+    assertFalse(HbReparseableElementType.isWholeStatements("a{{^}}b", false));
+    assertFalse(HbReparseableElementType.isWholeStatements("a{{/if}}", false));
+    assertFalse(HbReparseableElementType.isWholeStatements("a{{#if b}}", false));
+    assertFalse(HbReparseableElementType.isWholeStatements("a{{b", false));
+    assertFalse(HbReparseableElementType.isWholeStatements("a{", false));
+    assertFalse(HbReparseableElementType.isWholeStatements("a\\", false));
+    assertFalse(HbReparseableElementType.isWholeStatements("}a", false));
+    assertFalse(HbReparseableElementType.isWholeStatements("{{! a}}b", false));
+    assertFalse(HbReparseableElementType.isWholeStatements("", false));
+  }
+
+  public void testLexerRestartsAtAnyToken() {
+    String text = "a{{#if b}}{{!c}}{{!-- d --}}{{{e}}}\\{{f}}{{{{raw}}}}{{g}}{{{{/raw}}}}{{> h i=\"j\"}}{{/if}}";
+    List<String> tokens = lex(text, 0, 0);
+    Lexer lexer = new HbRawLexer();
+    lexer.start(text);
+    int index = 0;
+    for (IElementType type; (type = lexer.getTokenType()) != null; lexer.advance(), index++) {
+      assertEquals(tokens.subList(index, tokens.size()), lex(text, lexer.getTokenStart(), lexer.getState()));
+    }
+  }
+
+  public void testTypingInBlock() {
+    myFixture.configureByText(HbFileType.INSTANCE, "{{#each items}}<li>{{name}}</li>{{/each}}\n" +
+                                                   "{{#if a}}<b>{{na<caret>me}}</b>{{else}}c{{/if}}\n" +
+                                                   "{{#with d}}{{e}}{{/with}}");
+    for (char c : "me".toCharArray()) {
+      myFixture.type(c);
+      checkSameAsFullParse();
+    }
+    insert("{{else if b}}x");
+    checkSameAsFullParse();
+    insert("{{/if}}");
+    checkSameAsFullParse();
+    insert("{{#unless z}}");
+    checkSameAsFullParse();
+    insert("{{!-- ");
+    checkSameAsFullParse();
+  }
+
+  public void testTypingInBlockDoesNotReparseFile() {
+    AtomicInteger fileParses = HbTestUtils.countFileParses(getTestRootDisposable());
+    myFixture.configureByText(HbFileType.INSTANCE, "{{#each items}}<li>{{name}}</li>{{/each}}\n" +
+                                                   "{{#if a}}<b>{{na<caret>}}</b>{{/if}}\n");
+    // keeps the tree loaded, so that the commit reparses it
+    ASTNode fileNode = myFixture.getFile().getNode();
+    fileParses.set(0);
+
+    myFixture.type("me");
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    assertEquals(0, fileParses.get());
+    assertSame(fileNode, myFixture.getFile().getNode());
+
+    // an unclosed block can't be reparsed on its own, so the whole file is
+    insert("{{#unless z}}");
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    assertTrue(fileParses.get() > 0);
+    checkSameAsFullParse();
+  }
+
+  private void insert(String text) {
+    Document document = myFixture.getEditor().getDocument();
+    WriteCommandAction.runWriteCommandAction(getProject(), () -> document.insertString(myFixture.getCaretOffset(), text));
+  }
+
+  private void checkSameAsFullParse() {
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+    PsiFile file = myFixture.getFile();
+    PsiFile expected = PsiFileFactory.getInstance(getProject()).createFileFromText(file.getName(), HbFileType.INSTANCE, file.getText());
+    assertEquals(DebugUtil.psiToString(expected, true), DebugUtil.psiToString(file, true));
+  }
+
+  private static List<String> lex(String text, int start, int state) {
+    Lexer lexer = new HbRawLexer();
+    lexer.start(text, start, text.length(), state);
+    List<String> tokens = new ArrayList<>();
+    for (IElementType type; (type = lexer.getTokenType()) != null; lexer.advance()) {
+      tokens.add(type + ":" + lexer.getTokenText());
+    }
+    return tokens;
+  }
+}
@@ -0,0 +1,34 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.dmarcotte.handlebars.resolve;
+
+import com.dmarcotte.handlebars.psi.HbPartialName;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+
+import java.util.Collection;
+
+public class HbPartialResolvePerformanceTest extends BasePlatformTestCase {
+  public void testPartialResolvePerformance() {
+    int partialCount = 2000;
+    StringBuilder usages = new StringBuilder();
+    for (int i = 0; i < partialCount; i++) {
+      myFixture.addFileToProject("partials/group" + i % 50 + "/partial" + i + ".hbs", "<div>{{> group" + i % 50 + "/partial" + (i + 1) + "}}</div>");
+      if (i % 10 == 0) {
+        usages.append("{{> group").append(i % 50).append("/partial").append(i).append("}}\n");
+      }
+    }
+    myFixture.configureByText("index.hbs", usages.toString());
+    Collection<HbPartialName> names = PsiTreeUtil.findChildrenOfType(myFixture.getFile(), HbPartialName.class);
+    assertSize(partialCount / 10, names);
+
+    PlatformTestUtil.newPerformanceTest(getTestName(false), () -> {
+      for (int i = 0; i < 10; i++) {
+        getPsiManager().dropResolveCaches();
+        for (HbPartialName name : names) {
+          assertNotNull(name.getReferences()[0].resolve());
+        }
+      }
+    }).start();
+  }
+}
@@ -0,0 +1,74 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.dmarcotte.handlebars.resolve;
+
+import com.dmarcotte.handlebars.file.HbFileType;
+import com.dmarcotte.handlebars.psi.HbParam;
+import com.dmarcotte.handlebars.psi.HbPartialName;
+import com.intellij.codeInsight.completion.CompletionType;
+import com.intellij.psi.*;
+import com.intellij.psi.search.searches.ReferencesSearch;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class HbPartialResolveTest extends BasePlatformTestCase {
+  public void testPartialFile() {
+    PsiFile partial = myFixture.addFileToProject("partials/header.hbs", "<h1>{{title}}</h1>");
+    myFixture.configureByText(HbFileType.INSTANCE, "{{> hea<caret>der}}");
+    assertEquals(partial, myFixture.getReferenceAtCaretPositionWithAssertion().resolve());
+  }
+
+  public void testPartialPath() {
+    PsiFile partial = myFixture.addFileToProject("partials/post/card.hbs", "<article></article>");
+    myFixture.addFileToProject("partials/page/card.hbs", "<section></section>");
+    myFixture.configureByText(HbFileType.INSTANCE, "{{> \"post/ca<caret>rd\" post}}");
+    ResolveResult[] results = ((PsiPolyVariantReference)myFixture.getReferenceAtCaretPositionWithAssertion()).multiResolve(false);
+    assertSize(1, results);
+    assertEquals(partial, results[0].getElement());
+  }
+
+  public void testInlinePartialPrecedesFile() {
+    myFixture.addFileToProject("card.hbs", "<article></article>");
+    myFixture.configureByText(HbFileType.INSTANCE, "{{#*inline \"card\"}}<div></div>{{/inline}}\n{{> ca<caret>rd}}");
+    PsiElement resolved = myFixture.getReferenceAtCaretPositionWithAssertion().resolve();
+    assertInstanceOf(resolved, HbParam.class);
+    assertEquals("\"card\"", resolved.getText());
+  }
+
+  public void testDynamicPartialIsNotResolved() {
+    myFixture.configureByText(HbFileType.INSTANCE, "{{> (lookup . 'name') }}");
+    HbPartialName name = PsiTreeUtil.findChildOfType(myFixture.getFile(), HbPartialName.class);
+    assertNotNull(name);
+    assertEmpty(name.getReferences());
+  }
+
+  public void testPartialUsages() {
+    PsiFile partial = myFixture.addFileToProject("partials/post/card.hbs", "<article></article>");
+    myFixture.addFileToProject("index.hbs", "{{#each posts}}{{> post/card}}{{/each}}");
+    myFixture.addFileToProject("tag.hbs", "{{#> \"post/card\"}}{{/post/card}}");
+    myFixture.addFileToProject("page.hbs", "{{> page/card}}{{> card}}");
+    Collection<PsiReference> usages = ReferencesSearch.search(partial).findAll();
+    List<String> files = new ArrayList<>();
+    for (PsiReference usage : usages) {
+      files.add(usage.getElement().getContainingFile().getName());
+    }
+    assertSameElements(files, "index.hbs", "tag.hbs", "page.hbs");
+  }
+
+  public void testPartialFileRename() {
+    PsiFile partial = myFixture.addFileToProject("partials/post/card.hbs", "<article></article>");
+    myFixture.configureByText("index.hbs", "{{> \"post/card\"}}");
+    myFixture.renameElement(partial, "teaser.hbs");
+    myFixture.checkResult("{{> \"post/teaser\"}}");
+  }
+
+  public void testHelperCompletion() {
+    myFixture.addFileToProject("other.hbs", "{{#myHelper items}}{{/myHelper}}");
+    myFixture.configureByText(HbFileType.INSTANCE, "{{#<caret>}}");
+    myFixture.complete(CompletionType.BASIC);
+    assertContainsElements(myFixture.getLookupElementStrings(), "myHelper", "if", "each");
+  }
+}
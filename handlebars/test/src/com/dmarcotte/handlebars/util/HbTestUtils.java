@@ -1,7 +1,11 @@
 // Copyright 2000-2020 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
 package com.dmarcotte.handlebars.util;
 
+import com.dmarcotte.handlebars.HbLanguage;
 import com.dmarcotte.handlebars.config.HbConfig;
+import com.dmarcotte.handlebars.parsing.HbParseDefinition;
+import com.intellij.lang.LanguageParserDefinitions;
+import com.intellij.lang.PsiParser;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.application.PathManager;
 import com.intellij.openapi.project.Project;
@@ -10,6 +14,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.TestOnly;
 
 import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class HbTestUtils {
   /**
@@ -38,4 +43,20 @@ public final class HbTestUtils {
       }
     });
   }
+
+  /**
+   * Counts parses of whole Handlebars files. Blocks and statements reparsed on their own don't create the file parser.
+   */
+  @TestOnly
+  public static @NotNull AtomicInteger countFileParses(@NotNull Disposable parentDisposable) {
+    AtomicInteger count = new AtomicInteger();
+    LanguageParserDefinitions.INSTANCE.addExplicitExtension(HbLanguage.INSTANCE, new HbParseDefinition() {
+      @Override
+      public @NotNull PsiParser createParser(Project project) {
+        count.incrementAndGet();
+        return super.createParser(project);
+      }
+    }, parentDisposable);
+    return count;
+  }
 }
@@ -0,0 +1,133 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license.
+
+package com.intellij.jhipster.uml;
+
+import com.intellij.jhipster.uml.model.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Difference between two {@link JdlDiagramData} snapshots. Nodes are matched by name and links by the names of their ends,
+ * so that a node whose fields changed is reported as changed rather than removed and added again.
+ */
+final class JdlDiagramDataDiff {
+  final Map<String, JdlEntityNodeData> addedEntities = new LinkedHashMap<>();
+  final Map<String, JdlEntityNodeData> changedEntities = new LinkedHashMap<>();
+  final Set<String> removedEntities = new LinkedHashSet<>();
+
+  final Map<String, JdlEnumNodeData> addedEnums = new LinkedHashMap<>();
+  final Map<String, JdlEnumNodeData> changedEnums = new LinkedHashMap<>();
+  final Set<String> removedEnums = new LinkedHashSet<>();
+
+  final Map<List<?>, JdlEntityNodeLink> addedEntityLinks = new LinkedHashMap<>();
+  final Set<List<?>> removedEntityLinks = new LinkedHashSet<>();
+
+  final Map<List<?>, JdlEnumNodeLink> addedEnumLinks = new LinkedHashMap<>();
+  final Set<List<?>> removedEnumLinks = new LinkedHashSet<>();
+
+  private JdlDiagramDataDiff() {
+  }
+
+  boolean isEmpty() {
+    return !hasStructuralChanges() && changedEntities.isEmpty() && changedEnums.isEmpty();
+  }
+
+  /**
+   * @return true if nodes or edges were added or removed, i.e. the diagram needs a relayout and not just a repaint
+   */
+  boolean hasStructuralChanges() {
+    return !addedEntities.isEmpty() || !removedEntities.isEmpty()
+           || !addedEnums.isEmpty() || !removedEnums.isEmpty()
+           || !addedEntityLinks.isEmpty() || !removedEntityLinks.isEmpty()
+           || !addedEnumLinks.isEmpty() || !removedEnumLinks.isEmpty();
+  }
+
+  static @NotNull JdlDiagramDataDiff compute(@Nullable JdlDiagramData oldData, @NotNull JdlDiagramData newData) {
+    var diff = new JdlDiagramDataDiff();
+
+    diffNodes(oldData != null ? oldData.getEntities() : List.of(), newData.getEntities(),
+              diff.addedEntities, diff.changedEntities, diff.removedEntities);
+    diffNodes(oldData != null ? oldData.getEnums() : List.of(), newData.getEnums(),
+              diff.addedEnums, diff.changedEnums, diff.removedEnums);
+
+    diffLinks(entityLinksByKey(oldData != null ? oldData.getEntityLinks() : List.of()),
+              entityLinksByKey(newData.getEntityLinks()),
+              diff.addedEntityLinks, diff.removedEntityLinks);
+    diffLinks(enumLinksByKey(oldData != null ? oldData.getEnumLinks() : List.of()),
+              enumLinksByKey(newData.getEnumLinks()),
+              diff.addedEnumLinks, diff.removedEnumLinks);
+
+    return diff;
+  }
+
+  static @NotNull Map<List<?>, JdlEntityNodeLink> entityLinksByKey(@NotNull Collection<JdlEntityNodeLink> links) {
+    Map<List<?>, JdlEntityNodeLink> result = new LinkedHashMap<>();
+    for (JdlEntityNodeLink link : links) {
+      List<Object> baseKey = List.of(link.getType(), link.getFromEntity().getName(), link.getToEntity().getName());
+      result.put(uniqueKey(result, baseKey), link);
+    }
+    return result;
+  }
+
+  static @NotNull Map<List<?>, JdlEnumNodeLink> enumLinksByKey(@NotNull Collection<JdlEnumNodeLink> links) {
+    Map<List<?>, JdlEnumNodeLink> result = new LinkedHashMap<>();
+    for (JdlEnumNodeLink link : links) {
+      List<Object> baseKey = List.of(link.getEntity().getName(), link.getEnumeration().getName());
+      result.put(uniqueKey(result, baseKey), link);
+    }
+    return result;
+  }
+
+  // the same relationship may be declared more than once, each declaration gets its own edge
+  private static List<?> uniqueKey(Map<List<?>, ?> existing, List<Object> baseKey) {
+    int occurrence = 0;
+    List<Object> key;
+    do {
+      key = new ArrayList<>(baseKey);
+      key.add(occurrence++);
+    }
+    while (existing.containsKey(key));
+    return key;
+  }
+
+  private static <T extends JdlNodeData> void diffNodes(@NotNull Collection<T> oldNodes,
+                                                        @NotNull Collection<T> newNodes,
+                                                        @NotNull Map<String, T> added,
+                                                        @NotNull Map<String, T> changed,
+                                                        @NotNull Set<String> removed) {
+    Map<String, T> oldByName = new HashMap<>();
+    for (T node : oldNodes) {
+      oldByName.put(node.getName(), node);
+    }
+
+    for (T node : newNodes) {
+      T oldNode = oldByName.remove(node.getName());
+      if (oldNode == null) {
+        added.put(node.getName(), node);
+      }
+      else if (!oldNode.equals(node)) {
+        changed.put(node.getName(), node);
+      }
+    }
+
+    removed.addAll(oldByName.keySet());
+  }
+
+  private static <T> void diffLinks(@NotNull Map<List<?>, T> oldLinks,
+                                    @NotNull Map<List<?>, T> newLinks,
+                                    @NotNull Map<List<?>, T> added,
+                                    @NotNull Set<List<?>> removed) {
+    for (var entry : newLinks.entrySet()) {
+      if (!oldLinks.containsKey(entry.getKey())) {
+        added.put(entry.getKey(), entry.getValue());
+      }
+    }
+    for (List<?> key : oldLinks.keySet()) {
+      if (!newLinks.containsKey(key)) {
+        removed.add(key);
+      }
+    }
+  }
+}
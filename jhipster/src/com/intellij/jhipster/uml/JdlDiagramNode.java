@@ -13,7 +13,7 @@ import javax.swing.*;
 
 final class JdlDiagramNode extends DiagramNodeBase<JdlNodeData> {
 
-  private final JdlNodeData data;
+  private JdlNodeData data;
 
   JdlDiagramNode(JdlNodeData data, DiagramProvider<JdlNodeData> provider) {
     super(provider);
@@ -25,6 +25,13 @@ final class JdlDiagramNode extends DiagramNodeBase<JdlNodeData> {
     return data;
   }
 
+  /**
+   * Replaces the data of a node whose name is unchanged, so the node keeps its place in the diagram.
+   */
+  void setIdentifyingElement(@NotNull JdlNodeData data) {
+    this.data = data;
+  }
+
   @Override
   public @Nullable @Nls String getTooltip() {
     return null;
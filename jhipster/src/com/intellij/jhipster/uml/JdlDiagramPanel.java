@@ -5,6 +5,7 @@ package com.intellij.jhipster.uml;
 import com.intellij.diagram.DiagramBuilder;
 import com.intellij.diagram.DiagramBuilderFactory;
 import com.intellij.openapi.Disposable;
+import com.intellij.jhipster.uml.model.JdlDiagramData;
 import com.intellij.openapi.actionSystem.ActionManager;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
 import com.intellij.openapi.actionSystem.DataProvider;
@@ -79,6 +80,29 @@ final class JdlDiagramPanel implements Disposable {
     }
   }
 
+  /**
+   * Applies data extracted off the EDT to the diagram, reloading it only if something changed.
+   */
+  public void update(@NotNull JdlDiagramData data) {
+    if (builder == null) {
+      draw();
+      return;
+    }
+
+    if (!(builder.getDataModel() instanceof JdlUmlDataModel dataModel)) return;
+
+    var diff = dataModel.offerData(data);
+    if (diff.isEmpty()) return;
+
+    var query = builder.queryUpdate()
+      .withDataReload()
+      .withPresentationUpdate();
+    if (diff.hasStructuralChanges()) {
+      query = query.withRelayout();
+    }
+    query.runAsync();
+  }
+
   private JComponent createSimpleGraphView(@NotNull DiagramBuilder builder) {
     builder.getPresentationModel().registerActions();
 
@@ -3,8 +3,8 @@
 package com.intellij.jhipster.uml;
 
 import com.intellij.jhipster.JdlBundle;
-import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.event.DocumentEvent;
 import com.intellij.openapi.editor.event.DocumentListener;
@@ -16,6 +16,7 @@ import com.intellij.openapi.util.Disposer;
 import com.intellij.openapi.util.UserDataHolderBase;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.util.Alarm;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.intellij.util.ui.update.MergingUpdateQueue;
 import com.intellij.util.ui.update.Update;
 import org.jetbrains.annotations.NotNull;
@@ -169,13 +170,19 @@ final class JdlPreviewFileEditor extends UserDataHolderBase implements FileEdito
     mergingUpdateQueue.queue(new Update("JDL.REDRAW") {
       @Override
       public void run() {
-        ApplicationManager.getApplication().invokeLater(() -> {
-          if (myPanel == null || !myFile.isValid() || isDisposed) {
-            return;
-          }
-
-          myPanel.draw();
-        });
+        ReadAction.nonBlocking(() -> JdlUmlDataModel.extractData(myProject, myFile))
+          .withDocumentsCommitted(myProject)
+          .expireWhen(() -> !myFile.isValid() || isDisposed)
+          .expireWith(JdlPreviewFileEditor.this)
+          .coalesceBy(JdlPreviewFileEditor.this)
+          .finishOnUiThread(ModalityState.any(), data -> {
+            if (myPanel == null || !myFile.isValid() || isDisposed) {
+              return;
+            }
+
+            myPanel.update(data);
+          })
+          .submit(AppExecutorUtil.getAppExecutorService());
       }
     });
   }
@@ -20,6 +20,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.intellij.jhipster.JdlConstants.USER_ENTITY_NAME;
 
@@ -27,8 +28,14 @@ final class JdlUmlDataModel extends DiagramDataModel<JdlNodeData> {
   private final List<JdlDiagramNode> nodes = new ArrayList<>();
   private final List<DiagramEdge<JdlNodeData>> edges = new ArrayList<>();
 
+  private final Map<String, JdlDiagramNode> entityNodes = new HashMap<>();
+  private final Map<String, JdlDiagramNode> enumNodes = new HashMap<>();
+  private final Map<List<?>, DiagramEdge<JdlNodeData>> entityEdges = new HashMap<>();
+  private final Map<List<?>, DiagramEdge<JdlNodeData>> enumEdges = new HashMap<>();
+
   private final JdlNodeData seedData;
-  private JdlDiagramData diagramData;
+  private @Nullable JdlDiagramData diagramData;
+  private final AtomicReference<JdlDiagramData> pendingData = new AtomicReference<>();
 
   public JdlUmlDataModel(@NotNull Project project,
                          @NotNull DiagramProvider<JdlNodeData> provider, @Nullable JdlNodeData seedData) {
@@ -57,36 +64,66 @@ final class JdlUmlDataModel extends DiagramDataModel<JdlNodeData> {
     if (data == null) return null;
 
     if (data instanceof JdlDiagramRootData) {
-      this.diagramData = JdlUmlDataModel.extractData(getProject(), ((JdlDiagramRootData)data).getVirtualFile());
+      applyData(JdlUmlDataModel.extractData(getProject(), ((JdlDiagramRootData)data).getVirtualFile()));
+      return null;
+    }
 
-      var entityMapping = new HashMap<JdlEntityNodeData, DiagramNode<JdlNodeData>>();
-      var enumMapping = new HashMap<JdlEnumNodeData, DiagramNode<JdlNodeData>>();
+    var node = new JdlDiagramNode(data, getProvider());
+    this.nodes.add(node);
+    return node;
+  }
 
-      for (var entity : diagramData.getEntities()) {
-        entityMapping.put(entity, addElement(entity));
-      }
-      for (var enumeration : diagramData.getEnums()) {
-        enumMapping.put(enumeration, addElement(enumeration));
-      }
+  /**
+   * Offers data extracted in background to the next {@link #refreshDataModel()}, so the refresh doesn't touch PSI.
+   *
+   * @return the changes the data brings relative to the current diagram
+   */
+  @NotNull JdlDiagramDataDiff offerData(@NotNull JdlDiagramData data) {
+    pendingData.set(data);
+    return JdlDiagramDataDiff.compute(diagramData, data);
+  }
 
-      for (JdlEntityNodeLink entityLink : diagramData.getEntityLinks()) {
-        var from = entityMapping.get(entityLink.getFromEntity());
-        var to = entityMapping.get(entityLink.getToEntity());
-        edges.add(new JdlDiagramEntityEdge(from, to, entityLink.getType()));
-      }
+  private void applyData(@NotNull JdlDiagramData newData) {
+    var diff = JdlDiagramDataDiff.compute(diagramData, newData);
+    this.diagramData = newData;
+    if (diff.isEmpty()) return;
 
-      for (JdlEnumNodeLink enumLink : diagramData.getEnumLinks()) {
-        var from = entityMapping.get(enumLink.getEntity());
-        var to = enumMapping.get(enumLink.getEnumeration());
-        edges.add(new JdlDiagramEnumEdge(from, to));
-      }
+    // edges first, they point to nodes that may be removed below
+    for (List<?> key : diff.removedEntityLinks) {
+      edges.remove(entityEdges.remove(key));
+    }
+    for (List<?> key : diff.removedEnumLinks) {
+      edges.remove(enumEdges.remove(key));
+    }
 
-      return null;
+    for (String name : diff.removedEntities) {
+      nodes.remove(entityNodes.remove(name));
+    }
+    for (String name : diff.removedEnums) {
+      nodes.remove(enumNodes.remove(name));
     }
 
-    var node = new JdlDiagramNode(data, getProvider());
-    this.nodes.add(node);
-    return node;
+    diff.changedEntities.forEach((name, entity) -> entityNodes.get(name).setIdentifyingElement(entity));
+    diff.changedEnums.forEach((name, enumeration) -> enumNodes.get(name).setIdentifyingElement(enumeration));
+
+    diff.addedEntities.forEach((name, entity) -> entityNodes.put(name, (JdlDiagramNode)addElement(entity)));
+    diff.addedEnums.forEach((name, enumeration) -> enumNodes.put(name, (JdlDiagramNode)addElement(enumeration)));
+
+    diff.addedEntityLinks.forEach((key, entityLink) -> {
+      var from = entityNodes.get(entityLink.getFromEntity().getName());
+      var to = entityNodes.get(entityLink.getToEntity().getName());
+      var edge = new JdlDiagramEntityEdge(from, to, entityLink.getType());
+      entityEdges.put(key, edge);
+      edges.add(edge);
+    });
+
+    diff.addedEnumLinks.forEach((key, enumLink) -> {
+      var from = entityNodes.get(enumLink.getEntity().getName());
+      var to = enumNodes.get(enumLink.getEnumeration().getName());
+      var edge = new JdlDiagramEnumEdge(from, to);
+      enumEdges.put(key, edge);
+      edges.add(edge);
+    });
   }
 
   @Override
@@ -186,19 +223,12 @@ final class JdlUmlDataModel extends DiagramDataModel<JdlNodeData> {
   @Override
   public void refreshDataModel() {
     if (seedData instanceof JdlDiagramRootData) {
-      JdlDiagramData newDiagramData = JdlUmlDataModel.extractData(
-        getProject(),
-        ((JdlDiagramRootData)seedData).getVirtualFile()
-      );
-
-      if (newDiagramData.equals(diagramData)) return; // nothing changed
-
-      removeAll();
-
-      nodes.clear();
-      edges.clear();
+      JdlDiagramData newDiagramData = pendingData.getAndSet(null);
+      if (newDiagramData == null) {
+        newDiagramData = JdlUmlDataModel.extractData(getProject(), ((JdlDiagramRootData)seedData).getVirtualFile());
+      }
 
-      addElement(seedData);
+      applyData(newDiagramData);
     }
   }
 }
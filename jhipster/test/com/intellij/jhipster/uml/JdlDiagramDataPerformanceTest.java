@@ -0,0 +1,85 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license.
+
+package com.intellij.jhipster.uml;
+
+import com.intellij.jhipster.psi.JdlFile;
+import com.intellij.jhipster.uml.model.JdlDiagramData;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+
+public class JdlDiagramDataPerformanceTest extends BasePlatformTestCase {
+  private static final int ENTITIES_COUNT = 600;
+
+  public void testDiffOfSingleFieldChange() {
+    var file = configureLargeJdl();
+    JdlDiagramData before = JdlUmlDataModel.extractData(file);
+
+    var document = myFixture.getEditor().getDocument();
+    int offset = document.getText().indexOf("description10 String");
+    WriteCommandAction.runWriteCommandAction(getProject(), () -> document.insertString(offset + "description10 ".length(), "Text"));
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+
+    JdlDiagramData after = JdlUmlDataModel.extractData(file);
+    var diff = JdlDiagramDataDiff.compute(before, after);
+
+    assertFalse(diff.hasStructuralChanges());
+    assertSameElements(diff.changedEntities.keySet(), "Entity10");
+    assertEmpty(diff.changedEnums.keySet());
+  }
+
+  public void testDiffOfRemovedEntity() {
+    var file = configureLargeJdl();
+    JdlDiagramData before = JdlUmlDataModel.extractData(file);
+
+    var document = myFixture.getEditor().getDocument();
+    String declaration = entityDeclaration(ENTITIES_COUNT - 1);
+    int offset = document.getText().indexOf(declaration);
+    WriteCommandAction.runWriteCommandAction(getProject(), () -> document.deleteString(offset, offset + declaration.length()));
+    PsiDocumentManager.getInstance(getProject()).commitAllDocuments();
+
+    JdlDiagramData after = JdlUmlDataModel.extractData(file);
+    var diff = JdlDiagramDataDiff.compute(before, after);
+
+    assertSameElements(diff.removedEntities, "Entity" + (ENTITIES_COUNT - 1));
+    assertEquals(1, diff.removedEntityLinks.size());
+    assertEquals(1, diff.removedEnumLinks.size());
+    assertEmpty(diff.addedEntities.keySet());
+    assertEmpty(diff.changedEntities.keySet());
+  }
+
+  public void testExtractAndDiffLargeFile() {
+    var file = configureLargeJdl();
+    JdlDiagramData initial = JdlUmlDataModel.extractData(file);
+
+    PlatformTestUtil.newPerformanceTest(getTestName(false), () -> {
+      JdlDiagramData data = JdlUmlDataModel.extractData(file);
+      assertTrue(JdlDiagramDataDiff.compute(initial, data).isEmpty());
+    }).start();
+  }
+
+  private JdlFile configureLargeJdl() {
+    var text = new StringBuilder();
+    text.append("enum Status {\n  ACTIVE,\n  INACTIVE,\n  ARCHIVED\n}\n\n");
+    for (int i = 0; i < ENTITIES_COUNT; i++) {
+      text.append(entityDeclaration(i));
+    }
+    text.append("relationship ManyToOne {\n");
+    for (int i = 1; i < ENTITIES_COUNT; i++) {
+      text.append("  Entity").append(i).append(" to Entity").append(i - 1).append("\n");
+    }
+    text.append("}\n");
+    return (JdlFile)myFixture.configureByText("Large.jdl", text.toString());
+  }
+
+  private static String entityDeclaration(int index) {
+    return "entity Entity" + index + " {\n" +
+           "  name String required,\n" +
+           "  description" + index + " String,\n" +
+           "  amount Integer,\n" +
+           "  created Instant,\n" +
+           "  status Status\n" +
+           "}\n\n";
+  }
+}
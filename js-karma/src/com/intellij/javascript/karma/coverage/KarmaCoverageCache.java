@@ -0,0 +1,55 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license.
+package com.intellij.javascript.karma.coverage;
+
+import com.intellij.javascript.karma.coverage.KarmaLcovParser.FileCoverage;
+import com.intellij.javascript.nodejs.execution.NodeTargetRun;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.rt.coverage.data.ProjectData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-file line coverage collected by a Karma server over all its runs.
+ * <p>
+ * A report of a run replaces the coverage of the files it contains and keeps the other files as they were,
+ * so when Karma re-runs a subset of specs (e.g. in watch mode) coverage of the rest of the project stays available.
+ */
+final class KarmaCoverageCache {
+  private final Map<String, FileCoverage> myCoverages = new LinkedHashMap<>();
+  private @Nullable File myDataFile;
+
+  /**
+   * Merges the LCOV report into the cache and writes the merged coverage to the data file of the coverage suite.
+   */
+  synchronized void merge(@NotNull Path lcovFile, @NotNull File dataFile) throws IOException {
+    Map<String, FileCoverage> report = new LinkedHashMap<>();
+    try (InputStream input = Files.newInputStream(lcovFile)) {
+      // a file may be reported several times, e.g. when it is included in several bundles
+      KarmaLcovParser.parse(input, coverage -> report.merge(coverage.sourcePath(), coverage, FileCoverage::plus));
+    }
+    myCoverages.putAll(report);
+    FileUtil.createParentDirs(dataFile);
+    try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(dataFile), StandardCharsets.UTF_8))) {
+      KarmaLcovParser.write(myCoverages.values(), writer);
+    }
+    myDataFile = dataFile;
+  }
+
+  /**
+   * @return merged coverage if the data file was written by the last {@link #merge}, otherwise null
+   */
+  synchronized @Nullable ProjectData getProjectData(@NotNull File dataFile,
+                                                    @NotNull File localProjectRoot,
+                                                    @Nullable NodeTargetRun targetRun) {
+    if (!dataFile.equals(myDataFile)) return null;
+    // a new instance each time, the coverage framework may modify it
+    return KarmaLcovParser.toProjectData(myCoverages.values(), localProjectRoot, targetRun);
+  }
+}
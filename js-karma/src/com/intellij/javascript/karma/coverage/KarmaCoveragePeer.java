@@ -23,6 +23,7 @@ import java.nio.file.Path;
 public class KarmaCoveragePeer {
 
   private final File myCoverageTempDir;
+  private final KarmaCoverageCache myCoverageCache = new KarmaCoverageCache();
   private volatile KarmaCoverageSession myActiveCoverageSession;
 
   public KarmaCoveragePeer() throws IOException {
@@ -34,6 +35,11 @@ public class KarmaCoveragePeer {
     return myCoverageTempDir;
   }
 
+  @NotNull
+  KarmaCoverageCache getCoverageCache() {
+    return myCoverageCache;
+  }
+
   public void startCoverageSession(@NotNull KarmaCoverageSession coverageSession) {
     // clear directory
     if (myCoverageTempDir.isDirectory()) {
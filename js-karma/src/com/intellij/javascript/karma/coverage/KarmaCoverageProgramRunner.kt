@@ -63,6 +63,10 @@ class KarmaCoverageProgramRunner : AsyncProgramRunner<RunnerSettings>() {
       if (coverageFilePath != null) {
         server.coveragePeer!!.startCoverageSession { coverageResultPaths ->
           logger<KarmaCoverageProgramRunner>().info("Processing karma coverage file: ${coverageResultPaths?.localLcovFilePath}")
+          // merge before taking the read lock, the report may be large
+          if (coverageResultPaths != null && !mergeLcovInfoFile(coverageResultPaths, coverageFilePath, server)) {
+            return@startCoverageSession
+          }
           ReadAction.run<RuntimeException> {
             val project = env.project
             if (!project.isDisposed) {
@@ -87,10 +91,13 @@ class KarmaCoverageProgramRunner : AsyncProgramRunner<RunnerSettings>() {
                     FileChooser.chooseFile(FileChooserDescriptorFactory.createSingleFileDescriptor(), project, null, null) {
                       it?.toNioPath()?.let {
                         ApplicationManager.getApplication().executeOnPooledThread {
+                          val paths = KarmaCoverageResultPaths(it, Path.of(
+                            (runConfiguration as KarmaRunConfiguration).runSettings.workingDirectorySystemDependent))
+                          if (!mergeLcovInfoFile(paths, coverageFilePath, server)) {
+                            return@executeOnPooledThread
+                          }
                           ReadAction.run<RuntimeException> {
                             if (!project.isDisposed) {
-                              val paths = KarmaCoverageResultPaths(it, Path.of(
-                                (runConfiguration as KarmaRunConfiguration).runSettings.workingDirectorySystemDependent))
                               processLcovInfoFile(paths, coverageFilePath, env, server,
                                                   runConfiguration, targetRun)
                             }
@@ -108,23 +115,40 @@ class KarmaCoverageProgramRunner : AsyncProgramRunner<RunnerSettings>() {
       }
     }
 
+    /**
+     * Merges the report into the coverage collected by the server and writes the result to the coverage suite file.
+     */
+    private fun mergeLcovInfoFile(coverageResultPaths: KarmaCoverageResultPaths,
+                                  toCoverageFilePath: String,
+                                  karmaServer: KarmaServer): Boolean {
+      val lcovFile = coverageResultPaths.localLcovFilePath
+      try {
+        val coverageCache = karmaServer.coveragePeer?.coverageCache
+        if (coverageCache != null) {
+          coverageCache.merge(lcovFile, File(toCoverageFilePath))
+        }
+        else {
+          FileUtil.copy(lcovFile.toFile(), File(toCoverageFilePath))
+        }
+        return true
+      }
+      catch (e: IOException) {
+        logger<KarmaCoverageProgramRunner>().error("Cannot write coverage from $lcovFile to $toCoverageFilePath", e)
+        return false
+      }
+    }
+
     private fun processLcovInfoFile(coverageResultPaths: KarmaCoverageResultPaths,
                                     toCoverageFilePath: String,
                                     env: ExecutionEnvironment,
                                     karmaServer: KarmaServer,
                                     runConfiguration: RunConfigurationBase<*>,
                                     targetRun: NodeTargetRun) {
-      try {
-        FileUtil.copy(coverageResultPaths.localLcovFilePath.toFile(), File(toCoverageFilePath))
-      }
-      catch (e: IOException) {
-        logger<KarmaCoverageProgramRunner>().error("Cannot copy " + coverageResultPaths.localLcovFilePath + " to " + toCoverageFilePath, e)
-        return
-      }
       env.runnerSettings?.let {
         val coverageRunner = KarmaCoverageRunner.getInstance()
         coverageRunner.setTargetRun(targetRun)
         coverageRunner.setProjectRoot(coverageResultPaths.localProjectRoot)
+        coverageRunner.setCoverageCache(karmaServer.coveragePeer?.coverageCache)
         CoverageDataManager.getInstance(env.project).processGatheredCoverage(runConfiguration, it)
       }
     }
@@ -5,7 +5,6 @@ import com.intellij.coverage.CoverageEngine;
 import com.intellij.coverage.CoverageRunner;
 import com.intellij.coverage.CoverageSuite;
 import com.intellij.javascript.nodejs.execution.NodeTargetRun;
-import com.intellij.javascript.testing.CoverageProjectDataLoader;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.rt.coverage.data.ProjectData;
 import org.jetbrains.annotations.NotNull;
@@ -20,6 +19,7 @@ public class KarmaCoverageRunner extends CoverageRunner {
   private static final Logger LOG = Logger.getInstance(KarmaCoverageRunner.class);
   private NodeTargetRun myTargetRun;
   private Path myLocalProjectRoot;
+  private KarmaCoverageCache myCoverageCache;
 
   @NotNull
   public static KarmaCoverageRunner getInstance() {
@@ -31,7 +31,12 @@ public class KarmaCoverageRunner extends CoverageRunner {
     Path localProjectRoot = myLocalProjectRoot;
     if (localProjectRoot != null) {
       try {
-        return CoverageProjectDataLoader.readProjectData(sessionDataFile, localProjectRoot.toFile(), myTargetRun);
+        KarmaCoverageCache cache = myCoverageCache;
+        ProjectData cached = cache != null ? cache.getProjectData(sessionDataFile, localProjectRoot.toFile(), myTargetRun) : null;
+        if (cached != null) {
+          return cached;
+        }
+        return KarmaLcovParser.readProjectData(sessionDataFile, localProjectRoot.toFile(), myTargetRun);
       }
       catch (Exception e) {
         LOG.warn("Can't read coverage data", e);
@@ -48,6 +53,10 @@ public class KarmaCoverageRunner extends CoverageRunner {
     myLocalProjectRoot = localProjectRoot;
   }
 
+  void setCoverageCache(@Nullable KarmaCoverageCache coverageCache) {
+    myCoverageCache = coverageCache;
+  }
+
   @Override
   @NotNull
   public String getPresentableName() {
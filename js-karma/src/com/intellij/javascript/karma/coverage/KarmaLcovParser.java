@@ -0,0 +1,250 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license.
+package com.intellij.javascript.karma.coverage;
+
+import com.intellij.javascript.nodejs.execution.NodeTargetRun;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.rt.coverage.data.ClassData;
+import com.intellij.rt.coverage.data.LineData;
+import com.intellij.rt.coverage.data.ProjectData;
+import com.intellij.util.ArrayUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Streaming parser of LCOV reports.
+ * <p>
+ * The report is scanned as bytes, only {@code SF} and {@code DA} lines are decoded, and no string is created per line except
+ * the source file paths. Other records (functions, branches, summaries) are skipped, as only line coverage is shown for Karma.
+ */
+final class KarmaLcovParser {
+  private static final Logger LOG = Logger.getInstance(KarmaLcovParser.class);
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final byte[] SOURCE_FILE = "SF:".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] LINE_DATA = "DA:".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] END_OF_RECORD = "end_of_record".getBytes(StandardCharsets.US_ASCII);
+
+  private final Consumer<? super FileCoverage> myConsumer;
+  private byte[] myLine = new byte[256];
+  private int myLineLength;
+
+  private String mySourcePath;
+  private int[] myHits = new int[0];
+  private int myMaxLine;
+
+  /**
+   * Line coverage of a single source file.
+   *
+   * @param sourcePath path as written in the report, relative to the project root or absolute on the target
+   * @param hits       hit counts indexed by line number, -1 for lines without data
+   */
+  record FileCoverage(@NotNull String sourcePath, int @NotNull [] hits) {
+    @NotNull
+    FileCoverage plus(@NotNull FileCoverage other) {
+      int[] result = Arrays.copyOf(hits, Math.max(hits.length, other.hits.length));
+      Arrays.fill(result, hits.length, result.length, -1);
+      for (int line = 0; line < other.hits.length; line++) {
+        if (other.hits[line] >= 0) {
+          result[line] = (int)Math.min((long)Math.max(result[line], 0) + other.hits[line], Integer.MAX_VALUE);
+        }
+      }
+      return new FileCoverage(sourcePath, result);
+    }
+
+    int getCoveredLineCount() {
+      int count = 0;
+      for (int hit : hits) {
+        if (hit > 0) count++;
+      }
+      return count;
+    }
+
+    int getLineCount() {
+      int count = 0;
+      for (int hit : hits) {
+        if (hit >= 0) count++;
+      }
+      return count;
+    }
+  }
+
+  private KarmaLcovParser(@NotNull Consumer<? super FileCoverage> consumer) {
+    myConsumer = consumer;
+  }
+
+  static void parse(@NotNull InputStream input, @NotNull Consumer<? super FileCoverage> consumer) throws IOException {
+    KarmaLcovParser parser = new KarmaLcovParser(consumer);
+    byte[] buffer = new byte[BUFFER_SIZE];
+    int read;
+    while ((read = input.read(buffer)) > 0) {
+      for (int i = 0; i < read; i++) {
+        byte b = buffer[i];
+        if (b == '\n') {
+          parser.processLine();
+          parser.myLineLength = 0;
+        }
+        else if (b != '\r') {
+          parser.append(b);
+        }
+      }
+    }
+    parser.processLine();
+    // the last record may be not terminated
+    parser.finishRecord();
+  }
+
+  static @NotNull ProjectData readProjectData(@NotNull File lcovFile,
+                                              @NotNull File localProjectRoot,
+                                              @Nullable NodeTargetRun targetRun) throws IOException {
+    ProjectData projectData = new ProjectData();
+    try (InputStream input = new FileInputStream(lcovFile)) {
+      parse(input, coverage -> addToProjectData(projectData, coverage, localProjectRoot, targetRun));
+    }
+    return projectData;
+  }
+
+  static @NotNull ProjectData toProjectData(@NotNull Collection<FileCoverage> coverages,
+                                            @NotNull File localProjectRoot,
+                                            @Nullable NodeTargetRun targetRun) {
+    ProjectData projectData = new ProjectData();
+    for (FileCoverage coverage : coverages) {
+      addToProjectData(projectData, coverage, localProjectRoot, targetRun);
+    }
+    return projectData;
+  }
+
+  static void write(@NotNull Collection<FileCoverage> coverages, @NotNull Writer writer) throws IOException {
+    for (FileCoverage coverage : coverages) {
+      writer.write("TN:\nSF:");
+      writer.write(coverage.sourcePath());
+      writer.write('\n');
+      int[] hits = coverage.hits();
+      for (int line = 0; line < hits.length; line++) {
+        if (hits[line] >= 0) {
+          writer.write("DA:" + line + "," + hits[line] + "\n");
+        }
+      }
+      writer.write("LF:" + coverage.getLineCount() + "\nLH:" + coverage.getCoveredLineCount() + "\nend_of_record\n");
+    }
+  }
+
+  private static void addToProjectData(@NotNull ProjectData projectData,
+                                       @NotNull FileCoverage coverage,
+                                       @NotNull File localProjectRoot,
+                                       @Nullable NodeTargetRun targetRun) {
+    String localPath = toLocalPath(coverage.sourcePath(), localProjectRoot, targetRun);
+    if (localPath == null) return;
+    int[] hits = coverage.hits();
+    LineData[] lines = new LineData[Math.max(hits.length, 1)];
+    for (int line = 0; line < hits.length; line++) {
+      if (hits[line] >= 0) {
+        LineData lineData = new LineData(line, null);
+        lineData.setHits(hits[line]);
+        lines[line] = lineData;
+      }
+    }
+    ClassData classData = projectData.getOrCreateClassData(localPath);
+    classData.setLines(lines);
+  }
+
+  private static @Nullable String toLocalPath(@NotNull String sourcePath, @NotNull File localProjectRoot, @Nullable NodeTargetRun targetRun) {
+    String path = sourcePath;
+    if (isAbsolute(path)) {
+      if (targetRun != null) {
+        try {
+          path = targetRun.convertTargetPathToLocalPath(path);
+        }
+        catch (IllegalArgumentException e) {
+          LOG.debug("Cannot convert " + sourcePath, e);
+          return null;
+        }
+      }
+    }
+    else {
+      path = new File(localProjectRoot, path).getPath();
+    }
+    return FileUtil.toCanonicalPath(FileUtil.toSystemIndependentName(path));
+  }
+
+  private static boolean isAbsolute(@NotNull String path) {
+    // the report is written on the target, so the local file system cannot tell if the path is absolute
+    return path.startsWith("/") || path.startsWith("\\") || path.length() > 2 && path.charAt(1) == ':';
+  }
+
+  private void append(byte b) {
+    if (myLineLength == myLine.length) {
+      myLine = Arrays.copyOf(myLine, myLine.length * 2);
+    }
+    myLine[myLineLength++] = b;
+  }
+
+  private void processLine() {
+    if (startsWith(LINE_DATA)) {
+      processLineData();
+    }
+    else if (startsWith(SOURCE_FILE)) {
+      finishRecord();
+      mySourcePath = new String(myLine, SOURCE_FILE.length, myLineLength - SOURCE_FILE.length, StandardCharsets.UTF_8).trim();
+    }
+    else if (startsWith(END_OF_RECORD)) {
+      finishRecord();
+    }
+  }
+
+  // DA:<line number>,<execution count>[,<checksum>]
+  private void processLineData() {
+    if (mySourcePath == null) return;
+    int offset = LINE_DATA.length;
+    long line = 0;
+    while (offset < myLineLength && isDigit(myLine[offset])) {
+      line = line * 10 + (myLine[offset++] - '0');
+    }
+    if (offset == LINE_DATA.length || offset == myLineLength || myLine[offset] != ',' || line > Integer.MAX_VALUE - 1) return;
+    offset++;
+    int start = offset;
+    long hits = 0;
+    while (offset < myLineLength && isDigit(myLine[offset])) {
+      hits = Math.min(hits * 10 + (myLine[offset++] - '0'), Integer.MAX_VALUE);
+    }
+    if (offset == start) return;
+
+    int lineNumber = (int)line;
+    if (lineNumber >= myHits.length) {
+      int oldLength = myHits.length;
+      myHits = Arrays.copyOf(myHits, Math.max(lineNumber + 1, oldLength * 2));
+      Arrays.fill(myHits, oldLength, myHits.length, -1);
+    }
+    // the same line may be reported several times, e.g. for several statements
+    myHits[lineNumber] = (int)Math.min((long)Math.max(myHits[lineNumber], 0) + hits, Integer.MAX_VALUE);
+    myMaxLine = Math.max(myMaxLine, lineNumber);
+  }
+
+  private void finishRecord() {
+    if (mySourcePath != null) {
+      int[] hits = myMaxLine < myHits.length ? Arrays.copyOf(myHits, myMaxLine + 1) : ArrayUtil.EMPTY_INT_ARRAY;
+      myConsumer.accept(new FileCoverage(mySourcePath, hits));
+    }
+    mySourcePath = null;
+    Arrays.fill(myHits, 0, Math.min(myMaxLine + 1, myHits.length), -1);
+    myMaxLine = 0;
+  }
+
+  private boolean startsWith(byte @NotNull [] prefix) {
+    if (myLineLength < prefix.length) return false;
+    for (int i = 0; i < prefix.length; i++) {
+      if (myLine[i] != prefix[i]) return false;
+    }
+    return true;
+  }
+
+  private static boolean isDigit(byte b) {
+    return b >= '0' && b <= '9';
+  }
+}
@@ -0,0 +1,105 @@
+package com.intellij.javascript.karma.coverage;
+
+import com.intellij.javascript.karma.coverage.KarmaLcovParser.FileCoverage;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.rt.coverage.data.ClassData;
+import com.intellij.rt.coverage.data.LineData;
+import com.intellij.rt.coverage.data.ProjectData;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class KarmaLcovParserTest {
+  @Test
+  public void testParseLineData() throws IOException {
+    List<FileCoverage> coverages = parse("""
+                                           TN:
+                                           SF:src/a.js
+                                           FN:1,foo
+                                           FNDA:2,foo
+                                           DA:1,2
+                                           DA:3,0
+                                           DA:3,1
+                                           BRDA:3,0,0,1
+                                           LF:2
+                                           LH:2
+                                           end_of_record
+                                           SF:src/b.js\r
+                                           DA:2,5,checksum\r
+                                           end_of_record\r
+                                           """);
+    Assert.assertEquals(2, coverages.size());
+    Assert.assertEquals("src/a.js", coverages.get(0).sourcePath());
+    Assert.assertArrayEquals(new int[]{-1, 2, -1, 1}, coverages.get(0).hits());
+    Assert.assertEquals("src/b.js", coverages.get(1).sourcePath());
+    Assert.assertArrayEquals(new int[]{-1, -1, 5}, coverages.get(1).hits());
+  }
+
+  @Test
+  public void testSkipMalformedLines() throws IOException {
+    List<FileCoverage> coverages = parse("DA:1,1\nSF:a.js\nDA:x,1\nDA:2\nDA:3,\nDA:4,1");
+    Assert.assertEquals(1, coverages.size());
+    Assert.assertArrayEquals(new int[]{-1, -1, -1, -1, 1}, coverages.get(0).hits());
+  }
+
+  @Test
+  public void testWriteAndParse() throws IOException {
+    List<FileCoverage> coverages = parse("SF:a.js\nDA:1,1\nDA:2,0\nend_of_record\nSF:/abs/b.js\nend_of_record\n");
+    StringWriter writer = new StringWriter();
+    KarmaLcovParser.write(coverages, writer);
+    List<FileCoverage> reparsed = parse(writer.toString());
+    Assert.assertEquals(2, reparsed.size());
+    Assert.assertArrayEquals(coverages.get(0).hits(), reparsed.get(0).hits());
+    Assert.assertEquals("/abs/b.js", reparsed.get(1).sourcePath());
+  }
+
+  @Test
+  public void testProjectData() throws IOException {
+    List<FileCoverage> coverages = parse("SF:src/../a.js\nDA:1,1\nDA:2,0\nend_of_record\n");
+    ProjectData projectData = KarmaLcovParser.toProjectData(coverages, new File("/project"), null);
+    ClassData classData = projectData.getClassData("/project/a.js");
+    Assert.assertNotNull(classData);
+    Assert.assertEquals(1, ((LineData)classData.getLineData(1)).getHits());
+    Assert.assertEquals(0, ((LineData)classData.getLineData(2)).getHits());
+  }
+
+  @Test
+  public void testCacheKeepsFilesMissingInNextReport() throws IOException {
+    File dir = FileUtil.createTempDirectory("karma-lcov", null);
+    try {
+      KarmaCoverageCache cache = new KarmaCoverageCache();
+      File dataFile = new File(dir, "coverage.dat");
+      Path report = dir.toPath().resolve("lcov.info");
+      Files.writeString(report, "SF:a.js\nDA:1,0\nend_of_record\nSF:b.js\nDA:1,1\nend_of_record\n");
+      cache.merge(report, dataFile);
+      Files.writeString(report, "SF:a.js\nDA:1,3\nend_of_record\n");
+      cache.merge(report, dataFile);
+
+      ProjectData projectData = cache.getProjectData(dataFile, new File("/project"), null);
+      Assert.assertNotNull(projectData);
+      Assert.assertEquals(3, ((LineData)projectData.getClassData("/project/a.js").getLineData(1)).getHits());
+      Assert.assertEquals(1, ((LineData)projectData.getClassData("/project/b.js").getLineData(1)).getHits());
+      Assert.assertEquals(2, parse(Files.readString(dataFile.toPath())).size());
+      Assert.assertNull(cache.getProjectData(new File(dir, "other.dat"), new File("/project"), null));
+    }
+    finally {
+      FileUtil.delete(dir);
+    }
+  }
+
+  private static @NotNull List<FileCoverage> parse(@NotNull String text) throws IOException {
+    List<FileCoverage> result = new ArrayList<>();
+    KarmaLcovParser.parse(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), result::add);
+    return result;
+  }
+}
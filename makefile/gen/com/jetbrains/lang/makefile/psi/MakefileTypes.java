@@ -5,6 +5,7 @@ import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.PsiElement;
 import com.intellij.lang.ASTNode;
 import com.jetbrains.lang.makefile.stub.MakefileTargetStubElementType;
+import com.jetbrains.lang.makefile.stub.MakefileVariableStubElementType;
 import com.jetbrains.lang.makefile.psi.impl.*;
 
 public interface MakefileTypes {
@@ -44,7 +45,7 @@ public interface MakefileTypes {
   IElementType TARGET_PATTERN = new MakefileElementType("TARGET_PATTERN");
   IElementType UNDEFINE = new MakefileElementType("UNDEFINE");
   IElementType UNEXPORT = new MakefileElementType("UNEXPORT");
-  IElementType VARIABLE = new MakefileElementType("VARIABLE");
+  IElementType VARIABLE = MakefileVariableStubElementType.getInstance("VARIABLE");
   IElementType VARIABLE_ASSIGNMENT = new MakefileElementType("VARIABLE_ASSIGNMENT");
   IElementType VARIABLE_USAGE = new MakefileElementType("VARIABLE_USAGE");
   IElementType VARIABLE_VALUE = new MakefileElementType("VARIABLE_VALUE");
@@ -5,8 +5,10 @@ import java.util.List;
 import org.jetbrains.annotations.*;
 import com.intellij.psi.PsiElement;
 import com.intellij.navigation.NavigationItem;
+import com.intellij.psi.StubBasedPsiElement;
+import com.jetbrains.lang.makefile.stub.MakefileVariableStubElement;
 
-public interface MakefileVariable extends MakefileNamedElement, NavigationItem {
+public interface MakefileVariable extends MakefileNamedElement, NavigationItem, StubBasedPsiElement<MakefileVariableStubElement> {
 
   @NotNull
   MakefileIdentifier getIdentifier();
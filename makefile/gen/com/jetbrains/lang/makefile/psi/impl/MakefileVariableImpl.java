@@ -9,6 +9,8 @@ import com.intellij.psi.PsiElementVisitor;
 import com.intellij.psi.util.PsiTreeUtil;
 import static com.jetbrains.lang.makefile.psi.MakefileTypes.*;
 import com.jetbrains.lang.makefile.psi.*;
+import com.jetbrains.lang.makefile.stub.MakefileVariableStubElement;
+import com.intellij.psi.stubs.IStubElementType;
 
 public class MakefileVariableImpl extends MakefileVariableNamedElementImpl implements MakefileVariable {
 
@@ -16,6 +18,10 @@ public class MakefileVariableImpl extends MakefileVariableNamedElementImpl imple
     super(node);
   }
 
+  public MakefileVariableImpl(@NotNull MakefileVariableStubElement stub, @NotNull IStubElementType<?, ?> nodeType) {
+    super(stub, nodeType);
+  }
+
   public void accept(@NotNull MakefileVisitor visitor) {
     visitor.visitVariable(this);
   }
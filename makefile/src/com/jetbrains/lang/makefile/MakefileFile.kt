@@ -1,7 +1,15 @@
 package com.jetbrains.lang.makefile
 
 import com.intellij.extapi.psi.PsiFileBase
+import com.intellij.openapi.fileTypes.FileTypeRegistry
+import com.intellij.openapi.util.io.FileUtil
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.openapi.vfs.VirtualFileManager
 import com.intellij.psi.FileViewProvider
+import com.intellij.psi.PsiManager
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
 import com.intellij.psi.util.PsiTreeUtil
 import com.jetbrains.lang.makefile.psi.MakefileRule
 import com.jetbrains.lang.makefile.psi.MakefileTarget
@@ -29,4 +37,62 @@ class MakefileFile(viewProvider: FileViewProvider) : PsiFileBase(viewProvider, M
 
   val variables: Collection<MakefileVariable>
     get() = PsiTreeUtil.findChildrenOfType(this, MakefileVariable::class.java)
-}
\ No newline at end of file
+
+  /**
+   * Variables of this file grouped by name, in the order of declaration.
+   */
+  val variablesByName: Map<String, List<MakefileVariable>>
+    get() = CachedValuesManager.getCachedValue(this) {
+      CachedValueProvider.Result.create(variables.groupBy { it.text }, this)
+    }
+
+  /**
+   * Scope of all makefiles included by this file with `include`, `-include` or `sinclude`, directly or transitively.
+   * Includes that can't be resolved statically, e.g. because their path contains variables, are skipped.
+   * Includes of other files are taken from [MakefileIncludeIndex], so they are not parsed, and the scope is recomputed
+   * only when one of these files changes or files are created, deleted or moved.
+   */
+  val includeScope: GlobalSearchScope
+    get() = CachedValuesManager.getCachedValue(this) {
+      val dependencies = mutableListOf<Any>(this, VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS)
+      val files = linkedSetOf<VirtualFile>()
+      val virtualFile = originalFile.virtualFile
+      if (virtualFile != null) {
+        collectIncludedFiles(virtualFile, MakefileIncludeIndex.includedPaths(this), files)
+        files.remove(virtualFile)
+      }
+      files.mapTo(dependencies) { PsiManager.getInstance(project).findFile(it) ?: it }
+
+      val scope = if (files.isEmpty()) GlobalSearchScope.EMPTY_SCOPE else GlobalSearchScope.filesScope(project, files)
+      CachedValueProvider.Result.create(scope, dependencies)
+    }
+
+  private fun collectIncludedFiles(file: VirtualFile, includedPaths: Collection<String>, result: MutableSet<VirtualFile>) {
+    for (path in includedPaths) {
+      val includedFile = resolveIncludedFile(file, path) ?: continue
+      if (result.add(includedFile)) {
+        collectIncludedFiles(includedFile, MakefileIncludeIndex.getIncludedPaths(includedFile, project), result)
+      }
+    }
+  }
+
+  /**
+   * Variables with the given name declared in this file or in included makefiles.
+   */
+  fun findVariables(name: String): List<MakefileVariable> {
+    val local = variablesByName[name].orEmpty()
+
+    val scope = includeScope
+    if (scope == GlobalSearchScope.EMPTY_SCOPE) return local
+
+    return local + MakefileVariableIndex.getInstance().getVariables(name, project, scope)
+  }
+}
+
+private fun resolveIncludedFile(includingFile: VirtualFile, path: String): VirtualFile? {
+  if ('$' in path) return null
+
+  val file = if (FileUtil.isAbsolute(path)) includingFile.fileSystem.findFileByPath(path)
+             else includingFile.parent?.findFileByRelativePath(path)
+  return file?.takeIf { !it.isDirectory && FileTypeRegistry.getInstance().isFileOfType(it, MakefileFileType) }
+}
@@ -0,0 +1,40 @@
+package com.jetbrains.lang.makefile
+
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.psi.util.PsiTreeUtil
+import com.intellij.util.indexing.*
+import com.intellij.util.io.EnumeratorStringDescriptor
+import com.intellij.util.io.KeyDescriptor
+import com.jetbrains.lang.makefile.psi.MakefileInclude
+
+private val INCLUDE_INDEX_NAME = ID.create<String, Void>("makefile.include.index")
+
+/**
+ * Paths of the files included by a makefile with `include`, `-include` or `sinclude`, as written in the directives.
+ */
+class MakefileIncludeIndex : ScalarIndexExtension<String>() {
+  override fun getName(): ID<String, Void> = INCLUDE_INDEX_NAME
+
+  override fun getIndexer(): DataIndexer<String, Void, FileContent> = DataIndexer { inputData ->
+    val map = HashMap<String, Void?>()
+    (inputData.psiFile as? MakefileFile)?.let { file -> includedPaths(file).forEach { map[it] = null } }
+    map
+  }
+
+  override fun getKeyDescriptor(): KeyDescriptor<String> = EnumeratorStringDescriptor.INSTANCE
+
+  override fun getVersion() = 0
+
+  override fun getInputFilter(): FileBasedIndex.InputFilter = DefaultFileTypeSpecificInputFilter(MakefileFileType)
+
+  override fun dependsOnFileContent() = true
+
+  companion object {
+    fun includedPaths(file: MakefileFile): Collection<String> =
+      PsiTreeUtil.findChildrenOfType(file, MakefileInclude::class.java).flatMap { include -> include.filenameList.map { it.text } }
+
+    fun getIncludedPaths(file: VirtualFile, project: Project): Collection<String> =
+      FileBasedIndex.getInstance().getFileData(INCLUDE_INDEX_NAME, file, project).keys
+  }
+}
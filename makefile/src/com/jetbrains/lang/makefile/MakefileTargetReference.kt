@@ -30,8 +30,7 @@ class MakefileTargetReference(private val prerequisite: MakefilePrerequisite) :
     val match = Regex("""\$\((.*)\)""").find(prerequisite.text)
     if (match != null) {
       val name = match.groups[1]!!.value
-      return (prerequisite.containingFile as MakefileFile).variables
-          .filter { it.text == name }
+      return (prerequisite.containingFile as MakefileFile).findVariables(name)
           .map(::PsiElementResolveResult)
           .toTypedArray()
     }
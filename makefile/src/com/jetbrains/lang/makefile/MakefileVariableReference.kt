@@ -4,6 +4,9 @@ import com.intellij.codeInsight.lookup.*
 import com.intellij.lang.*
 import com.intellij.openapi.util.*
 import com.intellij.psi.*
+import com.intellij.psi.search.*
+import com.intellij.psi.stubs.*
+import com.intellij.util.*
 import com.jetbrains.lang.makefile.psi.*
 
 class MakefileVariableReference(private val usage: MakefileVariableUsage) : PsiPolyVariantReferenceBase<MakefileVariableUsage>(usage, false) {
@@ -29,15 +32,28 @@ class MakefileVariableReference(private val usage: MakefileVariableUsage) : PsiP
     return false
   }
 
-  override fun getVariants()
-      = (usage.containingFile as MakefileFile).variables.distinctBy { it.text }.map {
-    LookupElementBuilder.create(it)
-  }.toTypedArray()
+  override fun getVariants(): Array<Any> {
+    val file = usage.containingFile as MakefileFile
+    val variants = file.variablesByName.mapValues { (_, variables) -> variables.first() }.toMutableMap()
+
+    val includeScope = file.includeScope
+    if (includeScope != GlobalSearchScope.EMPTY_SCOPE) {
+      val index = MakefileVariableIndex.getInstance()
+      val names = mutableListOf<String>()
+      StubIndex.getInstance().processAllKeys(VARIABLE_INDEX_KEY, CommonProcessors.CollectProcessor(names), includeScope)
+
+      for (name in names) {
+        if (name in variants) continue
+        index.getVariables(name, usage.project, includeScope).firstOrNull()?.let { variants[name] = it }
+      }
+    }
+
+    return variants.values.map { LookupElementBuilder.create(it) }.toTypedArray()
+  }
 
   override fun multiResolve(incompleteCode: Boolean): Array<ResolveResult> {
-    return (usage.containingFile as MakefileFile).variables
-        .filter { it.text == nameNode.text }
+    return (usage.containingFile as MakefileFile).findVariables(nameNode.text)
         .map(::PsiElementResolveResult)
         .toTypedArray()
   }
-}
\ No newline at end of file
+}
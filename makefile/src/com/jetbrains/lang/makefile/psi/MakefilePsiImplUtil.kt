@@ -45,7 +45,7 @@ object MakefilePsiImplUtil {
 
   @JvmStatic
   fun getName(element: MakefileVariable): String {
-    return element.text
+    return element.stub?.name ?: element.text
   }
 
   @JvmStatic
@@ -94,14 +94,20 @@ object MakefilePsiImplUtil {
   }
 
   @JvmStatic
-  fun isSpecialTarget(element: MakefileTarget): Boolean {
-    val name = element.name
+  fun isSpecialTarget(element: MakefileTarget): Boolean = isSpecialTargetName(element.name)
+
+  @JvmStatic
+  fun isPatternTarget(element: MakefileTarget): Boolean = isPatternTargetName(element.name)
+
+  /**
+   * Same as [isSpecialTarget] but works on target names taken from the index, without loading PSI.
+   */
+  fun isSpecialTargetName(name: String): Boolean {
     return name.matches("^\\.[A-Z_]*".toRegex()) || name == "FORCE" || suffixRule.matcher(name).matches()
   }
 
-  @JvmStatic
-  fun isPatternTarget(element: MakefileTarget): Boolean {
-    return element.name.contains("%")
+  fun isPatternTargetName(name: String): Boolean {
+    return name.contains("%")
   }
 
   @JvmStatic
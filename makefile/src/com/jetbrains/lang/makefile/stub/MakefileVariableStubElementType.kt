@@ -0,0 +1,28 @@
+package com.jetbrains.lang.makefile.stub
+
+import com.intellij.psi.stubs.*
+import com.jetbrains.lang.makefile.MakefileLanguage
+import com.jetbrains.lang.makefile.VARIABLE_INDEX_KEY
+import com.jetbrains.lang.makefile.psi.MakefileVariable
+import com.jetbrains.lang.makefile.psi.impl.MakefileVariableImpl
+
+object MakefileVariableStubElementType : IStubElementType<MakefileVariableStubElement, MakefileVariable>("VARIABLE", MakefileLanguage) {
+  @Suppress("UNUSED_PARAMETER")
+  @JvmStatic
+  fun getInstance(debugName: String) = MakefileVariableStubElementType
+
+  override fun getExternalId() = "Makefile.VARIABLE"
+
+  override fun createStub(psi: MakefileVariable, parent: StubElement<*>?) = MakefileVariableStubElementImpl(parent, psi.name)
+  override fun createPsi(stub: MakefileVariableStubElement) = MakefileVariableImpl(stub, stub.stubType)
+
+  override fun indexStub(stub: MakefileVariableStubElement, sink: IndexSink) {
+    stub.name?.let { sink.occurrence(VARIABLE_INDEX_KEY, it) }
+  }
+
+  override fun serialize(e: MakefileVariableStubElement, outputStream: StubOutputStream) {
+    outputStream.writeName(e.name)
+  }
+  override fun deserialize(inputStream: StubInputStream, parent: StubElement<*>?) =
+    MakefileVariableStubElementImpl(parent, inputStream.readName()?.string)
+}
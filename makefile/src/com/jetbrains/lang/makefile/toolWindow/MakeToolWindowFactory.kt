@@ -25,7 +25,6 @@ import java.awt.event.MouseAdapter
 import java.awt.event.MouseEvent
 import java.awt.event.MouseEvent.BUTTON1
 import javax.swing.JPanel
-import javax.swing.tree.DefaultTreeModel
 import javax.swing.tree.TreeSelectionModel
 
 private const val TOOLWINDOW_ID = "make" // the ID is unfortunate, but should be kept compatible with older versions
@@ -49,7 +48,8 @@ class MakeToolWindowFactory : ToolWindowFactory {
     val options = MakefileToolWindowOptions(project)
 
     DumbService.getInstance(project).runWhenSmart {
-      val model = DefaultTreeModel(options.getRootNode())
+      val model = MakefileToolWindowModel(project, options, toolWindow.disposable)
+      model.reload()
 
       val panel = SimpleToolWindowPanel(true)
 
@@ -66,11 +66,11 @@ class MakeToolWindowFactory : ToolWindowFactory {
           if (PSI_ELEMENT.`is`(dataId)) {
             if (selectedNodes.any()) {
               val selected = selectedNodes.first()
-              if (selected.parent.psiFile == null)
+              if (!selected.parent.virtualFile.isValid)
                 return null
               return MakefileTargetIndex.getInstance().getTargets(selected.name, project,
                                                                           GlobalSearchScope.fileScope(
-                                                                            selected.parent.psiFile!!)).firstOrNull()
+                                                                            project, selected.parent.virtualFile)).firstOrNull()
             }
           }
           return null
@@ -111,7 +111,7 @@ class MakeToolWindowFactory : ToolWindowFactory {
       val goToTargetAction = MakefileToolWindowGoToTargetAction(tree, project)
       goToTargetAction.registerCustomShortcutSet(CustomShortcutSet(KeyEvent.VK_F4), panel)
 
-      val refreshTargets = MakefileToolWindowRefreshAction(model, options)
+      val refreshTargets = MakefileToolWindowRefreshAction(model)
       refreshTargets.registerCustomShortcutSet(CustomShortcutSet(KeyEvent.VK_F5), panel)
 
       val group = DefaultActionGroup()
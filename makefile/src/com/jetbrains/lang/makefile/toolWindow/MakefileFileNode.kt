@@ -1,21 +1,25 @@
 package com.jetbrains.lang.makefile.toolWindow
 
-import com.intellij.psi.*
+import com.intellij.openapi.vfs.VirtualFile
 import icons.MakefileIcons
 import java.util.*
 import java.util.Collections.*
 import javax.swing.*
 import javax.swing.tree.*
 
-class MakefileFileNode(private val myPsiFile: PsiFile, private val targets: List<MakefileTargetNode>) : MakefileTreeNode(myPsiFile.name) {
+class MakefileFileNode(val virtualFile: VirtualFile, targets: List<MakefileTargetNode>) : MakefileTreeNode(virtualFile.name) {
+  var targets: List<MakefileTargetNode> = targets
+    internal set(value) {
+      field = value
+      value.forEach { it.parent = this }
+    }
+
   init {
     for (target in targets) {
       target.parent = this
     }
   }
 
-  val psiFile: PsiFile? get() { return if (myPsiFile.isValid) myPsiFile else null }
-
   internal lateinit var parent: MakefileRootNode
 
   override val icon: Icon
@@ -34,4 +38,4 @@ class MakefileFileNode(private val myPsiFile: PsiFile, private val targets: List
   override fun getIndex(node: TreeNode) = targets.indexOf(node)
 
   override fun getAllowsChildren() = true
-}
\ No newline at end of file
+}
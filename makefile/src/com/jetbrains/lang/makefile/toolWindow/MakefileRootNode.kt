@@ -6,7 +6,9 @@ import java.util.Collections.*
 import javax.swing.*
 import javax.swing.tree.*
 
-class MakefileRootNode(private val files: List<MakefileFileNode>) : MakefileTreeNode("make") {
+class MakefileRootNode(files: List<MakefileFileNode>) : MakefileTreeNode("make") {
+  private val files = files.toMutableList()
+
   init {
     for (file in files) {
       file.parent = this
@@ -29,4 +31,13 @@ class MakefileRootNode(private val files: List<MakefileFileNode>) : MakefileTree
   override fun getIndex(node: TreeNode) = files.indexOf(node)
 
   override fun getAllowsChildren() = true
-}
\ No newline at end of file
+
+  internal fun insert(index: Int, file: MakefileFileNode) {
+    file.parent = this
+    files.add(index, file)
+  }
+
+  internal fun remove(index: Int) {
+    files.removeAt(index)
+  }
+}
@@ -6,8 +6,8 @@ import java.util.*
 import javax.swing.*
 import javax.swing.tree.*
 
-class MakefileTargetNode(target: MakefileTarget) : MakefileTreeNode(target.name) {
-  val isSpecialTarget: Boolean = target.isSpecialTarget
+class MakefileTargetNode(name: String) : MakefileTreeNode(name) {
+  val isSpecialTarget: Boolean = MakefilePsiImplUtil.isSpecialTargetName(name)
 
   override val icon: Icon
     get() = MakefileTargetIcon
@@ -27,4 +27,4 @@ class MakefileTargetNode(target: MakefileTarget) : MakefileTreeNode(target.name)
   override fun getIndex(node: TreeNode) = 0
 
   override fun getAllowsChildren() = false
-}
\ No newline at end of file
+}
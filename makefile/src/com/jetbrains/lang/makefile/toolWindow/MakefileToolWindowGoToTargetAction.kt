@@ -14,9 +14,9 @@ class MakefileToolWindowGoToTargetAction(private val tree: Tree, private val pro
     val selectedNodes = tree.getSelectedNodes(MakefileTargetNode::class.java, {true})
     if (selectedNodes.any()) {
       val selected = selectedNodes.first()
-      if (selected.parent.psiFile == null) return
+      if (!selected.parent.virtualFile.isValid) return
       val elements = MakefileTargetIndex.getInstance().getTargets(selected.name, project,
-                                                                          GlobalSearchScope.fileScope(selected.parent.psiFile!!))
+                                                                          GlobalSearchScope.fileScope(project, selected.parent.virtualFile))
       elements.firstOrNull()?.navigate(true)
     }
   }
@@ -0,0 +1,206 @@
+package com.jetbrains.lang.makefile.toolWindow
+
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.application.ModalityState
+import com.intellij.openapi.application.ReadAction
+import com.intellij.openapi.fileTypes.FileTypeRegistry
+import com.intellij.openapi.progress.ProgressManager
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.openapi.vfs.VirtualFileManager
+import com.intellij.openapi.vfs.newvfs.BulkFileListener
+import com.intellij.openapi.vfs.newvfs.events.VFileCopyEvent
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent
+import com.intellij.psi.PsiFile
+import com.intellij.psi.PsiManager
+import com.intellij.psi.search.FileTypeIndex
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.search.GlobalSearchScopesCore
+import com.intellij.psi.stubs.StubIndex
+import com.intellij.psi.util.PsiTreeAnyChangeAbstractAdapter
+import com.intellij.util.CommonProcessors
+import com.intellij.util.concurrency.AppExecutorUtil
+import com.jetbrains.lang.makefile.*
+import com.jetbrains.lang.makefile.psi.MakefilePsiImplUtil
+import com.jetbrains.lang.makefile.stub.MakefileTargetStubElement
+import java.util.concurrent.ConcurrentHashMap
+import javax.swing.tree.DefaultTreeModel
+
+/**
+ * Tree model of the Make tool window.
+ *
+ * Target names are taken from [MakefileTargetIndex], target PSI is only loaded when a target is run or navigated to.
+ * After the initial load only files that were changed are read again and only their nodes are updated.
+ * Directories that were created, copied or moved are searched for makefiles with [FileTypeIndex].
+ */
+class MakefileToolWindowModel(private val project: Project, private val options: MakefileToolWindowOptions, private val parentDisposable: Disposable)
+  : DefaultTreeModel(MakefileRootNode(emptyList())) {
+  // target names by file, accessed on EDT only
+  private var targetsByFile: Map<VirtualFile, List<String>> = emptyMap()
+
+  private val changedFiles: MutableSet<VirtualFile> = ConcurrentHashMap.newKeySet()
+
+  init {
+    PsiManager.getInstance(project).addPsiTreeChangeListener(object : PsiTreeAnyChangeAbstractAdapter() {
+      override fun onChange(file: PsiFile?) {
+        if (file is MakefileFile) file.virtualFile?.let(::fileChanged)
+      }
+    }, parentDisposable)
+
+    project.messageBus.connect(parentDisposable).subscribe(VirtualFileManager.VFS_CHANGES, object : BulkFileListener {
+      override fun after(events: List<VFileEvent>) {
+        for (event in events) {
+          val file = if (event is VFileCopyEvent) event.findCreatedFile() else event.file
+          file?.let(::fileChanged)
+        }
+      }
+    })
+  }
+
+  private val rootNode: MakefileRootNode
+    get() = root as MakefileRootNode
+
+  /**
+   * Reads all targets from the index and rebuilds the tree.
+   */
+  fun reload() {
+    ReadAction.nonBlocking<Map<VirtualFile, List<String>>> { collectTargets(project) }
+      .inSmartMode(project)
+      .expireWith(parentDisposable)
+      .coalesceBy(this, "reload")
+      .finishOnUiThread(ModalityState.any()) { targets ->
+        changedFiles.clear()
+        targetsByFile = targets
+        rebuild()
+      }
+      .submit(AppExecutorUtil.getAppExecutorService())
+  }
+
+  /**
+   * Rebuilds the tree from the already loaded targets, e.g. after the options changed.
+   */
+  fun rebuild() {
+    val files = targetsByFile.mapNotNull { (file, targets) -> createFileNode(file, targets) }
+    setRoot(MakefileRootNode(if (options.sortAlphabetically) files.sortedWith(MakefileTreeNode.Comparator) else files))
+  }
+
+  private fun fileChanged(file: VirtualFile) {
+    if (!file.isDirectory && !FileTypeRegistry.getInstance().isFileOfType(file, MakefileFileType)) return
+
+    changedFiles.add(file)
+    ReadAction.nonBlocking<Pair<Set<VirtualFile>, Map<VirtualFile, List<String>>>> {
+      val files = changedFiles.toSet()
+      val targets = LinkedHashMap<VirtualFile, List<String>>()
+      for (changed in files) {
+        for (makefile in if (changed.isDirectory) findMakefiles(project, changed) else listOf(changed)) {
+          targets[makefile] = collectTargets(project, makefile)
+        }
+      }
+      files to targets
+    }
+      .inSmartMode(project)
+      .expireWith(parentDisposable)
+      .coalesceBy(this, "update")
+      .finishOnUiThread(ModalityState.any()) { (files, targets) ->
+        changedFiles.removeAll(files)
+        update(targets)
+      }
+      .submit(AppExecutorUtil.getAppExecutorService())
+  }
+
+  private fun update(changed: Map<VirtualFile, List<String>>) {
+    val targets = LinkedHashMap(targetsByFile)
+    for ((file, names) in changed) {
+      if (names.isEmpty()) targets.remove(file) else targets[file] = names
+    }
+    // deleted directories and directories moved out of the project are reported only once for the whole directory
+    val scope = GlobalSearchScope.projectScope(project)
+    targets.keys.removeIf { !it.isValid || !scope.contains(it) }
+
+    for (file in targetsByFile.keys - targets.keys) {
+      val index = (0 until rootNode.childCount).firstOrNull { rootNode.getChildAt(it).virtualFile == file } ?: continue
+      val node = rootNode.getChildAt(index)
+      rootNode.remove(index)
+      nodesWereRemoved(rootNode, intArrayOf(index), arrayOf(node))
+    }
+
+    for ((file, names) in changed) {
+      if (names.isEmpty() || targetsByFile[file] == names) continue
+
+      val index = (0 until rootNode.childCount).firstOrNull { rootNode.getChildAt(it).virtualFile == file }
+      val node = createFileNode(file, names)
+      if (index != null) {
+        if (node == null) {
+          val removed = rootNode.getChildAt(index)
+          rootNode.remove(index)
+          nodesWereRemoved(rootNode, intArrayOf(index), arrayOf(removed))
+        }
+        else {
+          val existing = rootNode.getChildAt(index)
+          existing.targets = node.targets
+          nodeStructureChanged(existing)
+        }
+      }
+      else if (node != null) {
+        val insertAt = if (options.sortAlphabetically) {
+          (0 until rootNode.childCount).firstOrNull { MakefileTreeNode.Comparator.compare(node, rootNode.getChildAt(it)) < 0 } ?: rootNode.childCount
+        }
+        else rootNode.childCount
+        rootNode.insert(insertAt, node)
+        nodesWereInserted(rootNode, intArrayOf(insertAt))
+      }
+    }
+
+    targetsByFile = targets
+  }
+
+  private fun createFileNode(file: VirtualFile, names: List<String>): MakefileFileNode? {
+    val visible = names.filterNot { (MakefilePsiImplUtil.isSpecialTargetName(it) && !options.showSpecialTargets) || MakefilePsiImplUtil.isPatternTargetName(it) }
+    if (visible.isEmpty()) return null
+
+    val targets = visible.map(::MakefileTargetNode)
+    return MakefileFileNode(file, if (options.sortAlphabetically) targets.sortedWith(MakefileTreeNode.Comparator) else targets)
+  }
+}
+
+/**
+ * Target names of all makefiles in the project, without loading PSI.
+ */
+private fun collectTargets(project: Project): Map<VirtualFile, List<String>> {
+  val scope = GlobalSearchScope.projectScope(project)
+
+  val names = mutableSetOf<String>()
+  MakefileTargetIndex.getInstance().processAllKeys(project, CommonProcessors.CollectProcessor(names))
+
+  val result = LinkedHashMap<VirtualFile, MutableList<String>>()
+  for (name in names) {
+    ProgressManager.checkCanceled()
+
+    val files = StubIndex.getInstance().getContainingFilesIterator(TARGET_INDEX_KEY, name, project, scope)
+    for (file in files) {
+      result.getOrPut(file) { mutableListOf() }.add(name)
+    }
+  }
+  return result
+}
+
+/**
+ * Makefiles of the project in a created, copied or moved directory.
+ */
+private fun findMakefiles(project: Project, dir: VirtualFile): Collection<VirtualFile> {
+  if (!dir.isValid) return emptyList()
+  return FileTypeIndex.getFiles(MakefileFileType, GlobalSearchScopesCore.directoryScope(project, dir, true)
+    .intersectWith(GlobalSearchScope.projectScope(project)))
+}
+
+/**
+ * Target names of a single changed file, or an empty list if the file was deleted or is not a makefile of the project.
+ * The names are read from the stub tree, so the file is parsed only if its AST is already loaded, e.g. in an editor.
+ */
+private fun collectTargets(project: Project, file: VirtualFile): List<String> {
+  if (!file.isValid || !GlobalSearchScope.projectScope(project).contains(file)) return emptyList()
+
+  val psiFile = PsiManager.getInstance(project).findFile(file) as? MakefileFile ?: return emptyList()
+  val stubTree = psiFile.stubTree ?: psiFile.calcStubTree()
+  return stubTree.plainList.filterIsInstance<MakefileTargetStubElement>().mapNotNull { it.name }.distinct()
+}
@@ -2,7 +2,6 @@ package com.jetbrains.lang.makefile.toolWindow
 
 import com.intellij.openapi.project.*
 import com.jetbrains.lang.makefile.*
-import javax.swing.tree.*
 
 class MakefileToolWindowOptions(val project: Project) {
   private val settings = project.getService(MakefileProjectSettings::class.java)
@@ -19,24 +18,4 @@ class MakefileToolWindowOptions(val project: Project) {
     get() = settings?.settings?.sortAlphabeticallyInToolWindow ?: false
     set(value) { settings?.settings?.sortAlphabeticallyInToolWindow = value }
 
-  fun getRootNode(): TreeNode {
-    val files = MakefileTargetIndex.getInstance()
-      .allTargets(project)
-      .filterNot { (it.isSpecialTarget && !showSpecialTargets) || it.isPatternTarget }
-      .groupBy { it.containingFile }
-      .map {
-        val targets = if (sortAlphabetically) {
-          it.value.map(::MakefileTargetNode).sortedWith(MakefileTreeNode.Comparator)
-        } else {
-          it.value.map(::MakefileTargetNode)
-        }
-        MakefileFileNode(it.key, targets)
-      }
-      .let {
-        if (sortAlphabetically) {
-          it.sortedWith(MakefileTreeNode.Comparator)
-        } else it
-      }
-    return MakefileRootNode(files)
-  }
 }
\ No newline at end of file
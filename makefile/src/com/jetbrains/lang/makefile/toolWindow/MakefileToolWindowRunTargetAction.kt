@@ -20,10 +20,9 @@ class MakefileToolWindowRunTargetAction(private val tree: Tree, private val proj
     val selectedNodes = tree.getSelectedNodes(MakefileTargetNode::class.java, {true})
     if (selectedNodes.any()) {
       val selected = selectedNodes.first()
-      if (selected.parent.psiFile == null)
-        return
+      if (!selected.parent.virtualFile.isValid) return
       val elements = MakefileTargetIndex.getInstance().getTargets(selected.name, project,
-                                                                          GlobalSearchScope.fileScope(selected.parent.psiFile!!))
+                                                                          GlobalSearchScope.fileScope(project, selected.parent.virtualFile))
       val target = elements.firstOrNull() ?: return
 
       val dataContext = SimpleDataContext.getSimpleContext(Location.DATA_KEY, PsiLocation(target), event.dataContext)
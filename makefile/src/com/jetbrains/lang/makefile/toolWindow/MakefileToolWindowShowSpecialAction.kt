@@ -3,9 +3,8 @@ package com.jetbrains.lang.makefile.toolWindow
 import com.intellij.icons.*
 import com.intellij.openapi.actionSystem.*
 import com.jetbrains.lang.makefile.MakefileLangBundle
-import javax.swing.tree.*
 
-class MakefileToolWindowShowSpecialAction(private val options: MakefileToolWindowOptions, private val model: DefaultTreeModel) :
+class MakefileToolWindowShowSpecialAction(private val options: MakefileToolWindowOptions, private val model: MakefileToolWindowModel) :
     ToggleAction(MakefileLangBundle.message("action.show.special.targets.text"), null, AllIcons.Actions.ToggleVisibility) {
   override fun getActionUpdateThread(): ActionUpdateThread =
     ActionUpdateThread.BGT
@@ -14,6 +13,6 @@ class MakefileToolWindowShowSpecialAction(private val options: MakefileToolWindo
 
   override fun setSelected(e: AnActionEvent, state: Boolean) {
     options.showSpecialTargets = state
-    model.setRoot(options.getRootNode())
+    model.rebuild()
   }
 }
@@ -3,9 +3,8 @@ package com.jetbrains.lang.makefile.toolWindow
 import com.intellij.icons.*
 import com.intellij.openapi.actionSystem.*
 import com.jetbrains.lang.makefile.MakefileLangBundle
-import javax.swing.tree.*
 
-class MakefileToolWindowSortAlphabeticallyAction(private val options: MakefileToolWindowOptions, private val model: DefaultTreeModel) :
+class MakefileToolWindowSortAlphabeticallyAction(private val options: MakefileToolWindowOptions, private val model: MakefileToolWindowModel) :
     ToggleAction(MakefileLangBundle.message("action.sort.alphabetically.text"), null, AllIcons.ObjectBrowser.Sorted) {
   override fun getActionUpdateThread(): ActionUpdateThread =
     ActionUpdateThread.BGT
@@ -14,6 +13,6 @@ class MakefileToolWindowSortAlphabeticallyAction(private val options: MakefileTo
 
   override fun setSelected(e: AnActionEvent, state: Boolean) {
     options.sortAlphabetically = state
-    model.setRoot(options.getRootNode())
+    model.rebuild()
   }
 }
\ No newline at end of file
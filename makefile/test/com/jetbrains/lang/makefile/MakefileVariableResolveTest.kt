@@ -0,0 +1,96 @@
+package com.jetbrains.lang.makefile
+
+import com.intellij.openapi.command.WriteCommandAction
+import com.intellij.psi.*
+import com.intellij.psi.impl.source.PsiFileImpl
+import com.intellij.psi.util.*
+import com.intellij.testFramework.*
+import com.intellij.testFramework.fixtures.*
+import com.jetbrains.lang.makefile.psi.*
+
+class MakefileVariableResolveTest : BasePlatformTestCase() {
+  fun testLocal() {
+    myFixture.configureByText("Makefile", "FOO = 1\nBAR = 2\nFOO += 3\nall:\n\techo \$(F<caret>OO)\n")
+
+    val results = multiResolve()
+    assertEquals(2, results.size)
+    assertTrue(results.all { it.text == "FOO" && it.containingFile == myFixture.file })
+  }
+
+  fun testIncluded() {
+    myFixture.addFileToProject("common.mk", "FOO = 1\n")
+    myFixture.configureByText("Makefile", "include common.mk\nall:\n\techo \$(F<caret>OO)\n")
+
+    val results = multiResolve()
+    assertEquals(1, results.size)
+    assertEquals("common.mk", results.single().containingFile.name)
+  }
+
+  fun testNestedAndRecursiveInclude() {
+    myFixture.addFileToProject("first.mk", "-include second.mk\nFOO = 1\n")
+    myFixture.addFileToProject("second.mk", "include first.mk\nFOO = 2\n")
+    myFixture.configureByText("Makefile", "include first.mk\nFOO = 3\nall:\n\techo \$(F<caret>OO)\n")
+
+    val files = multiResolve().map { it.containingFile.name }
+    assertSameElements(files, "Makefile", "first.mk", "second.mk")
+  }
+
+  fun testIncludedFromSubdirectoryNotParsed() {
+    val first = myFixture.addFileToProject("mk/first.mk", "include second.mk\nFOO = 1\n")
+    val second = myFixture.addFileToProject("mk/second.mk", "FOO = 2\n")
+    myFixture.configureByText("Makefile", "include mk/first.mk\nall:\n\techo \$(F<caret>OO)\n")
+
+    val scope = (myFixture.file as MakefileFile).includeScope
+    assertTrue(scope.contains(first.virtualFile))
+    assertTrue(scope.contains(second.virtualFile))
+    assertFalse((first as PsiFileImpl).isContentsLoaded)
+    assertFalse((second as PsiFileImpl).isContentsLoaded)
+  }
+
+  fun testIncludeAddedToIncludedFile() {
+    val common = myFixture.addFileToProject("common.mk", "FOO = 1\n")
+    myFixture.addFileToProject("other.mk", "FOO = 2\n")
+    myFixture.configureByText("Makefile", "include common.mk\nall:\n\techo \$(F<caret>OO)\n")
+    assertEquals(1, multiResolve().size)
+
+    WriteCommandAction.runWriteCommandAction(project) {
+      val document = PsiDocumentManager.getInstance(project).getDocument(common)!!
+      document.insertString(0, "include other.mk\n")
+      PsiDocumentManager.getInstance(project).commitDocument(document)
+    }
+    assertSameElements(multiResolve().map { it.containingFile.name }, "common.mk", "other.mk")
+  }
+
+  fun testIncludedVariants() {
+    myFixture.addFileToProject("common.mk", "FROM_INCLUDE = 1\n")
+    myFixture.configureByText("Makefile", "include common.mk\nLOCAL = 1\nall:\n\techo \$(<caret>)\n")
+
+    val variants = myFixture.completeBasic().map { it.lookupString }
+    assertContainsElements(variants, "FROM_INCLUDE", "LOCAL")
+  }
+
+  fun testResolvePerformance() {
+    val count = 10000
+    val text = buildString {
+      for (i in 0 until count) {
+        append("VAR_$i := \$(VAR_${i / 2}) value_$i\n")
+      }
+      append("all:\n\techo \$(VAR_${count - 1})\n")
+    }
+    myFixture.configureByText("Makefile", text)
+
+    val usages = PsiTreeUtil.findChildrenOfType(myFixture.file, MakefileVariableUsage::class.java)
+    assertTrue(usages.size >= count)
+
+    PlatformTestUtil.newPerformanceTest(getTestName(false)) {
+      for (usage in usages) {
+        assertEquals(1, (usage.references.single() as PsiPolyVariantReference).multiResolve(false).size)
+      }
+    }.setup { psiManager.dropPsiCaches() }.start()
+  }
+
+  private fun multiResolve(): List<PsiElement> {
+    val reference = myFixture.file.findReferenceAt(myFixture.caretOffset) as PsiPolyVariantReference
+    return reference.multiResolve(false).mapNotNull { it.element }
+  }
+}
@@ -0,0 +1,63 @@
+package com.jetbrains.lang.makefile.toolWindow
+
+import com.intellij.openapi.application.WriteAction
+import com.intellij.psi.impl.source.PsiFileImpl
+import com.intellij.testFramework.*
+import com.intellij.testFramework.fixtures.*
+
+class MakefileToolWindowModelTest : BasePlatformTestCase() {
+  private lateinit var model: MakefileToolWindowModel
+
+  override fun setUp() {
+    super.setUp()
+    model = MakefileToolWindowModel(project, MakefileToolWindowOptions(project), testRootDisposable)
+  }
+
+  fun testTargetsLoadedWithoutParsing() {
+    val file = myFixture.addFileToProject("Makefile", "all: hello\nhello:\n\techo hello\n.PHONY: all\n")
+    model.reload()
+
+    waitForTree("Makefile: all, hello")
+    assertFalse((file as PsiFileImpl).isContentsLoaded)
+  }
+
+  fun testChangedFileUpdated() {
+    val file = myFixture.addFileToProject("Makefile", "all:\n")
+    model.reload()
+    waitForTree("Makefile: all")
+
+    myFixture.saveText(file.virtualFile, "all:\nclean:\n")
+    waitForTree("Makefile: all, clean")
+  }
+
+  fun testMovedDirectoryRescanned() {
+    myFixture.addFileToProject("Makefile", "all:\n")
+    // created outside the project, so the makefile itself is not reported as a new file of the project
+    val outside = WriteAction.computeAndWait<_, Throwable> {
+      val dir = myFixture.tempDirFixture.getFile("")!!.parent.createChildDirectory(this, "outside")
+      dir.createChildData(this, "build.mk").setBinaryContent("build:\n".toByteArray())
+      dir
+    }
+    model.reload()
+    waitForTree("Makefile: all")
+
+    WriteAction.runAndWait<Throwable> { outside.move(this, myFixture.tempDirFixture.getFile("")!!) }
+    waitForTree("Makefile: all", "build.mk: build")
+
+    WriteAction.runAndWait<Throwable> { outside.move(this, myFixture.tempDirFixture.getFile("")!!.parent) }
+    waitForTree("Makefile: all")
+  }
+
+  private fun waitForTree(vararg expected: String) {
+    PlatformTestUtil.waitWithEventsDispatching({ "Expected ${expected.toList()}, was ${treeText()}" },
+                                               { treeText() == expected.toList() }, 10)
+  }
+
+  private fun treeText(): List<String> {
+    val root = model.root as MakefileRootNode
+    return (0 until root.childCount).map { i ->
+      val file = root.getChildAt(i)
+      file.virtualFile.name + ": " + file.targets.joinToString { it.name }
+    }.sorted()
+  }
+}
@@ -30,9 +30,11 @@ import aQute.bnd.build.Workspace;
 import aQute.bnd.osgi.*;
 import aQute.service.reporter.Report;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.util.NlsSafe;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import com.intellij.util.containers.ContainerUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -41,7 +43,16 @@ import org.jetbrains.osgi.jps.util.OrderedProperties;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
@@ -57,6 +68,8 @@ import static org.jetbrains.osgi.jps.OsgiJpsBundle.message;
  */
 public class BndWrapper {
   private static final Logger LOG = Logger.getInstance(BndWrapper.class);
+  private static final ExecutorService ourExecutor =
+    AppExecutorUtil.createBoundedApplicationPoolExecutor("OSGi Library Bundlification", Runtime.getRuntime().availableProcessors());
 
   private final Reporter myReporter;
 
@@ -66,35 +79,128 @@ public class BndWrapper {
 
   /**
    * Wraps .jar files using Bnd analyzer. Uses bundlification rules defined in Settings/OSGi/Library Bundling.
+   * Independent libraries are wrapped in parallel; the result and the reported problems follow the order of dependencies.
+   *
+   * @throws ProcessCanceledException if the reporter is canceled or the thread is interrupted, no partial result is returned
    */
   public @NotNull List<String> bundlifyLibraries(@NotNull Collection<File> dependencies,
                                         @NotNull File outputDir,
                                         @NotNull List<LibraryBundlificationRule> rules) {
-    List<String> result = new ArrayList<>(dependencies.size());
-
-    for (File dependency : dependencies) {
-      String path = dependency.getPath();
+    File[] files = dependencies.toArray(new File[0]);
+    String[] bundles = new String[files.length];
+
+    // libraries with the same file name are wrapped into the same target, so they are processed sequentially
+    Map<String, List<Integer>> byTargetName = new LinkedHashMap<>();
+    int total = 0;
+    for (int i = 0; i < files.length; i++) {
+      String path = files[i].getPath();
       if (CachingBundleInfoProvider.canBeBundlified(path)) {
-        myReporter.progress(path);
-        try {
-          File bundledDependency = wrap(dependency, outputDir, rules);
-          if (bundledDependency != null) {
-            result.add(bundledDependency.getPath());
-          }
+        byTargetName.computeIfAbsent(files[i].getName(), k -> new ArrayList<>()).add(i);
+        total++;
+      }
+      else if (CachingBundleInfoProvider.isBundle(path)) {
+        bundles[i] = path;
+      }
+    }
+
+    int count = total;
+    AtomicInteger done = new AtomicInteger();
+    WrapResult[] results = new WrapResult[files.length];
+    List<Callable<Void>> tasks = ContainerUtil.map(byTargetName.values(), indices -> () -> {
+      for (int index : indices) {
+        if (myReporter.isCanceled() || Thread.currentThread().isInterrupted()) {
+          throw new ProcessCanceledException();
         }
-        catch (OsgiBuildException e) {
+        results[index] = wrapSafely(files[index], outputDir, rules);
+        myReporter.progress(message("bnd.wrapper.progress", files[index].getPath(), done.incrementAndGet(), count));
+      }
+      return null;
+    });
+
+    runTasks(tasks);
+    // a library wrapped after cancellation must not produce a partial result
+    if (myReporter.isCanceled() || Thread.currentThread().isInterrupted()) {
+      throw new ProcessCanceledException();
+    }
+
+    List<String> result = new ArrayList<>(files.length);
+    for (int i = 0; i < files.length; i++) {
+      WrapResult wrapResult = results[i];
+      if (wrapResult != null) {
+        wrapResult.warnings.forEach(s -> reportProblem(s, null, false));
+        wrapResult.errors.forEach(s -> reportProblem(s, null, true));
+        if (wrapResult.exception != null) {
+          OsgiBuildException e = wrapResult.exception;
           myReporter.warning(e.getMessage(), e.getCause(), e.getSourcePath(), -1);
         }
+        if (wrapResult.bundle != null) {
+          result.add(wrapResult.bundle.getPath());
+        }
       }
-      else if (CachingBundleInfoProvider.isBundle(path)) {
-        result.add(path);
+      else if (bundles[i] != null) {
+        result.add(bundles[i]);
+      }
+    }
+
+    return result;
+  }
+
+  private static void runTasks(@NotNull List<Callable<Void>> tasks) {
+    int parallelism = Math.min(tasks.size(), Runtime.getRuntime().availableProcessors());
+    if (parallelism <= 1) {
+      for (Callable<Void> task : tasks) {
+        try {
+          task.call();
+        }
+        catch (RuntimeException e) {
+          throw e;
+        }
+        catch (Exception e) {
+          throw new RuntimeException(e);
+        }
+      }
+      return;
+    }
+
+    List<Future<Void>> futures = ContainerUtil.map(tasks, ourExecutor::submit);
+    try {
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ProcessCanceledException(e);
+    }
+    catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException)e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    }
+    finally {
+      // tasks that have not started yet are dropped, running ones stop at the next library
+      for (Future<Void> future : futures) {
+        future.cancel(false);
       }
     }
+  }
 
+  private @NotNull WrapResult wrapSafely(@NotNull File sourceFile, @NotNull File outputDir, @NotNull List<LibraryBundlificationRule> rules) {
+    WrapResult result = new WrapResult();
+    try {
+      result.bundle = wrap(sourceFile, outputDir, rules, result);
+    }
+    catch (OsgiBuildException e) {
+      result.exception = e;
+    }
     return result;
   }
 
-  private @Nullable File wrap(@NotNull File sourceFile, @NotNull File outputDir, @NotNull List<LibraryBundlificationRule> rules) throws OsgiBuildException {
+  private @Nullable File wrap(@NotNull File sourceFile,
+                              @NotNull File outputDir,
+                              @NotNull List<LibraryBundlificationRule> rules,
+                              @NotNull WrapResult result) throws OsgiBuildException {
     if (!sourceFile.isFile()) {
       throw new OsgiBuildException(message("bnd.wrapper.library.not.found", sourceFile));
     }
@@ -120,19 +226,21 @@ public class BndWrapper {
       return targetFile;
     }
 
-    doWrap(sourceFile, targetFile, additionalProperties);
+    doWrap(sourceFile, targetFile, additionalProperties, result);
     return targetFile;
   }
 
   // internal function which does the actual wrapping. 90% borrowed from the Bnd source code.
-  private void doWrap(@NotNull File inputJar, @NotNull File outputJar, @NotNull Map<String, String> properties) throws OsgiBuildException {
-    if (!FileUtil.delete(outputJar)) {
-      throw new OsgiBuildException(message("bnd.wrapper.cannot.delete.bundle", outputJar));
-    }
+  // The bundle is written to a temporary file and then moved in place, so a concurrent reader never sees a partial jar.
+  private void doWrap(@NotNull File inputJar,
+                      @NotNull File outputJar,
+                      @NotNull Map<String, String> properties,
+                      @NotNull WrapResult result) throws OsgiBuildException {
     if (!FileUtil.createParentDirs(outputJar)) {
       throw new OsgiBuildException(message("bnd.wrapper.cannot.create.output", outputJar));
     }
 
+    File tempJar = null;
     try (Analyzer analyzer = new ReportingAnalyzer(myReporter)) {
       analyzer.setPedantic(false);
       analyzer.setJar(inputJar);
@@ -166,13 +274,15 @@ public class BndWrapper {
         analyzer.setProperty(Constants.BUNDLE_VERSION, version);
       }
 
+      tempJar = FileUtil.createTempFile(outputJar.getParentFile(), outputJar.getName(), ".tmp", false);
       try (Jar jar = analyzer.getJar()) {
         jar.setManifest(analyzer.calcManifest());
-        jar.write(outputJar);
+        jar.write(tempJar);
       }
+      moveReplacing(tempJar, outputJar);
 
-      analyzer.getWarnings().forEach(s -> reportProblem(s, null, false));
-      analyzer.getErrors().forEach(s -> reportProblem(s, null, true));
+      result.warnings.addAll(analyzer.getWarnings());
+      result.errors.addAll(analyzer.getErrors());
     }
     catch (OsgiBuildException e) {
       throw e;
@@ -180,6 +290,32 @@ public class BndWrapper {
     catch (Exception e) {
       throw new OsgiBuildException(message("bnd.wrapper.unknown.error"), e, null);
     }
+    finally {
+      if (tempJar != null && tempJar.exists()) {
+        FileUtil.delete(tempJar);
+      }
+    }
+  }
+
+  private static void moveReplacing(@NotNull File source, @NotNull File target) throws OsgiBuildException {
+    try {
+      try {
+        Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      }
+      catch (AtomicMoveNotSupportedException e) {
+        Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+    catch (IOException e) {
+      throw new OsgiBuildException(message("bnd.wrapper.cannot.replace.bundle", target), e, null);
+    }
+  }
+
+  private static final class WrapResult {
+    private @Nullable File bundle;
+    private @Nullable OsgiBuildException exception;
+    private final List<String> warnings = new ArrayList<>();
+    private final List<String> errors = new ArrayList<>();
   }
 
   /**
@@ -26,28 +26,40 @@ package org.jetbrains.osgi.jps.build;
 
 import aQute.bnd.osgi.Constants;
 import com.intellij.openapi.diagnostic.Logger;
-import com.intellij.openapi.util.Pair;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.util.io.IOUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.io.*;
+import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 
 /**
  * This is a helper class which helps to provide information about bundles (that do not necessarily belong to the project).
+ * <p>
+ * Manifests are cached by path and validated against the size and modification time of the jar (or of the manifest file
+ * for exploded bundles). The cache can be saved and loaded so that unchanged jars are not reopened by later build sessions.
+ * It holds at most {@link #MAX_ENTRIES} entries; when it is full, arbitrary entries are dropped and are re-read on the next access.
  *
  * @author <a href="mailto:janthomae@janthomae.de">Jan Thomä</a>
  */
 public final class CachingBundleInfoProvider {
-  private static final Map<String, Pair<Long, Manifest>> ourCache = new WeakHashMap<>();
+  private static final Logger LOG = Logger.getInstance(CachingBundleInfoProvider.class);
+  private static final int STORAGE_VERSION = 1;
+
+  private static final int MAX_ENTRIES = 10_000;
+
+  private static final Map<String, CacheEntry> ourCache = new ConcurrentHashMap<>();
 
   /**
    * True for .jar files or exploded directories with Bundle-SymbolicName in their manifests.
@@ -86,44 +98,184 @@ public final class CachingBundleInfoProvider {
   }
 
   @Nullable
-  public synchronized static String getBundleAttribute(@NotNull String path, @NotNull String attribute) {
-    Pair<Long, Manifest> pair = ourCache.remove(path);
+  public static String getBundleAttribute(@NotNull String path, @NotNull String attribute) {
+    BundleHeaders headers = getHeaders(path);
+    return headers != null ? headers.get(attribute) : null;
+  }
 
+  private static @Nullable BundleHeaders getHeaders(@NotNull String path) {
     try {
       BasicFileAttributes attributes = Files.readAttributes(Paths.get(path), BasicFileAttributes.class);
-      if (attributes.isDirectory()) {
-        File manifestFile = new File(path, JarFile.MANIFEST_NAME);
-        if (pair == null || pair.first != manifestFile.lastModified()) {
-          pair = null;
-          try (FileInputStream stream = new FileInputStream(manifestFile)) {
-            Manifest manifest = new Manifest(stream);
-            pair = Pair.create(manifestFile.lastModified(), manifest);
-          }
-        }
+      boolean directory = attributes.isDirectory();
+      if (directory) {
+        attributes = Files.readAttributes(Paths.get(path, JarFile.MANIFEST_NAME), BasicFileAttributes.class);
       }
-      else if (attributes.isRegularFile()) {
-        long lastModified = attributes.lastModifiedTime().toMillis();
-        if (pair == null || pair.first != lastModified) {
-          pair = null;
-          try (JarFile jar = new JarFile(path)) {
-            Manifest manifest = jar.getManifest();
-            if (manifest != null) {
-              pair = Pair.create(lastModified, manifest);
-            }
+      else if (!attributes.isRegularFile()) {
+        return null;
+      }
+
+      long size = attributes.size(), lastModified = attributes.lastModifiedTime().toMillis();
+      CacheEntry entry = ourCache.get(path);
+      if (entry == null || entry.size != size || entry.lastModified != lastModified) {
+        entry = new CacheEntry(size, lastModified, BundleHeaders.of(directory ? readManifest(path) : readJarManifest(path)));
+        put(path, entry);
+      }
+      return entry.headers;
+    }
+    catch (IOException e) {
+      LOG.debug(e);
+      ourCache.remove(path);
+      return null;
+    }
+  }
+
+  private static void put(@NotNull String path, @NotNull CacheEntry entry) {
+    ourCache.put(path, entry);
+    trimToSize();
+  }
+
+  private static void trimToSize() {
+    int excess = ourCache.size() - MAX_ENTRIES;
+    if (excess <= 0) return;
+
+    Iterator<String> iterator = ourCache.keySet().iterator();
+    while (excess-- > 0 && iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+    }
+  }
+
+  private static @NotNull Manifest readManifest(@NotNull String directory) throws IOException {
+    try (InputStream stream = new FileInputStream(new File(directory, JarFile.MANIFEST_NAME))) {
+      return new Manifest(stream);
+    }
+  }
+
+  private static @Nullable Manifest readJarManifest(@NotNull String path) throws IOException {
+    try (JarFile jar = new JarFile(path)) {
+      return jar.getManifest();
+    }
+  }
+
+  /**
+   * Loads entries saved by {@link #save}. Entries of files changed since then are re-read on access.
+   */
+  public static void load(@NotNull Path storage) {
+    if (!Files.isRegularFile(storage)) return;
+
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(storage)))) {
+      if (in.readInt() != STORAGE_VERSION) return;
+
+      int count = in.readInt();
+      Map<String, CacheEntry> entries = new HashMap<>(count);
+      for (int i = 0; i < count; i++) {
+        String path = IOUtil.readUTF(in);
+        long size = in.readLong(), lastModified = in.readLong();
+        entries.put(path, new CacheEntry(size, lastModified, BundleHeaders.read(in)));
+      }
+      entries.forEach(ourCache::putIfAbsent);
+      trimToSize();
+    }
+    catch (IOException e) {
+      LOG.debug("Cannot load bundle manifest cache from " + storage, e);
+    }
+  }
+
+  /**
+   * Saves entries of existing files, to be picked up by {@link #load} in the next session.
+   */
+  public static void save(@NotNull Path storage) {
+    Map<String, CacheEntry> entries = new HashMap<>();
+    ourCache.forEach((path, entry) -> {
+      if (Files.exists(Paths.get(path))) entries.put(path, entry);
+    });
+
+    try {
+      Files.createDirectories(storage.getParent());
+      Path temp = Files.createTempFile(storage.getParent(), storage.getFileName().toString(), ".tmp");
+      try {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+          out.writeInt(STORAGE_VERSION);
+          out.writeInt(entries.size());
+          for (Map.Entry<String, CacheEntry> e : entries.entrySet()) {
+            IOUtil.writeUTF(out, e.getKey());
+            out.writeLong(e.getValue().size);
+            out.writeLong(e.getValue().lastModified);
+            BundleHeaders.write(out, e.getValue().headers);
           }
         }
+        Files.move(temp, storage, StandardCopyOption.REPLACE_EXISTING);
+      }
+      finally {
+        FileUtil.delete(temp.toFile());
       }
     }
     catch (IOException e) {
-      Logger.getInstance(CachingBundleInfoProvider.class).debug(e);
+      LOG.debug("Cannot save bundle manifest cache to " + storage, e);
     }
+  }
+
+  @TestOnly
+  public static void clearCache() {
+    ourCache.clear();
+  }
+
+  private static final class CacheEntry {
+    private final long size;
+    private final long lastModified;
+    private final @Nullable BundleHeaders headers;
 
-    if (pair != null) {
-      ourCache.put(path, pair);
-      return pair.second.getMainAttributes().getValue(attribute);
+    private CacheEntry(long size, long lastModified, @Nullable BundleHeaders headers) {
+      this.size = size;
+      this.lastModified = lastModified;
+      this.headers = headers;
     }
-    else {
-      return null;
+  }
+
+  /**
+   * Main attributes of a manifest; names are case-insensitive, as in {@link Attributes}.
+   */
+  private static final class BundleHeaders {
+    private final Map<String, String> myHeaders;
+
+    private BundleHeaders(@NotNull Map<String, String> headers) {
+      myHeaders = headers;
+    }
+
+    private @Nullable String get(@NotNull String name) {
+      return myHeaders.get(name.toLowerCase(Locale.ENGLISH));
+    }
+
+    private static @Nullable BundleHeaders of(@Nullable Manifest manifest) {
+      if (manifest == null) return null;
+
+      Map<String, String> headers = new HashMap<>();
+      manifest.getMainAttributes().forEach((name, value) -> headers.put(name.toString().toLowerCase(Locale.ENGLISH), (String)value));
+      return new BundleHeaders(Map.copyOf(headers));
+    }
+
+    private static @Nullable BundleHeaders read(@NotNull DataInput in) throws IOException {
+      int count = in.readInt();
+      if (count < 0) return null;
+
+      Map<String, String> headers = new HashMap<>(count);
+      for (int i = 0; i < count; i++) {
+        headers.put(IOUtil.readUTF(in), IOUtil.readUTF(in));
+      }
+      return new BundleHeaders(Map.copyOf(headers));
+    }
+
+    private static void write(@NotNull DataOutput out, @Nullable BundleHeaders headers) throws IOException {
+      if (headers == null) {
+        out.writeInt(-1);
+        return;
+      }
+
+      out.writeInt(headers.myHeaders.size());
+      for (Map.Entry<String, String> e : headers.myHeaders.entrySet()) {
+        IOUtil.writeUTF(out, e.getKey());
+        IOUtil.writeUTF(out, e.getValue());
+      }
     }
   }
 }
@@ -360,6 +360,11 @@ public class OsgiBuildSession implements Reporter {
     myContext.processMessage(new CompilerMessage(OsmorcBuilder.ID, kind, myModulePrefix + text, coalesce(path, mySourceToReport), -1, -1, -1, line, -1));
   }
 
+  @Override
+  public boolean isCanceled() {
+    return myContext.getCancelStatus().isCanceled();
+  }
+
   @Override
   public boolean isDebugEnabled() {
     return LOG.isDebugEnabled();
@@ -10,7 +10,9 @@ import org.jetbrains.jps.builders.java.JavaBuilderUtil;
 import org.jetbrains.jps.incremental.CompileContext;
 import org.jetbrains.jps.incremental.TargetBuilder;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Collections;
 
 /**
@@ -28,6 +30,21 @@ public class OsmorcBuilder extends TargetBuilder<BuildRootDescriptor, OsmorcBuil
     return ID;
   }
 
+  @Override
+  public void buildStarted(@NotNull CompileContext context) {
+    CachingBundleInfoProvider.load(getManifestCacheFile(context));
+  }
+
+  @Override
+  public void buildFinished(@NotNull CompileContext context) {
+    CachingBundleInfoProvider.save(getManifestCacheFile(context));
+  }
+
+  private static Path getManifestCacheFile(CompileContext context) {
+    File dataRoot = context.getProjectDescriptor().dataManager.getDataPaths().getDataStorageRoot();
+    return new File(dataRoot, "osgi/bundle-manifests.dat").toPath();
+  }
+
   @Override
   public void build(@NotNull OsmorcBuildTarget target,
                     @NotNull DirtyFilesHolder<BuildRootDescriptor, OsmorcBuildTarget> holder,
@@ -14,6 +14,13 @@ public interface Reporter {
 
   boolean isDebugEnabled();
 
+  /**
+   * Long operations check this between steps and stop with {@link com.intellij.openapi.progress.ProcessCanceledException}.
+   */
+  default boolean isCanceled() {
+    return false;
+  }
+
   void debug(@NotNull String message);
 
   String setReportSource(String source);
@@ -0,0 +1,74 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license.
+package org.jetbrains.osgi.jps.build
+
+import com.intellij.openapi.progress.ProcessCanceledException
+import com.intellij.openapi.util.io.FileUtil
+import com.intellij.testFramework.UsefulTestCase
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import java.io.File
+import java.util.jar.JarEntry
+import java.util.jar.JarOutputStream
+
+class BndWrapperTest : UsefulTestCase() {
+  private lateinit var myRoot: File
+  private lateinit var myOutputDir: File
+
+  override fun setUp() {
+    super.setUp()
+    myRoot = FileUtil.createTempDirectory("bnd-wrapper", null, true)
+    myOutputDir = File(myRoot, "bundles")
+  }
+
+  fun testCanceledBetweenLibraries() {
+    // libraries with the same name are wrapped one after another by the same task
+    val libraries = listOf(jar("a/alpha-1.0.jar"), jar("b/alpha-1.0.jar"))
+    val reporter = TestReporter(cancelAfter = 1)
+    assertThatThrownBy { BndWrapper(reporter).bundlifyLibraries(libraries, myOutputDir, emptyList()) }
+      .isInstanceOf(ProcessCanceledException::class.java)
+    assertThat(reporter.progressCount).isEqualTo(1)
+  }
+
+  fun testInterrupted() {
+    val libraries = listOf(jar("a/alpha-1.0.jar"), jar("b/beta-1.0.jar"))
+    Thread.currentThread().interrupt()
+    try {
+      assertThatThrownBy { BndWrapper(TestReporter()).bundlifyLibraries(libraries, myOutputDir, emptyList()) }
+        .isInstanceOf(ProcessCanceledException::class.java)
+    }
+    finally {
+      Thread.interrupted()
+    }
+  }
+
+  private fun jar(path: String): File {
+    val file = File(myRoot, path)
+    FileUtil.createParentDirs(file)
+    JarOutputStream(file.outputStream()).use {
+      it.putNextEntry(JarEntry("data/file.txt"))
+      it.write("(empty)".toByteArray())
+      it.closeEntry()
+    }
+    return file
+  }
+
+  private class TestReporter(private val cancelAfter: Int = Int.MAX_VALUE) : Reporter {
+    @Volatile var progressCount = 0
+
+    override fun progress(message: String) {
+      progressCount++
+    }
+
+    override fun warning(message: String, t: Throwable?, sourcePath: String?, lineNum: Int) {}
+
+    override fun error(message: String, t: Throwable?, sourcePath: String?, lineNum: Int) {}
+
+    override fun isDebugEnabled() = false
+
+    override fun debug(message: String) {}
+
+    override fun setReportSource(source: String?): String? = null
+
+    override fun isCanceled() = progressCount >= cancelAfter
+  }
+}
@@ -118,6 +118,11 @@ public class BundleCompiler implements Reporter {
     LOG.warn(message, t);
   }
 
+  @Override
+  public boolean isCanceled() {
+    return myIndicator.isCanceled();
+  }
+
   @Override
   public boolean isDebugEnabled() {
     return LOG.isDebugEnabled();
@@ -32,6 +32,8 @@ import org.junit.Test;
 import org.osmorc.OsgiTestUtil;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 
 import static org.junit.Assert.*;
 
@@ -85,4 +87,32 @@ public class CachingBundleInfoProviderTest {
     assertFalse(CachingBundleInfoProvider.isFragmentBundle(myJarBundle));
     assertFalse(CachingBundleInfoProvider.isFragmentBundle(myInvalidDirBundle));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testPersistentCache() throws IOException {
+    CachingBundleInfoProvider.clearCache();
+    assertEquals("jarbundle", CachingBundleInfoProvider.getBundleSymbolicName(myJarBundle));
+    assertEquals("dirbundle", CachingBundleInfoProvider.getBundleSymbolicName(myDirBundle));
+    assertFalse(CachingBundleInfoProvider.isBundle(myInvalidDirBundle));
+
+    Path storage = new File(myTempDir, "cache/manifests.dat").toPath();
+    CachingBundleInfoProvider.save(storage);
+    CachingBundleInfoProvider.clearCache();
+    CachingBundleInfoProvider.load(storage);
+
+    // same size and modification time: only the loaded cache knows the old name
+    File manifest = new File(myDirBundle, "META-INF/MANIFEST.MF");
+    long lastModified = manifest.lastModified();
+    FileUtil.writeToFile(manifest, FileUtil.loadFile(manifest).replace("SymbolicName: dirbundle", "SymbolicName: otherbndl"));
+    assertTrue(manifest.setLastModified(lastModified));
+
+    assertEquals("manifests must be taken from the loaded cache", "dirbundle", CachingBundleInfoProvider.getBundleSymbolicName(myDirBundle));
+    assertEquals("1.0.0", CachingBundleInfoProvider.getBundleVersion(myDirBundle));
+    assertTrue(CachingBundleInfoProvider.isFragmentBundle(myDirBundle));
+    assertEquals("jarbundle", CachingBundleInfoProvider.getBundleSymbolicName(myJarBundle));
+    assertFalse(CachingBundleInfoProvider.isBundle(myInvalidDirBundle));
+
+    assertTrue(manifest.setLastModified(lastModified + 10_000));
+    assertEquals("a changed manifest must be re-read", "otherbndl", CachingBundleInfoProvider.getBundleSymbolicName(myDirBundle));
+  }
+}
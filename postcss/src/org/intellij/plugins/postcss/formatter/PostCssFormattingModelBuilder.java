@@ -10,7 +10,7 @@ import com.intellij.psi.css.codeStyle.CssCodeStyleSettings;
 import com.intellij.psi.css.impl.util.editor.CssFormattingModelBuilder;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.util.PsiTreeUtil;
-import org.intellij.plugins.postcss.PostCssElementTypes;
+import org.intellij.plugins.postcss.PostCssStubElementTypes;
 import org.intellij.plugins.postcss.lexer.PostCssTokenTypes;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -76,8 +76,8 @@ public class PostCssFormattingModelBuilder extends CssFormattingModelBuilder {
         ASTNode node1 = ((ASTBlock)child1).getNode();
         ASTNode node2 = ((ASTBlock)child2).getNode();
         if (node1 != null && node2 != null &&
-            node1.getElementType() == PostCssElementTypes.POST_CSS_SIMPLE_VARIABLE_DECLARATION &&
-            node2.getElementType() == PostCssElementTypes.POST_CSS_SIMPLE_VARIABLE_DECLARATION) {
+            node1.getElementType() == PostCssStubElementTypes.POST_CSS_SIMPLE_VARIABLE_DECLARATION &&
+            node2.getElementType() == PostCssStubElementTypes.POST_CSS_SIMPLE_VARIABLE_DECLARATION) {
           return Spacing.createSpacing(0, 0, 1, true, getKeepBlankLines());
         }
       }
@@ -82,7 +82,7 @@ public class PostCssParser extends CssParser2 {
     addTokenOrError(CssElementTypes.CSS_COLON, "':'");
     parseTermList(true, PostCssTokenTypes.POST_CSS_SIMPLE_VARIABLE_TOKEN);
     addTokenOrError(CssElementTypes.CSS_SEMICOLON, "';'");
-    variableDeclaration.done(PostCssElementTypes.POST_CSS_SIMPLE_VARIABLE_DECLARATION);
+    variableDeclaration.done(PostCssStubElementTypes.POST_CSS_SIMPLE_VARIABLE_DECLARATION);
     return true;
   }
 
@@ -29,9 +29,6 @@ public class PostCssTreeElementFactory extends CssTreeElementFactory {
     else if (type == PostCssElementTypes.POST_CSS_SIMPLE_VARIABLE) {
       return new PostCssSimpleVariableImpl();
     }
-    else if (type == PostCssElementTypes.POST_CSS_SIMPLE_VARIABLE_DECLARATION) {
-      return new PostCssSimpleVariableDeclarationImpl();
-    }
     return super.createComposite(type);
   }
 }
@@ -0,0 +1,59 @@
+package org.intellij.plugins.postcss.psi.stubs;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.css.impl.stubs.base.CssNamedStub;
+import com.intellij.psi.impl.source.PsiFileImpl;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.*;
+import com.intellij.util.containers.ContainerUtil;
+import org.intellij.plugins.postcss.psi.PostCssSimpleVariableDeclaration;
+import org.intellij.plugins.postcss.psi.stubs.types.PostCssSimpleVariableDeclarationStubElementType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Top-level simple variable declarations ({@code $name: value;}) by name.
+ */
+public class PostCssSimpleVariableIndex extends StringStubIndexExtension<PostCssSimpleVariableDeclaration> {
+  public static final StubIndexKey<String, PostCssSimpleVariableDeclaration> KEY =
+    StubIndexKey.createIndexKey("postcss.simple.variable");
+
+  @NotNull
+  @Override
+  public StubIndexKey<String, PostCssSimpleVariableDeclaration> getKey() {
+    return KEY;
+  }
+
+  /**
+   * @return declarations with the given name in the file, the last declaration first
+   */
+  public static List<PostCssSimpleVariableDeclaration> getDeclarations(@NotNull String name,
+                                                                       @NotNull Project project,
+                                                                       @NotNull VirtualFile file) {
+    Collection<PostCssSimpleVariableDeclaration> declarations =
+      StubIndex.getElements(KEY, name, project, GlobalSearchScope.fileScope(project, file), PostCssSimpleVariableDeclaration.class);
+    return ContainerUtil.reverse(new ArrayList<>(declarations));
+  }
+
+  /**
+   * @return names of the declarations in the file, read from its stub tree, so that other files of the project are not visited
+   */
+  public static Collection<String> getNames(@NotNull Project project, @NotNull VirtualFile file) {
+    if (!(PsiManager.getInstance(project).findFile(file) instanceof PsiFileImpl psiFile)) return List.of();
+    StubTree stubTree = psiFile.getStubTree();
+    if (stubTree == null) {
+      // the AST is loaded, the stubs are built from it
+      stubTree = psiFile.calcStubTree();
+    }
+    Set<String> names = new LinkedHashSet<>();
+    for (StubElement<?> stub : stubTree.getPlainList()) {
+      if (stub.getStubType() instanceof PostCssSimpleVariableDeclarationStubElementType && stub instanceof CssNamedStub<?> namedStub) {
+        ContainerUtil.addIfNotNull(names, namedStub.getName());
+      }
+    }
+    return names;
+  }
+}
@@ -0,0 +1,46 @@
+package org.intellij.plugins.postcss.psi.stubs.types;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.css.CssRulesetList;
+import com.intellij.psi.css.CssStylesheet;
+import com.intellij.psi.css.impl.stubs.base.CssNamedStub;
+import com.intellij.psi.css.impl.stubs.base.CssSimpleNamedStubElementType;
+import com.intellij.psi.stubs.IndexSink;
+import org.intellij.plugins.postcss.PostCssLanguage;
+import org.intellij.plugins.postcss.psi.PostCssSimpleVariableDeclaration;
+import org.intellij.plugins.postcss.psi.impl.PostCssSimpleVariableDeclarationImpl;
+import org.intellij.plugins.postcss.psi.stubs.PostCssSimpleVariableIndex;
+import org.jetbrains.annotations.NonNls;
+import org.jetbrains.annotations.NotNull;
+
+public class PostCssSimpleVariableDeclarationStubElementType extends CssSimpleNamedStubElementType<PostCssSimpleVariableDeclaration> {
+
+  public PostCssSimpleVariableDeclarationStubElementType(@NonNls @NotNull String debugName) {
+    super(debugName, PostCssLanguage.INSTANCE);
+  }
+
+  @Override
+  public PsiElement createElement(ASTNode node) {
+    return new PostCssSimpleVariableDeclarationImpl(node);
+  }
+
+  @Override
+  public PostCssSimpleVariableDeclaration createPsi(@NotNull CssNamedStub<PostCssSimpleVariableDeclaration> stub) {
+    return new PostCssSimpleVariableDeclarationImpl(stub, this);
+  }
+
+  /**
+   * Only top-level declarations are visible in other files.
+   */
+  @Override
+  public boolean shouldCreateStub(ASTNode node) {
+    PsiElement rulesetList = node.getPsi().getParent();
+    return rulesetList instanceof CssRulesetList && rulesetList.getParent() instanceof CssStylesheet;
+  }
+
+  @Override
+  public void indexStub(@NotNull final CssNamedStub<PostCssSimpleVariableDeclaration> stub, @NotNull final IndexSink sink) {
+    sink.occurrence(PostCssSimpleVariableIndex.KEY, stub.getName());
+  }
+}
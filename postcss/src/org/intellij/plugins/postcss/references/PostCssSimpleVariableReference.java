@@ -3,6 +3,8 @@ package org.intellij.plugins.postcss.references;
 import com.intellij.codeInsight.lookup.LookupElement;
 import com.intellij.codeInsight.lookup.LookupElementBuilder;
 import com.intellij.icons.AllIcons;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Ref;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.vfs.VirtualFile;
@@ -14,6 +16,9 @@ import com.intellij.psi.css.*;
 import com.intellij.psi.css.impl.util.CssUtil;
 import com.intellij.psi.css.reference.CssReference;
 import com.intellij.psi.impl.source.resolve.ResolveCache;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.IncorrectOperationException;
 import com.intellij.util.Processor;
@@ -21,9 +26,12 @@ import com.intellij.util.SmartList;
 import org.intellij.plugins.postcss.PostCssLanguage;
 import org.intellij.plugins.postcss.lexer.PostCssTokenTypes;
 import org.intellij.plugins.postcss.psi.PostCssSimpleVariableDeclaration;
+import org.intellij.plugins.postcss.psi.stubs.PostCssSimpleVariableIndex;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 public class PostCssSimpleVariableReference extends PsiReferenceBase<PsiElement> implements CssReference {
@@ -33,7 +41,7 @@ public class PostCssSimpleVariableReference extends PsiReferenceBase<PsiElement>
       if (varName.isEmpty()) return null;
 
       final Ref<PostCssSimpleVariableDeclaration> result = Ref.create();
-      processSimpleVariableDeclarations(reference.getElement(), element -> {
+      processSimpleVariableDeclarations(reference.getElement(), varName, element -> {
         if (varName.equals(element.getName())) {
           result.set(element);
           return false;
@@ -77,7 +85,7 @@ public class PostCssSimpleVariableReference extends PsiReferenceBase<PsiElement>
   @Override
   public Object @NotNull [] getVariants() {
     final SmartList<LookupElement> result = new SmartList<>();
-    processSimpleVariableDeclarations(myElement, element -> {
+    processSimpleVariableDeclarations(myElement, null, element -> {
       LookupElementBuilder lookup = LookupElementBuilder.create(element).withIcon(AllIcons.Nodes.Variable);
       CssTermList initializer = element.getInitializer();
       if (initializer != null) {
@@ -112,26 +120,48 @@ public class PostCssSimpleVariableReference extends PsiReferenceBase<PsiElement>
   }
 
   private static void processSimpleVariableDeclarations(@NotNull PsiElement context,
+                                                        @Nullable String name,
                                                         @NotNull Processor<PostCssSimpleVariableDeclaration> processor) {
     CssRulesetList rulesetList = PsiTreeUtil.getParentOfType(context, CssRulesetList.class);
     if (rulesetList == null) return;
 
     if (!processSimpleVarsInRulesetList(rulesetList, processor)) return;
 
+    // declarations in imported files are found in the index, so that their ASTs are not loaded
     PsiFile contextFile = context.getContainingFile();
-    Set<VirtualFile> otherFiles = CssUtil.getImportedFiles(context.getContainingFile(), context, true);
-    for (VirtualFile otherFile : otherFiles) {
-      PsiFile otherPsiFile = contextFile.getManager().findFile(otherFile);
-      if (otherPsiFile instanceof StylesheetFile && !otherFile.equals(contextFile.getVirtualFile())) {
-        CssStylesheet otherStylesheet = ((StylesheetFile)otherPsiFile).getStylesheet();
-        CssRulesetList otherRulesetList = otherStylesheet == null ? null : otherStylesheet.getRulesetList();
-        if (otherRulesetList != null) {
-          if (!processSimpleVarsInRulesetList(otherRulesetList, processor)) return;
+    Project project = contextFile.getProject();
+    boolean dumb = DumbService.isDumb(project);
+    for (VirtualFile otherFile : getImportedFiles(contextFile)) {
+      if (otherFile.equals(contextFile.getVirtualFile())) continue;
+      if (dumb) {
+        if (!processSimpleVarsInFile(contextFile.getManager().findFile(otherFile), processor)) return;
+        continue;
+      }
+      Collection<String> names = name != null ? List.of(name) : PostCssSimpleVariableIndex.getNames(project, otherFile);
+      for (String otherName : names) {
+        for (PostCssSimpleVariableDeclaration declaration : PostCssSimpleVariableIndex.getDeclarations(otherName, project, otherFile)) {
+          if (!processor.process(declaration)) return;
         }
       }
     }
   }
 
+  /**
+   * Files imported by the file, directly or transitively. The set is cached, as it is needed for every variable reference.
+   */
+  @NotNull
+  private static Set<VirtualFile> getImportedFiles(@NotNull PsiFile file) {
+    return CachedValuesManager.getCachedValue(file, () -> CachedValueProvider.Result.create(
+      CssUtil.getImportedFiles(file, file, true), PsiModificationTracker.MODIFICATION_COUNT));
+  }
+
+  private static boolean processSimpleVarsInFile(@Nullable PsiFile file,
+                                                @NotNull Processor<PostCssSimpleVariableDeclaration> processor) {
+    CssStylesheet stylesheet = file instanceof StylesheetFile ? ((StylesheetFile)file).getStylesheet() : null;
+    CssRulesetList rulesetList = stylesheet == null ? null : stylesheet.getRulesetList();
+    return rulesetList == null || processSimpleVarsInRulesetList(rulesetList, processor);
+  }
+
   private static boolean processSimpleVarsInRulesetList(@NotNull CssRulesetList rulesetList,
                                                         @NotNull Processor<PostCssSimpleVariableDeclaration> processor) {
     PsiElement child = rulesetList.getLastChild();
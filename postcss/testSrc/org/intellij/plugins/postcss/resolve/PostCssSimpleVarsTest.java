@@ -3,11 +3,14 @@ package org.intellij.plugins.postcss.resolve;
 import com.intellij.codeInsight.TargetElementUtil;
 import com.intellij.openapi.command.WriteCommandAction;
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.PsiReference;
 import com.intellij.psi.codeStyle.CodeStyleManager;
+import com.intellij.psi.impl.source.PsiFileImpl;
 import com.intellij.psi.impl.source.resolve.reference.impl.PsiMultiReference;
 import com.intellij.testFramework.TestDataPath;
 import org.intellij.plugins.postcss.PostCssFixtureTestCase;
+import org.intellij.plugins.postcss.psi.stubs.PostCssSimpleVariableIndex;
 import org.jetbrains.annotations.NotNull;
 
 @TestDataPath("$CONTENT_ROOT/testData/resolve/simpleVars")
@@ -111,6 +114,28 @@ public class PostCssSimpleVarsTest extends PostCssFixtureTestCase {
     );
   }
 
+  public void testResolveFromImportedFileWithoutLoadingTree() {
+    PsiFile tokens = myFixture.addFileToProject("tokens.pcss", "$foo: 1px;\n$bar: 2px;\n$foo: 3px;\n.a { $local: 4px; }");
+    myFixture.addFileToProject("base.pcss", "@import 'tokens.pcss';");
+    myFixture.configureByText("foo.pcss", """
+      @import 'base.pcss';
+      .header {
+          width: $<caret>foo;
+      }""");
+    PsiElement resolve = TargetElementUtil.findReference(myFixture.getEditor()).resolve();
+    assertNotNull(resolve);
+    assertEquals(tokens, resolve.getContainingFile());
+    assertFalse(((PsiFileImpl)tokens).isContentsLoaded());
+    // getText() loads the tree
+    assertEquals("$foo: 3px;", resolve.getText());
+  }
+
+  public void testNamesOfImportedFileFromStubs() {
+    PsiFile tokens = myFixture.addFileToProject("tokens.pcss", "$foo: 1px;\n$bar: 2px;\n$foo: 3px;\n.a { $local: 4px; }");
+    assertSameElements(PostCssSimpleVariableIndex.getNames(getProject(), tokens.getVirtualFile()), "foo", "bar");
+    assertFalse(((PsiFileImpl)tokens).isContentsLoaded());
+  }
+
   public void testRename() {
     myFixture.configureByText("foo.pcss",
                               """
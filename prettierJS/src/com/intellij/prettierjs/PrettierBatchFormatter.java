@@ -0,0 +1,173 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license.
+package com.intellij.prettierjs;
+
+import com.intellij.javascript.nodejs.util.NodePackage;
+import com.intellij.lang.javascript.service.JSLanguageServiceUtil;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.registry.Registry;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.prettierjs.PrettierLanguageService.FormatResult;
+import com.intellij.prettierjs.ReformatWithPrettierAction.FormatRequest;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reformats many files with Prettier.
+ * <p>
+ * Up to {@code prettier.batch.max.requests} requests are in flight at the same time, optionally spread between several Prettier
+ * processes (see {@link PrettierServicePool}). Results are applied after all files are formatted, in a single command,
+ * so the whole reformatting is undone at once and nothing is changed if it is canceled. Each result replaces only
+ * the changed range of a document. Files known to be formatted are not sent at all, see {@link PrettierFormatCache}.
+ */
+final class PrettierBatchFormatter {
+  private final Project myProject;
+  private final ProgressIndicator myIndicator;
+  private final boolean myReportSkippedFiles;
+  private final ReformatWithPrettierAction.ErrorHandler myErrorHandler;
+  private final int myMaxRequests;
+  private final PrettierFormatCache myCache;
+
+  private final Deque<Pending> myPending = new ArrayDeque<>();
+  private final List<Pending> myToApply = new ArrayList<>();
+  private final List<String> myErrors = new ArrayList<>();
+  private final Set<NodePackage> myCheckedPackages = new HashSet<>();
+
+  private int myTotal;
+  private int myDone;
+  private long myStartTime;
+
+  private record Pending(@NotNull FormatRequest request, @Nullable CompletableFuture<FormatResult> future, @Nullable FormatResult result) {
+  }
+
+  PrettierBatchFormatter(@NotNull Project project,
+                         @NotNull ProgressIndicator indicator,
+                         boolean reportSkippedFiles,
+                         @NotNull ReformatWithPrettierAction.ErrorHandler errorHandler) {
+    myProject = project;
+    myIndicator = indicator;
+    myReportSkippedFiles = reportSkippedFiles;
+    myErrorHandler = errorHandler;
+    myMaxRequests = Math.max(1, Registry.intValue("prettier.batch.max.requests", 8));
+    myCache = PrettierFormatCache.getInstance(project);
+  }
+
+  /**
+   * @return errors to report
+   */
+  @NotNull
+  List<String> format(@NotNull List<PsiFile> files) {
+    myTotal = files.size();
+    myStartTime = System.nanoTime();
+    myIndicator.setIndeterminate(false);
+
+    PrettierServicePool pool = new PrettierServicePool(myProject);
+    try {
+      for (PsiFile file : files) {
+        ProgressManager.checkCanceled();
+        myIndicator.setText(PrettierBundle.message("processing.0.progress", file.getName()));
+
+        NodePackage nodePackage = PrettierConfiguration.getInstance(myProject).getPackage(file);
+        if (!myCheckedPackages.contains(nodePackage)) {
+          if (!ReformatWithPrettierAction.checkNodeAndPackage(file, null, myErrorHandler)) {
+            return Collections.emptyList();
+          }
+          myCheckedPackages.add(nodePackage);
+        }
+
+        FormatRequest request = FormatRequest.create(file, null);
+        if (request == null) {
+          onResult(file, FormatResult.UNSUPPORTED, null);
+          continue;
+        }
+        if (myCache.isFormatted(request)) {
+          onResult(file, FormatResult.formatted(request.text), request);
+          continue;
+        }
+        PrettierLanguageService service = pool.getService(file.getVirtualFile(), request.nodePackage);
+        myPending.add(new Pending(request, request.send(service), null));
+
+        while (myPending.size() >= myMaxRequests) {
+          awaitOldest();
+        }
+      }
+      while (!myPending.isEmpty()) {
+        awaitOldest();
+      }
+      ProgressManager.checkCanceled();
+      applyResults();
+    }
+    finally {
+      Disposer.dispose(pool);
+    }
+    return myErrors;
+  }
+
+  private void awaitOldest() {
+    Pending pending = myPending.poll();
+    FormatResult result = JSLanguageServiceUtil.awaitFuture(pending.future(), JSLanguageServiceUtil.getTimeout(),
+                                                            JSLanguageServiceUtil.QUOTA_MILLS, null, true, null, false);
+    myCache.rememberResult(pending.request(), result);
+    onResult(pending.request().file, result, pending.request());
+  }
+
+  private void onResult(@NotNull PsiFile file, @Nullable FormatResult result, @Nullable FormatRequest request) {
+    myDone++;
+    updateProgress();
+
+    // timed out. show notification?
+    if (result == null) {
+      return;
+    }
+    if (result.unsupported) {
+      if (myReportSkippedFiles) {
+        myErrors.add(PrettierBundle.message("not.supported.file", file.getName()));
+      }
+      return;
+    }
+    if (result.ignored) {
+      myErrors.add(PrettierBundle.message("file.was.ignored", file.getName()));
+      return;
+    }
+    if (result.error != null && !result.error.isEmpty()) {
+      myErrors.add(result.error);
+      return;
+    }
+    if (request != null) {
+      myToApply.add(new Pending(request, null, result));
+    }
+  }
+
+  private void updateProgress() {
+    myIndicator.setFraction((double)myDone / Math.max(myTotal, 1));
+    double seconds = Math.max((System.nanoTime() - myStartTime) / 1e9, 0.001);
+    myIndicator.setText2(PrettierBundle.message("batch.progress.details", myDone, myTotal, Math.round(myDone / seconds)));
+  }
+
+  private void applyResults() {
+    if (myToApply.isEmpty()) return;
+
+    ApplicationManager.getApplication().invokeAndWait(() -> WriteCommandAction.runWriteCommandAction(
+      myProject, PrettierBundle.message("reformat.with.prettier.command.name"), null, () -> {
+        for (Pending pending : myToApply) {
+          VirtualFile virtualFile = pending.request().file.getVirtualFile();
+          if (virtualFile == null || !virtualFile.isValid()) continue;
+          Document document = FileDocumentManager.getInstance().getDocument(virtualFile);
+          // the document was changed after the request was sent, the result is outdated
+          if (document == null || document.getModificationStamp() != pending.request().modificationStamp) continue;
+          ReformatWithPrettierAction.applyFormatResult(myProject, virtualFile, Objects.requireNonNull(pending.result()));
+        }
+      }), ModalityState.defaultModalityState());
+  }
+}
@@ -0,0 +1,235 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license.
+package com.intellij.prettierjs;
+
+import com.intellij.javascript.nodejs.PackageJsonData;
+import com.intellij.javascript.nodejs.util.NodePackage;
+import com.intellij.lang.javascript.buildTools.npm.PackageJsonUtil;
+import com.intellij.lang.javascript.modules.NodeModuleUtil;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.prettierjs.PrettierLanguageService.FormatResult;
+import com.intellij.prettierjs.ReformatWithPrettierAction.FormatRequest;
+import com.intellij.util.io.DigestUtil;
+import com.intellij.util.text.SemVer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers contents that Prettier reported as already formatted, so that formatting them again, e.g. on every save,
+ * does not need a round trip to the Node service.
+ * <p>
+ * The key is a hash of the file path, the text, the range, the Prettier package and version, and the contents of all files
+ * that may affect the result: Prettier config files, the ignore file, .editorconfig files and the package.json files of installed
+ * Prettier plugins. The post-format processor looks the key up on EDT, so the hashes of these files are remembered
+ * per modification stamp and only the text is hashed on every request.
+ * The cache is bounded, the least recently used keys are evicted. It is stored in the system directory when the project is closed.
+ */
+@Service(Service.Level.PROJECT)
+public final class PrettierFormatCache implements Disposable {
+  private static final Logger LOG = Logger.getInstance(PrettierFormatCache.class);
+  private static final int VERSION = 2;
+  private static final String EDITOR_CONFIG_FILE_NAME = ".editorconfig";
+  private static final int MAX_SIZE = 10_000;
+
+  private final Project myProject;
+  private final Path myFile;
+  private final Map<VirtualFile, ConfigHash> myConfigHashes = new ConcurrentHashMap<>();
+  private Map<Long, Boolean> myFormatted;
+
+  private record ConfigHash(long modificationStamp, long hash) {
+  }
+
+  public PrettierFormatCache(@NotNull Project project) {
+    myProject = project;
+    myFile = PathManager.getSystemDir().resolve("prettier").resolve("format-cache-" + project.getLocationHash() + ".dat");
+  }
+
+  public static @NotNull PrettierFormatCache getInstance(@NotNull Project project) {
+    return project.getService(PrettierFormatCache.class);
+  }
+
+  /**
+   * @return true if the same request was already answered with unchanged text
+   */
+  boolean isFormatted(@NotNull FormatRequest request) {
+    Long key = computeKey(request, request.text, request.range);
+    if (key == null) return false;
+    synchronized (this) {
+      return getFormatted().get(key) != null;
+    }
+  }
+
+  /**
+   * Remembers the text of the result as formatted. For range requests only unchanged text is remembered,
+   * because the range of the formatted part in the new text is unknown.
+   */
+  void rememberResult(@NotNull FormatRequest request, @Nullable FormatResult result) {
+    if (result == null || result.result == null || result.error != null) return;
+    if (request.range != null && !result.result.equals(request.text)) return;
+
+    Long key = computeKey(request, result.result, request.range);
+    if (key == null) return;
+    synchronized (this) {
+      getFormatted().put(key, Boolean.TRUE);
+    }
+  }
+
+  private @Nullable Long computeKey(@NotNull FormatRequest request, @NotNull String text, @Nullable TextRange range) {
+    VirtualFile virtualFile = request.file.getVirtualFile();
+    if (virtualFile == null) return null;
+
+    return ReadAction.compute(() -> {
+      if (!virtualFile.isValid()) return null;
+
+      MessageDigest digest = DigestUtil.sha256();
+      update(digest, request.filePath);
+      update(digest, text);
+      update(digest, range != null ? range.toString() : "");
+
+      NodePackage nodePackage = request.nodePackage;
+      SemVer version = nodePackage.getVersion(myProject);
+      update(digest, nodePackage.getSystemIndependentPath());
+      update(digest, version != null ? version.getRawVersion() : "");
+
+      for (VirtualFile config : collectInputFiles(virtualFile)) {
+        Long hash = getContentHash(config);
+        if (hash == null) return null;
+        update(digest, config.getPath());
+        digest.update(ByteBuffer.allocate(Long.BYTES).putLong(hash).array());
+      }
+      return ByteBuffer.wrap(digest.digest()).getLong();
+    });
+  }
+
+  private @NotNull List<VirtualFile> collectInputFiles(@NotNull VirtualFile virtualFile) {
+    Set<VirtualFile> files = new HashSet<>(PrettierUtil.lookupPossibleConfigFiles(List.of(virtualFile), myProject));
+    VirtualFile ignoreFile = PrettierUtil.findIgnoreFile(virtualFile, myProject);
+    if (ignoreFile != null) {
+      files.add(ignoreFile);
+    }
+    // .editorconfig files apply up to the file system root unless one of them says otherwise
+    for (VirtualFile dir = virtualFile.getParent(); dir != null; dir = dir.getParent()) {
+      VirtualFile editorConfig = dir.findChild(EDITOR_CONFIG_FILE_NAME);
+      if (editorConfig != null && !editorConfig.isDirectory()) {
+        files.add(editorConfig);
+      }
+    }
+    for (VirtualFile packageJson : new ArrayList<>(files)) {
+      if (!PackageJsonUtil.isPackageJsonFile(packageJson)) continue;
+      for (String dependency : PackageJsonData.getOrCreate(packageJson).getAllDependencies()) {
+        if (!isPluginPackage(dependency)) continue;
+        VirtualFile pluginPackageJson =
+          packageJson.getParent().findFileByRelativePath(NodeModuleUtil.NODE_MODULES + "/" + dependency + "/" + PackageJsonUtil.FILE_NAME);
+        if (pluginPackageJson != null) {
+          files.add(pluginPackageJson);
+        }
+      }
+    }
+
+    List<VirtualFile> result = new ArrayList<>(files);
+    result.sort(Comparator.comparing(VirtualFile::getPath));
+    return result;
+  }
+
+  private static boolean isPluginPackage(@NotNull String packageName) {
+    return packageName.startsWith("prettier-plugin-") || packageName.startsWith("@prettier/plugin-") ||
+           packageName.startsWith("@") && packageName.contains("/prettier-plugin");
+  }
+
+  /**
+   * @return null if the file can't be read, then the key is not computed at all
+   */
+  private @Nullable Long getContentHash(@NotNull VirtualFile file) {
+    long stamp = file.getModificationStamp();
+    ConfigHash cached = myConfigHashes.get(file);
+    if (cached != null && cached.modificationStamp() == stamp) {
+      return cached.hash();
+    }
+    long hash;
+    try {
+      hash = ByteBuffer.wrap(DigestUtil.sha256().digest(file.contentsToByteArray())).getLong();
+    }
+    catch (IOException e) {
+      LOG.debug("Cannot read " + file.getPath(), e);
+      return null;
+    }
+    myConfigHashes.put(file, new ConfigHash(stamp, hash));
+    return hash;
+  }
+
+  private static void update(@NotNull MessageDigest digest, @NotNull String value) {
+    digest.update(value.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte)0);
+  }
+
+  private @NotNull Map<Long, Boolean> getFormatted() {
+    if (myFormatted == null) {
+      // access order: lookups move keys to the end, so the least recently used keys are evicted first
+      myFormatted = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+          return size() > MAX_SIZE;
+        }
+      };
+      for (Long key : load()) {
+        myFormatted.put(key, Boolean.TRUE);
+      }
+    }
+    return myFormatted;
+  }
+
+  private @NotNull List<Long> load() {
+    if (!Files.exists(myFile)) return List.of();
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(myFile)))) {
+      if (input.readInt() != VERSION) return List.of();
+      int size = input.readInt();
+      List<Long> keys = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        keys.add(input.readLong());
+      }
+      return keys;
+    }
+    catch (IOException e) {
+      LOG.debug("Cannot read Prettier format cache", e);
+      return List.of();
+    }
+  }
+
+  private void save(@NotNull Collection<Long> keys) {
+    try {
+      Files.createDirectories(myFile.getParent());
+      try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(myFile)))) {
+        output.writeInt(VERSION);
+        output.writeInt(keys.size());
+        for (Long key : keys) {
+          output.writeLong(key);
+        }
+      }
+    }
+    catch (IOException e) {
+      LOG.debug("Cannot write Prettier format cache", e);
+    }
+  }
+
+  @Override
+  public synchronized void dispose() {
+    if (myFormatted != null) {
+      save(myFormatted.keySet());
+    }
+  }
+}
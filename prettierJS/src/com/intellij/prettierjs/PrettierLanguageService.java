@@ -24,6 +24,14 @@ public interface PrettierLanguageService {
   static PrettierLanguageServiceImpl getInstance(@NotNull Project project,
                                                  @NotNull VirtualFile contextVirtualFile,
                                                  @NotNull NodePackage prettierPackage) {
+    return project.getService(PrettierLanguageServiceManager.class)
+      .useService(getWorkingDirectory(project, contextVirtualFile), NodePackageRef.create(prettierPackage), service -> service);
+  }
+
+  /**
+   * Directory the Prettier service for the file is started in: the closest directory with package.json or the project base directory.
+   */
+  static @Nullable VirtualFile getWorkingDirectory(@NotNull Project project, @NotNull VirtualFile contextVirtualFile) {
     VirtualFile packageJson = PackageJsonUtil.findUpPackageJson(contextVirtualFile);
     VirtualFile workingDirectory = packageJson != null ? packageJson.getParent() : null;
     if (workingDirectory == null) {
@@ -32,8 +40,7 @@ public interface PrettierLanguageService {
     if (workingDirectory == null) {
       workingDirectory = contextVirtualFile.getParent();
     }
-    return project.getService(PrettierLanguageServiceManager.class)
-      .useService(workingDirectory, NodePackageRef.create(prettierPackage), service -> service);
+    return workingDirectory;
   }
 
   final class FormatResult {
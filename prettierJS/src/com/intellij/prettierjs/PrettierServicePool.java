@@ -0,0 +1,61 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license.
+package com.intellij.prettierjs;
+
+import com.intellij.javascript.nodejs.util.NodePackage;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.openapi.util.registry.Registry;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prettier services used by a single batch reformat.
+ * <p>
+ * Requests are spread round-robin between the shared service of the working directory and
+ * {@code prettier.batch.process.count - 1} additional services, which are started for the batch only and
+ * stopped when the pool is disposed. With the default process count of 1 only the shared service is used.
+ */
+final class PrettierServicePool implements Disposable {
+  private final Project myProject;
+  private final int myProcessCount;
+  private final Map<VirtualFile, List<PrettierLanguageServiceImpl>> myServices = new HashMap<>();
+  private final Map<VirtualFile, Integer> myNextIndex = new HashMap<>();
+
+  PrettierServicePool(@NotNull Project project) {
+    myProject = project;
+    myProcessCount = Math.max(1, Registry.intValue("prettier.batch.process.count", 1));
+  }
+
+  @NotNull
+  PrettierLanguageService getService(@NotNull VirtualFile contextVirtualFile, @NotNull NodePackage nodePackage) {
+    PrettierLanguageServiceImpl shared = PrettierLanguageService.getInstance(myProject, contextVirtualFile, nodePackage);
+    VirtualFile workingDirectory = PrettierLanguageService.getWorkingDirectory(myProject, contextVirtualFile);
+    if (myProcessCount == 1 || workingDirectory == null) {
+      return shared;
+    }
+
+    List<PrettierLanguageServiceImpl> services = myServices.computeIfAbsent(workingDirectory, dir -> {
+      List<PrettierLanguageServiceImpl> list = new ArrayList<>(myProcessCount);
+      list.add(shared);
+      for (int i = 1; i < myProcessCount; i++) {
+        PrettierLanguageServiceImpl service = new PrettierLanguageServiceImpl(myProject, dir);
+        Disposer.register(this, service);
+        list.add(service);
+      }
+      return list;
+    });
+    int index = myNextIndex.merge(workingDirectory, 1, Integer::sum) % services.size();
+    return services.get(index);
+  }
+
+  @Override
+  public void dispose() {
+    myServices.clear();
+  }
+}
@@ -24,6 +24,7 @@ import com.intellij.lang.javascript.service.protocol.LocalFilePath;
 import com.intellij.notification.Notification;
 import com.intellij.notification.NotificationListener;
 import com.intellij.notification.NotificationType;
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.actionSystem.ActionUpdateThread;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
@@ -42,6 +43,7 @@ import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.project.DumbAware;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
 import com.intellij.openapi.util.Ref;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.openapi.util.ThrowableComputable;
@@ -59,21 +61,24 @@ import com.intellij.util.ArrayUtil;
 import com.intellij.util.LineSeparator;
 import com.intellij.util.NullableFunction;
 import com.intellij.util.SmartList;
-import com.intellij.util.containers.ContainerUtil;
 import com.intellij.util.text.SemVer;
 import org.jetbrains.annotations.Nls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
 
 import javax.swing.*;
 import javax.swing.event.HyperlinkEvent;
 import javax.swing.event.HyperlinkListener;
-import java.util.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 public class ReformatWithPrettierAction extends AnAction implements DumbAware {
   private static final @NotNull Logger LOG = Logger.getInstance(ReformatWithPrettierAction.class);
   private static final long EDT_TIMEOUT_MS = 2000;
+  private static volatile @Nullable Runnable ourSendListener;
 
   private final ErrorHandler myErrorHandler;
 
@@ -295,55 +300,16 @@ public class ReformatWithPrettierAction extends AnAction implements DumbAware {
                                           @NotNull final FileTreeIterator fileIterator,
                                           boolean reportSkippedFiles,
                                           @NotNull ErrorHandler errorHandler) {
-    Map<PsiFile, PrettierLanguageService.FormatResult> results = executeUnderProgress(project, indicator -> {
-      Map<PsiFile, PrettierLanguageService.FormatResult> reformattedResults = new HashMap<>();
-
+    List<String> errors = executeUnderProgress(project, indicator -> {
       List<PsiFile> files = new SmartList<>();
       ReadAction.run(() -> {
         while (fileIterator.hasNext()) {
           files.add(fileIterator.next());
         }
       });
-
-      for (PsiFile currentFile : files) {
-        indicator.setText(PrettierBundle.message("processing.0.progress", currentFile.getName()));
-        if (!checkNodeAndPackage(currentFile, null, errorHandler)) {
-          return Collections.emptyMap();
-        }
-
-        PrettierLanguageService.FormatResult result = performRequestForFile(currentFile, null);
-        // timed out. show notification?
-        if (result == null) {
-          continue;
-        }
-        if (result.unsupported && reportSkippedFiles) {
-          PrettierLanguageService.FormatResult errorResult = PrettierLanguageService.FormatResult
-            .error(PrettierBundle.message("not.supported.file", currentFile.getName()));
-          reformattedResults.put(currentFile, errorResult);
-        }
-        if (result.ignored) {
-          PrettierLanguageService.FormatResult errorResult =
-            PrettierLanguageService.FormatResult.error(PrettierBundle.message("file.was.ignored", currentFile.getName()));
-          reformattedResults.put(currentFile, errorResult);
-          continue;
-        }
-        reformattedResults.put(currentFile, result);
-      }
-      return reformattedResults;
-    });
-
-    runWriteCommandAction(project, () -> {
-      for (Map.Entry<PsiFile, PrettierLanguageService.FormatResult> entry : results.entrySet()) {
-        VirtualFile virtualFile = entry.getKey().getVirtualFile();
-        if (virtualFile == null) {
-          continue;
-        }
-        PrettierLanguageService.FormatResult result = entry.getValue();
-        applyFormatResult(project, virtualFile, result);
-      }
+      return new PrettierBatchFormatter(project, indicator, reportSkippedFiles, errorHandler).format(files);
     });
-    List<String> errors = ContainerUtil.mapNotNull(results.entrySet(), t -> t.getValue().error);
-    if (!errors.isEmpty()) {
+    if (errors != null && !errors.isEmpty()) {
       errorHandler.showErrorWithDetails(project, null,
                                         PrettierBundle.message("failed.to.reformat.0.files", errors.size()),
                                         StringUtil.join(errors, "\n"));
@@ -353,7 +319,7 @@ public class ReformatWithPrettierAction extends AnAction implements DumbAware {
   /**
    * @param result (new text length) - (old text length)
    */
-  private static int applyFormatResult(@NotNull Project project,
+  static int applyFormatResult(@NotNull Project project,
                                        @NotNull VirtualFile virtualFile,
                                        @NotNull PrettierLanguageService.FormatResult result) {
     Document document = FileDocumentManager.getInstance().getDocument(virtualFile);
@@ -364,7 +330,7 @@ public class ReformatWithPrettierAction extends AnAction implements DumbAware {
       String newContent = StringUtil.convertLineSeparators(result.result);
       if (!StringUtil.equals(textBefore, newContent)) {
         int lengthBefore = textBefore.length();
-        document.setText(newContent);
+        replaceChangedRange(document, textBefore, newContent);
         delta = newContent.length() - lengthBefore;
       }
       setDetectedLineSeparator(project, virtualFile, newlineSeparator);
@@ -372,6 +338,17 @@ public class ReformatWithPrettierAction extends AnAction implements DumbAware {
     return delta;
   }
 
+  /**
+   * Replaces only the part of the document between the common prefix and the common suffix of the old and the new text,
+   * so that markers, folding and caret positions outside the changed range are preserved.
+   */
+  private static void replaceChangedRange(@NotNull Document document, @NotNull CharSequence textBefore, @NotNull String newContent) {
+    int prefix = StringUtil.commonPrefixLength(textBefore, newContent);
+    int suffix = Math.min(StringUtil.commonSuffixLength(textBefore, newContent),
+                          Math.min(textBefore.length(), newContent.length()) - prefix);
+    document.replaceString(prefix, textBefore.length() - suffix, newContent.substring(prefix, newContent.length() - suffix));
+  }
+
   @Nullable
   private static PrettierLanguageService.FormatResult performRequestForFile(@NotNull PsiFile currentFile, @Nullable TextRange range) {
     boolean edt = ApplicationManager.getApplication().isDispatchThread();
@@ -379,49 +356,101 @@ public class ReformatWithPrettierAction extends AnAction implements DumbAware {
       LOG.error("JSLanguageServiceUtil.awaitFuture() under read action may cause deadlock");
     }
 
-    Project project = currentFile.getProject();
-    Ref<String> text = Ref.create();
-    Ref<String> filePath = Ref.create();
-    Ref<String> ignoreFilePath = Ref.create();
-    Ref<TextRange> rangeForRequest = Ref.create(range);
-
-    ReadAction.run(() -> {
-      if (!currentFile.isValid()) return;
+    FormatRequest request = FormatRequest.create(currentFile, range);
+    if (request == null) {
+      return PrettierLanguageService.FormatResult.UNSUPPORTED;
+    }
+    PrettierFormatCache cache = PrettierFormatCache.getInstance(currentFile.getProject());
+    if (cache.isFormatted(request)) {
+      return PrettierLanguageService.FormatResult.formatted(request.text);
+    }
 
-      VirtualFile currentVFile = currentFile.getVirtualFile();
-      filePath.set(LocalFilePath.asLocalFilePath(currentVFile.toNioPath()));
+    PrettierLanguageService service =
+      PrettierLanguageService.getInstance(currentFile.getProject(), currentFile.getVirtualFile(), request.nodePackage);
+    CompletableFuture<PrettierLanguageService.FormatResult> formatFuture = request.send(service);
+    long timeout = edt ? EDT_TIMEOUT_MS : JSLanguageServiceUtil.getTimeout();
+    PrettierLanguageService.FormatResult result =
+      JSLanguageServiceUtil.awaitFuture(formatFuture, timeout, JSLanguageServiceUtil.QUOTA_MILLS, null, true, null, edt);
+    cache.rememberResult(request, result);
+    return result;
+  }
 
-      // PsiFile might be not committed at this point, take text from document
-      Document document = PsiDocumentManager.getInstance(project).getDocument(currentFile);
-      if (document == null) return;
+  @TestOnly
+  static void setSendListener(@NotNull Runnable listener, @NotNull Disposable parentDisposable) {
+    ourSendListener = listener;
+    Disposer.register(parentDisposable, () -> ourSendListener = null);
+  }
 
-      CharSequence content = document.getImmutableCharSequence();
+  /**
+   * Everything needed to send a format request for a file, collected in a read action.
+   * The modification stamp of the document allows detecting that the document changed before the result arrived.
+   */
+  static final class FormatRequest {
+    final @NotNull PsiFile file;
+    final @NotNull NodePackage nodePackage;
+    final @NotNull String filePath;
+    final @Nullable String ignoreFilePath;
+    final @NotNull String text;
+    final @Nullable TextRange range;
+    final long modificationStamp;
+
+    private FormatRequest(@NotNull PsiFile file,
+                          @NotNull NodePackage nodePackage,
+                          @NotNull String filePath,
+                          @Nullable String ignoreFilePath,
+                          @NotNull String text,
+                          @Nullable TextRange range,
+                          long modificationStamp) {
+      this.file = file;
+      this.nodePackage = nodePackage;
+      this.filePath = filePath;
+      this.ignoreFilePath = ignoreFilePath;
+      this.text = text;
+      this.range = range;
+      this.modificationStamp = modificationStamp;
+    }
+
+    /**
+     * @return null if the file is not valid or has no document
+     */
+    static @Nullable FormatRequest create(@NotNull PsiFile currentFile, @Nullable TextRange range) {
+      Project project = currentFile.getProject();
+      NodePackage nodePackage = PrettierConfiguration.getInstance(project).getPackage(currentFile);
+      return ReadAction.compute(() -> {
+        if (!currentFile.isValid()) return null;
+
+        VirtualFile currentVFile = currentFile.getVirtualFile();
+        String filePath = LocalFilePath.asLocalFilePath(currentVFile.toNioPath());
+
+        // PsiFile might be not committed at this point, take text from document
+        Document document = PsiDocumentManager.getInstance(project).getDocument(currentFile);
+        if (document == null) return null;
+
+        CharSequence content = document.getImmutableCharSequence();
+
+        TextRange rangeForRequest = range;
+        if (range != null && range.getStartOffset() == 0 && range.getLength() == content.length()) {
+          // Prettier may remove trailing line break in Vue (WEB-56144, https://github.com/prettier/prettier/issues/13399).
+          // It's safer not pass a range when there's no need to.
+          rangeForRequest = null;
+        }
 
-      if (range != null && range.getStartOffset() == 0 && range.getLength() == content.length()) {
-        // Prettier may remove trailing line break in Vue (WEB-56144, https://github.com/prettier/prettier/issues/13399).
-        // It's safer not pass a range when there's no need to.
-        rangeForRequest.set(null);
-      }
+        String text = JSLanguageServiceUtil.convertLineSeparatorsToFileOriginal(project, content, currentVFile).toString();
 
-      text.set(JSLanguageServiceUtil.convertLineSeparatorsToFileOriginal(project, content, currentVFile).toString());
+        VirtualFile ignoreVFile = PrettierUtil.findIgnoreFile(currentVFile, project);
+        String ignoreFilePath = ignoreVFile != null ? ignoreVFile.getPath() : null;
+        return new FormatRequest(currentFile, nodePackage, filePath, ignoreFilePath, text, rangeForRequest,
+                                 document.getModificationStamp());
+      });
+    }
 
-      VirtualFile ignoreVFile = PrettierUtil.findIgnoreFile(currentVFile, project);
-      if (ignoreVFile != null) {
-        ignoreFilePath.set(ignoreVFile.getPath());
+    @Nullable CompletableFuture<PrettierLanguageService.FormatResult> send(@NotNull PrettierLanguageService service) {
+      Runnable listener = ourSendListener;
+      if (listener != null) {
+        listener.run();
       }
-    });
-
-    if (text.isNull()) {
-      return PrettierLanguageService.FormatResult.UNSUPPORTED;
+      return service.format(filePath, ignoreFilePath, text, nodePackage, range);
     }
-
-    NodePackage nodePackage = PrettierConfiguration.getInstance(project).getPackage(currentFile);
-    PrettierLanguageService service = PrettierLanguageService.getInstance(project, currentFile.getVirtualFile(), nodePackage);
-
-    CompletableFuture<PrettierLanguageService.FormatResult> formatFuture =
-      service.format(filePath.get(), ignoreFilePath.get(), text.get(), nodePackage, rangeForRequest.get());
-    long timeout = edt ? EDT_TIMEOUT_MS : JSLanguageServiceUtil.getTimeout();
-    return JSLanguageServiceUtil.awaitFuture(formatFuture, timeout, JSLanguageServiceUtil.QUOTA_MILLS, null, true, null, edt);
   }
 
   private static <T> T executeUnderProgress(@NotNull Project project, @NotNull NullableFunction<ProgressIndicator, T> handler) {
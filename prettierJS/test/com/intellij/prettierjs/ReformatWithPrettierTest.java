@@ -9,10 +9,12 @@ import com.intellij.lang.javascript.buildTools.npm.PackageJsonUtil;
 import com.intellij.lang.javascript.linter.JSExternalToolIntegrationTest;
 import com.intellij.lang.javascript.nodejs.library.yarn.AbstractYarnPnpIntegrationTest;
 import com.intellij.openapi.actionSystem.IdeActions;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.fileEditor.FileDocumentManager;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Condition;
+import com.intellij.openapi.util.registry.Registry;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VfsUtilCore;
 import com.intellij.openapi.vfs.VirtualFile;
@@ -25,6 +27,8 @@ import org.jetbrains.annotations.Nullable;
 import org.junit.Assert;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ReformatWithPrettierTest extends JSExternalToolIntegrationTest {
 
@@ -105,6 +109,56 @@ public class ReformatWithPrettierTest extends JSExternalToolIntegrationTest {
     doReformatFile("test", "");
   }
 
+  public void testReformatDirectory() {
+    Registry.get("prettier.batch.max.requests").setValue(3, getTestRootDisposable());
+    int count = 20;
+    for (int i = 0; i < count; i++) {
+      myFixture.addFileToProject("dir/file" + i + ".js", "var  a" + i + "=''");
+    }
+    VirtualFile dir = myFixture.findFileInTempDir("dir");
+    ReformatWithPrettierAction.processVirtualFiles(getProject(), List.of(dir), new ReformatWithPrettierAction.ErrorHandler() {
+      @Override
+      public void showError(@NotNull Project project, @Nullable Editor editor, @NotNull String text, @Nullable Runnable onLinkClick) {
+        throw new RuntimeException(text);
+      }
+    });
+    for (int i = 0; i < count; i++) {
+      VirtualFile file = myFixture.findFileInTempDir("dir/file" + i + ".js");
+      assertEquals("var a" + i + " = \"\";\n", FileDocumentManager.getInstance().getDocument(file).getText());
+    }
+  }
+
+  public void testFormattedContentIsCached() {
+    myFixture.configureByText("foo.js", "var  a=''");
+    runReformatAction();
+    myFixture.checkResult("var a = \"\";\n");
+
+    ReformatWithPrettierAction.FormatRequest request = ReformatWithPrettierAction.FormatRequest.create(myFixture.getFile(), null);
+    assertNotNull(request);
+    assertTrue(isFormatted(request));
+    // the post-format processor looks the cache up on EDT
+    assertTrue(PrettierFormatCache.getInstance(getProject()).isFormatted(request));
+
+    myFixture.addFileToProject(".editorconfig", "root = true\n[*]\nindent_size = 4\n");
+    assertFalse(isFormatted(request));
+
+    runReformatAction();
+    request = ReformatWithPrettierAction.FormatRequest.create(myFixture.getFile(), null);
+    assertNotNull(request);
+    assertTrue(isFormatted(request));
+
+    myFixture.type(' ');
+    request = ReformatWithPrettierAction.FormatRequest.create(myFixture.getFile(), null);
+    assertNotNull(request);
+    assertFalse(isFormatted(request));
+  }
+
+  private boolean isFormatted(@NotNull ReformatWithPrettierAction.FormatRequest request) {
+    PrettierFormatCache cache = PrettierFormatCache.getInstance(getProject());
+    return PlatformTestUtil.waitForFuture(ApplicationManager.getApplication().executeOnPooledThread(() -> cache.isFormatted(request)),
+                                          10_000);
+  }
+
   public void testRunPrettierOnSaveAll() {
     doTestRunPrettierOnSave("SaveAll");
   }
@@ -129,6 +183,19 @@ public class ReformatWithPrettierTest extends JSExternalToolIntegrationTest {
     myFixture.checkResult("var a = \"\";\n");
   }
 
+  public void testPostFormatProcessorUsesCache() {
+    PrettierConfiguration.getInstance(getProject()).getState().runOnReformat = true;
+    AtomicInteger requests = new AtomicInteger();
+    ReformatWithPrettierAction.setSendListener(requests::incrementAndGet, getTestRootDisposable());
+    myFixture.configureByText("foo.js", "var  a=''");
+    myFixture.performEditorAction(IdeActions.ACTION_EDITOR_REFORMAT);
+    myFixture.checkResult("var a = \"\";\n");
+
+    myFixture.performEditorAction(IdeActions.ACTION_EDITOR_REFORMAT);
+    myFixture.checkResult("var a = \"\";\n");
+    assertEquals(1, requests.get());
+  }
+
   public void testYarnPrettierBasicExample() throws Exception {
     doReformatFile("toReformat", "js", () -> {
       VirtualFile file = myFixture.findFileInTempDir("toReformat.js");
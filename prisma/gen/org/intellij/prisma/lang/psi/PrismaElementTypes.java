@@ -4,6 +4,7 @@ package org.intellij.prisma.lang.psi;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.PsiElement;
 import com.intellij.lang.ASTNode;
+import org.intellij.prisma.lang.psi.stubs.PrismaStubElementTypeFactory;
 import org.intellij.prisma.lang.psi.impl.*;
 
 public interface PrismaElementTypes {
@@ -12,8 +13,8 @@ public interface PrismaElementTypes {
   IElementType ARGUMENTS_LIST = new PrismaElementType("ARGUMENTS_LIST");
   IElementType ARRAY_EXPRESSION = new PrismaElementType("ARRAY_EXPRESSION");
   IElementType BLOCK_ATTRIBUTE = new PrismaElementType("BLOCK_ATTRIBUTE");
-  IElementType DATASOURCE_DECLARATION = new PrismaElementType("DATASOURCE_DECLARATION");
-  IElementType ENUM_DECLARATION = new PrismaElementType("ENUM_DECLARATION");
+  IElementType DATASOURCE_DECLARATION = PrismaStubElementTypeFactory.create("DATASOURCE_DECLARATION");
+  IElementType ENUM_DECLARATION = PrismaStubElementTypeFactory.create("ENUM_DECLARATION");
   IElementType ENUM_DECLARATION_BLOCK = new PrismaElementType("ENUM_DECLARATION_BLOCK");
   IElementType ENUM_VALUE_DECLARATION = new PrismaElementType("ENUM_VALUE_DECLARATION");
   IElementType EXPRESSION = new PrismaElementType("EXPRESSION");
@@ -22,25 +23,25 @@ public interface PrismaElementTypes {
   IElementType FIELD_DECLARATION_BLOCK = new PrismaElementType("FIELD_DECLARATION_BLOCK");
   IElementType FIELD_TYPE = new PrismaElementType("FIELD_TYPE");
   IElementType FUNCTION_CALL = new PrismaElementType("FUNCTION_CALL");
-  IElementType GENERATOR_DECLARATION = new PrismaElementType("GENERATOR_DECLARATION");
+  IElementType GENERATOR_DECLARATION = PrismaStubElementTypeFactory.create("GENERATOR_DECLARATION");
   IElementType KEY_VALUE = new PrismaElementType("KEY_VALUE");
   IElementType KEY_VALUE_BLOCK = new PrismaElementType("KEY_VALUE_BLOCK");
   IElementType LEGACY_LIST_TYPE = new PrismaElementType("LEGACY_LIST_TYPE");
   IElementType LEGACY_REQUIRED_TYPE = new PrismaElementType("LEGACY_REQUIRED_TYPE");
   IElementType LIST_TYPE = new PrismaElementType("LIST_TYPE");
   IElementType LITERAL_EXPRESSION = new PrismaElementType("LITERAL_EXPRESSION");
-  IElementType MODEL_DECLARATION = new PrismaElementType("MODEL_DECLARATION");
+  IElementType MODEL_DECLARATION = PrismaStubElementTypeFactory.create("MODEL_DECLARATION");
   IElementType NAMED_ARGUMENT = new PrismaElementType("NAMED_ARGUMENT");
   IElementType OPTIONAL_TYPE = new PrismaElementType("OPTIONAL_TYPE");
   IElementType PATH_EXPRESSION = new PrismaElementType("PATH_EXPRESSION");
   IElementType SINGLE_TYPE = new PrismaElementType("SINGLE_TYPE");
-  IElementType TYPE_ALIAS = new PrismaElementType("TYPE_ALIAS");
-  IElementType TYPE_DECLARATION = new PrismaElementType("TYPE_DECLARATION");
+  IElementType TYPE_ALIAS = PrismaStubElementTypeFactory.create("TYPE_ALIAS");
+  IElementType TYPE_DECLARATION = PrismaStubElementTypeFactory.create("TYPE_DECLARATION");
   IElementType TYPE_REFERENCE = new PrismaElementType("TYPE_REFERENCE");
   IElementType UNSUPPORTED_OPTIONAL_LIST_TYPE = new PrismaElementType("UNSUPPORTED_OPTIONAL_LIST_TYPE");
   IElementType UNSUPPORTED_TYPE = new PrismaElementType("UNSUPPORTED_TYPE");
   IElementType VALUE_ARGUMENT = new PrismaElementType("VALUE_ARGUMENT");
-  IElementType VIEW_DECLARATION = new PrismaElementType("VIEW_DECLARATION");
+  IElementType VIEW_DECLARATION = PrismaStubElementTypeFactory.create("VIEW_DECLARATION");
 
   IElementType AT = new PrismaTokenType("@");
   IElementType ATAT = new PrismaTokenType("@@");
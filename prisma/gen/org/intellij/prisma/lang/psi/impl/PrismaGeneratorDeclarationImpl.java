@@ -7,6 +7,8 @@ import com.intellij.lang.ASTNode;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
 import com.intellij.psi.util.PsiTreeUtil;
+import org.intellij.prisma.lang.psi.stubs.PrismaDeclarationStub;
+import com.intellij.psi.stubs.IStubElementType;
 import static org.intellij.prisma.lang.psi.PrismaElementTypes.*;
 import org.intellij.prisma.lang.psi.*;
 
@@ -16,6 +18,10 @@ public class PrismaGeneratorDeclarationImpl extends PrismaKeyValueDeclarationMix
     super(node);
   }
 
+  public PrismaGeneratorDeclarationImpl(@NotNull PrismaDeclarationStub stub, @NotNull IStubElementType<?, ?> type) {
+    super(stub, type);
+  }
+
   public void accept(@NotNull PrismaVisitor visitor) {
     visitor.visitGeneratorDeclaration(this);
   }
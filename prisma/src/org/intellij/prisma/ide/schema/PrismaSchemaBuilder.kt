@@ -7,14 +7,33 @@ import com.intellij.psi.PsiElement
 import com.intellij.psi.PsiFile
 import com.intellij.util.ProcessingContext
 import org.intellij.prisma.ide.schema.types.PrismaDatasourceType
+import org.intellij.prisma.lang.psi.PrismaFile
+import java.util.concurrent.ConcurrentHashMap
+
+private const val MAX_CACHED_SCHEMAS = 16
 
 class PrismaCompoundSchema(private val groups: List<PrismaSchemaElementGroup>,
                            private val factories: List<PrismaSchemaDynamicFactory>) {
+  private val cache = ConcurrentHashMap<PrismaSchemaEvaluationKey, PrismaEvaluatedSchema>()
+
+  /**
+   * The result depends only on [PrismaSchemaEvaluationContext.key], so it is computed once per key.
+   */
   fun evaluate(evaluationContext: PrismaSchemaEvaluationContext): PrismaEvaluatedSchema {
+    val key = evaluationContext.key
+    cache[key]?.let { return it }
+    // keys are user-defined names, so drop stale ones, e.g. typed while renaming a datasource
+    if (cache.size >= MAX_CACHED_SCHEMAS) {
+      cache.clear()
+    }
+    return cache.computeIfAbsent(key, ::doEvaluate)
+  }
+
+  private fun doEvaluate(key: PrismaSchemaEvaluationKey): PrismaEvaluatedSchema {
     val newGroups = mutableMapOf<PrismaSchemaKind, PrismaSchemaElementGroup.Builder>()
 
     factories.asSequence()
-      .map { it.invoke(evaluationContext) }
+      .map { it.invoke(key) }
       .plus(groups)
       .forEach { group ->
         newGroups
@@ -36,10 +55,10 @@ class PrismaCompoundSchema(private val groups: List<PrismaSchemaElementGroup>,
       groups.add(group)
     }
 
-    fun dynamic(kind: PrismaSchemaKind, block: PrismaSchemaElementGroup.Builder.(PrismaSchemaEvaluationContext) -> Unit) {
-      factories.add { ctx ->
+    fun dynamic(kind: PrismaSchemaKind, block: PrismaSchemaElementGroup.Builder.(PrismaSchemaEvaluationKey) -> Unit) {
+      factories.add { key ->
         val builder = PrismaSchemaElementGroup.Builder(kind)
-        builder.block(ctx)
+        builder.block(key)
         builder.build()
       }
     }
@@ -92,24 +111,23 @@ class PrismaEvaluatedSchema(private val groups: Map<PrismaSchemaKind, PrismaSche
 
       is PrismaSchemaParameterPath -> {
         val declaration = match(path.parent) as? PrismaSchemaDeclaration
-        val params = declaration?.params
         if (path is PrismaSchemaDefaultParameterPath) {
-          params?.firstOrNull()
+          declaration?.params?.firstOrNull()
         }
         else {
-          params?.find { it.label == path.label }
+          declaration?.getParameter(path.label)
         }
       }
 
       is PrismaSchemaVariantPath -> {
         val parent = match(path.parent)
-        parent?.variants?.find { it.label == path.label }
+        parent?.getVariant(path.label)
       }
     }
   }
 }
 
-private typealias PrismaSchemaDynamicFactory = (PrismaSchemaEvaluationContext) -> PrismaSchemaElementGroup
+private typealias PrismaSchemaDynamicFactory = (PrismaSchemaEvaluationKey) -> PrismaSchemaElementGroup
 
 class PrismaSchemaElementGroup(val kind: PrismaSchemaKind, val elements: Map<String, PrismaSchemaDeclaration>) {
 
@@ -145,6 +163,13 @@ sealed class PrismaSchemaElement(
   val type: String? = null,
   val ref: PrismaSchemaRef? = null,
 ) {
+  private val variantsByLabel: Map<String, PrismaSchemaVariant> by lazy(LazyThreadSafetyMode.PUBLICATION) {
+    // the first variant wins, as with a linear search
+    variants.asReversed().associateBy { it.label }
+  }
+
+  fun getVariant(label: String?): PrismaSchemaVariant? = variantsByLabel[label]
+
   fun isAvailableForDatasource(usedDatasource: PrismaDatasourceType?): Boolean {
     // filter only when datasource provider is specified
     return datasources == null ||
@@ -169,6 +194,11 @@ open class PrismaSchemaDeclaration(
   variants: List<PrismaSchemaVariant> = emptyList(),
   type: String? = null,
 ) : PrismaSchemaElement(label, documentation, insertHandler, pattern, datasources, variants, type = type) {
+  private val paramsByLabel: Map<String, PrismaSchemaParameter> by lazy(LazyThreadSafetyMode.PUBLICATION) {
+    params.asReversed().associateBy { it.label }
+  }
+
+  fun getParameter(label: String?): PrismaSchemaParameter? = paramsByLabel[label]
 
   fun getAvailableParams(
     usedDatasource: PrismaDatasourceType?,
@@ -306,6 +336,9 @@ fun schema(block: PrismaCompoundSchema.Builder.() -> Unit): PrismaCompoundSchema
 }
 
 class PrismaSchemaEvaluationContext(val position: PsiElement?, val file: PsiFile?) {
+  val key: PrismaSchemaEvaluationKey
+    get() = PrismaSchemaEvaluationKey((file as? PrismaFile)?.datasourceName)
+
   companion object {
     fun forElement(element: PsiElement?): PrismaSchemaEvaluationContext {
       return PrismaSchemaEvaluationContext(element, element?.containingFile)
@@ -313,6 +346,11 @@ class PrismaSchemaEvaluationContext(val position: PsiElement?, val file: PsiFile
   }
 }
 
+/**
+ * The parts of [PrismaSchemaEvaluationContext] the dynamic schema elements depend on.
+ */
+data class PrismaSchemaEvaluationKey(val datasourceName: String?)
+
 @DslMarker
 annotation class SchemaDslBuilderMarker
 
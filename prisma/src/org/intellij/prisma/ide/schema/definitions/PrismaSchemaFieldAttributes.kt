@@ -11,7 +11,6 @@ import org.intellij.prisma.lang.PrismaConstants.FieldAttributes
 import org.intellij.prisma.lang.PrismaConstants.Functions
 import org.intellij.prisma.lang.PrismaConstants.ParameterNames
 import org.intellij.prisma.lang.PrismaConstants.Types
-import org.intellij.prisma.lang.psi.PrismaFile
 import org.intellij.prisma.lang.psi.PrismaModelDeclaration
 import org.intellij.prisma.lang.psi.PrismaTableEntityDeclaration
 import org.intellij.prisma.lang.psi.PrismaPsiPatterns
@@ -155,8 +154,8 @@ val PRISMA_SCHEMA_FIELD_ATTRIBUTES = schema {
     }
   }
 
-  dynamic(PrismaSchemaKind.FIELD_ATTRIBUTE) { ctx ->
-    (ctx.file as? PrismaFile)?.datasourceName?.let { datasource ->
+  dynamic(PrismaSchemaKind.FIELD_ATTRIBUTE) { key ->
+    key.datasourceName?.let { datasource ->
       element {
         label = "@$datasource"
         documentation =
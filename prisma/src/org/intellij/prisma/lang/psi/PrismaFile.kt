@@ -43,6 +43,18 @@ class PrismaFile(viewProvider: FileViewProvider) : PsiFileBase(viewProvider, Pri
   private val entityDeclarations: List<PrismaEntityDeclaration>
     get() = childrenOfType()
 
+  /**
+   * Rebuilt only when this file changes.
+   */
+  private val entityDeclarationsByName: Map<String, List<PrismaEntityDeclaration>>
+    get() = CachedValuesManager.getCachedValue(this) {
+      val declarations = entityDeclarations.filter { it.name != null }.groupBy { it.name!! }
+      CachedValueProvider.Result.create(declarations, this)
+    }
+
+  fun findEntityDeclarations(name: String): List<PrismaEntityDeclaration> =
+    entityDeclarationsByName[name] ?: emptyList()
+
   override fun processDeclarations(
     processor: PsiScopeProcessor,
     state: ResolveState,
@@ -1,6 +1,11 @@
 package org.intellij.prisma.lang.psi
 
-import com.intellij.psi.tree.IFileElementType
+import com.intellij.psi.stubs.PsiFileStub
+import com.intellij.psi.tree.IStubFileElementType
 import org.intellij.prisma.lang.PrismaLanguage
 
-object PrismaFileElementType : IFileElementType("PRISMA_FILE", PrismaLanguage)
\ No newline at end of file
+object PrismaFileElementType : IStubFileElementType<PsiFileStub<PrismaFile>>("PRISMA_FILE", PrismaLanguage) {
+  override fun getStubVersion(): Int = 1
+
+  override fun getExternalId(): String = "prisma.FILE"
+}
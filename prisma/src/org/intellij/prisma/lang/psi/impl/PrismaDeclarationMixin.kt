@@ -1,17 +1,48 @@
 package org.intellij.prisma.lang.psi.impl
 
+import com.intellij.extapi.psi.StubBasedPsiElementBase
 import com.intellij.lang.ASTNode
+import com.intellij.navigation.ItemPresentation
 import com.intellij.psi.PsiElement
 import com.intellij.psi.ResolveState
 import com.intellij.psi.scope.PsiScopeProcessor
-import org.intellij.prisma.lang.psi.PrismaBlock
-import org.intellij.prisma.lang.psi.PrismaDeclaration
-import org.intellij.prisma.lang.psi.PrismaMemberDeclaration
+import com.intellij.psi.stubs.IStubElementType
+import com.intellij.psi.util.startOffset
+import org.intellij.prisma.lang.presentation.getPresentation
+import org.intellij.prisma.lang.presentation.icon
+import org.intellij.prisma.lang.psi.*
+import org.intellij.prisma.lang.psi.stubs.PrismaDeclarationStub
+import javax.swing.Icon
 
-abstract class PrismaDeclarationMixin(node: ASTNode) :
-  PrismaNamedElementImpl(node),
+abstract class PrismaDeclarationMixin :
+  StubBasedPsiElementBase<PrismaDeclarationStub>,
   PrismaDeclaration {
 
+  constructor(node: ASTNode) : super(node)
+
+  constructor(stub: PrismaDeclarationStub, nodeType: IStubElementType<*, *>) : super(stub, nodeType)
+
+  override fun getName(): String? {
+    val stub = greenStub
+    if (stub != null) {
+      return stub.name
+    }
+    return nameIdentifier?.text
+  }
+
+  override fun setName(name: String): PsiElement {
+    nameIdentifier?.replace(PrismaElementFactory.createIdentifier(project, name))
+    return this
+  }
+
+  override fun getNameIdentifier(): PsiElement? = findChildByType(PrismaElementTypes.IDENTIFIER)
+
+  override fun getTextOffset(): Int = nameIdentifier?.startOffset ?: super.getTextOffset()
+
+  override fun getPresentation(): ItemPresentation? = getPresentation(this)
+
+  override fun getIcon(flags: Int): Icon? = icon
+
   override fun getBlock(): PrismaBlock? = findChildByClass(PrismaBlock::class.java)
 
   override fun getMembers(): List<PrismaMemberDeclaration> =
@@ -34,4 +65,6 @@ abstract class PrismaDeclarationMixin(node: ASTNode) :
 
     return super.processDeclarations(processor, state, lastParent, place)
   }
-}
\ No newline at end of file
+
+  override fun toString(): String = "${javaClass.simpleName}($elementType)"
+}
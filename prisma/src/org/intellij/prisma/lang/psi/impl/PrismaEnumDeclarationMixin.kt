@@ -1,6 +1,12 @@
 package org.intellij.prisma.lang.psi.impl
 
 import com.intellij.lang.ASTNode
+import com.intellij.psi.stubs.IStubElementType
 import org.intellij.prisma.lang.psi.PrismaDeclaration
+import org.intellij.prisma.lang.psi.stubs.PrismaDeclarationStub
 
-abstract class PrismaEnumDeclarationMixin(node: ASTNode) : PrismaDeclarationMixin(node), PrismaDeclaration
\ No newline at end of file
+abstract class PrismaEnumDeclarationMixin : PrismaDeclarationMixin, PrismaDeclaration {
+  constructor(node: ASTNode) : super(node)
+
+  constructor(stub: PrismaDeclarationStub, nodeType: IStubElementType<*, *>) : super(stub, nodeType)
+}
@@ -1,6 +1,12 @@
 package org.intellij.prisma.lang.psi.impl
 
 import com.intellij.lang.ASTNode
+import com.intellij.psi.stubs.IStubElementType
 import org.intellij.prisma.lang.psi.PrismaKeyValueDeclaration
+import org.intellij.prisma.lang.psi.stubs.PrismaDeclarationStub
 
-abstract class PrismaKeyValueDeclarationMixin(node: ASTNode) : PrismaDeclarationMixin(node), PrismaKeyValueDeclaration
\ No newline at end of file
+abstract class PrismaKeyValueDeclarationMixin : PrismaDeclarationMixin, PrismaKeyValueDeclaration {
+  constructor(node: ASTNode) : super(node)
+
+  constructor(stub: PrismaDeclarationStub, nodeType: IStubElementType<*, *>) : super(stub, nodeType)
+}
@@ -1,8 +1,12 @@
 package org.intellij.prisma.lang.psi.impl
 
 import com.intellij.lang.ASTNode
+import com.intellij.psi.stubs.IStubElementType
 import org.intellij.prisma.lang.psi.PrismaTableEntityDeclaration
+import org.intellij.prisma.lang.psi.stubs.PrismaDeclarationStub
 
-abstract class PrismaTableEntityDeclarationMixin(node: ASTNode) :
-  PrismaDeclarationMixin(node),
-  PrismaTableEntityDeclaration
\ No newline at end of file
+abstract class PrismaTableEntityDeclarationMixin : PrismaDeclarationMixin, PrismaTableEntityDeclaration {
+  constructor(node: ASTNode) : super(node)
+
+  constructor(stub: PrismaDeclarationStub, nodeType: IStubElementType<*, *>) : super(stub, nodeType)
+}
@@ -0,0 +1,37 @@
+package org.intellij.prisma.lang.psi.stubs
+
+import com.intellij.psi.PsiElement
+import com.intellij.psi.stubs.*
+import org.intellij.prisma.lang.PrismaLanguage
+import org.intellij.prisma.lang.psi.PrismaDeclaration
+
+/**
+ * Top-level declarations are stubbed, so the declarations of other schema files are found without loading their trees.
+ */
+class PrismaDeclarationElementType(
+  debugName: String,
+  private val isEntity: Boolean,
+  private val psiFactory: (PrismaDeclarationStub, IStubElementType<*, *>) -> PrismaDeclaration,
+) : IStubElementType<PrismaDeclarationStub, PrismaDeclaration>(debugName, PrismaLanguage) {
+
+  override fun getExternalId(): String = "prisma.$this"
+
+  override fun createPsi(stub: PrismaDeclarationStub): PrismaDeclaration = psiFactory(stub, this)
+
+  override fun createStub(psi: PrismaDeclaration, parentStub: StubElement<out PsiElement>?): PrismaDeclarationStub =
+    PrismaDeclarationStub(parentStub, this, psi.name)
+
+  override fun serialize(stub: PrismaDeclarationStub, dataStream: StubOutputStream) {
+    dataStream.writeName(stub.name)
+  }
+
+  override fun deserialize(dataStream: StubInputStream, parentStub: StubElement<*>?): PrismaDeclarationStub =
+    PrismaDeclarationStub(parentStub, this, dataStream.readNameString())
+
+  override fun indexStub(stub: PrismaDeclarationStub, sink: IndexSink) {
+    val name = stub.name
+    if (isEntity && name != null) {
+      sink.occurrence(PrismaEntityDeclarationIndex.KEY, name)
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package org.intellij.prisma.lang.psi.stubs
+
+import com.intellij.psi.stubs.IStubElementType
+import com.intellij.psi.stubs.NamedStubBase
+import com.intellij.psi.stubs.StubElement
+import org.intellij.prisma.lang.psi.PrismaDeclaration
+
+class PrismaDeclarationStub(
+  parent: StubElement<*>?,
+  elementType: IStubElementType<*, *>,
+  name: String?,
+) : NamedStubBase<PrismaDeclaration>(parent, elementType, name)
@@ -0,0 +1,37 @@
+package org.intellij.prisma.lang.psi.stubs
+
+import com.intellij.openapi.project.Project
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.stubs.StringStubIndexExtension
+import com.intellij.psi.stubs.StubIndex
+import com.intellij.psi.stubs.StubIndexKey
+import com.intellij.util.Processor
+import org.intellij.prisma.lang.psi.PrismaEntityDeclaration
+
+/**
+ * Models, types, views, enums and type aliases by name.
+ */
+class PrismaEntityDeclarationIndex : StringStubIndexExtension<PrismaEntityDeclaration>() {
+  override fun getKey(): StubIndexKey<String, PrismaEntityDeclaration> = KEY
+
+  override fun getVersion(): Int = super.getVersion() + 1
+
+  companion object {
+    val KEY: StubIndexKey<String, PrismaEntityDeclaration> = StubIndexKey.createIndexKey("prisma.entity.declaration")
+
+    fun processDeclarations(
+      name: String,
+      project: Project,
+      scope: GlobalSearchScope,
+      processor: Processor<in PrismaEntityDeclaration>,
+    ): Boolean =
+      StubIndex.getInstance().processElements(KEY, name, project, scope, PrismaEntityDeclaration::class.java, processor)
+
+    fun processAllDeclarations(
+      project: Project,
+      scope: GlobalSearchScope,
+      processor: Processor<in PrismaEntityDeclaration>,
+    ): Boolean =
+      StubIndex.getInstance().processAllKeys(KEY, { name -> processDeclarations(name, project, scope, processor) }, scope, null)
+  }
+}
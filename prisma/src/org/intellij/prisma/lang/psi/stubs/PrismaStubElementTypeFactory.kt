@@ -0,0 +1,18 @@
+package org.intellij.prisma.lang.psi.stubs
+
+import com.intellij.psi.stubs.IStubElementType
+import org.intellij.prisma.lang.psi.impl.*
+
+object PrismaStubElementTypeFactory {
+  @JvmStatic
+  fun create(name: String): IStubElementType<*, *> = when (name) {
+    "MODEL_DECLARATION" -> PrismaDeclarationElementType(name, true, ::PrismaModelDeclarationImpl)
+    "TYPE_DECLARATION" -> PrismaDeclarationElementType(name, true, ::PrismaTypeDeclarationImpl)
+    "VIEW_DECLARATION" -> PrismaDeclarationElementType(name, true, ::PrismaViewDeclarationImpl)
+    "ENUM_DECLARATION" -> PrismaDeclarationElementType(name, true, ::PrismaEnumDeclarationImpl)
+    "TYPE_ALIAS" -> PrismaDeclarationElementType(name, true, ::PrismaTypeAliasImpl)
+    "DATASOURCE_DECLARATION" -> PrismaDeclarationElementType(name, false, ::PrismaDatasourceDeclarationImpl)
+    "GENERATOR_DECLARATION" -> PrismaDeclarationElementType(name, false, ::PrismaGeneratorDeclarationImpl)
+    else -> error("Unknown element type: $name")
+  }
+}
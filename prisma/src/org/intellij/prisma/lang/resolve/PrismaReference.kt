@@ -1,13 +1,13 @@
 package org.intellij.prisma.lang.resolve
 
 import com.intellij.codeInsight.lookup.LookupElementBuilder
+import com.intellij.openapi.project.DumbService
 import com.intellij.openapi.util.TextRange
 import com.intellij.psi.*
 import com.intellij.psi.impl.source.resolve.ResolveCache
-import org.intellij.prisma.lang.psi.PrismaElementFactory
-import org.intellij.prisma.lang.psi.PrismaNamedElement
-import org.intellij.prisma.lang.psi.PrismaReferenceElement
-import org.intellij.prisma.lang.psi.PrismaTypeOwner
+import com.intellij.util.Processor
+import org.intellij.prisma.lang.psi.*
+import org.intellij.prisma.lang.psi.stubs.PrismaEntityDeclarationIndex
 import org.intellij.prisma.lang.types.typeText
 
 abstract class PrismaReference(
@@ -74,9 +74,35 @@ abstract class PrismaReference(
     element: PsiElement,
   ): Boolean {
     val file = element.containingFile
+    if (processor is PrismaResolveProcessor && file is PrismaFile) {
+      for (declaration in file.findEntityDeclarations(processor.name)) {
+        if (!processor.execute(declaration, state)) return false
+      }
+      return true
+    }
     return file.processDeclarations(processor, state, null, element)
   }
 
+  /**
+   * Processes entity declarations of the other files of the schema, see [PrismaSchemaScope].
+   */
+  protected fun processSchemaDeclarations(
+    processor: PrismaProcessor,
+    state: ResolveState,
+    element: PsiElement,
+  ): Boolean {
+    val project = element.project
+    if (DumbService.isDumb(project)) return true
+    val scope = PrismaSchemaScope.getOtherSchemaFilesScope(element.containingFile) ?: return true
+    val indexProcessor = Processor<PrismaEntityDeclaration> { processor.execute(it, state) }
+    return if (processor is PrismaResolveProcessor) {
+      PrismaEntityDeclarationIndex.processDeclarations(processor.name, project, scope, indexProcessor)
+    }
+    else {
+      PrismaEntityDeclarationIndex.processAllDeclarations(project, scope, indexProcessor)
+    }
+  }
+
   override fun handleElementRename(newElementName: String): PsiElement {
     val referenceElement = element as? PrismaReferenceElement
     if (referenceElement != null) {
@@ -0,0 +1,42 @@
+package org.intellij.prisma.lang.resolve
+
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.psi.PsiFile
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.search.GlobalSearchScopesCore
+import org.intellij.prisma.lang.PrismaFileType
+
+/**
+ * A schema may be split into several files in a folder (and its subfolders), see `prismaSchemaFolder`.
+ * The schema folder is the topmost folder of the file which still contains schema files, so that files in subfolders
+ * see the declarations of their parent folders and vice versa.
+ */
+object PrismaSchemaScope {
+  /**
+   * @return the scope of the other files of the schema containing the file, or null if the file is not on the disk
+   */
+  fun getOtherSchemaFilesScope(file: PsiFile): GlobalSearchScope? {
+    val virtualFile = file.originalFile.virtualFile ?: return null
+    val root = getSchemaRoot(virtualFile) ?: return null
+    val project = file.project
+    val scope = GlobalSearchScope.getScopeRestrictedByFileTypes(
+      GlobalSearchScopesCore.directoryScope(project, root, true),
+      PrismaFileType
+    )
+    return scope.intersectWith(GlobalSearchScope.notScope(GlobalSearchScope.fileScope(project, virtualFile)))
+  }
+
+  private fun getSchemaRoot(file: VirtualFile): VirtualFile? {
+    var dir = file.parent ?: return null
+    while (true) {
+      val parent = dir.parent ?: return dir
+      if (parent.children.none { isSchemaFile(it) }) {
+        return dir
+      }
+      dir = parent
+    }
+  }
+
+  private fun isSchemaFile(file: VirtualFile): Boolean =
+    !file.isDirectory && file.extension == PrismaFileType.defaultExtension
+}
@@ -16,7 +16,8 @@ class PrismaTypeNameReference(
     state: ResolveState,
     element: PsiElement,
   ) {
-    processFileDeclarations(processor, state, element)
+    if (!processFileDeclarations(processor, state, element)) return
+    processSchemaDeclarations(processor, state, element)
   }
 
   companion object {
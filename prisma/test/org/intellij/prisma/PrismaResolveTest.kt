@@ -1,5 +1,6 @@
 package org.intellij.prisma
 
+import com.intellij.psi.impl.source.PsiFileImpl
 import com.intellij.psi.util.PsiTreeUtil
 import junit.framework.TestCase
 import org.intellij.prisma.lang.psi.PrismaNamedElement
@@ -148,6 +149,27 @@ class PrismaResolveTest : PrismaTestCase() {
         """.trimIndent())
   }
 
+  fun testTypeReferenceFromOtherSchemaFile() {
+    val user = myFixture.addFileToProject("schema/models/user.prisma", """
+            model User {
+              id    Int     @id @default(autoincrement())
+            }
+        """.trimIndent())
+    myFixture.addFileToProject("other/user.prisma", "model User {}")
+    val file = myFixture.addFileToProject("schema/post.prisma", """
+            model Post {
+              id        Int      @id @default(autoincrement())
+              author    User?    @relation(fields: [authorId], references: [id])
+            }
+        """.trimIndent())
+    myFixture.configureFromExistingVirtualFile(file.virtualFile)
+    myFixture.editor.caretModel.moveToOffset(file.text.indexOf("User?"))
+
+    val resolve = file.findReferenceAt(myFixture.caretOffset)?.resolve()
+    TestCase.assertFalse((user as PsiFileImpl).isContentsLoaded)
+    TestCase.assertEquals(PsiTreeUtil.findChildOfType(user, PrismaNamedElement::class.java), resolve)
+  }
+
   private fun checkWithTarget(source: String): PrismaNamedElement {
     val targetOffset = findExpectedTargetOffset(source)
     val text = source.replace(TARGET, "")
@@ -0,0 +1,49 @@
+package org.intellij.prisma.completion
+
+import com.intellij.testFramework.PlatformTestUtil
+import org.intellij.prisma.ide.schema.PrismaSchemaEvaluationContext
+import org.intellij.prisma.ide.schema.PrismaSchemaProvider
+import org.intellij.prisma.lang.PrismaFileType
+
+class PrismaCompletionPerformanceTest : PrismaCompletionTestBase() {
+  fun testSchemaIsEvaluatedOncePerDatasource() {
+    myFixture.configureByText(PrismaFileType, largeSchema(1))
+    val context = PrismaSchemaEvaluationContext.forElement(myFixture.file.findElementAt(myFixture.caretOffset))
+    assertSame(PrismaSchemaProvider.getEvaluatedSchema(context), PrismaSchemaProvider.getEvaluatedSchema(context))
+    assertSame(PrismaSchemaProvider.getEvaluatedSchema(context),
+               PrismaSchemaProvider.getEvaluatedSchema(PrismaSchemaEvaluationContext.forElement(myFixture.file)))
+  }
+
+  fun testFieldAttributesCompletionPerformance() {
+    myFixture.configureByText(PrismaFileType, largeSchema(500))
+
+    withoutAutoCompletion {
+      PlatformTestUtil.newPerformanceTest(getTestName(false)) {
+        repeat(10) {
+          val lookupElements = myFixture.completeBasic()
+          assertTrue(lookupElements.strings.contains("@db"))
+          myFixture.lookup?.hideLookup(true)
+        }
+      }.start()
+    }
+  }
+
+  private fun largeSchema(modelCount: Int): String = buildString {
+    append("datasource db {\n  provider = \"postgresql\"\n  url      = env(\"DATABASE_URL\")\n}\n\n")
+    for (i in 0 until modelCount) {
+      append("model Model$i {\n")
+      append("  id        Int      @id @default(autoincrement())\n")
+      append("  name      String   @unique @db.VarChar(255)\n")
+      append("  createdAt DateTime @default(now())\n")
+      if (i > 0) {
+        append("  parentId  Int\n")
+        append("  parent    Model${i - 1} @relation(\"Rel$i\", fields: [parentId], references: [id])\n")
+      }
+      if (i < modelCount - 1) {
+        append("  children  Model${i + 1}[] @relation(\"Rel${i + 1}\")\n")
+      }
+      append("\n  @@index([name])\n}\n\n")
+    }
+    append("model Target {\n  id Int @<caret>\n}\n")
+  }
+}
@@ -46,6 +46,23 @@ class PrismaTypesCompletionTest : PrismaCompletionTestBase() {
     assertContainsElements(lookupElements.strings, "User", "Lang", "Ty", "M")
   }
 
+  fun testTypeDeclarationsFromOtherSchemaFiles() {
+    myFixture.addFileToProject("schema/user.prisma", "model User {}")
+    myFixture.addFileToProject("schema/enums/lang.prisma", "enum Lang {}")
+    myFixture.addFileToProject("other/other.prisma", "model Other {}")
+    val file = myFixture.addFileToProject("schema/m.prisma", """
+                model M {
+                  language 
+                }
+            """.trimIndent())
+    myFixture.configureFromExistingVirtualFile(file.virtualFile)
+    myFixture.editor.caretModel.moveToOffset(file.text.indexOf("language ") + "language ".length)
+
+    val lookupElements = withoutAutoCompletion { myFixture.completeBasic() }
+    assertContainsElements(lookupElements.strings, "User", "Lang", "M")
+    assertDoesntContain(lookupElements.strings, "Other")
+  }
+
   fun testNoDecimalInMongo() {
     val lookupElements = getLookupElements(
       """
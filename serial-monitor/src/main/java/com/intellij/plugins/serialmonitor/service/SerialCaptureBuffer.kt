@@ -0,0 +1,74 @@
+package com.intellij.plugins.serialmonitor.service
+
+import java.util.concurrent.atomic.AtomicLong
+import kotlin.math.min
+
+/**
+ * Bounded ring buffer between the serial port reader thread and the consumers of the data.
+ *
+ * The port reader must never block, so [offer] drops what does not fit and counts it in [droppedBytes].
+ * The consumer periodically takes everything accumulated so far with [drain].
+ */
+class SerialCaptureBuffer(capacity: Int) {
+
+  private val buffer = ByteArray(capacity)
+  private val lock = Object()
+  private var head = 0
+  private var size = 0
+
+  private val received = AtomicLong()
+  private val dropped = AtomicLong()
+
+  val receivedBytes: Long get() = received.get()
+  val droppedBytes: Long get() = dropped.get()
+
+  /**
+   * Adds as many bytes as fit into the buffer without waiting.
+   * @return false if some bytes were dropped
+   */
+  fun offer(data: ByteArray): Boolean {
+    received.addAndGet(data.size.toLong())
+    synchronized(lock) {
+      val length = min(data.size, buffer.size - size)
+      write(data, 0, length)
+      if (length < data.size) {
+        dropped.addAndGet((data.size - length).toLong())
+        return false
+      }
+      return true
+    }
+  }
+
+  /**
+   * Removes and returns all buffered bytes, or null if the buffer is empty.
+   */
+  fun drain(): ByteArray? {
+    synchronized(lock) {
+      if (size == 0) return null
+      val result = ByteArray(size)
+      val first = min(size, buffer.size - head)
+      System.arraycopy(buffer, head, result, 0, first)
+      System.arraycopy(buffer, 0, result, first, size - first)
+      head = 0
+      size = 0
+      return result
+    }
+  }
+
+  fun clear() {
+    synchronized(lock) {
+      head = 0
+      size = 0
+    }
+    received.set(0)
+    dropped.set(0)
+  }
+
+  private fun write(data: ByteArray, offset: Int, length: Int) {
+    val tail = (head + size) % buffer.size
+    val first = min(length, buffer.size - tail)
+    System.arraycopy(data, offset, buffer, tail, first)
+    System.arraycopy(data, offset + first, buffer, 0, length - first)
+    size += length
+  }
+}
@@ -0,0 +1,55 @@
+package com.intellij.plugins.serialmonitor.service
+
+import java.io.Closeable
+import java.io.IOException
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardOpenOption.*
+import java.util.function.Consumer
+
+/**
+ * Raw bytes of a serial session spooled to a file.
+ *
+ * Received bytes are flushed to the consoles in batches, so each batch is appended with a single channel write.
+ * The file never contains anything but the data written so far, even if it was not closed properly.
+ */
+class SerialCaptureFile @Throws(IOException::class) constructor(val path: Path) : Closeable {
+
+  private val channel: FileChannel = FileChannel.open(path, CREATE, TRUNCATE_EXISTING, WRITE)
+
+  var length: Long = 0
+    private set
+
+  @Throws(IOException::class)
+  fun write(data: ByteArray) {
+    val buffer = ByteBuffer.wrap(data)
+    while (buffer.hasRemaining()) {
+      channel.write(buffer)
+    }
+    length += data.size
+  }
+
+  @Throws(IOException::class)
+  override fun close() {
+    channel.close()
+  }
+
+  companion object {
+    /**
+     * Reads a capture file and passes its content to the consumer in chunks of at most [chunkSize] bytes.
+     */
+    @Throws(IOException::class)
+    fun replay(path: Path, chunkSize: Int, consumer: Consumer<ByteArray>) {
+      Files.newInputStream(path).use { input ->
+        val chunk = ByteArray(chunkSize)
+        while (true) {
+          val read = input.readNBytes(chunk, 0, chunkSize)
+          if (read == 0) break
+          consumer.accept(chunk.copyOf(read))
+        }
+      }
+    }
+  }
+}
@@ -3,6 +3,7 @@ package com.intellij.plugins.serialmonitor.service
 import com.intellij.openapi.Disposable
 import com.intellij.openapi.application.ApplicationManager
 import com.intellij.openapi.components.Service
+import com.intellij.openapi.diagnostic.logger
 import com.intellij.openapi.util.Disposer
 import com.intellij.openapi.util.NlsSafe
 import com.intellij.plugins.serialmonitor.Parity
@@ -13,19 +14,27 @@ import com.intellij.plugins.serialmonitor.service.SerialPortsListener.Companion.
 import com.intellij.plugins.serialmonitor.ui.SerialMonitorBundle
 import com.intellij.util.ConcurrencyUtil
 import com.intellij.util.application
+import com.intellij.util.concurrency.AppExecutorUtil
 import com.intellij.util.concurrency.annotations.RequiresBackgroundThread
 import jssc.SerialPort
 import jssc.SerialPort.*
 import jssc.SerialPortEventListener
 import jssc.SerialPortException
 import jssc.SerialPortList
+import java.io.IOException
+import java.nio.file.Path
 import java.util.*
 import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ScheduledFuture
 import java.util.concurrent.TimeUnit
 import java.util.function.Consumer
 import kotlin.Comparator
 
+private const val CAPTURE_BUFFER_SIZE = 8 * 1024 * 1024
+private const val FLUSH_PERIOD_MS = 33L // ~30 frames per second
+private const val REPLAY_CHUNK_SIZE = 64 * 1024
+
 @Service
 class SerialPortService : Disposable {
 
@@ -102,8 +111,29 @@ class SerialPortService : Disposable {
 
   inner class SerialConnection(val portName: @NlsSafe String) : Disposable {
 
+    /**
+     * Receives the data in batches, at most once per [FLUSH_PERIOD_MS], on a pooled thread.
+     */
+    @Volatile
     var dataListener: Consumer<ByteArray>? = null
 
+    /**
+     * Decouples the port reader thread from the consumers, see [receivedBytes] and [droppedBytes].
+     */
+    private val captureBuffer = SerialCaptureBuffer(CAPTURE_BUFFER_SIZE)
+
+    /**
+     * Drains [captureBuffer] while the port is connected.
+     */
+    @Volatile
+    private var flusher: ScheduledFuture<*>? = null
+
+    private val captureLock = Object()
+    private var captureFile: SerialCaptureFile? = null
+
+    val receivedBytes: Long get() = captureBuffer.receivedBytes
+    val droppedBytes: Long get() = captureBuffer.droppedBytes
+
     @Volatile
     private var port: SerialPort? = null
 
@@ -114,6 +144,10 @@ class SerialPortService : Disposable {
 
     override fun dispose() {
       closeSilently(true)
+      // the asynchronous final flush may come too late: deliver the last bytes before recording stops and the listener goes away
+      flush()
+      dataListener = null
+      stopRecording()
       connections.remove(portName, this)
       application.executeOnPooledThread(::rescanPorts)
     }
@@ -137,6 +171,7 @@ class SerialPortService : Disposable {
       finally {
         status = if (portAvailable) PortStatus.DISCONNECTED else PortStatus.UNAVAILABLE_DISCONNECTED
         port = null
+        stopFlusher()
         portMessageTopic().portsStatusChanged()
       }
     }
@@ -153,11 +188,95 @@ class SerialPortService : Disposable {
       if (event.eventType and MASK_RXCHAR != 0) {
         val readBytes = port?.readBytes()
         if (readBytes?.isNotEmpty() == true) {
-          dataListener?.accept(readBytes)
+          captureBuffer.offer(readBytes)
+        }
+      }
+    }
+
+    private fun startFlusher() {
+      flusher = AppExecutorUtil.getAppScheduledExecutorService()
+        .scheduleWithFixedDelay(::flush, FLUSH_PERIOD_MS, FLUSH_PERIOD_MS, TimeUnit.MILLISECONDS)
+    }
+
+    private fun stopFlusher() {
+      val stopped = flusher ?: return
+      flusher = null
+      stopped.cancel(false)
+      // deliver the bytes received right before the port was closed
+      AppExecutorUtil.getAppExecutorService().execute(::flush)
+    }
+
+    @Synchronized
+    private fun flush() {
+      val data = captureBuffer.drain() ?: return
+      synchronized(captureLock) {
+        try {
+          captureFile?.write(data)
+        }
+        catch (e: IOException) {
+          LOG.warn("Failed to write serial capture", e)
+          stopRecording()
+        }
+      }
+      dataListener?.accept(data)
+    }
+
+    fun isRecording(): Boolean = synchronized(captureLock) { captureFile != null }
+
+    /**
+     * Starts spooling all received bytes into a capture file, replacing its content.
+     */
+    @Throws(SerialMonitorException::class)
+    fun startRecording(path: Path) {
+      synchronized(captureLock) {
+        stopRecording()
+        try {
+          captureFile = SerialCaptureFile(path)
+        }
+        catch (e: IOException) {
+          throw SerialMonitorException(path.toString(), e)
         }
       }
     }
 
+    fun stopRecording() {
+      synchronized(captureLock) {
+        try {
+          captureFile?.close()
+        }
+        catch (e: IOException) {
+          LOG.warn("Failed to close serial capture", e)
+        }
+        finally {
+          captureFile = null
+        }
+      }
+    }
+
+    /**
+     * Feeds a previously recorded capture file to the [dataListener] as if it was received from the port.
+     * Replay is only possible while the port is disconnected, so it never mixes with live data.
+     * The data is passed to the listener directly on the calling thread, so nothing is dropped,
+     * and it is not counted in [receivedBytes].
+     */
+    @RequiresBackgroundThread
+    @Throws(SerialMonitorException::class)
+    fun replay(path: Path) {
+      if (status == PortStatus.CONNECTED || status == PortStatus.CONNECTING) {
+        throw SerialMonitorException(SerialMonitorBundle.message("serial.replay.port.connected"))
+      }
+      try {
+        SerialCaptureFile.replay(path, REPLAY_CHUNK_SIZE) { dataListener?.accept(it) }
+      }
+      catch (e: IOException) {
+        throw SerialMonitorException(path.toString(), e)
+      }
+    }
+
+    fun resetCounters() {
+      captureBuffer.clear()
+    }
+
     @RequiresBackgroundThread
     @Throws(SerialMonitorException::class)
     fun connect(baudRate: Int, bits: Int, stopBits: StopBits, parity: Parity, localEcho: Boolean) {
@@ -186,6 +305,7 @@ class SerialPortService : Disposable {
         newPort.setFlowControlMode(FLOWCONTROL_NONE)
         newPort.setRTS(false)
         port = newPort
+        startFlusher()
         SerialMonitorConnectCollector.logConnect(baudRate, true)
         status = PortStatus.CONNECTED
         portMessageTopic().portsStatusChanged()
@@ -209,9 +329,10 @@ class SerialPortService : Disposable {
     }
 
     fun write(data: ByteArray) {
-      port?.writeBytes(data)
+      val port = port ?: return
+      port.writeBytes(data)
       if (localEcho) {
-        dataListener?.accept(data)
+        captureBuffer.offer(data)
       }
     }
   }
@@ -220,5 +341,9 @@ class SerialPortService : Disposable {
     portWatcher.shutdown()
   }
 
+  private companion object {
+    private val LOG = logger<SerialPortService>()
+  }
+
 }
 
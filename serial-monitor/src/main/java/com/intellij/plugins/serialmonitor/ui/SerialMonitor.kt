@@ -24,7 +24,9 @@ import com.intellij.ui.components.JBLoadingPanel
 import com.intellij.uiDesigner.core.GridConstraints
 import com.intellij.uiDesigner.core.GridConstraints.*
 import com.intellij.uiDesigner.core.GridLayoutManager
+import com.intellij.ui.components.JBLabel
 import com.intellij.util.ui.JBUI
+import com.intellij.util.ui.TimerUtil
 import java.awt.Component
 import java.awt.event.ActionListener
 import java.awt.event.KeyAdapter
@@ -32,17 +34,21 @@ import java.awt.event.KeyEvent
 import javax.swing.BorderFactory
 import javax.swing.JButton
 import javax.swing.JComponent
+import javax.swing.Timer
 
 private const val HISTORY_KEY = "serialMonitor.commands"
+private const val COUNTERS_UPDATE_MS = 500
 
 class SerialMonitor(private val project: Project,
                     name: @NlsSafe String,
                     val portProfile: SerialPortProfile) : Disposable, SerialPortsListener {
-  private val myPanel: JBLoadingPanel = JBLoadingPanel(GridLayoutManager(2, 4, JBUI.insets(5), -1, -1), this, 300)
+  private val myPanel: JBLoadingPanel = JBLoadingPanel(GridLayoutManager(3, 4, JBUI.insets(5), -1, -1), this, 300)
   private val mySend: JButton
   private val myCommand: TextFieldWithStoredHistory
   private val myLineEnd: JBCheckBox
   private val duplexConsoleView: JeditermSerialMonitorDuplexConsoleView
+  private val myCounters: JBLabel
+  private val myCountersTimer: Timer
 
   fun getStatus(): PortStatus = duplexConsoleView.status
 
@@ -80,7 +86,14 @@ class SerialMonitor(private val project: Project,
     duplexConsoleView.connect(false)
   }
 
-  override fun dispose() {}
+  override fun dispose() {
+    myCountersTimer.stop()
+  }
+
+  private fun updateCounters() {
+    val connection = duplexConsoleView.connection
+    myCounters.text = SerialMonitorBundle.message("label.capture.counters", connection.receivedBytes, connection.droppedBytes)
+  }
 
   fun connect() {
     duplexConsoleView.connect(true)
@@ -118,7 +131,7 @@ class SerialMonitor(private val project: Project,
 
     ApplicationManager.getApplication().messageBus.connect().subscribe(SerialPortsListener.SERIAL_PORTS_TOPIC, this)
     myPanel.add(toolbar.component,
-                GridConstraints(0, 0, 2, 1, ANCHOR_NORTH, FILL_VERTICAL, SIZEPOLICY_FIXED, SIZE_POLICY_RESIZEABLE, null, null, null))
+                GridConstraints(0, 0, 3, 1, ANCHOR_NORTH, FILL_VERTICAL, SIZEPOLICY_FIXED, SIZE_POLICY_RESIZEABLE, null, null, null))
     myPanel.add(myCommand,
                 GridConstraints(0, 1, 1, 1, ANCHOR_NORTHWEST, FILL_HORIZONTAL, SIZE_POLICY_RESIZEABLE, SIZEPOLICY_FIXED, null, null, null))
     myPanel.add(myLineEnd, GridConstraints(0, 2, 1, 1, ANCHOR_CENTER, FILL_NONE, SIZEPOLICY_FIXED,
@@ -127,6 +140,12 @@ class SerialMonitor(private val project: Project,
                 GridConstraints(0, 3, 1, 1, ANCHOR_NORTHEAST, FILL_NONE, SIZEPOLICY_FIXED, SIZEPOLICY_FIXED, null, null, null))
     myPanel.add(consoleComponent,
                 GridConstraints(1, 1, 1, 3, ANCHOR_NORTHWEST, FILL_BOTH, SIZE_POLICY_RESIZEABLE, SIZE_POLICY_RESIZEABLE, null, null, null))
+    myCounters = JBLabel().apply { foreground = JBUI.CurrentTheme.ContextHelp.FOREGROUND }
+    myPanel.add(myCounters,
+                GridConstraints(2, 1, 1, 3, ANCHOR_WEST, FILL_NONE, SIZEPOLICY_FIXED, SIZEPOLICY_FIXED, null, null, null))
+    myCountersTimer = TimerUtil.createNamedTimer("Serial Monitor Counters", COUNTERS_UPDATE_MS) { updateCounters() }
+    myCountersTimer.start()
+    updateCounters()
     duplexConsoleView.addSwitchListener(this::hideSendControls, this)
     hideSendControls(duplexConsoleView.isPrimaryConsoleEnabled)
   }
@@ -0,0 +1,43 @@
+package com.intellij.plugins.serialmonitor.ui.actions
+
+import com.intellij.icons.AllIcons
+import com.intellij.openapi.actionSystem.ActionUpdateThread
+import com.intellij.openapi.actionSystem.AnActionEvent
+import com.intellij.openapi.fileChooser.FileChooserFactory
+import com.intellij.openapi.fileChooser.FileSaverDescriptor
+import com.intellij.openapi.project.DumbAwareToggleAction
+import com.intellij.plugins.serialmonitor.SerialMonitorException
+import com.intellij.plugins.serialmonitor.ui.SerialMonitor
+import com.intellij.plugins.serialmonitor.ui.SerialMonitorBundle
+import com.intellij.plugins.serialmonitor.ui.console.JeditermSerialMonitorDuplexConsoleView
+
+/**
+ * Spools the raw bytes received from the port into a capture file, which can be replayed later with [ReplayCaptureAction].
+ */
+class RecordCaptureAction(private val consoleView: JeditermSerialMonitorDuplexConsoleView) :
+  DumbAwareToggleAction(SerialMonitorBundle.messagePointer("action.record.capture.text"),
+                        SerialMonitorBundle.messagePointer("action.record.capture.description"),
+                        AllIcons.Ide.Macro.Recording_1) {
+
+  override fun getActionUpdateThread(): ActionUpdateThread = ActionUpdateThread.BGT
+
+  override fun isSelected(e: AnActionEvent): Boolean = consoleView.connection.isRecording()
+
+  override fun setSelected(e: AnActionEvent, state: Boolean) {
+    if (!state) {
+      consoleView.connection.stopRecording()
+      return
+    }
+    val descriptor = FileSaverDescriptor(SerialMonitorBundle.message("dialog.title.save.capture"), "", CAPTURE_EXTENSION)
+    val target = FileChooserFactory.getInstance().createSaveFileDialog(descriptor, e.project)
+                   .save("${consoleView.portProfile.portName.substringAfterLast('/')}.$CAPTURE_EXTENSION") ?: return
+    try {
+      consoleView.connection.startRecording(target.file.toPath())
+    }
+    catch (sme: SerialMonitorException) {
+      SerialMonitor.errorNotification(sme.message!!, e.project)
+    }
+  }
+}
+
+internal const val CAPTURE_EXTENSION = "serialcapture"
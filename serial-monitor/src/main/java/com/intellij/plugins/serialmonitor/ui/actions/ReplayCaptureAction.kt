@@ -0,0 +1,47 @@
+package com.intellij.plugins.serialmonitor.ui.actions
+
+import com.intellij.icons.AllIcons
+import com.intellij.openapi.actionSystem.ActionUpdateThread
+import com.intellij.openapi.actionSystem.AnActionEvent
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.fileChooser.FileChooser
+import com.intellij.openapi.fileChooser.FileChooserDescriptorFactory
+import com.intellij.openapi.project.DumbAwareAction
+import com.intellij.openapi.vfs.VfsUtilCore
+import com.intellij.plugins.serialmonitor.SerialMonitorException
+import com.intellij.plugins.serialmonitor.service.PortStatus
+import com.intellij.plugins.serialmonitor.ui.SerialMonitor
+import com.intellij.plugins.serialmonitor.ui.SerialMonitorBundle
+import com.intellij.plugins.serialmonitor.ui.console.JeditermSerialMonitorDuplexConsoleView
+
+/**
+ * Shows the content of a capture file written by [RecordCaptureAction] in the console, as if it was received from the port.
+ */
+class ReplayCaptureAction(private val consoleView: JeditermSerialMonitorDuplexConsoleView) :
+  DumbAwareAction(SerialMonitorBundle.messagePointer("action.replay.capture.text"),
+                  SerialMonitorBundle.messagePointer("action.replay.capture.description"),
+                  AllIcons.Actions.Rerun) {
+
+  override fun getActionUpdateThread(): ActionUpdateThread = ActionUpdateThread.BGT
+
+  override fun update(e: AnActionEvent) {
+    val connection = consoleView.connection
+    e.presentation.isEnabled = !connection.isRecording() &&
+                               connection.getStatus() != PortStatus.CONNECTED && connection.getStatus() != PortStatus.CONNECTING
+  }
+
+  override fun actionPerformed(e: AnActionEvent) {
+    val descriptor = FileChooserDescriptorFactory.createSingleFileDescriptor(CAPTURE_EXTENSION)
+      .withTitle(SerialMonitorBundle.message("dialog.title.replay.capture"))
+    val file = FileChooser.chooseFile(descriptor, e.project, null) ?: return
+    val path = VfsUtilCore.virtualToIoFile(file).toPath()
+    ApplicationManager.getApplication().executeOnPooledThread {
+      try {
+        consoleView.connection.replay(path)
+      }
+      catch (sme: SerialMonitorException) {
+        SerialMonitor.errorNotification(sme.message!!, e.project)
+      }
+    }
+  }
+}
@@ -0,0 +1,227 @@
+package com.intellij.plugins.serialmonitor.ui.console
+
+import com.intellij.execution.filters.Filter
+import com.intellij.execution.filters.HyperlinkInfo
+import com.intellij.execution.process.ProcessHandler
+import com.intellij.execution.ui.ConsoleView
+import com.intellij.execution.ui.ConsoleViewContentType
+import com.intellij.icons.AllIcons
+import com.intellij.idea.ActionsBundle
+import com.intellij.openapi.actionSystem.ActionUpdateThread
+import com.intellij.openapi.actionSystem.AnAction
+import com.intellij.openapi.actionSystem.AnActionEvent
+import com.intellij.openapi.actionSystem.ToggleAction
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.project.DumbAwareAction
+import com.intellij.openapi.project.DumbAwareToggleAction
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.ui.Messages
+import com.intellij.plugins.serialmonitor.ui.SerialMonitorBundle
+import com.intellij.ui.components.JBScrollPane
+import org.jetbrains.annotations.Nls
+import java.nio.charset.Charset
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.function.Supplier
+import javax.swing.Icon
+import javax.swing.JComponent
+
+private const val STORE_CAPACITY = 32L * 1024 * 1024
+private val HEX_PATTERN = Regex("([0-9a-fA-F]{2}\\s*)+")
+
+/**
+ * Hex view of the session. Received bytes are kept as is in a bounded [SerialByteStore] and only the visible rows are rendered,
+ * so the memory used by the view does not grow with the length of the session.
+ *
+ * @author Dmitry_Cherkas
+ */
+class HexConsoleView(private val project: Project) : ConsoleView {
+
+  private val store = SerialByteStore(STORE_CAPACITY)
+  private val viewer = HexViewerComponent(store)
+  private val scrollPane = JBScrollPane(viewer)
+  private val repaintScheduled = AtomicBoolean()
+
+  @Volatile
+  private var paused = false
+
+  private var stickToEnd = true
+  private var lastMatch = -1L
+
+  var charset: Charset = StandardCharsets.US_ASCII
+
+  fun output(dataChunk: ByteArray) {
+    if (paused) return
+    store.append(dataChunk)
+    // chunks arrive already batched, but do not queue more than one update anyway
+    if (repaintScheduled.compareAndSet(false, true)) {
+      ApplicationManager.getApplication().invokeLater {
+        repaintScheduled.set(false)
+        viewer.revalidate()
+        viewer.repaint()
+        if (stickToEnd) scrollToEnd()
+      }
+    }
+  }
+
+  private fun scrollToEnd() {
+    viewer.validate()
+    viewer.scrollRectToVisible(viewer.rowBounds(store.endOffset - 1))
+  }
+
+  private fun isAtEnd(): Boolean {
+    val visible = viewer.visibleRect
+    return visible.y + visible.height >= viewer.height
+  }
+
+  private fun showOffset(offset: Long, length: Int) {
+    stickToEnd = false
+    viewer.highlight(offset, length)
+    viewer.scrollRectToVisible(viewer.rowBounds(offset))
+  }
+
+  private fun toPattern(text: String): ByteArray {
+    if (viewer.hexMode && HEX_PATTERN.matches(text)) {
+      return text.filterNot { it.isWhitespace() }.chunked(2).map { it.toInt(16).toByte() }.toByteArray()
+    }
+    return text.toByteArray(charset)
+  }
+
+  override fun dispose() {
+  }
+
+  override fun getComponent(): JComponent = scrollPane
+  override fun getPreferredFocusableComponent(): JComponent = viewer
+
+  override fun print(text: String, contentType: ConsoleViewContentType) {
+    output(text.toByteArray(charset))
+  }
+
+  override fun clear() {
+    store.clear()
+    lastMatch = -1
+    stickToEnd = true
+    viewer.highlight(-1, 0)
+    viewer.revalidate()
+    // the size may stay the same, then revalidation alone does not repaint the old rows
+    viewer.repaint()
+  }
+
+  override fun scrollTo(offset: Int) {
+    showOffset(store.startOffset + offset, 0)
+  }
+
+  override fun attachToProcess(processHandler: ProcessHandler) {
+    throw IllegalArgumentException("Should not be called")
+  }
+
+  override fun setOutputPaused(value: Boolean) {
+    paused = value
+  }
+
+  override fun isOutputPaused(): Boolean = paused
+
+  override fun hasDeferredOutput(): Boolean = false
+
+  override fun performWhenNoDeferredOutput(runnable: Runnable) {
+    runnable.run()
+  }
+
+  override fun setHelpId(helpId: String) {}
+
+  override fun addMessageFilter(filter: Filter) {}
+
+  override fun printHyperlink(hyperlinkText: String, info: HyperlinkInfo?) {
+    print(hyperlinkText, ConsoleViewContentType.NORMAL_OUTPUT)
+  }
+
+  override fun getContentSize(): Int = (store.endOffset - store.startOffset).toInt()
+
+  override fun canPause(): Boolean = true
+
+  override fun createConsoleActions(): Array<AnAction> = arrayOf(ToggleHexAction(), FindAction(), GoToOffsetAction())
+
+  override fun allowHeavyFilters() {}
+
+  private abstract inner class HexViewAction(text: Supplier<@Nls String>, icon: Icon) : DumbAwareAction(text, text, icon) {
+    override fun getActionUpdateThread(): ActionUpdateThread = ActionUpdateThread.EDT
+
+    override fun update(e: AnActionEvent) {
+      e.presentation.isEnabledAndVisible = scrollPane.isShowing
+    }
+  }
+
+  private inner class FindAction : HexViewAction(SerialMonitorBundle.messagePointer("action.hex.find.text"), AllIcons.Actions.Find) {
+    override fun actionPerformed(e: AnActionEvent) {
+      val text = Messages.showInputDialog(project, SerialMonitorBundle.message("dialog.message.hex.find"),
+                                          SerialMonitorBundle.message("action.hex.find.text"), null) ?: return
+      val pattern = toPattern(text)
+      // repeating the search continues after the previous match
+      var offset = store.indexOf(pattern, lastMatch + 1)
+      if (offset < 0 && lastMatch >= 0) {
+        offset = store.indexOf(pattern, store.startOffset)
+      }
+      if (offset < 0) {
+        Messages.showInfoMessage(project, SerialMonitorBundle.message("dialog.message.hex.not.found", text),
+                                 SerialMonitorBundle.message("action.hex.find.text"))
+        return
+      }
+      lastMatch = offset
+      showOffset(offset, pattern.size)
+    }
+  }
+
+  private inner class GoToOffsetAction : HexViewAction(SerialMonitorBundle.messagePointer("action.hex.go.to.offset.text"),
+                                                       AllIcons.Actions.Forward) {
+    override fun actionPerformed(e: AnActionEvent) {
+      val text = Messages.showInputDialog(project, SerialMonitorBundle.message("dialog.message.hex.offset"),
+                                          SerialMonitorBundle.message("action.hex.go.to.offset.text"), null)?.trim() ?: return
+      val offset = if (text.startsWith("0x", ignoreCase = true)) text.substring(2).toLongOrNull(16) else text.toLongOrNull()
+      if (offset == null || offset < store.startOffset || offset >= store.endOffset) {
+        Messages.showErrorDialog(project, SerialMonitorBundle.message("dialog.message.hex.offset.invalid", store.startOffset, store.endOffset),
+                                 SerialMonitorBundle.message("action.hex.go.to.offset.text"))
+        return
+      }
+      showOffset(offset, 1)
+    }
+  }
+
+  private inner class ToggleHexAction : DumbAwareToggleAction(SerialMonitorBundle.messagePointer("action.hex.ascii.text"),
+                                                              SerialMonitorBundle.messagePointer("action.hex.ascii.text"),
+                                                              AllIcons.Actions.ShowAsTree) {
+    override fun getActionUpdateThread(): ActionUpdateThread = ActionUpdateThread.EDT
+
+    override fun update(e: AnActionEvent) {
+      super.update(e)
+      e.presentation.isEnabledAndVisible = scrollPane.isShowing
+    }
+
+    override fun isSelected(e: AnActionEvent): Boolean = !viewer.hexMode
+
+    override fun setSelected(e: AnActionEvent, state: Boolean) {
+      val atEnd = isAtEnd()
+      viewer.hexMode = !state
+      viewer.validate()
+      if (atEnd) scrollToEnd() else if (lastMatch >= 0) viewer.scrollRectToVisible(viewer.rowBounds(lastMatch))
+    }
+  }
+
+  val scrollToTheEndToolbarAction = object : ToggleAction(
+    ActionsBundle.messagePointer("action.EditorConsoleScrollToTheEnd.text"),
+    ActionsBundle.messagePointer("action.EditorConsoleScrollToTheEnd.text"),
+    AllIcons.RunConfigurations.Scroll_down) {
+    override fun getActionUpdateThread(): ActionUpdateThread = ActionUpdateThread.EDT
+
+    override fun isSelected(e: AnActionEvent): Boolean = stickToEnd
+
+    override fun update(e: AnActionEvent) {
+      super.update(e)
+      e.presentation.isEnabledAndVisible = scrollPane.isShowing
+    }
+
+    override fun setSelected(e: AnActionEvent, state: Boolean) {
+      stickToEnd = state
+      if (state) scrollToEnd()
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package com.intellij.plugins.serialmonitor.ui.console
+
+import com.intellij.openapi.editor.colors.EditorColorsManager
+import com.intellij.openapi.editor.colors.EditorColors
+import com.intellij.openapi.editor.colors.EditorFontType
+import com.intellij.ui.JBColor
+import java.awt.Dimension
+import java.awt.Graphics
+import java.awt.Rectangle
+import javax.swing.JComponent
+import javax.swing.Scrollable
+import javax.swing.SwingConstants
+import kotlin.math.max
+import kotlin.math.min
+
+private const val HEX_BYTES_PER_ROW = 16
+private const val ASCII_BYTES_PER_ROW = 64
+private val HEX_CHARS = "0123456789abcdef".toCharArray()
+
+/**
+ * Viewer of a [SerialByteStore] which paints only the rows in the visible area.
+ *
+ * Nothing is converted to text ahead of time, so switching between hex and ASCII rendering,
+ * jumping to an offset or highlighting a search result does not depend on the size of the history.
+ */
+class HexViewerComponent(private val store: SerialByteStore) : JComponent(), Scrollable {
+
+  var hexMode: Boolean = true
+    set(value) {
+      field = value
+      revalidate()
+      repaint()
+    }
+
+  private var highlightStart = -1L
+  private var highlightEnd = -1L
+
+  private val bytesPerRow: Int get() = if (hexMode) HEX_BYTES_PER_ROW else ASCII_BYTES_PER_ROW
+
+  init {
+    font = EditorColorsManager.getInstance().globalScheme.getFont(EditorFontType.PLAIN)
+    isOpaque = true
+  }
+
+  private val lineHeight: Int get() = getFontMetrics(font).height
+
+  private val charWidth: Int get() = getFontMetrics(font).charWidth('0')
+
+  private val firstRow: Long get() = store.startOffset / bytesPerRow
+
+  private val rowCount: Long get() = (store.endOffset + bytesPerRow - 1) / bytesPerRow - firstRow
+
+  private fun rowChars(): Int = if (hexMode) 10 + bytesPerRow * 3 + bytesPerRow / 8 + 2 + bytesPerRow else 10 + bytesPerRow
+
+  override fun getPreferredSize(): Dimension {
+    val height = min(rowCount * lineHeight, Int.MAX_VALUE.toLong() / 2).toInt()
+    return Dimension(rowChars() * charWidth + 2 * charWidth, height)
+  }
+
+  fun highlight(offset: Long, length: Int) {
+    highlightStart = offset
+    highlightEnd = offset + length
+    repaint()
+  }
+
+  /**
+   * Area of the row containing the absolute offset, for scrolling it into view.
+   */
+  fun rowBounds(offset: Long): Rectangle {
+    val row = (offset / bytesPerRow - firstRow).coerceIn(0, max(rowCount - 1, 0))
+    return Rectangle(0, (row * lineHeight).toInt(), width, lineHeight)
+  }
+
+  override fun paintComponent(g: Graphics) {
+    val scheme = EditorColorsManager.getInstance().globalScheme
+    val clip = g.clipBounds ?: Rectangle(0, 0, width, height)
+    g.color = scheme.defaultBackground
+    g.fillRect(clip.x, clip.y, clip.width, clip.height)
+
+    g.font = font
+    val metrics = g.getFontMetrics(font)
+    val lineHeight = metrics.height
+    val charWidth = metrics.charWidth('0')
+    val firstRow = firstRow
+    val fromRow = clip.y / lineHeight
+    val toRow = min((clip.y + clip.height) / lineHeight + 1L, rowCount).toInt()
+    if (fromRow >= toRow) return
+
+    val bytesPerRow = bytesPerRow
+    val startOffset = (firstRow + fromRow) * bytesPerRow
+    val data = ByteArray((toRow - fromRow) * bytesPerRow)
+    // rows before the start of the store are partially evicted, read what is left
+    val skip = max(0L, store.startOffset - startOffset).toInt()
+    if (skip < data.size) {
+      store.read(startOffset + skip, data, skip, data.size - skip)
+    }
+    val end = store.endOffset
+    val line = CharArray(rowChars())
+    val selection = scheme.getColor(EditorColors.SELECTION_BACKGROUND_COLOR) ?: JBColor.YELLOW
+
+    for (row in fromRow until toRow) {
+      val rowOffset = (firstRow + row) * bytesPerRow
+      val dataStart = (row - fromRow) * bytesPerRow
+      val rowEnd = min(bytesPerRow.toLong(), end - rowOffset).toInt()
+      val y = row * lineHeight
+
+      if (highlightStart < rowOffset + bytesPerRow && highlightEnd > rowOffset) {
+        g.color = selection
+        val from = max(highlightStart - rowOffset, 0).toInt()
+        val to = min(highlightEnd - rowOffset, bytesPerRow.toLong()).toInt()
+        if (hexMode) {
+          g.fillRect(charWidth * (1 + hexColumn(from)), y, charWidth * (hexColumn(to - 1) - hexColumn(from) + 2), lineHeight)
+          g.fillRect(charWidth * (1 + asciiColumn(from)), y, charWidth * (to - from), lineHeight)
+        }
+        else {
+          g.fillRect(charWidth * (1 + 10 + from), y, charWidth * (to - from), lineHeight)
+        }
+      }
+
+      val length = formatRow(line, rowOffset, data, dataStart, max(0, rowEnd), skipBytes = max(0, skip - dataStart))
+      g.color = scheme.defaultForeground
+      g.drawChars(line, 0, length, charWidth, y + metrics.ascent)
+    }
+  }
+
+  private fun hexColumn(index: Int): Int = 10 + index * 3 + index / 8
+
+  private fun asciiColumn(index: Int): Int = hexColumn(bytesPerRow) + 2 + index
+
+  private fun formatRow(line: CharArray, rowOffset: Long, data: ByteArray, start: Int, count: Int, skipBytes: Int): Int {
+    line.fill(' ')
+    for (i in 0 until 8) {
+      line[7 - i] = HEX_CHARS[((rowOffset shr (i * 4)) and 0xf).toInt()]
+    }
+    for (i in 0 until count) {
+      val evicted = i < skipBytes
+      val b = data[start + i].toInt() and 0xff
+      if (hexMode) {
+        val column = hexColumn(i)
+        line[column] = if (evicted) ' ' else HEX_CHARS[b shr 4]
+        line[column + 1] = if (evicted) ' ' else HEX_CHARS[b and 0xf]
+        line[asciiColumn(i)] = if (evicted) ' ' else printable(b)
+      }
+      else {
+        line[10 + i] = if (evicted) ' ' else printable(b)
+      }
+    }
+    if (hexMode) {
+      line[asciiColumn(0) - 1] = '|'
+      return asciiColumn(bytesPerRow)
+    }
+    return 10 + count
+  }
+
+  // replace non-printable chars with dots
+  private fun printable(b: Int): Char = if (b in 0x20..0x7e) b.toChar() else '.'
+
+  override fun getPreferredScrollableViewportSize(): Dimension = preferredSize
+
+  override fun getScrollableUnitIncrement(visibleRect: Rectangle, orientation: Int, direction: Int): Int =
+    if (orientation == SwingConstants.VERTICAL) lineHeight else charWidth
+
+  override fun getScrollableBlockIncrement(visibleRect: Rectangle, orientation: Int, direction: Int): Int =
+    if (orientation == SwingConstants.VERTICAL) max(lineHeight, visibleRect.height - lineHeight) else visibleRect.width
+
+  override fun getScrollableTracksViewportWidth(): Boolean = false
+
+  override fun getScrollableTracksViewportHeight(): Boolean = false
+}
@@ -9,7 +9,6 @@ import com.intellij.openapi.actionSystem.*;
 import com.intellij.openapi.application.Application;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.editor.Editor;
-import com.intellij.openapi.editor.actions.ScrollToTheEndToolbarAction;
 import com.intellij.openapi.project.DumbAware;
 import com.intellij.openapi.project.DumbAwareAction;
 import com.intellij.openapi.project.Project;
@@ -22,12 +21,17 @@ import com.intellij.plugins.serialmonitor.ui.SerialMonitor;
 import com.intellij.plugins.serialmonitor.ui.SerialMonitorBundle;
 import com.intellij.plugins.serialmonitor.ui.actions.ConnectDisconnectAction;
 import com.intellij.plugins.serialmonitor.ui.actions.EditSettingsAction;
+import com.intellij.plugins.serialmonitor.ui.actions.RecordCaptureAction;
+import com.intellij.plugins.serialmonitor.ui.actions.ReplayCaptureAction;
 import com.intellij.ui.components.JBLoadingPanel;
+import com.intellij.util.containers.ContainerUtil;
 import icons.SerialMonitorIcons;
 import org.jetbrains.annotations.NotNull;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 
 /**
@@ -61,7 +65,7 @@ public class JeditermSerialMonitorDuplexConsoleView extends DuplexConsoleView<Je
       ApplicationManager.getApplication().getService(SerialPortService.class)
         .newConnection(portProfile.getPortName());
     JeditermConsoleView textConsoleView = new JeditermConsoleView(project, connection);
-    HexConsoleView hexConsoleView = new HexConsoleView(project, true);
+    HexConsoleView hexConsoleView = new HexConsoleView(project);
     JeditermSerialMonitorDuplexConsoleView consoleView =
       new JeditermSerialMonitorDuplexConsoleView(connection,
                                                  textConsoleView,
@@ -111,14 +115,19 @@ public class JeditermSerialMonitorDuplexConsoleView extends DuplexConsoleView<Je
   @Override
   public AnAction @NotNull [] createConsoleActions() {
 
-    return new AnAction[]{
+    List<AnAction> actions = new ArrayList<>(List.of(
       new ConnectDisconnectAction(this),
       mySwitchConsoleAction,
       getPrimaryConsoleView().getScrollToTheEndToolbarAction(),
-      new MyScrollToTheEndToolbarAction(getSecondaryConsoleView().getEditor()),
+      getSecondaryConsoleView().getScrollToTheEndToolbarAction(),
       new SerialPauseAction(),
-      new ClearAllAction(),
-      new EditSettingsAction(myName, this)};
+      new ClearAllAction()));
+    // search, jump to offset and hex/ASCII toggle, visible in the hex view only
+    ContainerUtil.addAll(actions, getSecondaryConsoleView().createConsoleActions());
+    actions.add(new RecordCaptureAction(this));
+    actions.add(new ReplayCaptureAction(this));
+    actions.add(new EditSettingsAction(myName, this));
+    return actions.toArray(AnAction.EMPTY_ARRAY);
   }
 
   @NotNull
@@ -140,10 +149,12 @@ public class JeditermSerialMonitorDuplexConsoleView extends DuplexConsoleView<Je
     try {
       if (doConnect) {
         myConnection.closeSilently(true);
+        myConnection.resetCounters();
         myCharset = Charset.availableCharsets().getOrDefault(myPortProfile.getEncoding(), StandardCharsets.US_ASCII);
         if (myConnection.getStatus() == PortStatus.DISCONNECTED || myConnection.getStatus() == PortStatus.READY) {
           // try to connect only when settings are known to be valid
           getPrimaryConsoleView().reconnect(getCharset(), myPortProfile.getNewLine(), myPortProfile.getLocalEcho());
+          getSecondaryConsoleView().setCharset(getCharset());
           myConnection.connect(myPortProfile.getBaudRate(), myPortProfile.getBits(), myPortProfile.getStopBits(),
                                myPortProfile.getParity(), myPortProfile.getLocalEcho());
         }
@@ -272,25 +283,6 @@ public class JeditermSerialMonitorDuplexConsoleView extends DuplexConsoleView<Je
     }
   }
 
-  private static class MyScrollToTheEndToolbarAction extends ScrollToTheEndToolbarAction {
-    private final Editor myEditor;
-
-    private MyScrollToTheEndToolbarAction(Editor editor) {
-      super(editor);
-      myEditor = editor;
-    }
-
-    @Override
-    public void update(@NotNull AnActionEvent e) {
-      if (myEditor.getComponent().isShowing()) {
-        super.update(e);
-      }
-      else {
-        e.getPresentation().setVisible(false);
-      }
-    }
-  }
-
   @Override
   public void dispose() {
     super.dispose();
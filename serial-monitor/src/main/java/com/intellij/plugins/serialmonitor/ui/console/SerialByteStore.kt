@@ -0,0 +1,111 @@
+package com.intellij.plugins.serialmonitor.ui.console
+
+import kotlin.math.min
+
+private const val CHUNK_SIZE = 64 * 1024
+
+/**
+ * Compact storage of the raw bytes of a session, kept as a list of fixed-size chunks.
+ *
+ * Offsets are absolute from the start of the session. When [capacity] is exceeded the oldest chunks are discarded,
+ * so the memory footprint stays the same however long the session runs, and [startOffset] moves forward.
+ * All methods are thread-safe, bytes are appended on a pooled thread and read on EDT.
+ */
+class SerialByteStore(private val capacity: Long) {
+
+  private val chunks = ArrayDeque<ByteArray>()
+  private val lock = Any()
+
+  // absolute offset of the first byte of the first chunk
+  private var firstChunkOffset = 0L
+
+  // number of bytes used in the last chunk
+  private var lastChunkSize = CHUNK_SIZE
+
+  val startOffset: Long get() = synchronized(lock) { firstChunkOffset }
+
+  val endOffset: Long get() = synchronized(lock) { endOffsetLocked() }
+
+  private fun endOffsetLocked(): Long =
+    if (chunks.isEmpty()) firstChunkOffset else firstChunkOffset + (chunks.size - 1).toLong() * CHUNK_SIZE + lastChunkSize
+
+  fun append(data: ByteArray) {
+    synchronized(lock) {
+      var offset = 0
+      while (offset < data.size) {
+        if (lastChunkSize == CHUNK_SIZE) {
+          chunks.addLast(ByteArray(CHUNK_SIZE))
+          lastChunkSize = 0
+        }
+        val length = min(data.size - offset, CHUNK_SIZE - lastChunkSize)
+        System.arraycopy(data, offset, chunks.last(), lastChunkSize, length)
+        lastChunkSize += length
+        offset += length
+      }
+      while (chunks.size > 1 && chunks.size.toLong() * CHUNK_SIZE > capacity) {
+        chunks.removeFirst()
+        firstChunkOffset += CHUNK_SIZE
+      }
+    }
+  }
+
+  /**
+   * Copies bytes starting at the absolute offset into the destination.
+   * @return number of bytes copied, less than requested if the range is not (or no longer) available
+   */
+  fun read(offset: Long, destination: ByteArray, destinationOffset: Int, length: Int): Int {
+    synchronized(lock) {
+      if (offset < firstChunkOffset) return 0
+      val available = min(length.toLong(), endOffsetLocked() - offset).toInt()
+      var copied = 0
+      while (copied < available) {
+        val relative = offset + copied - firstChunkOffset
+        val chunk = chunks[(relative / CHUNK_SIZE).toInt()]
+        val inChunk = (relative % CHUNK_SIZE).toInt()
+        val count = min(available - copied, CHUNK_SIZE - inChunk)
+        System.arraycopy(chunk, inChunk, destination, destinationOffset + copied, count)
+        copied += count
+      }
+      return copied
+    }
+  }
+
+  /**
+   * Finds the first occurrence of the pattern at or after the absolute offset.
+   * @return absolute offset of the match, or -1
+   */
+  fun indexOf(pattern: ByteArray, fromOffset: Long): Long {
+    if (pattern.isEmpty()) return -1
+    // search window by window to avoid holding the lock for the whole search
+    val window = ByteArray(CHUNK_SIZE + pattern.size - 1)
+    var position = fromOffset
+    while (true) {
+      // the oldest chunks may be discarded by appends between the windows, then the search continues after them
+      position = maxOf(position, startOffset)
+      val read = read(position, window, 0, window.size)
+      if (read < pattern.size) {
+        if (position < startOffset) continue
+        return -1
+      }
+      for (i in 0..read - pattern.size) {
+        if (matches(window, i, pattern)) return position + i
+      }
+      position += read - pattern.size + 1
+    }
+  }
+
+  fun clear() {
+    synchronized(lock) {
+      firstChunkOffset = endOffsetLocked()
+      chunks.clear()
+      lastChunkSize = CHUNK_SIZE
+    }
+  }
+
+  private fun matches(data: ByteArray, offset: Int, pattern: ByteArray): Boolean {
+    for (i in pattern.indices) {
+      if (data[offset + i] != pattern[i]) return false
+    }
+    return true
+  }
+}
@@ -0,0 +1,49 @@
+package com.intellij.plugins.serialmonitor.service
+
+import org.junit.Assert.*
+import org.junit.Test
+
+class SerialCaptureBufferTest {
+  @Test
+  fun `drain returns bytes in order`() {
+    val buffer = SerialCaptureBuffer(8)
+    assertNull(buffer.drain())
+
+    assertTrue(buffer.offer(byteArrayOf(1, 2, 3)))
+    assertTrue(buffer.offer(byteArrayOf(4, 5)))
+    assertArrayEquals(byteArrayOf(1, 2, 3, 4, 5), buffer.drain())
+    assertNull(buffer.drain())
+  }
+
+  @Test
+  fun `bytes that do not fit are dropped and counted`() {
+    val buffer = SerialCaptureBuffer(4)
+
+    assertTrue(buffer.offer(byteArrayOf(1, 2, 3)))
+    assertFalse(buffer.offer(byteArrayOf(4, 5, 6)))
+    assertEquals(6L, buffer.receivedBytes)
+    assertEquals(2L, buffer.droppedBytes)
+    assertArrayEquals(byteArrayOf(1, 2, 3, 4), buffer.drain())
+  }
+
+  @Test
+  fun `whole capacity is available after drain`() {
+    val buffer = SerialCaptureBuffer(4)
+    buffer.offer(byteArrayOf(1, 2, 3))
+    buffer.drain()
+
+    assertTrue(buffer.offer(byteArrayOf(4, 5, 6, 7)))
+    assertArrayEquals(byteArrayOf(4, 5, 6, 7), buffer.drain())
+  }
+
+  @Test
+  fun `clear resets data and counters`() {
+    val buffer = SerialCaptureBuffer(2)
+    buffer.offer(byteArrayOf(1, 2, 3))
+
+    buffer.clear()
+    assertNull(buffer.drain())
+    assertEquals(0L, buffer.receivedBytes)
+    assertEquals(0L, buffer.droppedBytes)
+  }
+}
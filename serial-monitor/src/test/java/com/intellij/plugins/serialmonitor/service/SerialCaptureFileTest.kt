@@ -0,0 +1,65 @@
+package com.intellij.plugins.serialmonitor.service
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.ByteArrayOutputStream
+import java.nio.file.Files
+
+class SerialCaptureFileTest {
+  @get:Rule
+  val tempDir = TemporaryFolder()
+
+  @Test
+  fun `file contains exactly the written bytes`() {
+    val path = tempDir.newFile("session.serialcap").toPath()
+    val data = ByteArray(100_000) { it.toByte() }
+
+    SerialCaptureFile(path).use {
+      it.write(data.copyOfRange(0, 10))
+      it.write(data.copyOfRange(10, data.size))
+      assertEquals(data.size.toLong(), it.length)
+    }
+
+    assertArrayEquals(data, Files.readAllBytes(path))
+  }
+
+  @Test
+  fun `existing content is replaced`() {
+    val path = tempDir.newFile("session.serialcap").toPath()
+    Files.write(path, ByteArray(1000) { 1 })
+
+    SerialCaptureFile(path).use { it.write(byteArrayOf(2, 3)) }
+
+    assertArrayEquals(byteArrayOf(2, 3), Files.readAllBytes(path))
+  }
+
+  @Test
+  fun `replay passes the content in chunks`() {
+    val path = tempDir.newFile("session.serialcap").toPath()
+    val data = ByteArray(2500) { (it * 7).toByte() }
+    SerialCaptureFile(path).use { it.write(data) }
+
+    val chunks = mutableListOf<ByteArray>()
+    SerialCaptureFile.replay(path, 1000) { chunks.add(it) }
+
+    assertEquals(listOf(1000, 1000, 500), chunks.map { it.size })
+    val replayed = ByteArrayOutputStream()
+    chunks.forEach { replayed.write(it) }
+    assertArrayEquals(data, replayed.toByteArray())
+  }
+
+  @Test
+  fun `empty capture replays nothing`() {
+    val path = tempDir.newFile("session.serialcap").toPath()
+    SerialCaptureFile(path).close()
+
+    val chunks = mutableListOf<ByteArray>()
+    SerialCaptureFile.replay(path, 1000) { chunks.add(it) }
+
+    assertEquals(0L, Files.size(path))
+    assertEquals(emptyList<ByteArray>(), chunks)
+  }
+}
@@ -0,0 +1,44 @@
+package com.intellij.plugins.serialmonitor.ui.console
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+private const val CHUNK = 64 * 1024
+
+class SerialByteStoreTest {
+  @Test
+  fun `match across chunk boundary`() {
+    val store = SerialByteStore(10L * CHUNK)
+    store.append(ByteArray(CHUNK - 1))
+    store.append(byteArrayOf(1, 2, 3))
+
+    assertEquals((CHUNK - 1).toLong(), store.indexOf(byteArrayOf(1, 2, 3), 0))
+    assertEquals(-1L, store.indexOf(byteArrayOf(1, 2, 3), CHUNK.toLong()))
+  }
+
+  @Test
+  fun `search from discarded offset starts at the oldest byte`() {
+    val store = SerialByteStore(2L * CHUNK)
+    store.append(ByteArray(3 * CHUNK))
+    store.append(byteArrayOf(7))
+    val start = store.startOffset
+
+    assertEquals(3L * CHUNK, store.indexOf(byteArrayOf(7), 0))
+    store.append(byteArrayOf(7))
+    assertEquals(3L * CHUNK, store.indexOf(byteArrayOf(7), start - 1))
+  }
+
+  @Test
+  fun `clear keeps offsets increasing`() {
+    val store = SerialByteStore(10L * CHUNK)
+    store.append(byteArrayOf(1, 2, 3))
+
+    store.clear()
+    assertEquals(3L, store.startOffset)
+    assertEquals(3L, store.endOffset)
+    assertEquals(-1L, store.indexOf(byteArrayOf(1), 0))
+
+    store.append(byteArrayOf(1))
+    assertEquals(3L, store.indexOf(byteArrayOf(1), 0))
+  }
+}
@@ -10,6 +10,17 @@ var __assign = (this && this.__assign) || function () {
     };
     return __assign.apply(this, arguments);
 };
+var __values = (this && this.__values) || function(o) {
+    var s = typeof Symbol === "function" && Symbol.iterator, m = s && o[s], i = 0;
+    if (m) return m.call(o);
+    if (o && typeof o.length === "number") return {
+        next: function () {
+            if (o && i >= o.length) o = void 0;
+            return { value: o && o[i++], done: !o };
+        }
+    };
+    throw new TypeError(s ? "Object is not iterable." : "Symbol.iterator is not defined.");
+};
 exports.__esModule = true;
 exports.TSLintPlugin = void 0;
 var utils_1 = require("../utils");
@@ -18,7 +29,13 @@ var TsLintCommands;
 (function (TsLintCommands) {
     TsLintCommands.GetErrors = "GetErrors";
     TsLintCommands.FixErrors = "FixErrors";
+    TsLintCommands.GetErrorsBatch = "GetErrorsBatch";
 })(TsLintCommands || (TsLintCommands = {}));
+/**
+ * Configurations are reused between batch requests and dropped when no batch comes for this time,
+ * so that the next run sees the changes made to the configuration files
+ */
+var BATCH_CACHE_TIMEOUT_MS = 10000;
 var Response = /** @class */ (function () {
     function Response() {
     }
@@ -26,6 +43,7 @@ var Response = /** @class */ (function () {
 }());
 var TSLintPlugin = /** @class */ (function () {
     function TSLintPlugin(state) {
+        this.configurations = new Map();
         this.linterApi = resolveTsLint(state.tslintPackagePath, state.packageJsonPath);
         this.additionalRulesDirectory = state.additionalRootDirectory;
     }
@@ -37,6 +55,9 @@ var TSLintPlugin = /** @class */ (function () {
             case TsLintCommands.FixErrors: {
                 return this.fixErrors(parsedObject.arguments);
             }
+            case TsLintCommands.GetErrorsBatch: {
+                return this.getErrorsBatch(parsedObject.arguments);
+            }
         }
         return null;
     };
@@ -65,6 +86,36 @@ var TSLintPlugin = /** @class */ (function () {
     TSLintPlugin.prototype.getErrors = function (toProcess) {
         return this.processLinting(toProcess, this.getOptions(false));
     };
+    /**
+     * Lints the files one by one the same way as GetErrors does, only the configurations are shared between the files.
+     * The output is a JSON array with an entry per file, an error in one file does not fail the others.
+     */
+    TSLintPlugin.prototype.getErrorsBatch = function (toProcess) {
+        var e_1, _a;
+        this.scheduleBatchCacheCleanup();
+        var entries = [];
+        try {
+            for (var _b = __values(toProcess.files), _c = _b.next(); !_c.done; _c = _b.next()) {
+                var file = _c.value;
+                try {
+                    var configuration = this.getCachedConfiguration(file.filePath, file.configPath);
+                    var result = this.processLinting(file, this.getOptions(false), configuration);
+                    entries.push("{\"filePath\":" + JSON.stringify(file.filePath) + ",\"failures\":" + (result.output || "[]") + "}");
+                }
+                catch (e) {
+                    entries.push(JSON.stringify({ filePath: file.filePath, error: e.toString() + "\n\n" + e.stack }));
+                }
+            }
+        }
+        catch (e_1_1) { e_1 = { error: e_1_1 }; }
+        finally {
+            try {
+                if (_c && !_c.done && (_a = _b["return"])) _a.call(_b);
+            }
+            finally { if (e_1) throw e_1.error; }
+        }
+        return { output: "[" + entries.join(",") + "]" };
+    };
     TSLintPlugin.prototype.fixErrors = function (toProcess) {
         //TODO. why here?
         var contents = (0, fs_1.readFileSync)(toProcess.filePath, "utf8");
@@ -77,10 +128,10 @@ var TSLintPlugin = /** @class */ (function () {
             rulesDirectory: this.additionalRulesDirectory
         };
     };
-    TSLintPlugin.prototype.processLinting = function (args, options) {
+    TSLintPlugin.prototype.processLinting = function (args, options, configuration) {
+        if (configuration === void 0) { configuration = this.getConfiguration(args.filePath, args.configPath); }
         var linter = this.linterApi.linter;
         var major = this.linterApi.version.major || 0;
-        var configuration = this.getConfiguration(args.filePath, args.configPath);
         if (major >= 4) {
             var tslint_1 = new linter(options);
             tslint_1.lint(args.filePath, args.content, configuration);
@@ -90,6 +141,24 @@ var TSLintPlugin = /** @class */ (function () {
         var tslint = new linter(args.filePath, args.content, options);
         return tslint.lint();
     };
+    TSLintPlugin.prototype.getCachedConfiguration = function (fileName, configFileName) {
+        var configuration = this.configurations.get(configFileName);
+        if (configuration === undefined) {
+            configuration = this.getConfiguration(fileName, configFileName);
+            this.configurations.set(configFileName, configuration);
+        }
+        return configuration;
+    };
+    TSLintPlugin.prototype.scheduleBatchCacheCleanup = function () {
+        var _this = this;
+        if (this.batchCacheTimer) {
+            clearTimeout(this.batchCacheTimer);
+        }
+        this.batchCacheTimer = setTimeout(function () {
+            _this.configurations.clear();
+            _this.batchCacheTimer = undefined;
+        }, BATCH_CACHE_TIMEOUT_MS);
+    };
     TSLintPlugin.prototype.getConfiguration = function (fileName, configFileName) {
         var majorVersion = this.linterApi.version.major;
         var configurationResult = this.linterApi.linter.findConfiguration(configFileName, fileName);
@@ -3,19 +3,23 @@ package com.intellij.lang.javascript.linter.tslint.execution;
 
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.intellij.lang.javascript.linter.tslint.TslintUtil;
 import com.intellij.lang.javascript.service.protocol.LocalFilePath;
 import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.util.text.StringUtil;
-import com.intellij.util.containers.ContainerUtil;
 import com.intellij.util.text.SemVer;
 import com.intellij.webcore.util.JsonUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 import static com.intellij.lang.javascript.linter.tslint.highlight.TsLintFixInfo.createTsLintFixInfo;
 
@@ -29,34 +33,88 @@ public final class TsLintOutputJsonParser {
   private final boolean myMyZeroBasedRowCol;
 
   @NotNull
-  private final List<TsLinterError> myErrors;
+  private final List<TsLinterError> myErrors = new ArrayList<>();
   @NotNull
   private final Gson myGson;
 
   public TsLintOutputJsonParser(@Nullable String path, final JsonElement root, boolean zeroBasedRowCol, @NotNull Gson gson) {
-    myPath = path;
-    myMyZeroBasedRowCol = zeroBasedRowCol;
-    myGson = gson;
+    this(path, zeroBasedRowCol, gson);
 
     if (root instanceof JsonNull || !root.isJsonArray()) {
       logError("root element is not array");
-      myErrors = ContainerUtil.emptyList();
     }
     else {
       final JsonArray array = root.getAsJsonArray();
       final int size = array.size();
-      ArrayList<TsLinterError> errors = new ArrayList<>();
       for (int i = 0; i < size; i++) {
-        final JsonElement element = array.get(i);
-        if (!element.isJsonObject()) {
-          logError("element under root is not object");
+        processElement(array.get(i));
+      }
+    }
+  }
+
+  private TsLintOutputJsonParser(@Nullable String path, boolean zeroBasedRowCol, @NotNull Gson gson) {
+    myPath = path;
+    myMyZeroBasedRowCol = zeroBasedRowCol;
+    myGson = gson;
+  }
+
+  /**
+   * Parses the output of a batch request, an array of {@code {"filePath": ..., "failures": [...]}} or
+   * {@code {"filePath": ..., "error": ...}} objects. The output is read element by element,
+   * errors of each file are passed to the consumer as soon as the file entry is read.
+   * A file-level error is reported as a single global error.
+   */
+  public static void parseBatch(@NotNull Reader input,
+                                boolean zeroBasedRowCol,
+                                @NotNull Gson gson,
+                                @NotNull BiConsumer<? super String, ? super List<TsLinterError>> consumer) throws IOException {
+    JsonReader reader = new JsonReader(input);
+    reader.beginArray();
+    while (reader.hasNext()) {
+      reader.beginObject();
+      TsLintOutputJsonParser parser = null;
+      String error = null;
+      while (reader.hasNext()) {
+        String name = reader.nextName();
+        if ("filePath".equals(name) && parser == null) {
+          parser = new TsLintOutputJsonParser(LocalFilePath.getPath(gson.getAdapter(LocalFilePath.class).read(reader)),
+                                              zeroBasedRowCol, gson);
+        }
+        else if ("failures".equals(name) && parser != null && reader.peek() == JsonToken.BEGIN_ARRAY) {
+          reader.beginArray();
+          while (reader.hasNext()) {
+            parser.processElement(JsonParser.parseReader(reader));
+          }
+          reader.endArray();
+        }
+        else if ("error".equals(name) && reader.peek() == JsonToken.STRING) {
+          error = reader.nextString();
         }
         else {
-          final JsonObject object = element.getAsJsonObject();
-          errors.addAll(processError(object));
+          reader.skipValue();
         }
       }
-      myErrors = errors;
+      reader.endObject();
+
+      if (parser == null) {
+        logError("no file path for batch entry");
+      }
+      else if (error != null) {
+        consumer.accept(parser.myPath, List.of(TsLinterError.createGlobalError(error))); //NON-NLS
+      }
+      else {
+        consumer.accept(parser.myPath, parser.getErrors());
+      }
+    }
+    reader.endArray();
+  }
+
+  private void processElement(@NotNull JsonElement element) {
+    if (!element.isJsonObject()) {
+      logError("element under root is not object");
+    }
+    else {
+      myErrors.addAll(processError(element.getAsJsonObject()));
     }
   }
 
@@ -108,11 +108,13 @@ public final class TsLintExternalAnnotator extends JSLinterWithInspectionExterna
   public JSLinterAnnotationResult annotate(@NotNull TsLinterInput collectedInfo) {
     return TslintLanguageServiceManager.getInstance(collectedInfo.getProject())
       .useService(collectedInfo.getVirtualFile(), collectedInfo.getState().getNodePackageRef(),
-                  service -> annotateWithService(collectedInfo, service));
+                  service -> annotateWithService(collectedInfo, service, !isOnTheFly()));
   }
 
   @Nullable
-  private static JSLinterAnnotationResult annotateWithService(@NotNull TsLinterInput collectedInfo, @Nullable TsLintLanguageService service) {
+  private static JSLinterAnnotationResult annotateWithService(@NotNull TsLinterInput collectedInfo,
+                                                              @Nullable TsLintLanguageService service,
+                                                              boolean batch) {
     VirtualFile config = collectedInfo.getConfig();
     final Project project = collectedInfo.getProject();
     final TsLintState linterState = collectedInfo.getState();
@@ -125,8 +127,12 @@ public final class TsLintExternalAnnotator extends JSLinterWithInspectionExterna
                                                  collectedInfo.getVirtualFile());
     if (interpreterAndPackageError != null) return JSLinterAnnotationResult.create(collectedInfo, interpreterAndPackageError, config);
 
-    final CompletableFuture<List<TsLinterError>> future = service.highlight(collectedInfo.getVirtualFile(),
-                                                                            config, collectedInfo.getFileContent(), linterState);
+    // a batch inspection lints many files in parallel, let the service combine them into few requests
+    final CompletableFuture<List<TsLinterError>> future = batch
+                                                          ? service.highlightInBatch(collectedInfo.getVirtualFile(), config,
+                                                                                     collectedInfo.getFileContent(), linterState)
+                                                          : service.highlight(collectedInfo.getVirtualFile(), config,
+                                                                              collectedInfo.getFileContent(), linterState);
     final List<TsLinterError> result;
     try {
       result = JSLanguageServiceUtil.awaitLanguageService(future, service, collectedInfo.getVirtualFile());
@@ -0,0 +1,127 @@
+// Copyright 2000-2023 JetBrains s.r.o. and contributors. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package com.intellij.lang.javascript.linter.tslint.service;
+
+import com.intellij.lang.javascript.linter.tslint.execution.TsLinterError;
+import com.intellij.openapi.util.io.FileUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Collects files to lint into batch requests.
+ * <p>
+ * A request is sent immediately if no batch is in flight. Otherwise the file waits, and all the files queued while
+ * the previous batch was processed are sent together (at most {@link #MAX_BATCH_SIZE} per request) as soon as it completes.
+ * So a single caller does not wait longer than with separate requests, and parallel callers, e.g. a batch inspection run,
+ * get their files linted in few requests.
+ * <p>
+ * A file may wait for several batches sent before it, so callers apply their timeout from the moment the batch of the file
+ * is sent, see {@link Entry#sent}. Each batch is given up after {@code batchTimeoutMs}, so waiting for the send is bounded too.
+ */
+final class TsLintBatchQueue {
+  static final int MAX_BATCH_SIZE = 64;
+
+  private final Function<List<Entry>, CompletableFuture<?>> mySender;
+  private final long myBatchTimeoutMs;
+  private final Deque<Entry> myPending = new ArrayDeque<>();
+  private boolean myInFlight;
+
+  static final class Entry {
+    final @NotNull String filePath;
+    final @NotNull String configPath;
+    final @NotNull String content;
+    final CompletableFuture<Void> sent = new CompletableFuture<>();
+    final CompletableFuture<List<TsLinterError>> result = new CompletableFuture<>();
+
+    private Entry(@NotNull String filePath, @NotNull String configPath, @NotNull String content) {
+      this.filePath = filePath;
+      this.configPath = configPath;
+      this.content = content;
+    }
+  }
+
+  /**
+   * @param sender sends a batch and completes the results of its entries; the returned future completes when the request is done
+   * @param batchTimeoutMs time after which the results of a batch are not awaited anymore and the next batch is sent
+   */
+  TsLintBatchQueue(@NotNull Function<List<Entry>, CompletableFuture<?>> sender, long batchTimeoutMs) {
+    mySender = sender;
+    myBatchTimeoutMs = batchTimeoutMs;
+  }
+
+  @NotNull
+  Entry add(@NotNull String filePath, @NotNull String configPath, @NotNull String content) {
+    Entry entry = new Entry(filePath, configPath, content);
+    synchronized (this) {
+      myPending.add(entry);
+      if (!myInFlight) {
+        sendNext();
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * Drops the entry if it was not sent yet, e.g. because the caller was canceled while waiting.
+   */
+  void remove(@NotNull Entry entry) {
+    synchronized (this) {
+      if (myPending.remove(entry)) {
+        entry.result.cancel(false);
+      }
+    }
+  }
+
+  static void complete(@NotNull List<Entry> batch, @Nullable String filePath, @NotNull List<TsLinterError> errors) {
+    for (Entry entry : batch) {
+      if (filePath == null || FileUtil.pathsEqual(entry.filePath, filePath)) {
+        entry.result.complete(errors);
+      }
+    }
+  }
+
+  private void sendNext() {
+    if (myPending.isEmpty()) {
+      myInFlight = false;
+      return;
+    }
+    List<Entry> batch = new ArrayList<>(Math.min(myPending.size(), MAX_BATCH_SIZE));
+    while (!myPending.isEmpty() && batch.size() < MAX_BATCH_SIZE) {
+      batch.add(myPending.poll());
+    }
+    myInFlight = true;
+
+    CompletableFuture<?> request;
+    try {
+      request = mySender.apply(batch).orTimeout(myBatchTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+    catch (RuntimeException e) {
+      request = CompletableFuture.failedFuture(e);
+    }
+    for (Entry entry : batch) {
+      entry.sent.complete(null);
+    }
+    request.whenComplete((result, throwable) -> {
+      for (Entry entry : batch) {
+        if (throwable != null && !(throwable instanceof TimeoutException)) {
+          entry.result.completeExceptionally(throwable);
+        }
+        else {
+          // timed out or not in the answer, e.g. the answer could not be parsed
+          entry.result.complete(null);
+        }
+      }
+      synchronized (this) {
+        sendNext();
+      }
+    });
+  }
+}
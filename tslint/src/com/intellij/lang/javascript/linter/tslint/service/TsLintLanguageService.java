@@ -16,6 +16,8 @@ import com.intellij.lang.javascript.linter.tslint.execution.TsLinterError;
 import com.intellij.lang.javascript.service.*;
 import com.intellij.lang.javascript.service.protocol.*;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.io.FileUtil;
 import com.intellij.openapi.util.text.StringUtil;
@@ -25,6 +27,8 @@ import com.intellij.util.text.SemVer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -37,6 +41,7 @@ public final class TsLintLanguageService extends JSLanguageServiceBase {
 
   private final @NotNull VirtualFile myWorkingDirectory;
   private final @NotNull NodePackage myNodePackage;
+  private final @NotNull TsLintBatchQueue myBatchQueue = new TsLintBatchQueue(this::sendBatch, JSLanguageServiceUtil.getTimeout());
 
   public TsLintLanguageService(@NotNull Project project, @NotNull NodePackage nodePackage, @NotNull VirtualFile workingDirectory) {
     super(project);
@@ -54,21 +59,45 @@ public final class TsLintLanguageService extends JSLanguageServiceBase {
                                                           @Nullable VirtualFile config,
                                                           @Nullable String content,
                                                           @NotNull TsLintState state) {
-    return createHighlightFuture(virtualFile, config, state,
-                                 (filePath, configPath) -> new GetErrorsCommand(filePath, configPath,StringUtil.notNullize(content)));
+    return createHighlightFuture(virtualFile, config, state, (filePath, configPath) -> executeCommand(
+      filePath, new GetErrorsCommand(LocalFilePath.create(filePath), LocalFilePath.create(configPath), StringUtil.notNullize(content))));
+  }
+
+  /**
+   * Same as {@link #highlight}, but the file is linted together with other files requested at the same time,
+   * see {@link TsLintBatchQueue}. The service reuses the configuration between the files of a batch.
+   * Waits until the batch of the file is sent, so that the usual timeout of the caller does not include the batches queued before it.
+   */
+  @Nullable
+  public CompletableFuture<List<TsLinterError>> highlightInBatch(@NotNull VirtualFile virtualFile,
+                                                                 @Nullable VirtualFile config,
+                                                                 @Nullable String content,
+                                                                 @NotNull TsLintState state) {
+    return createHighlightFuture(virtualFile, config, state, (filePath, configPath) -> {
+      TsLintBatchQueue.Entry entry = myBatchQueue.add(filePath, configPath, StringUtil.notNullize(content));
+      try {
+        ProgressIndicatorUtils.awaitWithCheckCanceled(entry.sent);
+      }
+      catch (ProcessCanceledException e) {
+        myBatchQueue.remove(entry);
+        throw e;
+      }
+      return entry.result;
+    });
   }
 
   @Nullable
   public CompletableFuture<List<TsLinterError>> highlightAndFix(@NotNull VirtualFile virtualFile, @NotNull TsLintState state) {
     VirtualFile config = TslintUtil.getConfig(state, myProject, virtualFile);
     //doesn't pass content (file should be saved before)
-    return createHighlightFuture(virtualFile, config, state, FixErrorsCommand::new);
+    return createHighlightFuture(virtualFile, config, state, (filePath, configPath) -> executeCommand(
+      filePath, new FixErrorsCommand(LocalFilePath.create(filePath), LocalFilePath.create(configPath))));
   }
 
   private CompletableFuture<List<TsLinterError>> createHighlightFuture(@NotNull VirtualFile virtualFile,
                                                                        @Nullable VirtualFile config,
                                                                        @NotNull TsLintState state,
-                                                                       @NotNull BiFunction<LocalFilePath,LocalFilePath, BaseCommand> commandProvider) {
+                                                                       @NotNull BiFunction<String, String, CompletableFuture<List<TsLinterError>>> requestProvider) {
     String configFilePath = JSLanguageServiceUtil.normalizePathDoNotFollowSymlinks(config);
     if (configFilePath == null) {
       if (state.getNodePackageRef() == AutodetectLinterPackage.INSTANCE) {
@@ -82,18 +111,56 @@ public final class TsLintLanguageService extends JSLanguageServiceBase {
       return null;
     }
 
+    return requestProvider.apply(path, configFilePath);
+  }
+
+  private CompletableFuture<List<TsLinterError>> executeCommand(@NotNull String path, @NotNull BaseCommand command) {
     final JSLanguageServiceQueue process = getProcess();
     if (process == null) {
       return CompletableFuture.completedFuture(Collections.singletonList(
         TsLinterError.createGlobalError(JSLanguageServiceUtil.getLanguageServiceCreationError(this))));
     }
-
-    //doesn't pass content (file should be saved before)
-    BaseCommand command = commandProvider.apply(LocalFilePath.create(path),
-                                                    LocalFilePath.create(configFilePath));
     return process.execute(command, createHighlightProcessor(path));
   }
 
+  @NotNull
+  private CompletableFuture<?> sendBatch(@NotNull List<TsLintBatchQueue.Entry> batch) {
+    final JSLanguageServiceQueue process = getProcess();
+    if (process == null) {
+      TsLintBatchQueue.complete(batch, null, Collections.singletonList(
+        TsLinterError.createGlobalError(JSLanguageServiceUtil.getLanguageServiceCreationError(this))));
+      return CompletableFuture.completedFuture(null);
+    }
+    Gson gson = JSLanguageServiceUtil.getGson(this);
+    CompletableFuture<Boolean> future = process.execute(new GetErrorsBatchCommand(batch), (object, answer) -> {
+      parseBatchResults(answer, batch, gson);
+      return Boolean.TRUE;
+    });
+    return future != null ? future : CompletableFuture.completedFuture(null);
+  }
+
+  private static void parseBatchResults(@NotNull JSLanguageServiceAnswer answer,
+                                        @NotNull List<TsLintBatchQueue.Entry> batch,
+                                        @NotNull Gson gson) {
+    final JsonObject element = answer.getElement();
+    final JsonElement error = element.get("error");
+    if (error != null) {
+      TsLintBatchQueue.complete(batch, null, Collections.singletonList(TsLinterError.createGlobalError(error.getAsString()))); //NON-NLS
+      return;
+    }
+    final JsonElement body = element.get("body");
+    if (body == null || !body.isJsonPrimitive()) return;
+    final SemVer tsLintVersion = SemVer.parseFromText(element.get("version").getAsString());
+    final boolean isZeroBased = TsLintOutputJsonParser.isVersionZeroBased(tsLintVersion);
+    try {
+      TsLintOutputJsonParser.parseBatch(new StringReader(body.getAsString()), isZeroBased, gson,
+                                        (path, errors) -> TsLintBatchQueue.complete(batch, path, new ArrayList<>(errors)));
+    }
+    catch (IOException | IllegalStateException | JsonParseException e) {
+      LOG.info("Problem parsing batch body: " + e.getMessage(), e);
+    }
+  }
+
   @NotNull
   private JSLanguageServiceCommandProcessor<List<TsLinterError>> createHighlightProcessor(@NotNull String path) {
     return (object, answer) -> parseResults(answer, path, JSLanguageServiceUtil.getGson(this));
@@ -180,6 +247,40 @@ public final class TsLintLanguageService extends JSLanguageServiceBase {
     }
   }
 
+  private static final class GetErrorsBatchCommand implements JSLanguageServiceCommand, JSLanguageServiceSimpleCommand,
+                                                                 JSLanguageServiceObject {
+    public List<BatchFile> files;
+
+    private GetErrorsBatchCommand(@NotNull List<TsLintBatchQueue.Entry> batch) {
+      files = ContainerUtil.map(batch, entry -> new BatchFile(LocalFilePath.create(entry.filePath),
+                                                              LocalFilePath.create(entry.configPath), entry.content));
+    }
+
+    @NotNull
+    @Override
+    public JSLanguageServiceObject toSerializableObject() {
+      return this;
+    }
+
+    @NotNull
+    @Override
+    public String getCommand() {
+      return "GetErrorsBatch";
+    }
+  }
+
+  private static final class BatchFile {
+    public LocalFilePath filePath;
+    public LocalFilePath configPath;
+    public String content;
+
+    private BatchFile(LocalFilePath filePath, LocalFilePath configPath, String content) {
+      this.filePath = filePath;
+      this.configPath = configPath;
+      this.content = content;
+    }
+  }
+
   private static final class FixErrorsCommand extends BaseCommand{
     private FixErrorsCommand(LocalFilePath filePath, @Nullable LocalFilePath configPath) {
       super(filePath, configPath);
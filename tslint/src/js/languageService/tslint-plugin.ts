@@ -6,8 +6,15 @@ import {readFileSync} from "fs"
 namespace TsLintCommands {
     export let GetErrors: string = "GetErrors";
     export let FixErrors: string = "FixErrors";
+    export let GetErrorsBatch: string = "GetErrorsBatch";
 }
 
+/**
+ * Configurations are reused between batch requests and dropped when no batch comes for this time,
+ * so that the next run sees the changes made to the configuration files
+ */
+const BATCH_CACHE_TIMEOUT_MS = 10000;
+
 type LinterApi = {
     linter: typeof Linter;
     version: Version
@@ -26,6 +33,9 @@ export class TSLintPlugin implements LanguagePlugin {
     private readonly linterApi: LinterApi;
     private readonly additionalRulesDirectory?: string;
 
+    private readonly configurations = new Map<string, IConfigurationFile>();
+    private batchCacheTimer?: NodeJS.Timer;
+
     constructor(state: PluginState) {
         this.linterApi = resolveTsLint(state.tslintPackagePath, state.packageJsonPath);
         this.additionalRulesDirectory = state.additionalRootDirectory;
@@ -39,6 +49,9 @@ export class TSLintPlugin implements LanguagePlugin {
             case TsLintCommands.FixErrors: {
                 return this.fixErrors(parsedObject.arguments);
             }
+            case TsLintCommands.GetErrorsBatch: {
+                return this.getErrorsBatch(parsedObject.arguments);
+            }
         }
 
         return null;
@@ -71,6 +84,25 @@ export class TSLintPlugin implements LanguagePlugin {
         return this.processLinting(toProcess, this.getOptions(false));
     }
 
+    /**
+     * Lints the files one by one the same way as GetErrors does, only the configurations are shared between the files.
+     * The output is a JSON array with an entry per file, an error in one file does not fail the others.
+     */
+    private getErrorsBatch(toProcess: GetErrorsBatchArguments): { output: string } {
+        this.scheduleBatchCacheCleanup();
+        const entries: string[] = [];
+        for (const file of toProcess.files) {
+            try {
+                const configuration = this.getCachedConfiguration(file.filePath, file.configPath);
+                const result = this.processLinting(file, this.getOptions(false), configuration);
+                entries.push("{\"filePath\":" + JSON.stringify(file.filePath) + ",\"failures\":" + (result.output || "[]") + "}");
+            } catch (e) {
+                entries.push(JSON.stringify({filePath: file.filePath, error: e.toString() + "\n\n" + e.stack}));
+            }
+        }
+        return {output: "[" + entries.join(",") + "]"};
+    }
+
     private fixErrors(toProcess: FixErrorsArguments): LintResult {
         //TODO. why here?
         let contents = readFileSync(toProcess.filePath, "utf8");
@@ -85,11 +117,12 @@ export class TSLintPlugin implements LanguagePlugin {
         };
     }
 
-    private processLinting(args: CommandArguments & { content: string }, options: ILinterOptions): LintResult {
+    private processLinting(args: CommandArguments & { content: string },
+                           options: ILinterOptions,
+                           configuration: IConfigurationFile = this.getConfiguration(args.filePath, args.configPath)): LintResult {
         let linter = this.linterApi.linter;
         let major = this.linterApi.version.major || 0;
 
-        let configuration = this.getConfiguration(args.filePath, args.configPath);
         if (major >= 4) {
             let tslint = new linter(options);
             tslint.lint(args.filePath, args.content, configuration);
@@ -100,6 +133,25 @@ export class TSLintPlugin implements LanguagePlugin {
         return tslint.lint();
     }
 
+    private getCachedConfiguration(fileName: string, configFileName: string): IConfigurationFile {
+        let configuration = this.configurations.get(configFileName);
+        if (configuration === undefined) {
+            configuration = this.getConfiguration(fileName, configFileName);
+            this.configurations.set(configFileName, configuration);
+        }
+        return configuration;
+    }
+
+    private scheduleBatchCacheCleanup() {
+        if (this.batchCacheTimer) {
+            clearTimeout(this.batchCacheTimer);
+        }
+        this.batchCacheTimer = setTimeout(() => {
+            this.configurations.clear();
+            this.batchCacheTimer = undefined;
+        }, BATCH_CACHE_TIMEOUT_MS);
+    }
+
     private getConfiguration(fileName: string, configFileName: string): IConfigurationFile {
         let majorVersion = this.linterApi.version.major;
         let configurationResult = this.linterApi.linter.findConfiguration(configFileName, fileName);
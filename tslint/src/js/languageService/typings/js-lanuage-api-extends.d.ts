@@ -62,4 +62,11 @@ interface GetErrorsArguments extends CommandArguments {
 }
 
 interface FixErrorsArguments extends CommandArguments {
-}
\ No newline at end of file
+}
+
+interface GetErrorsBatchArguments {
+    /**
+     * Files to check, usually sharing the same configuration
+     */
+    readonly files: GetErrorsArguments[];
+}
@@ -1,5 +1,7 @@
 package com.intellij.lang.javascript.linter.tslint;
 
+import com.intellij.lang.javascript.linter.tslint.execution.TsLintOutputJsonParserTest;
+import com.intellij.lang.javascript.linter.tslint.service.TsLintBatchQueueTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -10,7 +12,9 @@ import org.junit.runners.Suite;
   TsLintConfigHighlightingTest.class,
   TsLintResolveTest.class,
   TsLintCodeStyleImportBasicTest.class,
-  TsLintCodeStyleImportIntegrationTest.class
+  TsLintCodeStyleImportIntegrationTest.class,
+  TsLintOutputJsonParserTest.class,
+  TsLintBatchQueueTest.class
 })
 public class TsLintTestSuite {
 }
\ No newline at end of file
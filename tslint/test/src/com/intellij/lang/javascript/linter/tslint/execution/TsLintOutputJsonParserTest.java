@@ -0,0 +1,63 @@
+package com.intellij.lang.javascript.linter.tslint.execution;
+
+import com.google.gson.Gson;
+import com.intellij.javascript.nodejs.util.NodePackage;
+import com.intellij.lang.javascript.linter.tslint.service.TsLintLanguageService;
+import com.intellij.lang.javascript.service.JSLanguageServiceUtil;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TsLintOutputJsonParserTest extends BasePlatformTestCase {
+  private static final String FAILURE = """
+    {"name": "/src/a.ts", "failure": "Missing semicolon", "ruleName": "semicolon", "ruleSeverity": "ERROR",
+     "startPosition": {"line": 0, "character": 9}, "endPosition": {"line": 0, "character": 10}}""";
+
+  public void testParseBatch() throws IOException {
+    Map<String, List<TsLinterError>> results = parseBatch("[" +
+                                                          "{\"filePath\": \"/src/a.ts\", \"failures\": [" + FAILURE + "]}," +
+                                                          "{\"filePath\": \"/src/b.ts\", \"failures\": []}," +
+                                                          "{\"filePath\": \"/src/c.ts\", \"error\": \"Cannot find configuration\"}" +
+                                                          "]");
+
+    assertEquals(List.of("/src/a.ts", "/src/b.ts", "/src/c.ts"), List.copyOf(results.keySet()));
+
+    TsLinterError failure = assertOneElement(results.get("/src/a.ts"));
+    assertEquals("Missing semicolon", failure.getDescription());
+    assertEquals("semicolon", failure.getCode());
+    assertEquals(1, failure.getLine());
+    assertEquals(10, failure.getColumn());
+    assertFalse(failure.isGlobal());
+
+    assertEmpty(results.get("/src/b.ts"));
+
+    TsLinterError error = assertOneElement(results.get("/src/c.ts"));
+    assertTrue(error.isGlobal());
+    assertEquals("Cannot find configuration", error.getDescription());
+  }
+
+  public void testParseBatchSkipsEntryWithoutPath() throws IOException {
+    Map<String, List<TsLinterError>> results = parseBatch("[" +
+                                                          "{\"failures\": [" + FAILURE + "], \"unknown\": {\"nested\": 1}}," +
+                                                          "{\"filePath\": \"/src/b.ts\", \"failures\": []}" +
+                                                          "]");
+
+    assertEquals(List.of("/src/b.ts"), List.copyOf(results.keySet()));
+  }
+
+  private Map<String, List<TsLinterError>> parseBatch(String output) throws IOException {
+    TsLintLanguageService service =
+      new TsLintLanguageService(getProject(), new NodePackage(""), myFixture.getTempDirFixture().getFile(""));
+    Disposer.register(getTestRootDisposable(), service);
+    Gson gson = JSLanguageServiceUtil.getGson(service);
+
+    Map<String, List<TsLinterError>> results = new LinkedHashMap<>();
+    TsLintOutputJsonParser.parseBatch(new StringReader(output), false, gson, (path, errors) -> results.put(path, List.copyOf(errors)));
+    return results;
+  }
+}
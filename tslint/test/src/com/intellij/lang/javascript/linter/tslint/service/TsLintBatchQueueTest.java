@@ -0,0 +1,94 @@
+package com.intellij.lang.javascript.linter.tslint.service;
+
+import com.intellij.lang.javascript.linter.tslint.execution.TsLinterError;
+import com.intellij.testFramework.UsefulTestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class TsLintBatchQueueTest extends UsefulTestCase {
+  private final List<List<TsLintBatchQueue.Entry>> mySentBatches = Collections.synchronizedList(new ArrayList<>());
+  private final List<CompletableFuture<Object>> myRequests = Collections.synchronizedList(new ArrayList<>());
+
+  private TsLintBatchQueue createQueue(long batchTimeoutMs) {
+    return new TsLintBatchQueue(batch -> {
+      mySentBatches.add(batch);
+      CompletableFuture<Object> request = new CompletableFuture<>();
+      myRequests.add(request);
+      return request;
+    }, batchTimeoutMs);
+  }
+
+  public void testFilesQueuedWhileBatchInFlightAreSentTogether() {
+    TsLintBatchQueue queue = createQueue(TimeUnit.MINUTES.toMillis(1));
+    TsLintBatchQueue.Entry first = queue.add("/a.ts", "/tslint.json", "a");
+    TsLintBatchQueue.Entry second = queue.add("/b.ts", "/tslint.json", "b");
+    TsLintBatchQueue.Entry third = queue.add("/c.ts", "/tslint.json", "c");
+    assertTrue(first.sent.isDone());
+    assertFalse(second.sent.isDone());
+    assertEquals(1, mySentBatches.size());
+
+    List<TsLinterError> errors = List.of(TsLinterError.createGlobalError("error"));
+    TsLintBatchQueue.complete(mySentBatches.get(0), "/a.ts", errors);
+    myRequests.get(0).complete(null);
+
+    assertSame(errors, first.result.join());
+    assertTrue(second.sent.isDone());
+    assertTrue(third.sent.isDone());
+    assertEquals(2, mySentBatches.size());
+    assertEquals(List.of(second, third), mySentBatches.get(1));
+    assertFalse(second.result.isDone());
+
+    myRequests.get(1).complete(null);
+    // not in the answer
+    assertNull(second.result.join());
+    assertNull(third.result.join());
+  }
+
+  public void testBatchSizeIsLimited() {
+    TsLintBatchQueue queue = createQueue(TimeUnit.MINUTES.toMillis(1));
+    queue.add("/first.ts", "/tslint.json", "");
+    for (int i = 0; i < TsLintBatchQueue.MAX_BATCH_SIZE + 1; i++) {
+      queue.add("/" + i + ".ts", "/tslint.json", "");
+    }
+
+    myRequests.get(0).complete(null);
+    assertEquals(TsLintBatchQueue.MAX_BATCH_SIZE, mySentBatches.get(1).size());
+    myRequests.get(1).complete(null);
+    assertEquals(1, mySentBatches.get(2).size());
+  }
+
+  public void testTimedOutBatchDoesNotBlockNextOne() {
+    TsLintBatchQueue queue = createQueue(50);
+    TsLintBatchQueue.Entry first = queue.add("/a.ts", "/tslint.json", "a");
+    TsLintBatchQueue.Entry second = queue.add("/b.ts", "/tslint.json", "b");
+
+    // the request never completes
+    assertNull(first.result.orTimeout(10, TimeUnit.SECONDS).join());
+    second.sent.orTimeout(10, TimeUnit.SECONDS).join();
+    assertEquals(2, mySentBatches.size());
+  }
+
+  public void testRemovedEntryIsNotSent() {
+    TsLintBatchQueue queue = createQueue(TimeUnit.MINUTES.toMillis(1));
+    queue.add("/a.ts", "/tslint.json", "a");
+    TsLintBatchQueue.Entry removed = queue.add("/b.ts", "/tslint.json", "b");
+    TsLintBatchQueue.Entry kept = queue.add("/c.ts", "/tslint.json", "c");
+
+    queue.remove(removed);
+    assertTrue(removed.result.isCancelled());
+    myRequests.get(0).complete(null);
+    assertEquals(List.of(kept), mySentBatches.get(1));
+  }
+
+  public void testFailedRequestFailsItsEntries() {
+    TsLintBatchQueue queue = createQueue(TimeUnit.MINUTES.toMillis(1));
+    TsLintBatchQueue.Entry entry = queue.add("/a.ts", "/tslint.json", "a");
+
+    myRequests.get(0).completeExceptionally(new IllegalStateException("process died"));
+    assertTrue(entry.result.isCompletedExceptionally());
+  }
+}